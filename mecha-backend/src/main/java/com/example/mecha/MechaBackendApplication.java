@@ -1,7 +1,9 @@
 package com.example.mecha;
 
+import com.example.mecha.startup.StartupPhaseReport;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
@@ -9,7 +11,10 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class MechaBackendApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(MechaBackendApplication.class, args);
+		SpringApplication application = new SpringApplication(MechaBackendApplication.class);
+		// Ghi lại từng bước khởi động cho StartupPhaseReport và /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(StartupPhaseReport.TIMELINE_CAPACITY));
+		application.run(args);
 	}
 
 }
@@ -2,26 +2,35 @@
 package com.example.mecha.billing;
 
 import com.example.mecha.billing.dto.*;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.order.Order;
 import com.example.mecha.order.OrderRepository;
 import com.example.mecha.user.User;
 import com.example.mecha.user.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.mail.internet.MimeMessage;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -30,8 +39,11 @@ public class BillingService {
     private final QuotationRepository quotationRepository;
     private final InvoiceRepository invoiceRepository;
     private final OrderRepository orderRepository;
-    private final PdfGeneratorService pdfGeneratorService;
+    // OpenPDF chỉ nạp khi render PDF lần đầu (startup.lazy-beans)
+    private final ObjectProvider<PdfGeneratorService> pdfGeneratorService;
+    private final PdfDocumentStore pdfDocumentStore;
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
     // ============= QUOTATION =============
 
@@ -62,7 +74,7 @@ public class BillingService {
     @Transactional(readOnly = true)
     public QuotationDto getQuotation(Long id, User currentUser) {
         Quotation q = quotationRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "QUOTATION_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.QUOTATION_NOT_FOUND);
 
         checkOrderAccess(q.getOrder(), currentUser);
         return toDto(q);
@@ -75,21 +87,31 @@ public class BillingService {
                 .stream().map(this::toDto).toList();
     }
 
-    @Transactional(readOnly = true)
-    public byte[] getQuotationPdf(Long id, User currentUser) {
+    // Render 1 lần rồi lấy từ cache (PdfDocumentStore) cho các lần tải sau
+    @Transactional
+    public StoredPdf getQuotationPdf(Long id, User currentUser) {
         Quotation q = quotationRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "QUOTATION_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.QUOTATION_NOT_FOUND);
         checkOrderAccess(q.getOrder(), currentUser);
-        return pdfGeneratorService.generateQuotationPdf(q);
+        return resolveQuotationPdf(q);
+    }
+
+    private StoredPdf resolveQuotationPdf(Quotation q) {
+        return resolvePdf(
+                q.getPdfSha256(),
+                out -> pdfGeneratorService.getObject().writeQuotationPdf(q, out),
+                sha -> quotationRepository.replacePdfSha256(q.getId(), nullToEmpty(q.getPdfSha256()), sha) == 1,
+                () -> quotationRepository.findPdfSha256ById(q.getId())
+        );
     }
 
     @Transactional
     public void sendQuotationEmail(Long id, SendPdfEmailRequest request, User currentUser) {
         Quotation q = quotationRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "QUOTATION_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.QUOTATION_NOT_FOUND);
         checkOrderAccess(q.getOrder(), currentUser);
 
-        byte[] pdf = pdfGeneratorService.generateQuotationPdf(q);
+        StoredPdf pdf = resolveQuotationPdf(q);
         String subject = (request.getSubject() != null && !request.getSubject().isBlank())
                 ? request.getSubject()
                 : "Báo giá - " + q.getQuoteNumber();
@@ -98,7 +120,7 @@ public class BillingService {
                 : "Kính gửi quý khách,\n\nĐính kèm là báo giá cho đơn hàng " + q.getOrder().getOrderCode() + ".\n\nTrân trọng.";
 
         sendEmailWithAttachment(request.getTo(), subject, body,
-                "quotation-" + q.getQuoteNumber() + ".pdf", pdf);
+                "quotation-" + q.getQuoteNumber() + ".pdf", new FileSystemResource(pdf.path()));
         // TODO: log vào email_logs (module notification)
     }
 
@@ -142,7 +164,7 @@ public class BillingService {
     @Transactional(readOnly = true)
     public InvoiceDto getInvoice(Long id, User currentUser) {
         Invoice inv = invoiceRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "INVOICE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.INVOICE_NOT_FOUND);
 
         checkOrderAccess(inv.getOrder(), currentUser);
         return toDto(inv);
@@ -155,21 +177,60 @@ public class BillingService {
                 .stream().map(this::toDto).toList();
     }
 
-    @Transactional(readOnly = true)
-    public byte[] getInvoicePdf(Long id, User currentUser) {
+    // Hóa đơn đã phát hành thì PDF không đổi: render 1 lần, các lần sau lấy từ cache (PdfDocumentStore)
+    @Transactional
+    public StoredPdf getInvoicePdf(Long id, User currentUser) {
+        Invoice inv = invoiceRepository.findById(id)
+                .orElseThrow(() -> DomainErrors.INVOICE_NOT_FOUND);
+        checkOrderAccess(inv.getOrder(), currentUser);
+        return resolveInvoicePdf(inv);
+    }
+
+    private StoredPdf resolveInvoicePdf(Invoice inv) {
+        return resolvePdf(
+                inv.getPdfSha256(),
+                out -> pdfGeneratorService.getObject().writeInvoicePdf(inv, out),
+                sha -> invoiceRepository.replacePdfSha256(
+                        inv.getId(), inv.getRevision(), nullToEmpty(inv.getPdfSha256()), sha) == 1,
+                () -> invoiceRepository.findPdfSha256ById(inv.getId())
+        );
+    }
+
+    /**
+     * Phát hành lại hóa đơn: tăng revision, cập nhật ngày lập + tổng tiền theo đơn hiện tại.
+     * PDF cũ bị bỏ (xóa khỏi cache sau khi commit), lần tải kế tiếp sẽ render lại.
+     */
+    @Transactional
+    public InvoiceDto reissueInvoice(Long id, User currentUser) {
         Invoice inv = invoiceRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "INVOICE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.INVOICE_NOT_FOUND);
         checkOrderAccess(inv.getOrder(), currentUser);
-        return pdfGeneratorService.generateInvoicePdf(inv);
+
+        String oldSha256 = inv.getPdfSha256();
+        inv.setRevision(inv.getRevision() + 1);
+        inv.setIssueDate(Instant.now());
+        inv.setTotalAmount(inv.getOrder().getTotalAmount());
+        inv.setPdfSha256(null);
+        inv = invoiceRepository.save(inv);
+
+        if (oldSha256 != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pdfDocumentStore.delete(oldSha256);
+                }
+            });
+        }
+        return toDto(inv);
     }
 
     @Transactional
     public void sendInvoiceEmail(Long id, SendPdfEmailRequest request, User currentUser) {
         Invoice inv = invoiceRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "INVOICE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.INVOICE_NOT_FOUND);
         checkOrderAccess(inv.getOrder(), currentUser);
 
-        byte[] pdf = pdfGeneratorService.generateInvoicePdf(inv);
+        StoredPdf pdf = resolveInvoicePdf(inv);
         String subject = (request.getSubject() != null && !request.getSubject().isBlank())
                 ? request.getSubject()
                 : "Hóa đơn - " + inv.getInvoiceNumber();
@@ -178,7 +239,7 @@ public class BillingService {
                 : "Kính gửi quý khách,\n\nĐính kèm là hóa đơn cho đơn hàng " + inv.getOrder().getOrderCode() + ".\n\nTrân trọng.";
 
         sendEmailWithAttachment(request.getTo(), subject, body,
-                "invoice-" + inv.getInvoiceNumber() + ".pdf", pdf);
+                "invoice-" + inv.getInvoiceNumber() + ".pdf", new FileSystemResource(pdf.path()));
         // TODO: log vào email_logs (module notification)
     }
 
@@ -190,6 +251,7 @@ public class BillingService {
                 .orderCode(inv.getOrder().getOrderCode())
                 .issueDate(inv.getIssueDate())
                 .totalAmount(inv.getTotalAmount())
+                .revision(inv.getRevision())
                 .build();
     }
 
@@ -197,11 +259,49 @@ public class BillingService {
         return "INV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
+    // ============= Helper: PDF cache =============
+
+    /**
+     * Lấy PDF theo hash đã lưu trên entity. Đã có hash nhưng file không có trên node này thì render lại
+     * dưới đúng hash đó (không đổi ETag). Chưa có hash thì render, lưu vào cache rồi gắn hash vào entity
+     * bằng UPDATE có điều kiện; nếu request khác gắn trước thì dùng file của request đó và bỏ file vừa render.
+     */
+    private StoredPdf resolvePdf(
+            String knownSha256,
+            PdfDocumentStore.PdfContent content,
+            Predicate<String> attach,
+            Supplier<Optional<String>> reloadSha256
+    ) {
+        Optional<StoredPdf> cached = pdfDocumentStore.find(knownSha256);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (knownSha256 != null) {
+            return pdfDocumentStore.restore(knownSha256, content);
+        }
+
+        StoredPdf rendered = pdfDocumentStore.store(content);
+        if (attach.test(rendered.sha256())) {
+            return rendered;
+        }
+
+        Optional<StoredPdf> winner = reloadSha256.get().flatMap(pdfDocumentStore::find);
+        if (winner.isPresent() && !winner.get().sha256().equals(rendered.sha256())) {
+            pdfDocumentStore.delete(rendered.sha256());
+            return winner.get();
+        }
+        return rendered;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     // ============= Helper: access control + email =============
 
     private Order getOrderWithAccessCheck(Long orderId, User currentUser) {
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ORDER_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.ORDER_NOT_FOUND);
         checkOrderAccess(order, currentUser);
         return order;
     }
@@ -211,7 +311,7 @@ public class BillingService {
             return;
         }
         if (!order.getCustomer().getId().equals(currentUser.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "NOT_ALLOWED");
+            throw DomainErrors.NOT_ALLOWED;
         }
     }
 
@@ -220,7 +320,7 @@ public class BillingService {
             String subject,
             String body,
             String attachmentName,
-            byte[] pdfBytes
+            InputStreamSource pdf
     ) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
@@ -229,9 +329,20 @@ public class BillingService {
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(body, false);
-            helper.addAttachment(attachmentName, new ByteArrayResource(pdfBytes));
-
-            mailSender.send(message);
+            helper.addAttachment(attachmentName, pdf, "application/pdf");
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = MechaMetrics.OUTCOME_ERROR;
+            try {
+                mailSender.send(message);
+                outcome = MechaMetrics.OUTCOME_SUCCESS;
+            } finally {
+                sample.stop(Timer.builder(MechaMetrics.EMAIL_SEND)
+                        .tag(MechaMetrics.TAG_KIND, "billing")
+                        .tag(MechaMetrics.TAG_OUTCOME, outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
         } catch (MessagingException e) {
             throw new RuntimeException("Error sending email", e);
         }
@@ -0,0 +1,333 @@
+package com.example.mecha.billing;
+
+import com.example.mecha.billing.dto.BulkInvoiceJobDto;
+import com.example.mecha.billing.dto.BulkInvoiceRequest;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.order.Order;
+import com.example.mecha.order.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Xuất PDF hóa đơn hàng loạt (cuối tháng cho kế toán).
+ *
+ *  1. Load toàn bộ dữ liệu bằng 2 query set-based (hóa đơn + đơn + khách, rồi items + product/service)
+ *  2. Render song song trên pool cố định = số core; hóa đơn đã có trong PdfDocumentStore thì dùng lại
+ *  3. Ghi vào ZIP theo thứ tự render xong (render và ghi chạy chồng lên nhau)
+ *  4. Gắn hash của PDF mới render vào hóa đơn (1 transaction)
+ *
+ * Có 2 cách dùng: stream ZIP thẳng vào response, hoặc chạy job nền rồi poll tiến độ và tải file sau.
+ */
+@Service
+public class BulkInvoiceService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkInvoiceService.class);
+
+    static final int MAX_INVOICES = 2000;
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+    private static final int MAX_CONCURRENT_JOBS = 2;
+
+    private final InvoiceRepository invoiceRepository;
+    private final OrderRepository orderRepository;
+    private final ObjectProvider<PdfGeneratorService> pdfGeneratorService;
+    private final PdfDocumentStore pdfDocumentStore;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
+
+    // Render PDF là CPU-bound: số thread = số core, không tạo thêm
+    private final ExecutorService renderPool;
+    // Điều phối job nền (mỗi job tự dùng renderPool để render)
+    private final ExecutorService jobPool;
+
+    private final Map<String, BulkInvoiceJob> jobs = new ConcurrentHashMap<>();
+
+    public BulkInvoiceService(
+            InvoiceRepository invoiceRepository,
+            OrderRepository orderRepository,
+            ObjectProvider<PdfGeneratorService> pdfGeneratorService,
+            PdfDocumentStore pdfDocumentStore,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.invoiceRepository = invoiceRepository;
+        this.orderRepository = orderRepository;
+        this.pdfGeneratorService = pdfGeneratorService;
+        this.pdfDocumentStore = pdfDocumentStore;
+
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Đo hàng đợi / thời gian chờ / thời gian chạy của 2 pool (metric executor.*, tag name)
+        this.renderPool = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(cores, namedThreads("pdf-render-")), "pdfRender");
+        this.jobPool = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(MAX_CONCURRENT_JOBS, namedThreads("pdf-bulk-job-")), "pdfBulkJob");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobPool.shutdownNow();
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Stream ZIP thẳng ra {@code out}. Nếu client ngắt kết nối, các PDF chưa render bị hủy.
+     */
+    public int streamZip(BulkInvoiceRequest request, OutputStream out) throws IOException {
+        List<Invoice> invoices = loadInvoices(request);
+        writeZip(invoices, out, new AtomicInteger());
+        return invoices.size();
+    }
+
+    public BulkInvoiceJobDto startJob(BulkInvoiceRequest request) {
+        // Load + validate ngay để lỗi request trả về 400 thay vì job FAILED
+        List<Invoice> invoices = loadInvoices(request);
+
+        BulkInvoiceJob job = new BulkInvoiceJob(UUID.randomUUID().toString(), invoices.size());
+        jobs.put(job.id, job);
+        jobPool.submit(() -> runJob(job, invoices));
+        return job.toDto();
+    }
+
+    public BulkInvoiceJobDto getJob(String jobId) {
+        return findJob(jobId).toDto();
+    }
+
+    /**
+     * File ZIP của job đã xong. 409 nếu job chưa xong / bị lỗi.
+     */
+    public Path getJobResult(String jobId) {
+        BulkInvoiceJob job = findJob(jobId);
+        if (!"COMPLETED".equals(job.status)) {
+            throw DomainErrors.BULK_JOB_NOT_READY;
+        }
+        return job.result;
+    }
+
+    @Scheduled(fixedRate = 10 * 60 * 1000) // every 10 minutes
+    public void cleanupExpiredJobs() {
+        Instant expiredBefore = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(expiredBefore)) {
+                return false;
+            }
+            deleteQuietly(job.result);
+            return true;
+        });
+    }
+
+    private BulkInvoiceJob findJob(String jobId) {
+        BulkInvoiceJob job = jobs.get(jobId);
+        if (job == null) {
+            throw DomainErrors.BULK_JOB_NOT_FOUND;
+        }
+        return job;
+    }
+
+    private void runJob(BulkInvoiceJob job, List<Invoice> invoices) {
+        Path zipFile = null;
+        try {
+            zipFile = Files.createTempFile("invoices-" + job.id + "-", ".zip");
+            try (OutputStream out = Files.newOutputStream(zipFile)) {
+                writeZip(invoices, out, job.completed);
+            }
+            job.result = zipFile;
+            job.status = "COMPLETED";
+        } catch (Exception e) {
+            log.warn("Bulk invoice job {} failed: {}", job.id, e.getMessage());
+            deleteQuietly(zipFile);
+            job.error = e.getMessage();
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    private List<Invoice> loadInvoices(BulkInvoiceRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byRange = request.getFrom() != null && request.getTo() != null
+                && request.getFrom().isBefore(request.getTo());
+        if (!byIds && !byRange) {
+            throw DomainErrors.INVALID_BULK_REQUEST;
+        }
+
+        return readOnlyTx.execute(status -> {
+            List<Invoice> invoices = byIds
+                    ? invoiceRepository.findAllWithOrderByIdIn(request.getIds())
+                    : invoiceRepository.findAllWithOrderByIssueDateBetween(request.getFrom(), request.getTo());
+            if (invoices.size() > MAX_INVOICES) {
+                throw DomainErrors.TOO_MANY_INVOICES;
+            }
+            if (!invoices.isEmpty()) {
+                // Khởi tạo items của các Order đã nằm trong persistence context (cùng instance với invoice.getOrder())
+                List<Long> orderIds = invoices.stream().map(i -> i.getOrder().getId()).distinct().toList();
+                List<Order> orders = orderRepository.findAllWithItemsByIdIn(orderIds);
+                log.debug("Loaded {} invoices / {} orders for bulk PDF", invoices.size(), orders.size());
+            }
+            return invoices;
+        });
+    }
+
+    private void writeZip(List<Invoice> invoices, OutputStream out, AtomicInteger progress) throws IOException {
+        CompletionService<RenderedInvoice> completion = new ExecutorCompletionService<>(renderPool);
+        List<Future<RenderedInvoice>> futures = new ArrayList<>(invoices.size());
+        for (Invoice invoice : invoices) {
+            futures.add(completion.submit(() -> render(invoice)));
+        }
+
+        List<RenderedInvoice> rendered = new ArrayList<>();
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            // Nội dung PDF đã được nén sẵn, nén thêm chỉ tốn CPU
+            zip.setLevel(Deflater.BEST_SPEED);
+
+            for (int i = 0; i < invoices.size(); i++) {
+                RenderedInvoice result = takeResult(completion);
+                if (result.rendered()) {
+                    rendered.add(result);
+                }
+
+                zip.putNextEntry(new ZipEntry(entryName(result.invoice())));
+                Files.copy(result.pdf().path(), zip);
+                zip.closeEntry();
+                progress.incrementAndGet();
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+            attachHashes(rendered);
+        }
+    }
+
+    private RenderedInvoice takeResult(CompletionService<RenderedInvoice> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Bulk PDF interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Cannot render invoice PDF", e.getCause());
+        }
+    }
+
+    // Chạy trên renderPool: chỉ đọc entity đã load đầy đủ, không đụng tới DB
+    private RenderedInvoice render(Invoice invoice) {
+        Optional<StoredPdf> cached = pdfDocumentStore.find(invoice.getPdfSha256());
+        if (cached.isPresent()) {
+            return new RenderedInvoice(invoice, cached.get(), false);
+        }
+        PdfDocumentStore.PdfContent content = out -> pdfGeneratorService.getObject().writeInvoicePdf(invoice, out);
+        if (invoice.getPdfSha256() != null) {
+            // Đã gắn hash nhưng file không có trên node này: render lại dưới hash cũ, không gắn lại
+            return new RenderedInvoice(invoice, pdfDocumentStore.restore(invoice.getPdfSha256(), content), false);
+        }
+        StoredPdf pdf = pdfDocumentStore.store(content);
+        return new RenderedInvoice(invoice, pdf, true);
+    }
+
+    private void attachHashes(List<RenderedInvoice> rendered) {
+        if (rendered.isEmpty()) {
+            return;
+        }
+        try {
+            writeTx.executeWithoutResult(status -> {
+                for (RenderedInvoice r : rendered) {
+                    Invoice inv = r.invoice();
+                    String expected = inv.getPdfSha256() != null ? inv.getPdfSha256() : "";
+                    int updated = invoiceRepository.replacePdfSha256(
+                            inv.getId(), inv.getRevision(), expected, r.pdf().sha256());
+                    if (updated == 0) {
+                        // Hóa đơn vừa được reissue / request khác đã gắn PDF: bỏ file vừa render
+                        pdfDocumentStore.delete(r.pdf().sha256());
+                    }
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Cannot attach {} rendered invoice PDFs: {}", rendered.size(), e.getMessage());
+        }
+    }
+
+    private String entryName(Invoice invoice) {
+        String number = invoice.getInvoiceNumber() != null ? invoice.getInvoiceNumber() : String.valueOf(invoice.getId());
+        return "invoice-" + number + ".pdf";
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // file tạm, không ảnh hưởng
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record RenderedInvoice(Invoice invoice, StoredPdf pdf, boolean rendered) {
+    }
+
+    private static final class BulkInvoiceJob {
+        final String id;
+        final int total;
+        final AtomicInteger completed = new AtomicInteger();
+        final Instant createdAt = Instant.now();
+        volatile String status = "RUNNING";
+        volatile String error;
+        volatile Path result;
+        volatile Instant finishedAt;
+
+        BulkInvoiceJob(String id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+
+        BulkInvoiceJobDto toDto() {
+            return BulkInvoiceJobDto.builder()
+                    .id(id)
+                    .status(status)
+                    .total(total)
+                    .completed(completed.get())
+                    .error(error)
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -26,7 +26,7 @@ public class Invoice {
     private String invoiceNumber;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
 
     @Column(nullable = false)
@@ -35,6 +35,15 @@ public class Invoice {
     @Column(nullable = false, precision = 18, scale = 2)
     private BigDecimal totalAmount;
 
+    // Số lần phát hành lại hóa đơn (reissue). Hóa đơn đã phát hành thì PDF không đổi cho tới lần reissue tiếp theo
+    @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    @Builder.Default
+    private Integer revision = 0;
+
+    // SHA-256 của file PDF trong PdfDocumentStore (dùng làm ETag). null = chưa render
+    @Column(name = "pdf_sha256", length = 64)
+    private String pdfSha256;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
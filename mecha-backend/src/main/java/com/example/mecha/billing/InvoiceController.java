@@ -7,17 +7,22 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -29,6 +34,8 @@ import java.util.List;
 public class InvoiceController {
 
     private final BillingService billingService;
+    private final PdfResponseWriter pdfResponseWriter;
+    private final BulkInvoiceService bulkInvoiceService;
 
     // Tạo hóa đơn từ đơn hàng (ADMIN/STAFF)
     @PostMapping("/from-order/{orderId}")
@@ -68,17 +75,70 @@ public class InvoiceController {
     // Tải PDF hóa đơn
     @GetMapping("/{id}/pdf")
     @PreAuthorize("isAuthenticated()")
-    @Operation(summary = "Tải PDF hóa đơn (generate on-demand)")
-    public ResponseEntity<byte[]> downloadPdf(
+    @Operation(summary = "Tải PDF hóa đơn (cache theo nội dung, hỗ trợ ETag / If-None-Match)")
+    public void downloadPdf(
+            @PathVariable @Positive Long id,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        StoredPdf pdf = billingService.getInvoicePdf(id, currentUser);
+        pdfResponseWriter.write(request, response, pdf, "invoice-" + id + ".pdf");
+    }
+
+    // Phát hành lại hóa đơn (PDF cũ bị bỏ khỏi cache)
+    @PostMapping("/{id}/reissue")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Phát hành lại hóa đơn")
+    public ResponseEntity<InvoiceDto> reissue(
             @PathVariable @Positive Long id,
             @AuthenticationPrincipal User currentUser
     ) {
-        byte[] pdf = billingService.getInvoicePdf(id, currentUser);
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"invoice-" + id + ".pdf\"")
-                .body(pdf);
+        return ResponseEntity.ok(billingService.reissueInvoice(id, currentUser));
+    }
+
+    // ADMIN/STAFF: tải PDF nhiều hóa đơn trong 1 file ZIP (stream, render song song)
+    @PostMapping("/bulk/zip")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Tải ZIP PDF nhiều hóa đơn (theo danh sách id hoặc khoảng ngày lập)")
+    public void downloadBulkZip(
+            @Valid @RequestBody BulkInvoiceRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"invoices-" + LocalDate.now() + ".zip\"");
+        bulkInvoiceService.streamZip(request, response.getOutputStream());
+    }
+
+    // ADMIN/STAFF: tạo job nền xuất ZIP, poll tiến độ rồi tải sau
+    @PostMapping("/bulk/jobs")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Tạo job xuất ZIP PDF hóa đơn hàng loạt")
+    public ResponseEntity<BulkInvoiceJobDto> startBulkJob(
+            @Valid @RequestBody BulkInvoiceRequest request
+    ) {
+        return ResponseEntity.ok(bulkInvoiceService.startJob(request));
+    }
+
+    @GetMapping("/bulk/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Tiến độ job xuất ZIP PDF hóa đơn")
+    public ResponseEntity<BulkInvoiceJobDto> getBulkJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkInvoiceService.getJob(jobId));
+    }
+
+    @GetMapping("/bulk/jobs/{jobId}/zip")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Tải file ZIP của job đã hoàn tất")
+    public void downloadBulkJobResult(
+            @PathVariable String jobId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Path zip = bulkInvoiceService.getJobResult(jobId);
+        pdfResponseWriter.writeFile(request, response, zip, Files.size(zip), "\"" + jobId + "\"",
+                "application/zip", "attachment; filename=\"invoices-" + jobId + ".zip\"");
     }
 
     // Gửi PDF hóa đơn qua email
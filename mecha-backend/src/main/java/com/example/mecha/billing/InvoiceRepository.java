@@ -2,10 +2,58 @@
 package com.example.mecha.billing;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
     List<Invoice> findByOrderId(Long orderId);
+
+    // Xuất hàng loạt: lấy hóa đơn + đơn + khách trong 1 query (items lấy bằng OrderRepository.findAllWithItemsByIdIn)
+    @Query("""
+           SELECT i FROM Invoice i
+           JOIN FETCH i.order o
+           JOIN FETCH o.customer
+           WHERE i.id IN :ids
+           ORDER BY i.issueDate, i.id
+           """)
+    List<Invoice> findAllWithOrderByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+           SELECT i FROM Invoice i
+           JOIN FETCH i.order o
+           JOIN FETCH o.customer
+           WHERE i.issueDate >= :from
+             AND i.issueDate < :to
+           ORDER BY i.issueDate, i.id
+           """)
+    List<Invoice> findAllWithOrderByIssueDateBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT i.pdfSha256 FROM Invoice i WHERE i.id = :id")
+    Optional<String> findPdfSha256ById(@Param("id") Long id);
+
+    /**
+     * Gắn PDF vừa render vào hóa đơn nếu hóa đơn vẫn ở đúng revision và hash hiện tại
+     * vẫn là {@code expected} ("" = chưa có). Trả về 0 nếu request khác đã gắn trước / hóa đơn vừa reissue.
+     */
+    @Modifying
+    @Query("""
+           UPDATE Invoice i
+           SET i.pdfSha256 = :sha256
+           WHERE i.id = :id
+             AND i.revision = :revision
+             AND COALESCE(i.pdfSha256, '') = :expected
+           """)
+    int replacePdfSha256(
+            @Param("id") Long id,
+            @Param("revision") Integer revision,
+            @Param("expected") String expected,
+            @Param("sha256") String sha256
+    );
 }
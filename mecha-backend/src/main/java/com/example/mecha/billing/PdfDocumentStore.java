@@ -0,0 +1,131 @@
+package com.example.mecha.billing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Cache PDF trên disk theo nội dung: file được lưu tại {@code <cache-dir>/<2 ký tự đầu>/<sha256>.pdf}.
+ * PDF render thẳng vào file tạm (tính hash trong lúc ghi), sau đó move atomic sang tên theo hash.
+ * Entity (Invoice / Quotation) giữ hash để tra cứu, nên file đã ghi không bao giờ bị sửa.
+ * Mặc định cache nằm trên disk riêng của từng node; file thiếu thì {@link #restore} render lại
+ * dưới hash đã gắn, nên dùng chung {@code billing.pdf.cache-dir} chỉ để tránh render lại.
+ */
+@Component
+public class PdfDocumentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfDocumentStore.class);
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public PdfDocumentStore(@Value("${billing.pdf.cache-dir:${java.io.tmpdir}/mecha-pdf-cache}") String cacheDir) {
+        this.root = Paths.get(cacheDir).toAbsolutePath();
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create PDF cache directory " + root, e);
+        }
+    }
+
+    public Optional<StoredPdf> find(String sha256) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(sha256);
+        try {
+            return Files.isRegularFile(path)
+                    ? Optional.of(new StoredPdf(sha256, path, Files.size(path)))
+                    : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    public StoredPdf store(PdfContent content) {
+        return write(content, null);
+    }
+
+    /**
+     * Render lại PDF đã gắn hash {@code sha256} nhưng mất file trên node này (node khác, restart, dọn tmp):
+     * ghi vào đúng tên theo hash đã biết thay vì hash mới, để entity / ETag không đổi. PDF render
+     * deterministic nên thường trùng byte; khác (dữ liệu đơn đã sửa, bản OpenPDF khác) thì vẫn giữ tên cũ
+     * vì hóa đơn đã phát hành chỉ đổi PDF khi reissue.
+     */
+    public StoredPdf restore(String sha256, PdfContent content) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid PDF hash: " + sha256);
+        }
+        return write(content, sha256);
+    }
+
+    private StoredPdf write(PdfContent content, String knownSha256) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(root, "render-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024), digest)) {
+                content.writeTo(out);
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            if (knownSha256 != null && !knownSha256.equals(sha256)) {
+                log.debug("Restored PDF {} differs from the original render (now {})", knownSha256, sha256);
+                sha256 = knownSha256;
+            }
+            Path target = pathOf(sha256);
+            Files.createDirectories(target.getParent());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredPdf(sha256, target, Files.size(target));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store PDF", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(tmp);
+        }
+    }
+
+    public void delete(String sha256) {
+        if (sha256 != null && SHA256_HEX.matcher(sha256).matches()) {
+            deleteQuietly(pathOf(sha256));
+        }
+    }
+
+    private Path pathOf(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256 + ".pdf");
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete cached PDF {}: {}", path, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    public interface PdfContent {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -1,20 +1,33 @@
 // billing/PdfGeneratorService.java
 package com.example.mecha.billing;
 
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.order.Order;
 import com.example.mecha.order.OrderItem;
-import com.example.mecha.order.OrderItemRepository; // nếu cần, nhưng ta dùng order.getItems()
 import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfDate;
+import com.lowagie.text.pdf.PdfDictionary;
+import com.lowagie.text.pdf.PdfEncryption;
+import com.lowagie.text.pdf.PdfName;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.TimeZone;
 
 @Service
 public class PdfGeneratorService {
@@ -22,72 +35,95 @@ public class PdfGeneratorService {
     private static final DateTimeFormatter DATE_FORMAT =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")
                     .withLocale(new Locale("vi", "VN"))
-                    .withZone(ZoneId.systemDefault());
-
-    public byte[] generateQuotationPdf(Quotation quotation) {
+                    .withZone(ZoneId.of("Asia/Ho_Chi_Minh"));
+
+    // Font dựng sẵn 1 lần (chỉ đọc khi render nên dùng chung giữa các thread được)
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
+    private static final Font HEADING_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    private static final Font BODY_FONT = FontFactory.getFont(FontFactory.HELVETICA, 12);
+    private static final Font FOOTER_FONT = FontFactory.getFont(FontFactory.HELVETICA, 11);
+    private static final Font TABLE_HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font TABLE_CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+
+    @Timed(value = MechaMetrics.PDF_RENDER, histogram = true, extraTags = {MechaMetrics.TAG_TYPE, "quotation"})
+    public void writeQuotationPdf(Quotation quotation, OutputStream out) throws IOException {
         Order order = quotation.getOrder();
-        return generateOrderBasedPdf(
+        writeOrderBasedPdf(
+                "quotation-" + quotation.getId(),
                 "BÁO GIÁ",
                 "Quotation: " + quotation.getQuoteNumber(),
                 quotation.getIssueDate(),
                 quotation.getValidUntil(),
                 quotation.getTotalAmount(),
-                order
+                order,
+                out
         );
     }
 
-    public byte[] generateInvoicePdf(Invoice invoice) {
+    @Timed(value = MechaMetrics.PDF_RENDER, histogram = true, extraTags = {MechaMetrics.TAG_TYPE, "invoice"})
+    public void writeInvoicePdf(Invoice invoice, OutputStream out) throws IOException {
         Order order = invoice.getOrder();
-        return generateOrderBasedPdf(
+        writeOrderBasedPdf(
+                "invoice-" + invoice.getId() + "-r" + invoice.getRevision(),
                 "HÓA ĐƠN",
                 "Invoice: " + invoice.getInvoiceNumber(),
                 invoice.getIssueDate(),
                 null,
                 invoice.getTotalAmount(),
-                order
+                order,
+                out
         );
     }
 
-    private byte[] generateOrderBasedPdf(
+    /**
+     * Render thẳng vào {@code out} (file cache, zip entry...), không buffer cả document trong bộ nhớ.
+     * Không đóng {@code out}.
+     * Cùng dữ liệu thì ra cùng byte (hash dùng làm ETag): ngày tạo / sửa lấy theo issueDate,
+     * file ID lấy từ documentKey thay cho giờ hiện tại và ID ngẫu nhiên OpenPDF tự sinh.
+     */
+    private void writeOrderBasedPdf(
+            String documentKey,
             String title,
             String subTitle,
-            java.time.Instant issueDate,
-            java.time.Instant extraDate, // validUntil, nếu có
+            Instant issueDate,
+            Instant extraDate, // validUntil, nếu có
             BigDecimal totalAmount,
-            Order order
-    ) {
+            Order order,
+            OutputStream out
+    ) throws IOException {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
             Document document = new Document(PageSize.A4, 36, 36, 36, 36);
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
 
             document.open();
+            fixMetadata(writer, documentKey, issueDate);
 
             // Title
-            Paragraph pTitle = new Paragraph(title, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18));
+            Paragraph pTitle = new Paragraph(title, TITLE_FONT);
             pTitle.setAlignment(Element.ALIGN_CENTER);
             document.add(pTitle);
 
-            Paragraph pSub = new Paragraph(subTitle, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12));
+            Paragraph pSub = new Paragraph(subTitle, HEADING_FONT);
             pSub.setAlignment(Element.ALIGN_CENTER);
             document.add(pSub);
 
             document.add(new Paragraph(" "));
 
             // Info khách + đơn hàng
-            document.add(new Paragraph("Mã đơn hàng: " + order.getOrderCode()));
-            document.add(new Paragraph("Khách hàng: " + order.getCustomer().getFullName() + " (" + order.getCustomer().getEmail() + ")"));
-            document.add(new Paragraph("Số điện thoại: " + order.getContactPhone()));
-            document.add(new Paragraph("Địa chỉ: " + order.getShippingAddress()));
+            document.add(new Paragraph("Mã đơn hàng: " + order.getOrderCode(), BODY_FONT));
+            document.add(new Paragraph("Khách hàng: " + order.getCustomer().getFullName() + " (" + order.getCustomer().getEmail() + ")", BODY_FONT));
+            document.add(new Paragraph("Số điện thoại: " + order.getContactPhone(), BODY_FONT));
+            document.add(new Paragraph("Địa chỉ: " + order.getShippingAddress(), BODY_FONT));
 
-            document.add(new Paragraph("Ngày lập: " + DATE_FORMAT.format(issueDate)));
+            document.add(new Paragraph("Ngày lập: " + DATE_FORMAT.format(issueDate), BODY_FONT));
 
             if (extraDate != null) {
-                document.add(new Paragraph("Hiệu lực đến: " + DATE_FORMAT.format(extraDate)));
+                document.add(new Paragraph("Hiệu lực đến: " + DATE_FORMAT.format(extraDate), BODY_FONT));
             }
 
             document.add(new Paragraph(" "));
-            document.add(new Paragraph("Chi tiết:", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
+            document.add(new Paragraph("Chi tiết:", HEADING_FONT));
             document.add(new Paragraph(" "));
 
             // Bảng items
@@ -123,28 +159,47 @@ public class PdfGeneratorService {
 
             document.add(new Paragraph(" "));
             Paragraph total = new Paragraph("Tổng tiền: " + totalAmount.toPlainString(),
-                    FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12));
+                    HEADING_FONT);
             total.setAlignment(Element.ALIGN_RIGHT);
             document.add(total);
 
             document.add(new Paragraph(" "));
-            document.add(new Paragraph("Xin cảm ơn quý khách!", FontFactory.getFont(FontFactory.HELVETICA, 11)));
+            document.add(new Paragraph("Xin cảm ơn quý khách!", FOOTER_FONT));
 
             document.close();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating PDF", e);
+        } catch (DocumentException e) {
+            throw new IOException("Error generating PDF", e);
+        }
+    }
+
+    private static void fixMetadata(PdfWriter writer, String documentKey, Instant issueDate) {
+        Calendar date = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.ROOT);
+        date.setTimeInMillis(issueDate.toEpochMilli());
+        PdfDictionary info = writer.getInfo();
+        info.put(PdfName.CREATIONDATE, new PdfDate(date));
+        info.put(PdfName.MODDATE, new PdfDate(date));
+
+        // PdfWriter.close dùng FileID trong Info (nếu có) làm /ID của trailer
+        byte[] id = md5(documentKey);
+        info.put(PdfName.FILEID, PdfEncryption.createInfoId(id, id));
+    }
+
+    private static byte[] md5(String value) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
     private void addTableHeader(PdfPTable table, String text) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10)));
+        PdfPCell cell = new PdfPCell(new Phrase(text, TABLE_HEADER_FONT));
         cell.setHorizontalAlignment(Element.ALIGN_CENTER);
         table.addCell(cell);
     }
 
     private void addTableCell(PdfPTable table, String text) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, FontFactory.getFont(FontFactory.HELVETICA, 10)));
+        PdfPCell cell = new PdfPCell(new Phrase(text, TABLE_CELL_FONT));
         table.addCell(cell);
     }
 }
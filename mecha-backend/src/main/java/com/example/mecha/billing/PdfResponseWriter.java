@@ -0,0 +1,66 @@
+package com.example.mecha.billing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Trả file đã cache (PDF, ZIP hàng loạt) về client:
+ * - If-None-Match khớp ETag (hash nội dung) => 304, không đọc file
+ * - Tomcat hỗ trợ sendfile => giao file cho connector gửi thẳng từ kernel (zero-copy)
+ * - Ngược lại copy bằng FileChannel.transferTo
+ */
+@Component
+public class PdfResponseWriter {
+
+    // Request attribute của Tomcat (org.apache.coyote.Constants), dùng chuỗi để không phụ thuộc class của Tomcat
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    public void write(HttpServletRequest request, HttpServletResponse response, StoredPdf pdf, String filename)
+            throws IOException {
+        writeFile(request, response, pdf.path(), pdf.size(), pdf.etag(),
+                MediaType.APPLICATION_PDF_VALUE, "inline; filename=\"" + filename + "\"");
+    }
+
+    public void writeFile(HttpServletRequest request, HttpServletResponse response, Path path, long size,
+                          String etag, String contentType, String contentDisposition) throws IOException {
+        // Set ETag, trả 304 nếu client đã có đúng bản này
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        // private: tài liệu gắn với user; no-cache: luôn hỏi lại server bằng ETag
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, path.toString());
+            request.setAttribute(SENDFILE_START_ATTR, 0L);
+            request.setAttribute(SENDFILE_END_ATTR, size);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+}
@@ -26,7 +26,7 @@ public class Quotation {
     private String quoteNumber;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
 
     // Ngày phát hành
@@ -39,6 +39,10 @@ public class Quotation {
     @Column(nullable = false, precision = 18, scale = 2)
     private BigDecimal totalAmount;
 
+    // SHA-256 của file PDF trong PdfDocumentStore (dùng làm ETag). null = chưa render
+    @Column(name = "pdf_sha256", length = 64)
+    private String pdfSha256;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -7,17 +7,18 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -29,6 +30,7 @@ import java.util.List;
 public class QuotationController {
 
     private final BillingService billingService;
+    private final PdfResponseWriter pdfResponseWriter;
 
     // Tạo báo giá từ đơn hàng (ADMIN/STAFF)
     @PostMapping("/from-order/{orderId}")
@@ -68,17 +70,15 @@ public class QuotationController {
     // Tải PDF báo giá
     @GetMapping("/{id}/pdf")
     @PreAuthorize("isAuthenticated()")
-    @Operation(summary = "Tải PDF báo giá (generate on-demand)")
-    public ResponseEntity<byte[]> downloadPdf(
+    @Operation(summary = "Tải PDF báo giá (cache theo nội dung, hỗ trợ ETag / If-None-Match)")
+    public void downloadPdf(
             @PathVariable @Positive Long id,
-            @AuthenticationPrincipal User currentUser
-    ) {
-        byte[] pdf = billingService.getQuotationPdf(id, currentUser);
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"quotation-" + id + ".pdf\"")
-                .body(pdf);
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        StoredPdf pdf = billingService.getQuotationPdf(id, currentUser);
+        pdfResponseWriter.write(request, response, pdf, "quotation-" + id + ".pdf");
     }
 
     // Gửi PDF báo giá qua email
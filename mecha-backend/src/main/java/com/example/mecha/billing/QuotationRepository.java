@@ -2,10 +2,31 @@
 package com.example.mecha.billing;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface QuotationRepository extends JpaRepository<Quotation, Long> {
 
     List<Quotation> findByOrderId(Long orderId);
+
+    @Query("SELECT q.pdfSha256 FROM Quotation q WHERE q.id = :id")
+    Optional<String> findPdfSha256ById(@Param("id") Long id);
+
+    // Giống InvoiceRepository.replacePdfSha256 (báo giá không có reissue)
+    @Modifying
+    @Query("""
+           UPDATE Quotation q
+           SET q.pdfSha256 = :sha256
+           WHERE q.id = :id
+             AND COALESCE(q.pdfSha256, '') = :expected
+           """)
+    int replacePdfSha256(
+            @Param("id") Long id,
+            @Param("expected") String expected,
+            @Param("sha256") String sha256
+    );
 }
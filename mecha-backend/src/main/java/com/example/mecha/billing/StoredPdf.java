@@ -0,0 +1,14 @@
+package com.example.mecha.billing;
+
+import java.nio.file.Path;
+
+/**
+ * 1 file PDF trong {@link PdfDocumentStore}, định danh bằng SHA-256 nội dung.
+ */
+public record StoredPdf(String sha256, Path path, long size) {
+
+    // Strong ETag: nội dung file không bao giờ đổi với cùng hash
+    public String etag() {
+        return "\"" + sha256 + "\"";
+    }
+}
@@ -0,0 +1,27 @@
+// billing/dto/BulkInvoiceJobDto.java
+package com.example.mecha.billing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@Schema(description = "Tiến độ job xuất PDF hóa đơn hàng loạt")
+public class BulkInvoiceJobDto {
+
+    private String id;
+
+    @Schema(description = "RUNNING / COMPLETED / FAILED")
+    private String status;
+
+    private int total;
+    private int completed;
+
+    private String error;
+
+    private Instant createdAt;
+    private Instant finishedAt;
+}
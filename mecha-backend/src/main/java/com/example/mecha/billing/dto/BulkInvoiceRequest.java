@@ -0,0 +1,24 @@
+// billing/dto/BulkInvoiceRequest.java
+package com.example.mecha.billing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Schema(description = "Yêu cầu xuất PDF hàng loạt: theo danh sách id hoặc theo khoảng ngày lập hóa đơn")
+public class BulkInvoiceRequest {
+
+    @Schema(description = "Danh sách id hóa đơn (ưu tiên nếu có)")
+    @Size(max = 2000, message = "Tối đa 2000 hóa đơn mỗi lần")
+    private List<Long> ids;
+
+    @Schema(description = "Ngày lập từ (bao gồm)", example = "2025-01-01T00:00:00Z")
+    private Instant from;
+
+    @Schema(description = "Ngày lập đến (không bao gồm)", example = "2025-02-01T00:00:00Z")
+    private Instant to;
+}
@@ -22,4 +22,7 @@ public class InvoiceDto {
     private Instant issueDate;
 
     private BigDecimal totalAmount;
+
+    // Lần phát hành lại (0 = bản gốc)
+    private Integer revision;
 }
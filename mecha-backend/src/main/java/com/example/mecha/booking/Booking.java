@@ -44,6 +44,10 @@ public class Booking {
     @Column(nullable = false)
     private OffsetDateTime scheduledAt;
 
+    // Thời điểm dự kiến xong = scheduledAt + thời lượng dịch vụ lúc đặt (snapshot)
+    @Column(name = "ends_at")
+    private OffsetDateTime endsAt;
+
     // Địa chỉ thực hiện dịch vụ
     @Column(nullable = false, length = 500)
     private String addressLine;
@@ -81,6 +85,11 @@ public class Booking {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // Optimistic locking cho đổi trạng thái / gán kỹ thuật viên
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         Instant now = Instant.now();
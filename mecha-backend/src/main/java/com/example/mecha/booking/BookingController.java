@@ -4,6 +4,7 @@ package com.example.mecha.booking;
 import com.example.mecha.booking.dto.BookingAssignTechnicianRequest;
 import com.example.mecha.booking.dto.BookingCreateRequest;
 import com.example.mecha.booking.dto.BookingDto;
+import com.example.mecha.booking.dto.BookingPageDto;
 import com.example.mecha.booking.dto.BookingUpdateStatusRequest;
 import com.example.mecha.user.User;
 import com.example.mecha.user.UserRole;
@@ -68,7 +69,11 @@ public class BookingController {
     // ADMIN / STAFF: xem tất cả booking (filter)
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
-    @Operation(summary = "Danh sách tất cả booking (admin/staff)")
+    @Operation(
+            summary = "Danh sách tất cả booking (admin/staff)",
+            description = "Deprecated: trả về toàn bộ booking khớp filter, không phân trang. Dùng /api/bookings/page",
+            deprecated = true
+    )
     public ResponseEntity<List<BookingDto>> search(
             @RequestParam(required = false) BookingStatus status,
             @RequestParam(required = false)
@@ -79,6 +84,28 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.searchForAdmin(status, from, to));
     }
 
+    // ADMIN / STAFF: tìm kiếm booking, phân trang theo cursor
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(
+            summary = "Tìm kiếm booking (admin/staff), phân trang theo cursor",
+            description = "Sắp xếp theo scheduledAt giảm dần. Gửi lại nextCursor của trang trước để lấy trang tiếp theo."
+    )
+    public ResponseEntity<BookingPageDto> page(
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) @Positive Long technicianId,
+            @RequestParam(required = false) @Positive Long customerId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @Parameter(description = "nextCursor của trang trước") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Số booking mỗi trang (mặc định 20, tối đa 100)")
+            @RequestParam(required = false) @Positive Integer limit
+    ) {
+        return ResponseEntity.ok(bookingService.pageForAdmin(status, technicianId, customerId, from, to, cursor, limit));
+    }
+
     // Xem chi tiết booking (tùy quyền: owner, staff, technician, admin)
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
@@ -0,0 +1,36 @@
+package com.example.mecha.booking;
+
+import com.example.mecha.common.DomainErrors;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Vị trí trong danh sách booking (scheduledAt, id) của phần tử cuối trang trước.
+ * Client chỉ cần gửi lại chuỗi nextCursor, không cần hiểu nội dung.
+ */
+public record BookingCursor(OffsetDateTime scheduledAt, Long id) {
+
+    public static BookingCursor of(BookingSearchRow row) {
+        return new BookingCursor(row.scheduledAt(), row.id());
+    }
+
+    public String encode() {
+        String raw = scheduledAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            OffsetDateTime at = Instant.parse(raw.substring(0, sep)).atOffset(ZoneOffset.UTC);
+            return new BookingCursor(at, Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw DomainErrors.INVALID_CURSOR;
+        }
+    }
+}
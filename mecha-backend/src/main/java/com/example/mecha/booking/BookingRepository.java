@@ -1,32 +1,25 @@
 // booking/BookingRepository.java  (thêm method)
 package com.example.mecha.booking;
 
+import com.example.mecha.schedule.AssignmentCandidateRow;
+import com.example.mecha.schedule.BusyWindow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
 
     List<Booking> findByCustomerIdOrderByScheduledAtDesc(Long customerId);
 
     List<Booking> findByTechnicianIdOrderByScheduledAtDesc(Long technicianId);
 
-    @Query(value = """
-           SELECT * FROM bookings b
-           WHERE (CAST(:status AS VARCHAR) IS NULL OR b.status = CAST(:status AS VARCHAR))
-             AND (CAST(:from AS TIMESTAMP) IS NULL OR b.scheduled_at >= CAST(:from AS TIMESTAMP))
-             AND (CAST(:to AS TIMESTAMP) IS NULL OR b.scheduled_at <= CAST(:to AS TIMESTAMP))
-           ORDER BY b.scheduled_at DESC
-           """, nativeQuery = true)
-    List<Booking> search(
-            @Param("status") String status,
-            @Param("from") OffsetDateTime from,
-            @Param("to") OffsetDateTime to
-    );
-
     @Query("""
            SELECT COUNT(b) > 0 FROM Booking b
            WHERE b.customer.id = :userId
@@ -37,4 +30,79 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("userId") Long userId,
             @Param("serviceId") Long serviceId
     );
+
+    /**
+     * Đổi trạng thái booking bằng 1 câu UPDATE có điều kiện theo version.
+     * Trả về 0 nếu booking đã bị thay đổi bởi transaction khác.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+           UPDATE Booking b
+           SET b.status = :status,
+               b.note = :note,
+               b.updatedAt = :now,
+               b.version = COALESCE(b.version, 0) + 1
+           WHERE b.id = :id
+             AND COALESCE(b.version, 0) = :version
+           """)
+    int updateStatusIfVersion(
+            @Param("id") Long id,
+            @Param("status") BookingStatus status,
+            @Param("note") String note,
+            @Param("now") Instant now,
+            @Param("version") long version
+    );
+
+    @Query("""
+           SELECT new com.example.mecha.schedule.BusyWindow(b.id, t.id, b.scheduledAt, b.endsAt)
+           FROM Booking b LEFT JOIN b.technician t
+           WHERE b.status IN :statuses
+             AND b.endsAt > :endsAfter
+           """)
+    List<BusyWindow> findBusyWindows(
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("endsAfter") OffsetDateTime endsAfter
+    );
+
+    @Query("""
+           SELECT new com.example.mecha.schedule.BusyWindow(b.id, t.id, b.scheduledAt, b.endsAt)
+           FROM Booking b LEFT JOIN b.technician t
+           WHERE b.id = :id
+             AND b.status IN :statuses
+             AND b.endsAt IS NOT NULL
+           """)
+    Optional<BusyWindow> findBusyWindow(
+            @Param("id") Long id,
+            @Param("statuses") Collection<BookingStatus> statuses
+    );
+
+    @Query("""
+           SELECT new com.example.mecha.schedule.BusyWindow(b.id, t.id, b.scheduledAt, b.endsAt)
+           FROM Booking b LEFT JOIN b.technician t
+           WHERE b.id IN :ids
+             AND b.status IN :statuses
+             AND b.endsAt IS NOT NULL
+           """)
+    List<BusyWindow> findBusyWindowsByIdIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("statuses") Collection<BookingStatus> statuses
+    );
+
+    /**
+     * Mọi booking còn chiếm lịch giao với [from, to): cả booking đã gán (cố định) và chưa gán (cần phân công).
+     */
+    @Query("""
+           SELECT new com.example.mecha.schedule.AssignmentCandidateRow(
+               b.id, t.id, b.status, s.type, b.scheduledAt, b.endsAt, b.addressLine)
+           FROM Booking b JOIN b.service s LEFT JOIN b.technician t
+           WHERE b.status IN :statuses
+             AND b.scheduledAt < :to
+             AND b.endsAt > :from
+           ORDER BY b.scheduledAt, b.id
+           """)
+    List<AssignmentCandidateRow> findAssignmentCandidates(
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
 }
@@ -0,0 +1,8 @@
+package com.example.mecha.booking;
+
+/**
+ * Event phát ra khi khung giờ / kỹ thuật viên của booking thay đổi (tạo mới, gán kỹ thuật viên).
+ * Đổi trạng thái dùng {@link BookingStatusChangedEvent}.
+ */
+public record BookingScheduleChangedEvent(Long bookingId) {
+}
@@ -0,0 +1,18 @@
+package com.example.mecha.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Tìm kiếm booking trả về projection {@link BookingSearchRow}, sắp xếp (scheduledAt DESC, id DESC).
+ */
+public interface BookingSearchRepository {
+
+    int UNLIMITED = 0;
+
+    /**
+     * @param limit số dòng tối đa; {@link #UNLIMITED} (hoặc {@code <= 0}) là không giới hạn
+     */
+    List<BookingSearchRow> searchRows(Specification<Booking> spec, int limit);
+}
@@ -0,0 +1,63 @@
+package com.example.mecha.booking;
+
+import com.example.mecha.servicecatalog.ServiceEntity;
+import com.example.mecha.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class BookingSearchRepositoryImpl implements BookingSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingSearchRow> searchRows(Specification<Booking> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingSearchRow> cq = cb.createQuery(BookingSearchRow.class);
+        Root<Booking> b = cq.from(Booking.class);
+        Join<Booking, ServiceEntity> s = b.join("service");
+        Join<Booking, User> c = b.join("customer");
+        Join<Booking, User> t = b.join("technician", JoinType.LEFT);
+
+        cq.select(cb.construct(BookingSearchRow.class,
+                b.get("id"),
+                s.get("id"),
+                s.get("name"),
+                c.get("id"),
+                c.get("fullName"),
+                t.get("id"),
+                t.get("fullName"),
+                b.get("scheduledAt"),
+                b.get("endsAt"),
+                b.get("addressLine"),
+                b.get("contactPhone"),
+                b.get("note"),
+                b.get("status"),
+                b.get("paymentMethod"),
+                b.get("paymentStatus"),
+                b.get("priceAtBooking"),
+                b.get("createdAt")));
+
+        Predicate where = spec.toPredicate(b, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        cq.orderBy(cb.desc(b.get("scheduledAt")), cb.desc(b.get("id")));
+
+        TypedQuery<BookingSearchRow> query = entityManager.createQuery(cq);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.mecha.booking;
+
+import com.example.mecha.order.PaymentMethod;
+import com.example.mecha.order.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+/**
+ * 1 dòng kết quả tìm kiếm booking: cột của booking + tên dịch vụ / khách / kỹ thuật viên,
+ * lấy trong cùng 1 câu SELECT (không load entity, không lazy-load từng quan hệ).
+ */
+public record BookingSearchRow(
+        Long id,
+        Long serviceId,
+        String serviceName,
+        Long customerId,
+        String customerName,
+        Long technicianId,
+        String technicianName,
+        OffsetDateTime scheduledAt,
+        OffsetDateTime endsAt,
+        String addressLine,
+        String contactPhone,
+        String note,
+        BookingStatus status,
+        PaymentMethod paymentMethod,
+        PaymentStatus paymentStatus,
+        BigDecimal priceAtBooking,
+        Instant createdAt
+) {
+}
@@ -4,9 +4,13 @@ package com.example.mecha.booking;
 import com.example.mecha.booking.dto.BookingAssignTechnicianRequest;
 import com.example.mecha.booking.dto.BookingCreateRequest;
 import com.example.mecha.booking.dto.BookingDto;
+import com.example.mecha.booking.dto.BookingPageDto;
 import com.example.mecha.booking.dto.BookingUpdateStatusRequest;
+import com.example.mecha.common.DomainErrors;
 import com.example.mecha.order.PaymentMethod;
 import com.example.mecha.order.PaymentStatus;
+import com.example.mecha.schedule.TechnicianScheduleService;
+import com.example.mecha.schedule.TechnicianSkillService;
 import com.example.mecha.servicecatalog.ServiceEntity;
 import com.example.mecha.servicecatalog.ServiceRepository;
 import com.example.mecha.servicecatalog.ServiceStatus;
@@ -14,11 +18,16 @@ import com.example.mecha.user.User;
 import com.example.mecha.user.UserRepository;
 import com.example.mecha.user.UserRole;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.List;
 
@@ -26,24 +35,39 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
+    // Số lần thử lại khi UPDATE có điều kiện bị xung đột version
+    private static final int MAX_STATUS_UPDATE_ATTEMPTS = 3;
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final BookingRepository bookingRepository;
     private final ServiceRepository serviceRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TechnicianScheduleService technicianScheduleService;
+    private final TechnicianSkillService technicianSkillService;
 
     // USER / STAFF / ADMIN: đặt lịch
     @Transactional
     public BookingDto createBooking(BookingCreateRequest request, User currentUser) {
         ServiceEntity service = serviceRepository.findById(request.getServiceId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SERVICE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.SERVICE_NOT_FOUND);
 
         if (service.getStatus() != ServiceStatus.ACTIVE) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "SERVICE_NOT_ACTIVE");
+            throw DomainErrors.SERVICE_NOT_ACTIVE;
         }
 
+        OffsetDateTime endsAt = technicianScheduleService.endOf(request.getScheduledAt(), service);
+        technicianScheduleService.requireCapacity(request.getScheduledAt(), endsAt, service.getType());
+
         Booking booking = Booking.builder()
                 .service(service)
                 .customer(currentUser)
                 .scheduledAt(request.getScheduledAt())
+                .endsAt(endsAt)
                 .addressLine(request.getAddressLine())
                 .contactPhone(request.getContactPhone())
                 .note(request.getNote())
@@ -54,6 +78,7 @@ public class BookingService {
                 .build();
 
         booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingScheduleChangedEvent(booking.getId()));
         return toDto(booking);
     }
 
@@ -71,22 +96,58 @@ public class BookingService {
                 .stream().map(this::toDto).toList();
     }
 
-    // ADMIN / STAFF: xem tất cả booking (filter theo status, from, to)
+    /**
+     * ADMIN / STAFF: xem tất cả booking (filter theo status, from, to).
+     *
+     * @deprecated dùng {@link #pageForAdmin}. Vẫn trả về toàn bộ booking khớp filter (không cắt bớt)
+     * cho tới khi màn hình booking của adminweb chuyển sang /api/bookings/page.
+     */
+    @Deprecated
     @Transactional(readOnly = true)
     public List<BookingDto> searchForAdmin(BookingStatus status, OffsetDateTime from, OffsetDateTime to) {
-        String statusStr = status != null ? status.name() : null;
-        return bookingRepository.search(statusStr, from, to)
+        return bookingRepository.searchRows(BookingSpecifications.filter(status, null, null, from, to),
+                        BookingSearchRepository.UNLIMITED)
                 .stream().map(this::toDto).toList();
     }
 
+    // ADMIN / STAFF: tìm kiếm booking, phân trang theo cursor (scheduledAt DESC, id DESC)
+    @Transactional(readOnly = true)
+    public BookingPageDto pageForAdmin(
+            BookingStatus status,
+            Long technicianId,
+            Long customerId,
+            OffsetDateTime from,
+            OffsetDateTime to,
+            String cursor,
+            Integer limit
+    ) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Specification<Booking> spec = BookingSpecifications.filter(status, technicianId, customerId, from, to);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(BookingSpecifications.after(BookingCursor.decode(cursor)));
+        }
+
+        // Lấy dư 1 dòng để biết còn trang sau hay không (không cần COUNT)
+        List<BookingSearchRow> rows = bookingRepository.searchRows(spec, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<BookingSearchRow> items = hasMore ? rows.subList(0, size) : rows;
+
+        return BookingPageDto.builder()
+                .items(items.stream().map(this::toDto).toList())
+                .nextCursor(hasMore ? BookingCursor.of(items.get(items.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
     // xem chi tiết booking (check quyền)
     @Transactional(readOnly = true)
     public BookingDto getByIdForUser(Long id, User currentUser) {
         Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "BOOKING_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.BOOKING_NOT_FOUND);
 
         if (!canView(booking, currentUser)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "NOT_ALLOWED");
+            throw DomainErrors.NOT_ALLOWED;
         }
 
         return toDto(booking);
@@ -95,57 +156,84 @@ public class BookingService {
     // Thay đổi trạng thái booking
     @Transactional
     public BookingDto updateStatus(Long id, BookingUpdateStatusRequest request, User currentUser) {
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "BOOKING_NOT_FOUND"));
-
         BookingStatus newStatus = request.getStatus();
 
-        // User thường chỉ được hủy booking của mình
-        if (currentUser.getRole() == UserRole.USER) {
-            if (!booking.getCustomer().getId().equals(currentUser.getId())) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "NOT_ALLOWED");
-            }
-            if (newStatus != BookingStatus.CANCELLED) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "USER_CAN_ONLY_CANCEL_BOOKING");
+        for (int attempt = 1; attempt <= MAX_STATUS_UPDATE_ATTEMPTS; attempt++) {
+            Booking booking = bookingRepository.findById(id)
+                    .orElseThrow(() -> DomainErrors.BOOKING_NOT_FOUND);
+            BookingStatus current = booking.getStatus();
+
+            // User thường chỉ được hủy booking của mình
+            if (currentUser.getRole() == UserRole.USER) {
+                if (!booking.getCustomer().getId().equals(currentUser.getId())) {
+                    throw DomainErrors.NOT_ALLOWED;
+                }
+                if (newStatus != BookingStatus.CANCELLED) {
+                    throw DomainErrors.USER_CAN_ONLY_CANCEL_BOOKING;
+                }
             }
-            if (booking.getStatus() == BookingStatus.COMPLETED || booking.getStatus() == BookingStatus.CANCELLED) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "BOOKING_ALREADY_FINALIZED");
+
+            if (current.isFinal()) {
+                throw DomainErrors.BOOKING_ALREADY_FINALIZED;
             }
-        } else {
-            // STAFF / TECHNICIAN / ADMIN: được đổi sang các trạng thái khác
-            if (booking.getStatus() == BookingStatus.COMPLETED || booking.getStatus() == BookingStatus.CANCELLED) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "BOOKING_ALREADY_FINALIZED");
+            if (!current.canTransitionTo(newStatus)) {
+                throw DomainErrors.INVALID_BOOKING_STATUS_TRANSITION;
             }
-        }
 
-        booking.setStatus(newStatus);
+            // lưu note (ghi chú lý do hủy / cập nhật)
+            String note = request.getNote() != null ? request.getNote() : booking.getNote();
+            long version = booking.getVersion() != null ? booking.getVersion() : 0L;
 
-        // lưu note (ghi chú lý do hủy / cập nhật)
-        if (request.getNote() != null) {
-            booking.setNote(request.getNote());
+            int updated = bookingRepository.updateStatusIfVersion(id, newStatus, note, Instant.now(), version);
+            if (updated == 1) {
+                if (current != newStatus) {
+                    eventPublisher.publishEvent(new BookingStatusChangedEvent(id, current, newStatus, version + 1));
+                }
+                // persistence context đã được clear sau UPDATE → đọc lại bản mới nhất
+                return toDto(bookingRepository.findById(id)
+                        .orElseThrow(() -> DomainErrors.BOOKING_NOT_FOUND));
+            }
+
+            log.info("Booking {} version conflict (attempt {}/{}), reloading", id, attempt, MAX_STATUS_UPDATE_ATTEMPTS);
         }
 
-        return toDto(booking);
+        throw new OptimisticLockingFailureException("BOOKING_CONCURRENT_MODIFICATION");
     }
 
     // Gán kỹ thuật viên (ADMIN / STAFF)
     @Transactional
     public BookingDto assignTechnician(Long id, BookingAssignTechnicianRequest request, User currentUser) {
         if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.STAFF) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "ONLY_ADMIN_OR_STAFF_CAN_ASSIGN_TECHNICIAN");
+            throw DomainErrors.ONLY_ADMIN_OR_STAFF_CAN_ASSIGN_TECHNICIAN;
         }
 
         Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "BOOKING_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.BOOKING_NOT_FOUND);
 
         User technician = userRepository.findById(request.getTechnicianId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "TECHNICIAN_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.TECHNICIAN_NOT_FOUND);
 
         if (technician.getRole() != UserRole.TECHNICIAN) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "USER_IS_NOT_TECHNICIAN");
+            throw DomainErrors.USER_IS_NOT_TECHNICIAN;
+        }
+        technicianSkillService.requireSkill(technician.getId(), booking.getService().getType());
+
+        if (!booking.getStatus().isFinal()) {
+            OffsetDateTime endsAt = booking.getEndsAt() != null
+                    ? booking.getEndsAt()
+                    : technicianScheduleService.endOf(booking.getScheduledAt(), booking.getService());
+            booking.setEndsAt(endsAt);
+            // Kiểm tra nhanh trên lịch trong bộ nhớ; exclusion constraint ở DB chặn nốt trường hợp đua giữa các node
+            technicianScheduleService.requireFree(technician.getId(), booking.getScheduledAt(), endsAt, booking.getId());
         }
 
         booking.setTechnician(technician);
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw DomainErrors.TECHNICIAN_SCHEDULE_CONFLICT;
+        }
+        eventPublisher.publishEvent(new BookingScheduleChangedEvent(booking.getId()));
         return toDto(booking);
     }
 
@@ -161,6 +249,28 @@ public class BookingService {
         return booking.getCustomer().getId().equals(currentUser.getId());
     }
 
+    private BookingDto toDto(BookingSearchRow r) {
+        return BookingDto.builder()
+                .id(r.id())
+                .serviceId(r.serviceId())
+                .serviceName(r.serviceName())
+                .customerId(r.customerId())
+                .customerName(r.customerName())
+                .technicianId(r.technicianId())
+                .technicianName(r.technicianName())
+                .scheduledAt(r.scheduledAt())
+                .endsAt(r.endsAt())
+                .addressLine(r.addressLine())
+                .contactPhone(r.contactPhone())
+                .note(r.note())
+                .status(r.status())
+                .paymentMethod(r.paymentMethod())
+                .paymentStatus(r.paymentStatus())
+                .priceAtBooking(r.priceAtBooking())
+                .createdAt(r.createdAt())
+                .build();
+    }
+
     private BookingDto toDto(Booking b) {
         return BookingDto.builder()
                 .id(b.getId())
@@ -171,6 +281,7 @@ public class BookingService {
                 .technicianId(b.getTechnician() != null ? b.getTechnician().getId() : null)
                 .technicianName(b.getTechnician() != null ? b.getTechnician().getFullName() : null)
                 .scheduledAt(b.getScheduledAt())
+                .endsAt(b.getEndsAt())
                 .addressLine(b.getAddressLine())
                 .contactPhone(b.getContactPhone())
                 .note(b.getNote())
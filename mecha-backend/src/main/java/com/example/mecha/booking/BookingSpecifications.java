@@ -0,0 +1,68 @@
+package com.example.mecha.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Điều kiện lọc Booking cho trang tìm kiếm admin. Chỉ filter nào có giá trị mới được đưa vào WHERE
+ * để Postgres chọn đúng index (status / technician_id, scheduled_at DESC, id DESC).
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> filter(
+            BookingStatus status,
+            Long technicianId,
+            Long customerId,
+            OffsetDateTime from,
+            OffsetDateTime to
+    ) {
+        Specification<Booking> spec = Specification.where(null);
+        if (status != null) {
+            spec = spec.and(hasStatus(status));
+        }
+        if (technicianId != null) {
+            spec = spec.and(forTechnician(technicianId));
+        }
+        if (customerId != null) {
+            spec = spec.and(forCustomer(customerId));
+        }
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("scheduledAt"), from));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("scheduledAt"), to));
+        }
+        return spec;
+    }
+
+    public static Specification<Booking> hasStatus(BookingStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    // So sánh trực tiếp cột technician_id, không join sang users
+    public static Specification<Booking> forTechnician(Long technicianId) {
+        return (root, query, cb) -> cb.equal(root.get("technician").get("id"), technicianId);
+    }
+
+    public static Specification<Booking> forCustomer(Long customerId) {
+        return (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+    }
+
+    /**
+     * Keyset: các booking đứng sau cursor theo thứ tự (scheduledAt DESC, id DESC).
+     * Điều kiện scheduledAt <= cursor được thêm riêng để Postgres dùng nó làm index condition.
+     */
+    public static Specification<Booking> after(BookingCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("scheduledAt"), cursor.scheduledAt()),
+                cb.or(
+                        cb.lessThan(root.get("scheduledAt"), cursor.scheduledAt()),
+                        cb.lessThan(root.get("id"), cursor.id())
+                )
+        );
+    }
+}
@@ -1,10 +1,39 @@
-// booking/BookingStatus.java
 package com.example.mecha.booking;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     PENDING,       // user vừa đặt
     CONFIRMED,     // đã xác nhận (bởi staff)
     IN_PROGRESS,   // đang thực hiện
     COMPLETED,     // hoàn thành
-    CANCELLED      // đã hủy
+    CANCELLED;     // đã hủy
+
+    /**
+     * Các trạng thái còn chiếm lịch kỹ thuật viên (khớp với exclusion constraint trên bảng bookings).
+     */
+    public static final Set<BookingStatus> SCHEDULE_BLOCKING = EnumSet.of(PENDING, CONFIRMED, IN_PROGRESS);
+
+    /**
+     * Bảng chuyển trạng thái booking: chỉ cho phép đi tiến (PENDING -> CONFIRMED -> IN_PROGRESS -> COMPLETED),
+     * được phép bỏ qua bước trung gian, và hủy ở bất kỳ bước nào chưa kết thúc.
+     * COMPLETED và CANCELLED là trạng thái cuối.
+     */
+    public Set<BookingStatus> allowedTransitions() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, IN_PROGRESS, COMPLETED, CANCELLED);
+            case CONFIRMED -> EnumSet.of(IN_PROGRESS, COMPLETED, CANCELLED);
+            case IN_PROGRESS -> EnumSet.of(COMPLETED, CANCELLED);
+            case COMPLETED, CANCELLED -> EnumSet.noneOf(BookingStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(BookingStatus next) {
+        return this == next || allowedTransitions().contains(next);
+    }
+
+    public boolean isFinal() {
+        return allowedTransitions().isEmpty();
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.mecha.booking;
+
+/**
+ * Event phát ra sau mỗi lần đổi trạng thái booking thành công.
+ */
+public record BookingStatusChangedEvent(
+        Long bookingId,
+        BookingStatus fromStatus,
+        BookingStatus toStatus,
+        Long version
+) {
+}
@@ -40,6 +40,9 @@ public class BookingDto {
 
     private OffsetDateTime scheduledAt;
 
+    @Schema(description = "Thời điểm dự kiến xong (scheduledAt + thời lượng dịch vụ)")
+    private OffsetDateTime endsAt;
+
     private String addressLine;
 
     private String contactPhone;
@@ -0,0 +1,22 @@
+package com.example.mecha.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "1 trang booking (phân trang theo cursor)")
+public class BookingPageDto {
+
+    @Schema(description = "Các booking, lịch hẹn muộn nhất trước")
+    private List<BookingDto> items;
+
+    @Schema(description = "Cursor để lấy trang tiếp theo. null nếu đã hết.")
+    private String nextCursor;
+
+    @Schema(description = "Còn trang tiếp theo hay không", example = "true")
+    private boolean hasMore;
+}
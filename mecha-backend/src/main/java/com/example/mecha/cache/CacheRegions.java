@@ -0,0 +1,20 @@
+package com.example.mecha.cache;
+
+/**
+ * Tên region của Hibernate second-level cache. Mỗi region có giới hạn số phần tử riêng
+ * trong src/main/resources/ehcache.xml (thiếu region nào thì Hibernate báo lỗi lúc khởi động).
+ */
+public final class CacheRegions {
+
+    public static final String SERVICES = "services";
+    public static final String PRODUCT_CATEGORIES = "product-categories";
+    public static final String PRODUCT_CATEGORY_CHILDREN = "product-categories.children";
+    public static final String PRODUCT_TIER_PRICES = "product-tier-prices";
+    public static final String PRODUCT_TIER_PRICE_COLLECTIONS = "products.tier-prices";
+
+    // Query cache cho các query đọc dữ liệu tham chiếu (services theo status, tier price theo product)
+    public static final String REFERENCE_QUERIES = "reference-queries";
+
+    private CacheRegions() {
+    }
+}
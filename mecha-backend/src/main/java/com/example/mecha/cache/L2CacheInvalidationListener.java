@@ -0,0 +1,171 @@
+package com.example.mecha.cache;
+
+import com.example.mecha.product.CategoryTreeChangedEvent;
+import com.example.mecha.product.Product;
+import com.example.mecha.product.ProductCategory;
+import com.example.mecha.product.ProductTierPrice;
+import com.example.mecha.servicecatalog.ServiceEntity;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Xóa entry L2 cache khi dữ liệu tham chiếu đổi ở bất kỳ đâu (node khác, JdbcTemplate, SQL tay).
+ *
+ * Trigger trên services / product_categories / product_tier_prices (db/migration/V14) gọi
+ * pg_notify('l2_cache_invalidation', 'bảng:id[:id chủ sở hữu]'); Postgres chỉ gửi notify khi transaction commit.
+ * Mỗi node giữ 1 connection LISTEN riêng và evict entity / collection tương ứng + toàn bộ query cache.
+ * Connection đó mở thẳng bằng DriverManager tới spring.datasource.url (primary), không mượn từ Hikari:
+ * giữ suốt vòng đời app nên không được chiếm 1 slot pool / 1 permit của datasource-limiter.
+ * Mất kết nối thì evict hết các region (có thể đã lỡ notify) rồi LISTEN lại.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "l2-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class L2CacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(L2CacheInvalidationListener.class);
+
+    static final String CHANNEL = "l2_cache_invalidation";
+
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private static final String CATEGORY_CHILDREN_ROLE = ProductCategory.class.getName() + ".children";
+    private static final String TIER_PRICES_ROLE = Product.class.getName() + ".tierPrices";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listenLoop, "l2-cache-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                evictAll();
+                log.info("Listening for L2 cache invalidations on channel {}", CHANNEL);
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        handle(notifications);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("L2 cache invalidation listener failed, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Properties info = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            info.setProperty("user", username);
+        }
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+        // Dễ nhận ra trong pg_stat_activity
+        info.setProperty("ApplicationName", "mecha-l2-cache-listener");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), info);
+    }
+
+    private void handle(PGNotification[] notifications) {
+        Cache cache = cache();
+        for (PGNotification n : notifications) {
+            String[] parts = n.getParameter().split(":");
+            try {
+                Long id = Long.valueOf(parts[1]);
+                switch (parts[0]) {
+                    case "services" -> cache.evictEntityData(ServiceEntity.class, id);
+                    case "product_categories" -> {
+                        cache.evictEntityData(ProductCategory.class, id);
+                        cache.evictCollectionData(CATEGORY_CHILDREN_ROLE);
+                        eventPublisher.publishEvent(new CategoryTreeChangedEvent(id));
+                    }
+                    case "product_tier_prices" -> {
+                        cache.evictEntityData(ProductTierPrice.class, id);
+                        if (parts.length > 2) {
+                            cache.evictCollectionData(TIER_PRICES_ROLE, Long.valueOf(parts[2]));
+                        } else {
+                            cache.evictCollectionData(TIER_PRICES_ROLE);
+                        }
+                    }
+                    default -> log.debug("Ignoring L2 cache invalidation for {}", n.getParameter());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Bad L2 cache invalidation payload '{}': {}", n.getParameter(), e.getMessage());
+            }
+        }
+        // Query cache không biết bảng nào đổi từ ngoài Hibernate: xóa hết (chỉ chứa dữ liệu tham chiếu)
+        cache.evictQueryRegions();
+    }
+
+    private void evictAll() {
+        Cache cache = cache();
+        cache.evictEntityData(ServiceEntity.class);
+        cache.evictEntityData(ProductCategory.class);
+        cache.evictEntityData(ProductTierPrice.class);
+        cache.evictCollectionData(CATEGORY_CHILDREN_ROLE);
+        cache.evictCollectionData(TIER_PRICES_ROLE);
+        cache.evictQueryRegions();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.mecha.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Tỉ lệ hit theo từng region của L2 cache (gauge hibernate.l2.hit.ratio, tag region).
+ * Số hit / miss tuyệt đối đã có ở hibernate.second.level.cache.requests (hibernate-micrometer).
+ * Cần hibernate.generate_statistics=true.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "l2-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private static final String[] DOMAIN_REGIONS = {
+            CacheRegions.SERVICES,
+            CacheRegions.PRODUCT_CATEGORIES,
+            CacheRegions.PRODUCT_CATEGORY_CHILDREN,
+            CacheRegions.PRODUCT_TIER_PRICES,
+            CacheRegions.PRODUCT_TIER_PRICE_COLLECTIONS
+    };
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : DOMAIN_REGIONS) {
+            register(registry, statistics, region, s -> s.getDomainDataRegionStatistics(region));
+        }
+        // Tạo sẵn region query cache: Hibernate nhớ luôn kết quả null nếu thống kê của region được đọc
+        // trước lần query đầu tiên (scrape sớm), sau đó mọi lần miss query cache đều ném NullPointerException
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+                .getQueryResultsCache(CacheRegions.REFERENCE_QUERIES);
+        register(registry, statistics, CacheRegions.REFERENCE_QUERIES,
+                s -> s.getQueryRegionStatistics(CacheRegions.REFERENCE_QUERIES));
+    }
+
+    private static void register(MeterRegistry registry, Statistics statistics, String region,
+                                 Function<Statistics, CacheRegionStatistics> lookup) {
+        Gauge.builder("hibernate.l2.hit.ratio", statistics, s -> hitRatio(s, lookup))
+                .tag("region", region)
+                .description("Tỉ lệ hit của region L2 cache từ lúc khởi động")
+                .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics, Function<Statistics, CacheRegionStatistics> lookup) {
+        CacheRegionStatistics stats;
+        try {
+            stats = lookup.apply(statistics);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN; // region chưa được tạo
+        }
+        if (stats == null) {
+            return Double.NaN;
+        }
+        long hits = stats.getHitCount();
+        long total = hits + stats.getMissCount();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.mecha.cart;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Giỏ hàng đang hoạt động trong {@link CartStore}: các dòng hiện tại + thay đổi chưa ghi xuống DB.
+ * Thay đổi được gộp theo dòng: sửa số lượng nhiều lần giữa 2 lần flush chỉ ghi 1 lần.
+ *
+ * Không thread-safe: mọi truy cập giữ lock của shard chứa giỏ. flushLock đảm bảo mỗi giỏ
+ * chỉ có 1 lần flush tại 1 thời điểm (thứ tự ghi đúng thứ tự thay đổi).
+ */
+final class ActiveCart {
+
+    final long userId;
+    final long cartId;
+    final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LinkedHashMap<Long, CartLine> lines = new LinkedHashMap<>();
+    private final Map<Long, CartLine> pendingUpserts = new HashMap<>();
+    private final Set<Long> pendingDeletes = new HashSet<>();
+    long lastAccessNanos;
+
+    ActiveCart(long userId, long cartId, List<CartLine> persisted) {
+        this.userId = userId;
+        this.cartId = cartId;
+        for (CartLine line : persisted) {
+            lines.put(line.id(), line);
+        }
+    }
+
+    record Pending(long cartId, List<CartLine> upserts, List<Long> deletes) {
+        boolean isEmpty() {
+            return upserts.isEmpty() && deletes.isEmpty();
+        }
+    }
+
+    Collection<CartLine> lines() {
+        return lines.values();
+    }
+
+    CartLine line(Long id) {
+        return lines.get(id);
+    }
+
+    void put(CartLine line) {
+        lines.put(line.id(), line);
+        pendingUpserts.put(line.id(), line);
+    }
+
+    boolean remove(Long id) {
+        if (lines.remove(id) == null) {
+            return false;
+        }
+        pendingUpserts.remove(id);
+        pendingDeletes.add(id);
+        return true;
+    }
+
+    void clear() {
+        for (Long id : new ArrayList<>(lines.keySet())) {
+            remove(id);
+        }
+    }
+
+    boolean hasPending() {
+        return !pendingUpserts.isEmpty() || !pendingDeletes.isEmpty();
+    }
+
+    Pending drain() {
+        Pending pending = new Pending(cartId, List.copyOf(pendingUpserts.values()), List.copyOf(pendingDeletes));
+        pendingUpserts.clear();
+        pendingDeletes.clear();
+        return pending;
+    }
+
+    /**
+     * Ghi thất bại: đưa lại các thay đổi chưa bị thay đổi mới hơn ghi đè.
+     */
+    void restore(Pending pending) {
+        for (CartLine line : pending.upserts()) {
+            CartLine current = lines.get(line.id());
+            if (current != null && !pendingUpserts.containsKey(line.id())) {
+                pendingUpserts.put(line.id(), current);
+            }
+        }
+        for (Long id : pending.deletes()) {
+            if (!lines.containsKey(id)) {
+                pendingDeletes.add(id);
+            }
+        }
+    }
+}
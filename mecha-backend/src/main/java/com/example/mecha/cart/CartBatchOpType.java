@@ -0,0 +1,7 @@
+package com.example.mecha.cart;
+
+public enum CartBatchOpType {
+    ADD,
+    UPDATE,
+    REMOVE
+}
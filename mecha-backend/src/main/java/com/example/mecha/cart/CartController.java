@@ -63,6 +63,20 @@ public class CartController {
         return ResponseEntity.ok(cartService.removeItem(currentUser, itemId));
     }
 
+    @PatchMapping("/items:batch")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+            summary = "Thêm / sửa / xóa nhiều item trong 1 request",
+            description = "Áp dụng các thao tác theo thứ tự, nguyên khối (1 thao tác lỗi thì giỏ không đổi). "
+                    + "Dùng khi dán danh sách linh kiện hoặc gộp giỏ khách vãng lai sau khi đăng nhập."
+    )
+    public ResponseEntity<CartDto> batch(
+            @AuthenticationPrincipal User currentUser,
+            @Valid @RequestBody CartBatchRequest request
+    ) {
+        return ResponseEntity.ok(cartService.applyBatch(currentUser, request));
+    }
+
     @DeleteMapping("/items")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Xóa toàn bộ giỏ hàng")
@@ -0,0 +1,29 @@
+package com.example.mecha.cart;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 1 dòng giỏ hàng trong bộ nhớ (bất biến; đổi số lượng = thay dòng mới cùng id).
+ * id được cấp trước từ sequence của cart_items nên giữ nguyên khi ghi xuống DB.
+ * priceTable chỉ có với PRODUCT và chỉ nằm trong bộ nhớ (null nếu dòng vừa nạp từ DB).
+ */
+record CartLine(
+        Long id,
+        CartItemType itemType,
+        Long productId,
+        String productName,
+        Long serviceId,
+        String serviceName,
+        int quantity,
+        BigDecimal unitPrice,
+        BigDecimal lineTotal,
+        Instant createdAt,
+        ProductPriceTable priceTable
+) {
+
+    CartLine withQuantity(int newQuantity, BigDecimal newUnitPrice, ProductPriceTable table) {
+        return new CartLine(id, itemType, productId, productName, serviceId, serviceName,
+                newQuantity, newUnitPrice, newUnitPrice.multiply(BigDecimal.valueOf(newQuantity)), createdAt, table);
+    }
+}
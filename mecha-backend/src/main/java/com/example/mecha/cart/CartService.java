@@ -2,150 +2,375 @@
 package com.example.mecha.cart;
 
 import com.example.mecha.cart.dto.*;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.product.Product;
 import com.example.mecha.product.ProductRepository;
-import com.example.mecha.product.ProductService;
+import com.example.mecha.product.ProductTierPrice;
+import com.example.mecha.product.ProductTierPriceRepository;
 import com.example.mecha.servicecatalog.ServiceEntity;
 import com.example.mecha.servicecatalog.ServiceRepository;
 import com.example.mecha.servicecatalog.ServiceStatus;
 import com.example.mecha.user.User;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Giỏ hàng: đọc / sửa trên {@link CartStore} trong bộ nhớ, ghi xuống DB theo kiểu write-behind.
+ * Chỉ thêm dòng mới mới cần đọc product / service; đổi số lượng sản phẩm tính giá lại từ bảng giá đã chụp
+ * (chụp lại khi cũ hơn cart-store.price-table-max-age-ms). Giá trong giỏ chỉ để hiển thị: checkout tính lại.
+ */
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
     private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final ProductRepository productRepository;
-    private final ProductService productService;
+    private final ProductTierPriceRepository productTierPriceRepository;
     private final ServiceRepository serviceRepository;
+    private final CartStoreProperties properties;
 
-    @Transactional
     public CartDto getMyCart(User currentUser) {
-        Cart cart = getOrCreateCart(currentUser);
-        return toDto(cart);
+        return cartStore.read(currentUser.getId(), this::toDto);
     }
 
-    @Transactional
+    @Timed(value = MechaMetrics.CART_MUTATION, histogram = true, extraTags = {MechaMetrics.TAG_OP, "add"})
     public CartDto addItem(User currentUser, CartItemAddRequest request) {
-        Cart cart = getOrCreateCart(currentUser);
-
         // Validate cross-field: PRODUCT → cần productId, SERVICE → cần serviceId
         if (request.getItemType() == CartItemType.PRODUCT && request.getProductId() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "productId_required_for_PRODUCT");
+            throw DomainErrors.PRODUCT_ID_REQUIRED_FOR_PRODUCT;
         }
         if (request.getItemType() == CartItemType.SERVICE && request.getServiceId() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "serviceId_required_for_SERVICE");
+            throw DomainErrors.SERVICE_ID_REQUIRED_FOR_SERVICE;
         }
 
         int quantity = request.getQuantity();
-
-        CartItem item = CartItem.builder()
-                .cart(cart)
-                .itemType(request.getItemType())
-                .quantity(quantity)
-                .build();
+        CartLine line;
 
         if (request.getItemType() == CartItemType.PRODUCT) {
             Product product = productRepository.findById(request.getProductId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "PRODUCT_NOT_FOUND"));
+                    .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
+            ProductPriceTable table = priceTableOf(product);
 
             // Kiểm tra tồn kho
-            if (product.getStockQuantity() < quantity) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "INSUFFICIENT_STOCK");
+            if (table.stockQuantity() < quantity) {
+                throw DomainErrors.INSUFFICIENT_STOCK;
             }
 
-            BigDecimal unitPrice = productService.calculateUnitPrice(product.getId(), quantity);
-
-            item.setProduct(product);
-            item.setUnitPrice(unitPrice);
-            item.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+            BigDecimal unitPrice = table.unitPriceFor(quantity);
+            line = new CartLine(cartStore.nextItemId(), CartItemType.PRODUCT,
+                    product.getId(), product.getName(), null, null,
+                    quantity, unitPrice, unitPrice.multiply(BigDecimal.valueOf(quantity)), Instant.now(), table);
         } else { // SERVICE
-            ServiceEntity service = serviceRepository.findById(request.getServiceId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SERVICE_NOT_FOUND"));
-
-            if (service.getStatus() != ServiceStatus.ACTIVE) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "SERVICE_NOT_ACTIVE");
-            }
+            ServiceEntity service = activeService(request.getServiceId());
 
             BigDecimal unitPrice = service.getBasePrice();
-
-            item.setService(service);
-            item.setUnitPrice(unitPrice);
-            item.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+            line = new CartLine(cartStore.nextItemId(), CartItemType.SERVICE,
+                    null, null, service.getId(), service.getName(),
+                    quantity, unitPrice, unitPrice.multiply(BigDecimal.valueOf(quantity)), Instant.now(), null);
         }
 
-        cart.addItem(item);
-        cartRepository.save(cart); // cascade CartItem
-
-        return toDto(cart);
+        return cartStore.mutate(currentUser.getId(), cart -> {
+            cart.put(line);
+            return toDto(cart);
+        });
     }
 
-    @Transactional
+    @Timed(value = MechaMetrics.CART_MUTATION, histogram = true, extraTags = {MechaMetrics.TAG_OP, "update"})
     public CartDto updateItem(User currentUser, Long itemId, CartItemUpdateRequest request) {
-        Cart cart = getOrCreateCart(currentUser);
-        CartItem item = cartItemRepository.findByIdAndCartId(itemId, cart.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "CART_ITEM_NOT_FOUND"));
+        CartLine current = cartStore.read(currentUser.getId(), cart -> cart.line(itemId));
+        if (current == null) {
+            throw DomainErrors.CART_ITEM_NOT_FOUND;
+        }
 
         int newQty = request.getQuantity();
-        item.setQuantity(newQty);
-
-        if (item.getItemType() == CartItemType.PRODUCT) {
-            Product product = item.getProduct();
+        CartLine updated;
+
+        if (current.itemType() == CartItemType.PRODUCT) {
+            ProductPriceTable table = current.priceTable();
+            if (table == null || table.isOlderThan(properties.getPriceTableMaxAgeMs(), System.nanoTime())) {
+                // Dòng nạp lại từ DB hoặc bảng giá đã cũ: chụp lại rồi dùng tiếp trong bộ nhớ
+                Product product = productRepository.findById(current.productId())
+                        .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
+                table = priceTableOf(product);
+            }
             // Kiểm tra tồn kho
-            if (product.getStockQuantity() < newQty) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "INSUFFICIENT_STOCK");
+            if (table.stockQuantity() < newQty) {
+                throw DomainErrors.INSUFFICIENT_STOCK;
             }
-            BigDecimal unitPrice = productService.calculateUnitPrice(product.getId(), newQty);
-            item.setUnitPrice(unitPrice);
-            item.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(newQty)));
+            updated = current.withQuantity(newQty, table.unitPriceFor(newQty), table);
         } else {
-            ServiceEntity service = item.getService();
-            if (service.getStatus() != ServiceStatus.ACTIVE) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "SERVICE_NOT_ACTIVE");
-            }
-            BigDecimal unitPrice = service.getBasePrice();
-            item.setUnitPrice(unitPrice);
-            item.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(newQty)));
+            ServiceEntity service = activeService(current.serviceId());
+            updated = current.withQuantity(newQty, service.getBasePrice(), null);
         }
 
-        return toDto(cart);
+        return cartStore.mutate(currentUser.getId(), cart -> {
+            if (cart.line(itemId) == null) {
+                throw DomainErrors.CART_ITEM_NOT_FOUND;
+            }
+            cart.put(updated);
+            return toDto(cart);
+        });
     }
 
-    @Transactional
+    @Timed(value = MechaMetrics.CART_MUTATION, histogram = true, extraTags = {MechaMetrics.TAG_OP, "remove"})
     public CartDto removeItem(User currentUser, Long itemId) {
-        Cart cart = getOrCreateCart(currentUser);
-        CartItem item = cartItemRepository.findByIdAndCartId(itemId, cart.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "CART_ITEM_NOT_FOUND"));
-        cart.removeItem(item);
-        cartRepository.save(cart);
-        return toDto(cart);
+        return cartStore.mutate(currentUser.getId(), cart -> {
+            if (!cart.remove(itemId)) {
+                throw DomainErrors.CART_ITEM_NOT_FOUND;
+            }
+            return toDto(cart);
+        });
     }
 
-    @Transactional
+    @Timed(value = MechaMetrics.CART_MUTATION, histogram = true, extraTags = {MechaMetrics.TAG_OP, "clear"})
     public CartDto clearCart(User currentUser) {
-        Cart cart = getOrCreateCart(currentUser);
-        if (cart.getItems() != null) {
-            cart.getItems().clear();
+        return cartStore.mutate(currentUser.getId(), cart -> {
+            cart.clear();
+            return toDto(cart);
+        });
+    }
+
+    /**
+     * Áp dụng nhiều thao tác theo thứ tự, nguyên khối: 1 thao tác lỗi thì giỏ không đổi gì.
+     * Product / service / tier price của mọi dòng liên quan được đọc bằng 1 query mỗi loại,
+     * tồn kho được kiểm tra trên tổng số lượng cuối cùng của từng sản phẩm.
+     */
+    @Timed(value = MechaMetrics.CART_MUTATION, histogram = true, extraTags = {MechaMetrics.TAG_OP, "batch"})
+    public CartDto applyBatch(User currentUser, CartBatchRequest request) {
+        List<CartBatchOperation> ops = request.getOperations();
+        for (CartBatchOperation op : ops) {
+            validate(op);
         }
-        cartRepository.save(cart);
-        return toDto(cart);
+
+        // Các dòng đang có mà batch UPDATE: cần biết sản phẩm / dịch vụ để tính giá lại
+        Map<Long, CartLine> existing = cartStore.read(currentUser.getId(), cart -> {
+            Map<Long, CartLine> lines = new HashMap<>();
+            for (CartBatchOperation op : ops) {
+                if (op.getOp() == CartBatchOpType.UPDATE && cart.line(op.getItemId()) != null) {
+                    lines.put(op.getItemId(), cart.line(op.getItemId()));
+                }
+            }
+            return lines;
+        });
+
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> serviceIds = new HashSet<>();
+        int adds = 0;
+        for (CartBatchOperation op : ops) {
+            if (op.getOp() == CartBatchOpType.ADD) {
+                adds++;
+                if (op.getItemType() == CartItemType.PRODUCT) {
+                    productIds.add(op.getProductId());
+                } else {
+                    serviceIds.add(op.getServiceId());
+                }
+            }
+        }
+        for (CartLine line : existing.values()) {
+            if (line.itemType() == CartItemType.PRODUCT) {
+                productIds.add(line.productId());
+            } else {
+                serviceIds.add(line.serviceId());
+            }
+        }
+
+        Map<Long, Product> products = productIds.isEmpty() ? Map.of()
+                : productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, List<ProductTierPrice>> tiersByProduct = productIds.isEmpty() ? Map.of()
+                : productTierPriceRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.groupingBy(t -> t.getProduct().getId()));
+        Map<Long, ServiceEntity> services = serviceIds.isEmpty() ? Map.of()
+                : serviceRepository.findAllById(serviceIds).stream()
+                .collect(Collectors.toMap(ServiceEntity::getId, Function.identity()));
+
+        Map<Long, ProductPriceTable> tables = new HashMap<>();
+        for (Product product : products.values()) {
+            tables.put(product.getId(), ProductPriceTable.of(product,
+                    tiersByProduct.getOrDefault(product.getId(), List.of())));
+        }
+
+        // Cấp id trước, ngoài lock của giỏ
+        Deque<Long> newIds = new ArrayDeque<>(adds);
+        for (int i = 0; i < adds; i++) {
+            newIds.add(cartStore.nextItemId());
+        }
+
+        return cartStore.mutate(currentUser.getId(), cart -> {
+            // Làm trên bản nháp, chỉ ghi vào giỏ khi mọi thao tác + tồn kho đều hợp lệ
+            LinkedHashMap<Long, CartLine> working = new LinkedHashMap<>();
+            for (CartLine line : cart.lines()) {
+                working.put(line.id(), line);
+            }
+            Instant now = Instant.now();
+
+            for (CartBatchOperation op : ops) {
+                switch (op.getOp()) {
+                    case ADD -> {
+                        CartLine line = newLine(op, newIds.removeFirst(), now, products, tables, services);
+                        working.put(line.id(), line);
+                    }
+                    case UPDATE -> {
+                        CartLine current = working.get(op.getItemId());
+                        if (current == null) {
+                            throw DomainErrors.CART_ITEM_NOT_FOUND;
+                        }
+                        working.put(current.id(), requantify(current, op.getQuantity(), tables, services));
+                    }
+                    case REMOVE -> {
+                        if (working.remove(op.getItemId()) == null) {
+                            throw DomainErrors.CART_ITEM_NOT_FOUND;
+                        }
+                    }
+                }
+            }
+
+            // Kiểm tra tồn kho trên tổng số lượng của từng sản phẩm trong giỏ sau batch
+            Map<Long, Integer> quantityByProduct = new HashMap<>();
+            for (CartLine line : working.values()) {
+                if (line.itemType() == CartItemType.PRODUCT && tables.containsKey(line.productId())) {
+                    quantityByProduct.merge(line.productId(), line.quantity(), Integer::sum);
+                }
+            }
+            for (Map.Entry<Long, Integer> e : quantityByProduct.entrySet()) {
+                if (tables.get(e.getKey()).stockQuantity() < e.getValue()) {
+                    throw DomainErrors.INSUFFICIENT_STOCK;
+                }
+            }
+
+            for (CartLine line : new ArrayList<>(cart.lines())) {
+                if (!working.containsKey(line.id())) {
+                    cart.remove(line.id());
+                }
+            }
+            for (CartLine line : working.values()) {
+                if (line != cart.line(line.id())) {
+                    cart.put(line);
+                }
+            }
+            return toDto(cart);
+        });
+    }
+
+    private void validate(CartBatchOperation op) {
+        switch (op.getOp()) {
+            case ADD -> {
+                if (op.getItemType() == null) {
+                    throw DomainErrors.ITEM_TYPE_REQUIRED_FOR_ADD;
+                }
+                if (op.getQuantity() == null) {
+                    throw DomainErrors.QUANTITY_REQUIRED_FOR_ADD;
+                }
+                if (op.getItemType() == CartItemType.PRODUCT && op.getProductId() == null) {
+                    throw DomainErrors.PRODUCT_ID_REQUIRED_FOR_PRODUCT;
+                }
+                if (op.getItemType() == CartItemType.SERVICE && op.getServiceId() == null) {
+                    throw DomainErrors.SERVICE_ID_REQUIRED_FOR_SERVICE;
+                }
+            }
+            case UPDATE -> {
+                if (op.getItemId() == null || op.getQuantity() == null) {
+                    throw DomainErrors.ITEM_ID_AND_QUANTITY_REQUIRED_FOR_UPDATE;
+                }
+            }
+            case REMOVE -> {
+                if (op.getItemId() == null) {
+                    throw DomainErrors.ITEM_ID_REQUIRED_FOR_REMOVE;
+                }
+            }
+        }
+    }
+
+    private CartLine newLine(CartBatchOperation op, long id, Instant now,
+                             Map<Long, Product> products,
+                             Map<Long, ProductPriceTable> tables,
+                             Map<Long, ServiceEntity> services) {
+        int quantity = op.getQuantity();
+        if (op.getItemType() == CartItemType.PRODUCT) {
+            Product product = products.get(op.getProductId());
+            if (product == null) {
+                throw DomainErrors.PRODUCT_NOT_FOUND;
+            }
+            ProductPriceTable table = tables.get(product.getId());
+            BigDecimal unitPrice = table.unitPriceFor(quantity);
+            return new CartLine(id, CartItemType.PRODUCT, product.getId(), product.getName(), null, null,
+                    quantity, unitPrice, unitPrice.multiply(BigDecimal.valueOf(quantity)), now, table);
+        }
+        ServiceEntity service = requireActive(services.get(op.getServiceId()));
+        BigDecimal unitPrice = service.getBasePrice();
+        return new CartLine(id, CartItemType.SERVICE, null, null, service.getId(), service.getName(),
+                quantity, unitPrice, unitPrice.multiply(BigDecimal.valueOf(quantity)), now, null);
+    }
+
+    private CartLine requantify(CartLine current, int quantity,
+                                Map<Long, ProductPriceTable> tables,
+                                Map<Long, ServiceEntity> services) {
+        if (current.itemType() == CartItemType.PRODUCT) {
+            ProductPriceTable table = tables.getOrDefault(current.productId(), current.priceTable());
+            if (table == null) {
+                throw DomainErrors.PRODUCT_NOT_FOUND;
+            }
+            return current.withQuantity(quantity, table.unitPriceFor(quantity), table);
+        }
+        ServiceEntity service = requireActive(services.get(current.serviceId()));
+        return current.withQuantity(quantity, service.getBasePrice(), null);
+    }
+
+    private static ServiceEntity requireActive(ServiceEntity service) {
+        if (service == null) {
+            throw DomainErrors.SERVICE_NOT_FOUND;
+        }
+        if (service.getStatus() != ServiceStatus.ACTIVE) {
+            throw DomainErrors.SERVICE_NOT_ACTIVE;
+        }
+        return service;
     }
 
+    /**
+     * Checkout: ghi ngay các thay đổi đang chờ để {@link #getOrCreateCart} đọc đúng giỏ từ DB.
+     * Gọi trước transaction của checkout, không gọi bên trong (xem {@link CartStore#flush(long)}).
+     */
+    public void flushCart(User currentUser) {
+        cartStore.flush(currentUser.getId());
+    }
+
+    /**
+     * Xóa giỏ trong DB (sau checkout); bản trong bộ nhớ bị bỏ sau khi transaction commit.
+     */
     @Transactional
     public void clearCart(Cart cart) {
         if (cart.getItems() != null) {
             cart.getItems().clear();
         }
         cartRepository.save(cart);
+
+        long userId = cart.getUser().getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cartStore.evict(userId);
+            }
+        });
     }
 
 
@@ -159,36 +384,34 @@ public class CartService {
                 ));
     }
 
-    private CartDto toDto(Cart cart) {
-        List<CartItem> cartItems = cart.getItems();
-        if (cartItems == null) {
-            cartItems = new java.util.ArrayList<>();
-        }
-        
-        List<CartItemDto> itemDtos = cartItems.stream().map(ci -> {
-            String productName = ci.getProduct() != null ? ci.getProduct().getName() : null;
-            String serviceName = ci.getService() != null ? ci.getService().getName() : null;
-
-            return CartItemDto.builder()
-                    .id(ci.getId())
-                    .itemType(ci.getItemType())
-                    .productId(ci.getProduct() != null ? ci.getProduct().getId() : null)
-                    .productName(productName)
-                    .serviceId(ci.getService() != null ? ci.getService().getId() : null)
-                    .serviceName(serviceName)
-                    .quantity(ci.getQuantity())
-                    .unitPrice(ci.getUnitPrice())
-                    .lineTotal(ci.getLineTotal())
-                    .build();
-        }).toList();
+    private ProductPriceTable priceTableOf(Product product) {
+        return ProductPriceTable.of(product, productTierPriceRepository.findByProductIdOrderByMinQtyAsc(product.getId()));
+    }
 
+    private ServiceEntity activeService(Long serviceId) {
+        return requireActive(serviceRepository.findById(serviceId).orElse(null));
+    }
 
-        BigDecimal total = itemDtos.stream()
-                .map(CartItemDto::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    CartDto toDto(ActiveCart cart) {
+        List<CartItemDto> itemDtos = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartLine l : cart.lines()) {
+            itemDtos.add(CartItemDto.builder()
+                    .id(l.id())
+                    .itemType(l.itemType())
+                    .productId(l.productId())
+                    .productName(l.productName())
+                    .serviceId(l.serviceId())
+                    .serviceName(l.serviceName())
+                    .quantity(l.quantity())
+                    .unitPrice(l.unitPrice())
+                    .lineTotal(l.lineTotal())
+                    .build());
+            total = total.add(l.lineTotal());
+        }
 
         return CartDto.builder()
-                .id(cart.getId())
+                .id(cart.cartId)
                 .items(itemDtos)
                 .totalItems(itemDtos.size())
                 .totalAmount(total)
@@ -0,0 +1,396 @@
+package com.example.mecha.cart;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Giỏ hàng đang hoạt động giữ trong bộ nhớ (write-behind):
+ *
+ *  - Chia shard theo user id, mỗi shard 1 lock; đọc / sửa giỏ không chạm DB (trừ lần nạp đầu)
+ *  - Thay đổi được gộp theo dòng và ghi xuống carts / cart_items định kỳ, nhiều giỏ trong 1 transaction (JDBC batch)
+ *  - Checkout gọi {@link #flush(long)} (trước transaction của checkout) để ghi đồng bộ trước khi đọc giỏ bằng JPA
+ *  - Giỏ không dùng quá idleEvictMinutes (và đã ghi xong) bị bỏ khỏi bộ nhớ, lần sau nạp lại từ DB
+ *
+ * Giỏ chỉ nằm trên 1 node: chạy nhiều node thì cần route cùng user về cùng node (sticky session).
+ */
+@Component
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    private static final String LOAD_LINES_SQL = """
+            SELECT ci.id, ci.item_type, ci.product_id, p.name AS product_name,
+                   ci.service_id, s.name AS service_name,
+                   ci.quantity, ci.unit_price, ci.line_total, ci.created_at
+            FROM cart_items ci
+            LEFT JOIN products p ON p.id = ci.product_id
+            LEFT JOIN services s ON s.id = ci.service_id
+            WHERE ci.cart_id = ?
+            ORDER BY ci.id
+            """;
+
+    private static final String UPSERT_LINE_SQL = """
+            INSERT INTO cart_items (id, cart_id, item_type, product_id, service_id,
+                                    quantity, unit_price, line_total, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE
+            SET quantity = EXCLUDED.quantity,
+                unit_price = EXCLUDED.unit_price,
+                line_total = EXCLUDED.line_total,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, ActiveCart> carts = new HashMap<>();
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTx;
+    private final CartStoreProperties properties;
+
+    private final Shard[] shards;
+    // user id của các giỏ có thay đổi chưa ghi
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Deque<Long> idPool = new ArrayDeque<>();
+    // Không dùng synchronized: giữ lock trong lúc gọi DB sẽ ghim virtual thread vào carrier thread
+    private final ReentrantLock idPoolLock = new ReentrantLock();
+
+    public CartStore(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            CartStoreProperties properties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        // Luôn là transaction riêng: checkout rollback không được làm mất thay đổi đã ghi của giỏ
+        this.flushTx = new TransactionTemplate(transactionManager);
+        this.flushTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.shards = new Shard[Math.max(1, properties.getShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    // ===== đọc / sửa =====
+
+    public <R> R read(long userId, Function<ActiveCart, R> reader) {
+        return withCart(userId, reader);
+    }
+
+    /**
+     * Sửa giỏ dưới lock của shard; thay đổi được ghi xuống DB ở lần flush kế tiếp.
+     */
+    public <R> R mutate(long userId, Function<ActiveCart, R> mutation) {
+        return withCart(userId, cart -> {
+            R result = mutation.apply(cart);
+            if (cart.hasPending()) {
+                dirty.add(userId);
+            }
+            return result;
+        });
+    }
+
+    private <R> R withCart(long userId, Function<ActiveCart, R> fn) {
+        Shard shard = shardOf(userId);
+        shard.lock.lock();
+        try {
+            ActiveCart cart = shard.carts.get(userId);
+            if (cart != null) {
+                cart.lastAccessNanos = System.nanoTime();
+                return fn.apply(cart);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+
+        // Nạp từ DB ngoài lock để không chặn các user khác cùng shard
+        ActiveCart loaded = load(userId);
+
+        shard.lock.lock();
+        try {
+            ActiveCart cart = shard.carts.computeIfAbsent(userId, id -> loaded);
+            cart.lastAccessNanos = System.nanoTime();
+            return fn.apply(cart);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Id cho dòng giỏ mới, lấy từ sequence của cart_items theo block.
+     */
+    public long nextItemId() {
+        idPoolLock.lock();
+        try {
+            if (idPool.isEmpty()) {
+                idPool.addAll(jdbcTemplate.queryForList(
+                        "SELECT nextval(pg_get_serial_sequence('cart_items', 'id')) FROM generate_series(1, ?)",
+                        Long.class, Math.max(1, properties.getIdBlockSize())));
+            }
+            return idPool.removeFirst();
+        } finally {
+            idPoolLock.unlock();
+        }
+    }
+
+    /**
+     * Bỏ giỏ khỏi bộ nhớ (kể cả thay đổi chưa ghi), ví dụ sau khi checkout đã xóa giỏ trong DB.
+     */
+    public void evict(long userId) {
+        Shard shard = shardOf(userId);
+        shard.lock.lock();
+        try {
+            shard.carts.remove(userId);
+            dirty.remove(userId);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    // ===== ghi xuống DB =====
+
+    /**
+     * Ghi đồng bộ mọi thay đổi đang chờ của 1 giỏ (checkout).
+     * Không được gọi trong transaction: flush chạy transaction riêng nên sẽ lấy connection thứ 2 trong khi
+     * connection của transaction ngoài vẫn bị giữ, pool / datasource-limiter cạn thì các request kẹt lẫn nhau.
+     */
+    public void flush(long userId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cart flush must run outside of a transaction");
+        }
+        ActiveCart cart = peek(userId);
+        if (cart == null) {
+            return;
+        }
+        cart.flushLock.lock();
+        try {
+            ActiveCart.Pending pending = drain(cart);
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                flushTx.executeWithoutResult(status -> write(List.of(pending)));
+            } catch (DataAccessException e) {
+                restore(cart, pending);
+                throw e;
+            }
+        } finally {
+            cart.flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart-store.flush-interval-ms:1000}")
+    public void flushDirty() {
+        // Chỉ xử lý các giỏ đang dirty lúc bắt đầu; thay đổi mới hơn để lần chạy sau
+        List<Long> userIds = new ArrayList<>(dirty);
+        int batchSize = Math.max(1, properties.getMaxBatchCarts());
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            flushBatch(userIds.subList(from, Math.min(from + batchSize, userIds.size())));
+        }
+    }
+
+    private void flushBatch(List<Long> userIds) {
+        List<ActiveCart> batch = new ArrayList<>();
+        List<ActiveCart.Pending> pendings = new ArrayList<>();
+        for (Long userId : userIds) {
+            dirty.remove(userId);
+            ActiveCart cart = peek(userId);
+            if (cart == null) {
+                continue;
+            }
+            if (!cart.flushLock.tryLock()) {
+                dirty.add(userId); // đang được checkout ghi, để lần sau
+                continue;
+            }
+            ActiveCart.Pending pending = drain(cart);
+            if (pending.isEmpty()) {
+                cart.flushLock.unlock();
+                continue;
+            }
+            batch.add(cart);
+            pendings.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTx.executeWithoutResult(status -> write(pendings));
+        } catch (DataAccessException e) {
+            log.warn("Cart batch flush of {} carts failed, retrying one by one: {}", batch.size(), e.getMessage());
+            flushIndividually(batch, pendings);
+        } finally {
+            for (ActiveCart cart : batch) {
+                cart.flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 1 giỏ lỗi (ví dụ sản phẩm vừa bị xóa) không được chặn các giỏ khác: ghi từng giỏ,
+     * giỏ nào vẫn lỗi thì bỏ khỏi bộ nhớ để lần sau nạp lại trạng thái thật từ DB.
+     */
+    private void flushIndividually(List<ActiveCart> batch, List<ActiveCart.Pending> pendings) {
+        for (int i = 0; i < batch.size(); i++) {
+            ActiveCart cart = batch.get(i);
+            ActiveCart.Pending pending = pendings.get(i);
+            try {
+                flushTx.executeWithoutResult(status -> write(List.of(pending)));
+            } catch (DataAccessException e) {
+                log.warn("Dropping unflushable cart {} of user {}: {}", cart.cartId, cart.userId, e.getMessage());
+                evict(cart.userId);
+            }
+        }
+    }
+
+    private void write(List<ActiveCart.Pending> pendings) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> touched = new ArrayList<>();
+        for (ActiveCart.Pending p : pendings) {
+            for (CartLine l : p.upserts()) {
+                upserts.add(new Object[]{
+                        l.id(), p.cartId(), l.itemType().name(), l.productId(), l.serviceId(),
+                        l.quantity(), l.unitPrice(), l.lineTotal(), Timestamp.from(l.createdAt()), now
+                });
+            }
+            for (Long id : p.deletes()) {
+                deletes.add(new Object[]{id, p.cartId()});
+            }
+            touched.add(new Object[]{now, p.cartId()});
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE id = ? AND cart_id = ?", deletes);
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_LINE_SQL, upserts);
+        }
+        jdbcTemplate.batchUpdate("UPDATE carts SET updated_at = ? WHERE id = ?", touched);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flushDirty();
+        } catch (RuntimeException e) {
+            log.warn("Cart flush on shutdown failed: {}", e.getMessage());
+        }
+    }
+
+    // ===== giải phóng bộ nhớ =====
+
+    @Scheduled(fixedDelayString = "${cart-store.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long idleNanos = TimeUnit.MINUTES.toNanos(properties.getIdleEvictMinutes());
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                var it = shard.carts.values().iterator();
+                while (it.hasNext()) {
+                    ActiveCart cart = it.next();
+                    if (now - cart.lastAccessNanos > idleNanos && !cart.hasPending() && !cart.flushLock.isLocked()) {
+                        it.remove();
+                        evicted++;
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle carts", evicted);
+        }
+    }
+
+    // ===== nội bộ =====
+
+    private Shard shardOf(long userId) {
+        return shards[Math.floorMod(Long.hashCode(userId), shards.length)];
+    }
+
+    private ActiveCart peek(long userId) {
+        Shard shard = shardOf(userId);
+        shard.lock.lock();
+        try {
+            return shard.carts.get(userId);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private ActiveCart.Pending drain(ActiveCart cart) {
+        Shard shard = shardOf(cart.userId);
+        shard.lock.lock();
+        try {
+            return cart.drain();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void restore(ActiveCart cart, ActiveCart.Pending pending) {
+        Shard shard = shardOf(cart.userId);
+        shard.lock.lock();
+        try {
+            cart.restore(pending);
+            if (cart.hasPending()) {
+                dirty.add(cart.userId);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private ActiveCart load(long userId) {
+        Instant now = Instant.now();
+        jdbcTemplate.update("""
+                INSERT INTO carts (user_id, created_at, updated_at) VALUES (?, ?, ?)
+                ON CONFLICT (user_id) DO NOTHING
+                """, userId, Timestamp.from(now), Timestamp.from(now));
+        Long cartId = jdbcTemplate.queryForObject("SELECT id FROM carts WHERE user_id = ?", Long.class, userId);
+
+        List<CartLine> lines = jdbcTemplate.query(LOAD_LINES_SQL, (rs, i) -> new CartLine(
+                rs.getLong("id"),
+                CartItemType.valueOf(rs.getString("item_type")),
+                (Long) rs.getObject("product_id"),
+                rs.getString("product_name"),
+                (Long) rs.getObject("service_id"),
+                rs.getString("service_name"),
+                rs.getInt("quantity"),
+                rs.getBigDecimal("unit_price"),
+                rs.getBigDecimal("line_total"),
+                rs.getTimestamp("created_at").toInstant(),
+                null
+        ), cartId);
+        return new ActiveCart(userId, cartId, lines);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.mecha.cart;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cart-store")
+@Getter
+@Setter
+public class CartStoreProperties {
+    /**
+     * Số shard (mỗi shard 1 lock) để chia giỏ hàng theo user id.
+     */
+    private int shards = 64;
+
+    /**
+     * Chu kỳ ghi các thay đổi đang chờ xuống carts / cart_items (ms).
+     */
+    private long flushIntervalMs = 1_000;
+
+    /**
+     * Số giỏ hàng tối đa ghi chung trong 1 transaction.
+     */
+    private int maxBatchCarts = 500;
+
+    /**
+     * Giỏ hàng không được đọc / sửa quá số phút này (và đã ghi xong) thì bỏ khỏi bộ nhớ.
+     */
+    private int idleEvictMinutes = 30;
+
+    /**
+     * Chu kỳ quét bỏ giỏ nhàn rỗi (ms).
+     */
+    private long evictIntervalMs = 60_000;
+
+    /**
+     * Số id cart_items lấy trước từ sequence mỗi lần.
+     */
+    private int idBlockSize = 100;
+
+    /**
+     * Bảng giá sản phẩm chụp trong dòng giỏ cũ hơn số ms này thì đọc lại khi đổi số lượng (tier price nằm trong L2).
+     */
+    private long priceTableMaxAgeMs = 30_000;
+}
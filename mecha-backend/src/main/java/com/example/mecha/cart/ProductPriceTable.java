@@ -0,0 +1,42 @@
+package com.example.mecha.cart;
+
+import com.example.mecha.product.Product;
+import com.example.mecha.product.ProductTierPrice;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bảng giá theo số lượng của 1 sản phẩm, chụp lúc thêm vào giỏ để đổi số lượng không cần đọc lại DB.
+ * Cùng quy tắc với ProductService.calculateUnitPrice: tier đầu tiên (theo minQty) chứa quantity, không có thì basePrice.
+ * stockQuantity chỉ để kiểm tra sơ bộ; checkout vẫn kiểm tra lại tồn kho thật.
+ * Bảng chụp quá cart-store.price-table-max-age-ms thì đọc lại; checkout luôn tính giá lại theo bảng giá hiện tại.
+ */
+record ProductPriceTable(BigDecimal basePrice, List<Tier> tiers, int stockQuantity, long capturedAtNanos) {
+
+    record Tier(int minQty, Integer maxQty, BigDecimal unitPrice) {
+    }
+
+    static ProductPriceTable of(Product product, List<ProductTierPrice> tierPrices) {
+        List<Tier> tiers = tierPrices.stream()
+                .sorted(Comparator.comparing(ProductTierPrice::getMinQty))
+                .map(t -> new Tier(t.getMinQty(), t.getMaxQty(), t.getUnitPrice()))
+                .toList();
+        return new ProductPriceTable(product.getBasePrice(), tiers, product.getStockQuantity(), System.nanoTime());
+    }
+
+    boolean isOlderThan(long maxAgeMs, long nowNanos) {
+        return nowNanos - capturedAtNanos > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    BigDecimal unitPriceFor(int quantity) {
+        for (Tier tier : tiers) {
+            if (quantity >= tier.minQty() && (tier.maxQty() == null || quantity <= tier.maxQty())) {
+                return tier.unitPrice();
+            }
+        }
+        return basePrice;
+    }
+}
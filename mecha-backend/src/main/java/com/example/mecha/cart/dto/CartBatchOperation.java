@@ -0,0 +1,33 @@
+package com.example.mecha.cart.dto;
+
+import com.example.mecha.cart.CartBatchOpType;
+import com.example.mecha.cart.CartItemType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "1 thao tác trong batch: ADD (itemType, productId/serviceId, quantity), UPDATE (itemId, quantity), REMOVE (itemId)")
+public class CartBatchOperation {
+
+    @Schema(description = "Loại thao tác", example = "ADD")
+    @NotNull(message = "op không được null")
+    private CartBatchOpType op;
+
+    @Schema(description = "ID dòng giỏ hàng (UPDATE / REMOVE)", example = "120")
+    private Long itemId;
+
+    @Schema(description = "Loại item (ADD): PRODUCT hoặc SERVICE", example = "PRODUCT")
+    private CartItemType itemType;
+
+    @Schema(description = "ID sản phẩm (ADD, itemType = PRODUCT)", example = "10")
+    private Long productId;
+
+    @Schema(description = "ID dịch vụ (ADD, itemType = SERVICE)", example = "3")
+    private Long serviceId;
+
+    @Schema(description = "Số lượng (ADD / UPDATE)", example = "5")
+    @Min(value = 1, message = "quantity phải >= 1")
+    private Integer quantity;
+}
@@ -0,0 +1,19 @@
+package com.example.mecha.cart.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Nhiều thao tác thêm / sửa / xóa giỏ hàng, áp dụng theo thứ tự và nguyên khối")
+public class CartBatchRequest {
+
+    @NotEmpty(message = "operations không được rỗng")
+    @Size(max = 500, message = "Tối đa 500 thao tác mỗi lần")
+    @Valid
+    private List<CartBatchOperation> operations;
+}
@@ -0,0 +1,18 @@
+package com.example.mecha.common;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Request vi phạm quy tắc nghiệp vụ hoặc thiếu dữ liệu (400)
+ */
+public final class BusinessRuleException extends DomainException {
+
+    BusinessRuleException(String code) {
+        super(code);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.mecha.common;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * GET có điều kiện cho các endpoint đọc:
+ *  - ETag mạnh dựng từ {@link ResourceVersion} (query count + max(updated_at)), không serialize body
+ *  - If-None-Match khớp => 304 ngay, không load entity / map DTO
+ *  - Cache-Control theo loại endpoint: catalog công khai (public) hoặc dữ liệu riêng của user (private)
+ *
+ * Version và body đọc trong cùng 1 transaction readOnly (cùng connection, cùng replica):
+ * body không bao giờ cũ hơn ETag đi kèm.
+ */
+@Component
+public class ConditionalGet {
+
+    private final TransactionTemplate readOnlyTx;
+    private final HttpCacheProperties properties;
+
+    public ConditionalGet(PlatformTransactionManager transactionManager, HttpCacheProperties properties) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    /**
+     * Catalog công khai (sản phẩm, dịch vụ, đánh giá đã duyệt): giống nhau với mọi user.
+     */
+    public <T> ResponseEntity<T> catalog(WebRequest request, String resource,
+                                         Supplier<ResourceVersion> version, Supplier<T> body) {
+        return readOnlyTx.execute(status -> respond(request, catalogCacheControl(), resource, version.get(), body));
+    }
+
+    /**
+     * Catalog có version sẵn trong bộ nhớ (vd cây danh mục): không cần transaction.
+     */
+    public <T> ResponseEntity<T> catalog(WebRequest request, String resource,
+                                         ResourceVersion version, Supplier<T> body) {
+        return respond(request, catalogCacheControl(), resource, version, body);
+    }
+
+    /**
+     * Dữ liệu riêng của user (đơn hàng): chỉ browser được cache; resource phải gồm id user.
+     */
+    public <T> ResponseEntity<T> personal(WebRequest request, String resource,
+                                          Supplier<ResourceVersion> version, Supplier<T> body) {
+        return readOnlyTx.execute(status ->
+                respond(request, CacheControl.noCache().cachePrivate(), resource, version.get(), body));
+    }
+
+    private <T> ResponseEntity<T> respond(WebRequest request, CacheControl cacheControl, String resource,
+                                          ResourceVersion version, Supplier<T> body) {
+        if (!properties.isEnabled()) {
+            return ResponseEntity.ok(body.get());
+        }
+        // count = 0 (không tồn tại / không có quyền / danh sách rỗng): không ETag,
+        // để body vẫn ném 404 / 403 thay vì trả 304
+        String etag = version.count() > 0 && settled(version) ? etag(resource, version) : null;
+        if (etag == null) {
+            return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+
+    private boolean settled(ResourceVersion version) {
+        Instant lastModified = version.lastModified();
+        return lastModified == null
+                || lastModified.isBefore(Instant.now().minusMillis(properties.getSettleMs()));
+    }
+
+    private String etag(String resource, ResourceVersion version) {
+        Instant lastModified = version.lastModified();
+        long micros = lastModified == null ? 0
+                : TimeUnit.SECONDS.toMicros(lastModified.getEpochSecond()) + lastModified.getNano() / 1_000;
+        String key = properties.getEtagVersion() + '|' + resource + '|' + version.count() + '|' + micros;
+        return '"' + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    private CacheControl catalogCacheControl() {
+        long maxAge = properties.getCatalogMaxAgeSeconds();
+        return maxAge > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic()
+                : CacheControl.noCache().cachePublic();
+    }
+}
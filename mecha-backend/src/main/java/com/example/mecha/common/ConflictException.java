@@ -0,0 +1,18 @@
+package com.example.mecha.common;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Xung đột với trạng thái hiện tại, thử lại sau có thể thành công (409)
+ */
+public final class ConflictException extends DomainException {
+
+    ConflictException(String code) {
+        super(code);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.mecha.common;
+
+/**
+ * Các lỗi nghiệp vụ dự kiến, tạo sẵn 1 lần (xem {@link DomainException}): {@code throw DomainErrors.PRODUCT_NOT_FOUND}.
+ * Mã lỗi (chuỗi trong ngoặc) là hợp đồng với FE, không đổi khi đổi tên hằng.
+ */
+public final class DomainErrors {
+
+    // Chung
+    public static final ForbiddenException NOT_ALLOWED = new ForbiddenException("NOT_ALLOWED");
+    public static final BusinessRuleException INVALID_CURSOR = new BusinessRuleException("INVALID_CURSOR");
+    public static final BusinessRuleException INVALID_DATE_RANGE = new BusinessRuleException("INVALID_DATE_RANGE");
+    public static final BusinessRuleException DATE_RANGE_TOO_LARGE = new BusinessRuleException("DATE_RANGE_TOO_LARGE");
+    public static final NotFoundException USER_NOT_FOUND = new NotFoundException("USER_NOT_FOUND");
+
+    // Sản phẩm / danh mục
+    public static final NotFoundException PRODUCT_NOT_FOUND = new NotFoundException("PRODUCT_NOT_FOUND");
+    public static final NotFoundException IMAGE_NOT_FOUND = new NotFoundException("IMAGE_NOT_FOUND");
+    public static final NotFoundException CATEGORY_NOT_FOUND = new NotFoundException("CATEGORY_NOT_FOUND");
+    public static final NotFoundException PARENT_CATEGORY_NOT_FOUND = new NotFoundException("PARENT_CATEGORY_NOT_FOUND");
+    public static final BusinessRuleException CATEGORY_CANNOT_BE_OWN_PARENT = new BusinessRuleException("CATEGORY_CANNOT_BE_OWN_PARENT");
+    public static final BusinessRuleException CATEGORY_CANNOT_MOVE_UNDER_DESCENDANT = new BusinessRuleException("CATEGORY_CANNOT_MOVE_UNDER_DESCENDANT");
+    public static final BusinessRuleException INSUFFICIENT_STOCK = new BusinessRuleException("INSUFFICIENT_STOCK");
+    public static final BusinessRuleException FILE_EMPTY = new BusinessRuleException("FILE_EMPTY");
+    public static final BusinessRuleException FILE_MUST_BE_IMAGE = new BusinessRuleException("FILE_MUST_BE_IMAGE");
+
+    // Dịch vụ
+    public static final NotFoundException SERVICE_NOT_FOUND = new NotFoundException("SERVICE_NOT_FOUND");
+    public static final BusinessRuleException SERVICE_NOT_ACTIVE = new BusinessRuleException("SERVICE_NOT_ACTIVE");
+    public static final BusinessRuleException SERVICE_CODE_ALREADY_EXISTS = new BusinessRuleException("SERVICE_CODE_ALREADY_EXISTS");
+
+    // Giỏ hàng
+    public static final NotFoundException CART_ITEM_NOT_FOUND = new NotFoundException("CART_ITEM_NOT_FOUND");
+    public static final BusinessRuleException CART_IS_EMPTY = new BusinessRuleException("CART_IS_EMPTY");
+    public static final BusinessRuleException ITEM_TYPE_REQUIRED_FOR_ADD = new BusinessRuleException("itemType_required_for_ADD");
+    public static final BusinessRuleException QUANTITY_REQUIRED_FOR_ADD = new BusinessRuleException("quantity_required_for_ADD");
+    public static final BusinessRuleException PRODUCT_ID_REQUIRED_FOR_PRODUCT = new BusinessRuleException("productId_required_for_PRODUCT");
+    public static final BusinessRuleException SERVICE_ID_REQUIRED_FOR_SERVICE = new BusinessRuleException("serviceId_required_for_SERVICE");
+    public static final BusinessRuleException ITEM_ID_AND_QUANTITY_REQUIRED_FOR_UPDATE = new BusinessRuleException("itemId_and_quantity_required_for_UPDATE");
+    public static final BusinessRuleException ITEM_ID_REQUIRED_FOR_REMOVE = new BusinessRuleException("itemId_required_for_REMOVE");
+
+    // Đơn hàng / địa chỉ giao hàng
+    public static final NotFoundException ORDER_NOT_FOUND = new NotFoundException("ORDER_NOT_FOUND");
+    public static final NotFoundException ADDRESS_NOT_FOUND = new NotFoundException("ADDRESS_NOT_FOUND");
+    public static final BusinessRuleException SHIPPING_ADDRESS_REQUIRED = new BusinessRuleException("shippingAddress_required");
+    public static final BusinessRuleException CONTACT_PHONE_REQUIRED = new BusinessRuleException("contactPhone_required");
+    public static final BusinessRuleException CANNOT_CANCEL_ORDER = new BusinessRuleException("CANNOT_CANCEL_ORDER");
+    public static final BusinessRuleException INVALID_ORDER_STATUS_TRANSITION = new BusinessRuleException("INVALID_ORDER_STATUS_TRANSITION");
+    public static final BusinessRuleException INVALID_PAYMENT_STATUS_TRANSITION = new BusinessRuleException("INVALID_PAYMENT_STATUS_TRANSITION");
+    public static final BusinessRuleException MAX_3_SHIPPING_ADDRESSES = new BusinessRuleException("MAX_3_SHIPPING_ADDRESSES");
+
+    // Đặt lịch / kỹ thuật viên
+    public static final NotFoundException BOOKING_NOT_FOUND = new NotFoundException("BOOKING_NOT_FOUND");
+    public static final NotFoundException TECHNICIAN_NOT_FOUND = new NotFoundException("TECHNICIAN_NOT_FOUND");
+    public static final ForbiddenException USER_CAN_ONLY_CANCEL_BOOKING = new ForbiddenException("USER_CAN_ONLY_CANCEL_BOOKING");
+    public static final ForbiddenException ONLY_ADMIN_OR_STAFF_CAN_ASSIGN_TECHNICIAN = new ForbiddenException("ONLY_ADMIN_OR_STAFF_CAN_ASSIGN_TECHNICIAN");
+    public static final BusinessRuleException BOOKING_ALREADY_FINALIZED = new BusinessRuleException("BOOKING_ALREADY_FINALIZED");
+    public static final BusinessRuleException INVALID_BOOKING_STATUS_TRANSITION = new BusinessRuleException("INVALID_BOOKING_STATUS_TRANSITION");
+    public static final BusinessRuleException USER_IS_NOT_TECHNICIAN = new BusinessRuleException("USER_IS_NOT_TECHNICIAN");
+    public static final BusinessRuleException TECHNICIAN_LACKS_SKILL = new BusinessRuleException("TECHNICIAN_LACKS_SKILL");
+    public static final ConflictException TECHNICIAN_SCHEDULE_CONFLICT = new ConflictException("TECHNICIAN_SCHEDULE_CONFLICT");
+    public static final ConflictException NO_TECHNICIAN_AVAILABLE = new ConflictException("NO_TECHNICIAN_AVAILABLE");
+
+    // Đánh giá
+    public static final NotFoundException REVIEW_NOT_FOUND = new NotFoundException("REVIEW_NOT_FOUND");
+    public static final ForbiddenException USER_HAS_NOT_PURCHASED_PRODUCT = new ForbiddenException("USER_HAS_NOT_PURCHASED_PRODUCT");
+    public static final ForbiddenException USER_HAS_NOT_COMPLETED_SERVICE = new ForbiddenException("USER_HAS_NOT_COMPLETED_SERVICE");
+    public static final ForbiddenException ONLY_ADMIN_OR_STAFF_CAN_MODERATE = new ForbiddenException("ONLY_ADMIN_OR_STAFF_CAN_MODERATE");
+    public static final BusinessRuleException EITHER_PRODUCT_OR_SERVICE_REQUIRED = new BusinessRuleException("EITHER_PRODUCT_OR_SERVICE_REQUIRED");
+    public static final BusinessRuleException ALREADY_REVIEWED_PRODUCT = new BusinessRuleException("ALREADY_REVIEWED_PRODUCT");
+    public static final BusinessRuleException ALREADY_REVIEWED_SERVICE = new BusinessRuleException("ALREADY_REVIEWED_SERVICE");
+    public static final BusinessRuleException CANNOT_SET_PENDING = new BusinessRuleException("CANNOT_SET_PENDING");
+
+    // Hóa đơn / báo giá
+    public static final NotFoundException INVOICE_NOT_FOUND = new NotFoundException("INVOICE_NOT_FOUND");
+    public static final NotFoundException QUOTATION_NOT_FOUND = new NotFoundException("QUOTATION_NOT_FOUND");
+    public static final NotFoundException BULK_JOB_NOT_FOUND = new NotFoundException("BULK_JOB_NOT_FOUND");
+    public static final ConflictException BULK_JOB_NOT_READY = new ConflictException("BULK_JOB_NOT_READY");
+    public static final BusinessRuleException INVALID_BULK_REQUEST = new BusinessRuleException("INVALID_BULK_REQUEST");
+    public static final BusinessRuleException TOO_MANY_INVOICES = new BusinessRuleException("TOO_MANY_INVOICES");
+
+    // Thanh toán SePay
+    public static final UnauthorizedException INVALID_API_KEY = new UnauthorizedException("INVALID_API_KEY");
+    public static final BusinessRuleException ORDER_NOT_BANK_TRANSFER = new BusinessRuleException("ORDER_NOT_BANK_TRANSFER");
+    public static final BusinessRuleException BOOKING_NOT_BANK_TRANSFER = new BusinessRuleException("BOOKING_NOT_BANK_TRANSFER");
+    public static final BusinessRuleException MISSING_ID = new BusinessRuleException("MISSING_ID");
+
+    private DomainErrors() {
+    }
+}
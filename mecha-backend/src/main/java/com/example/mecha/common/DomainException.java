@@ -0,0 +1,25 @@
+package com.example.mecha.common;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Lỗi nghiệp vụ dự kiến (không tìm thấy, không có quyền, hết hàng...) với mã lỗi cố định FE có thể switch-case.
+ * Mỗi loại con gắn với 1 HTTP status, GlobalExceptionHandler trả về đúng status + mã đó.
+ *
+ * Không chụp stack trace và không giữ suppressed exception: đây là kết quả bình thường của request
+ * (vd bot quét id không tồn tại), không phải bug, nên 1 instance dùng chung được cho mọi lần ném.
+ * Dùng các instance có sẵn trong {@link DomainErrors} thay vì new.
+ */
+@Getter
+public abstract class DomainException extends RuntimeException {
+
+    private final String code;
+
+    protected DomainException(String code) {
+        super(code, null, false, false);
+        this.code = code;
+    }
+
+    public abstract HttpStatus getStatus();
+}
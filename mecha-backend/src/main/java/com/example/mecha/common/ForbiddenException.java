@@ -0,0 +1,18 @@
+package com.example.mecha.common;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Người dùng không có quyền với tài nguyên / thao tác (403)
+ */
+public final class ForbiddenException extends DomainException {
+
+    ForbiddenException(String code) {
+        super(code);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.FORBIDDEN;
+    }
+}
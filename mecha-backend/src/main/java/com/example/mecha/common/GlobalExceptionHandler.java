@@ -1,11 +1,13 @@
 package com.example.mecha.common;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.*;
@@ -54,6 +56,45 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    // Xung đột version (optimistic locking) sau khi đã hết số lần retry
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        ApiError error = ApiError.builder()
+                .timestamp(Instant.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("CONCURRENT_MODIFICATION")
+                .message(ex.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // Lỗi nghiệp vụ dự kiến (DomainErrors): status + mã lỗi cố định, không log / không stack trace
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ApiError> handleDomain(DomainException ex) {
+        ApiError error = ApiError.builder()
+                .timestamp(Instant.now())
+                .status(ex.getStatus().value())
+                .error(ex.getCode())
+                .message(ex.getCode())
+                .build();
+
+        return ResponseEntity.status(ex.getStatus()).body(error);
+    }
+
+    // Giữ đúng status của ResponseStatusException (trước đây rơi vào handler RuntimeException và luôn thành 400)
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiError> handleResponseStatus(ResponseStatusException ex) {
+        ApiError error = ApiError.builder()
+                .timestamp(Instant.now())
+                .status(ex.getStatusCode().value())
+                .error(ex.getReason() != null ? ex.getReason() : ex.getStatusCode().toString())
+                .message(ex.getReason())
+                .build();
+
+        return ResponseEntity.status(ex.getStatusCode()).body(error);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiError> handleRuntime(RuntimeException ex) {
         ApiError error = ApiError.builder()
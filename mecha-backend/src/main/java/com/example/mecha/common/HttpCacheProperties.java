@@ -0,0 +1,33 @@
+package com.example.mecha.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "http-cache")
+@Getter
+@Setter
+public class HttpCacheProperties {
+    /**
+     * Tắt thì endpoint đọc trả 200 như cũ, không ETag / Cache-Control.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Ghép vào mọi ETag: tăng khi đổi cấu trúc DTO để client không giữ body dạng cũ.
+     */
+    private String etagVersion = "1";
+
+    /**
+     * max-age cho endpoint catalog công khai (s). 0 = no-cache: luôn hỏi lại server bằng ETag.
+     */
+    private long catalogMaxAgeSeconds = 0;
+
+    /**
+     * Dữ liệu đổi trong khoảng này (ms) thì chưa gắn ETag: node khác có thể còn L2 cache cũ
+     * cho tới khi nhận invalidation (cache/L2CacheInvalidationListener), body cũ không được mang ETag mới.
+     */
+    private long settleMs = 2_000;
+}
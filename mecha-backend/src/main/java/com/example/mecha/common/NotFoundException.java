@@ -0,0 +1,18 @@
+package com.example.mecha.common;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Không tìm thấy tài nguyên (404)
+ */
+public final class NotFoundException extends DomainException {
+
+    NotFoundException(String code) {
+        super(code);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
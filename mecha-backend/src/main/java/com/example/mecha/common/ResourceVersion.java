@@ -0,0 +1,40 @@
+package com.example.mecha.common;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Phiên bản của tập dữ liệu tạo nên 1 response: số bản ghi + updated_at lớn nhất.
+ * Thêm / sửa bản ghi làm đổi lastModified, xóa làm đổi count, nên đủ để dựng ETag (xem {@link ConditionalGet})
+ * mà không cần load entity hay serialize body.
+ *
+ * Dùng trực tiếp làm kết quả query tổng hợp:
+ * {@code SELECT new com.example.mecha.common.ResourceVersion(count(p), max(p.updatedAt)) FROM Product p WHERE ...}
+ */
+public record ResourceVersion(long count, Instant lastModified) {
+
+    public static final ResourceVersion NONE = new ResourceVersion(0, null);
+
+    public static <T> ResourceVersion of(Collection<T> items, Function<T, Instant> updatedAt) {
+        Instant latest = null;
+        for (T item : items) {
+            latest = latest(latest, updatedAt.apply(item));
+        }
+        return new ResourceVersion(items.size(), latest);
+    }
+
+    /**
+     * Ghép version của nhiều nguồn cùng tạo nên 1 response (vd sản phẩm + cây danh mục cho categoryName).
+     */
+    public ResourceVersion and(ResourceVersion other) {
+        return new ResourceVersion(count + other.count, latest(lastModified, other.lastModified));
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
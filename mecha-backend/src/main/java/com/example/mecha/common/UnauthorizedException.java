@@ -0,0 +1,18 @@
+package com.example.mecha.common;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thiếu hoặc sai thông tin xác thực (401)
+ */
+public final class UnauthorizedException extends DomainException {
+
+    UnauthorizedException(String code) {
+        super(code);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.UNAUTHORIZED;
+    }
+}
@@ -6,15 +6,19 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
 
 /**
- * Initialize test accounts on startup
+ * Initialize test accounts on startup (dev profile only: no default-password accounts in production)
  */
 @Component
+@Profile("dev")
+@Order(1) // SampleOrderDataInitializer needs admin@mecha.com
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
@@ -1,6 +1,9 @@
 package com.example.mecha.config;
 
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -37,27 +41,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username;
+        // Đo thời gian xác thực token (parse chữ ký + tra user), outcome VALID / INVALID
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean valid = false;
         try {
-            username = jwtService.extractUsername(token);
-        } catch (Exception e) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userOpt = userRepository.findByEmail(username);
-            if (userOpt.isPresent() && jwtService.isTokenValid(token, userOpt.get())) {
-                var user = userOpt.get();
+            String username;
+            try {
+                username = jwtService.extractUsername(token);
+            } catch (Exception e) {
+                username = null; // token hỏng / hết hạn: để request đi tiếp như chưa đăng nhập
+            }
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                var userOpt = userRepository.findByEmail(username);
+                if (userOpt.isPresent() && jwtService.isTokenValid(token, userOpt.get())) {
+                    var user = userOpt.get();
 
-                var authToken = new UsernamePasswordAuthenticationToken(
-                        user,
-                        null,
-                        user.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                    var authToken = new UsernamePasswordAuthenticationToken(
+                            user,
+                            null,
+                            user.getAuthorities()
+                    );
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    valid = true;
+                }
             }
+        } finally {
+            sample.stop(Timer.builder(MechaMetrics.JWT_VALIDATION)
+                    .tag(MechaMetrics.TAG_OUTCOME, valid ? "VALID" : "INVALID")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
 
         filterChain.doFilter(request, response);
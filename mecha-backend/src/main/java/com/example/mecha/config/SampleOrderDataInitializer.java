@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
@@ -14,9 +15,10 @@ import java.time.*;
 import java.util.Random;
 
 /**
- * Initialize sample order data for dashboard charts
+ * Initialize sample order data for dashboard charts (dev profile only)
  */
 @Component
+@Profile("dev")
 @Order(2) // Run after DataInitializer
 @RequiredArgsConstructor
 public class SampleOrderDataInitializer implements CommandLineRunner {
@@ -82,8 +84,8 @@ public class SampleOrderDataInitializer implements CommandLineRunner {
                 
                 String orderCode = String.format("ORD-%d%02d%02d-%03d", year, month, day, i + 1);
                 
-                // Check if order code already exists
-                if (orderRepository.findByOrderCode(orderCode).isPresent()) {
+                // Reserve the order code (order_code_keys); skip if it is already taken
+                if (orderRepository.claimOrderCode(orderCode) == 0) {
                     continue;
                 }
                 
@@ -83,6 +83,8 @@ public class SecurityConfig {
                                 "/api/services/**"
                         ).permitAll()
                         .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        // Prometheus scrape không gửi JWT: chặn /actuator/prometheus ở ingress, chỉ mở cho mạng nội bộ
+                        .requestMatchers(HttpMethod.GET, "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
 
                 )
@@ -1,11 +1,12 @@
 package com.example.mecha.dashboard;
 
-import com.example.mecha.order.Order;
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.order.OrderRepository;
 import com.example.mecha.order.PaymentStatus;
 import com.example.mecha.product.ProductRepository;
 import com.example.mecha.user.UserRepository;
 import com.example.mecha.user.UserRole;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,36 +26,39 @@ public class DashboardService {
     private final ProductRepository productRepository;
 
     @Transactional(readOnly = true)
+    @Timed(value = MechaMetrics.DASHBOARD_STATS, histogram = true)
     public DashboardStatsDto getStats() {
-        List<Order> allOrders = orderRepository.findAll();
-        
         // Basic counts
-        long totalOrders = allOrders.size();
+        long totalOrders = orderRepository.count();
         long totalCustomers = userRepository.countByRole(UserRole.USER);
         long totalProducts = productRepository.count();
         
-        // Calculate total revenue (only PAID orders)
-        BigDecimal totalRevenue = allOrders.stream()
-                .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Calculate total revenue (only PAID orders) - SUM ngay trong DB
+        BigDecimal totalRevenue = orderRepository.sumTotalAmountByPaymentStatus(PaymentStatus.PAID);
+        
+        // Chỉ đọc các đơn của năm hiện tại (khoảng created_at cố định => chỉ quét partition của năm nay)
+        ZoneId zone = ZoneId.systemDefault();
+        int currentYear = Year.now().getValue();
+        Instant startOfYear = LocalDate.of(currentYear, 1, 1).atStartOfDay(zone).toInstant();
+        Instant startOfNextYear = LocalDate.of(currentYear + 1, 1, 1).atStartOfDay(zone).toInstant();
+        List<OrderRevenueRow> yearOrders = orderRepository.findRevenueRowsBetween(startOfYear, startOfNextYear);
         
         // Calculate monthly revenue (current month, PAID orders)
         YearMonth currentMonth = YearMonth.now();
-        Instant startOfMonth = currentMonth.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant endOfMonth = currentMonth.atEndOfMonth().atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()).toInstant();
+        Instant startOfMonth = currentMonth.atDay(1).atStartOfDay(zone).toInstant();
+        Instant endOfMonth = currentMonth.atEndOfMonth().atTime(LocalTime.MAX).atZone(zone).toInstant();
         
-        BigDecimal monthlyRevenue = allOrders.stream()
-                .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID)
-                .filter(o -> o.getCreatedAt().isAfter(startOfMonth) && o.getCreatedAt().isBefore(endOfMonth))
-                .map(Order::getTotalAmount)
+        BigDecimal monthlyRevenue = yearOrders.stream()
+                .filter(o -> o.paymentStatus() == PaymentStatus.PAID)
+                .filter(o -> o.createdAt().isAfter(startOfMonth) && o.createdAt().isBefore(endOfMonth))
+                .map(OrderRevenueRow::totalAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
         // Monthly sales data (last 12 months)
-        List<DashboardStatsDto.MonthlySalesData> monthlySales = calculateMonthlySales(allOrders);
+        List<DashboardStatsDto.MonthlySalesData> monthlySales = calculateMonthlySales(yearOrders);
         
         // Monthly stats (sales count + revenue)
-        List<DashboardStatsDto.MonthlyStatsData> monthlyStats = calculateMonthlyStats(allOrders);
+        List<DashboardStatsDto.MonthlyStatsData> monthlyStats = calculateMonthlyStats(yearOrders);
         
         return DashboardStatsDto.builder()
                 .totalOrders(totalOrders)
@@ -67,18 +71,18 @@ public class DashboardService {
                 .build();
     }
     
-    private List<DashboardStatsDto.MonthlySalesData> calculateMonthlySales(List<Order> orders) {
+    List<DashboardStatsDto.MonthlySalesData> calculateMonthlySales(List<OrderRevenueRow> orders) {
         String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
         int currentYear = Year.now().getValue();
         
         // Group orders by month
         Map<Integer, Long> ordersByMonth = orders.stream()
                 .filter(o -> {
-                    LocalDateTime ldt = LocalDateTime.ofInstant(o.getCreatedAt(), ZoneId.systemDefault());
+                    LocalDateTime ldt = LocalDateTime.ofInstant(o.createdAt(), ZoneId.systemDefault());
                     return ldt.getYear() == currentYear;
                 })
                 .collect(Collectors.groupingBy(
-                        o -> LocalDateTime.ofInstant(o.getCreatedAt(), ZoneId.systemDefault()).getMonthValue(),
+                        o -> LocalDateTime.ofInstant(o.createdAt(), ZoneId.systemDefault()).getMonthValue(),
                         Collectors.counting()
                 ));
         
@@ -93,28 +97,28 @@ public class DashboardService {
         return result;
     }
     
-    private List<DashboardStatsDto.MonthlyStatsData> calculateMonthlyStats(List<Order> orders) {
+    List<DashboardStatsDto.MonthlyStatsData> calculateMonthlyStats(List<OrderRevenueRow> orders) {
         String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
         int currentYear = Year.now().getValue();
         
         // Group orders by month - only PAID orders for revenue
-        Map<Integer, List<Order>> ordersByMonth = orders.stream()
+        Map<Integer, List<OrderRevenueRow>> ordersByMonth = orders.stream()
                 .filter(o -> {
-                    LocalDateTime ldt = LocalDateTime.ofInstant(o.getCreatedAt(), ZoneId.systemDefault());
+                    LocalDateTime ldt = LocalDateTime.ofInstant(o.createdAt(), ZoneId.systemDefault());
                     return ldt.getYear() == currentYear;
                 })
                 .collect(Collectors.groupingBy(
-                        o -> LocalDateTime.ofInstant(o.getCreatedAt(), ZoneId.systemDefault()).getMonthValue()
+                        o -> LocalDateTime.ofInstant(o.createdAt(), ZoneId.systemDefault()).getMonthValue()
                 ));
         
         List<DashboardStatsDto.MonthlyStatsData> result = new ArrayList<>();
         for (int i = 1; i <= 12; i++) {
-            List<Order> monthOrders = ordersByMonth.getOrDefault(i, Collections.emptyList());
+            List<OrderRevenueRow> monthOrders = ordersByMonth.getOrDefault(i, Collections.emptyList());
             
             long sales = monthOrders.size();
             BigDecimal revenue = monthOrders.stream()
-                    .filter(o -> o.getPaymentStatus() == PaymentStatus.PAID)
-                    .map(Order::getTotalAmount)
+                    .filter(o -> o.paymentStatus() == PaymentStatus.PAID)
+                    .map(OrderRevenueRow::totalAmount)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
             
             // Convert to millions for chart display
@@ -0,0 +1,12 @@
+package com.example.mecha.dashboard;
+
+import com.example.mecha.order.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * 1 dòng tối thiểu của Order dùng cho thống kê dashboard (không load entity / items / customer).
+ */
+public record OrderRevenueRow(Instant createdAt, BigDecimal totalAmount, PaymentStatus paymentStatus) {
+}
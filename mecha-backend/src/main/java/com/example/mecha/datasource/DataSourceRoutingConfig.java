@@ -0,0 +1,84 @@
+package com.example.mecha.datasource;
+
+import com.example.mecha.threading.DataSourceLimiterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Định tuyến transaction {@code @Transactional(readOnly = true)} sang replica.
+ *
+ * DataSource chính được bọc bằng {@link LazyConnectionDataSourceProxy}: connection thật chỉ được lấy ở câu SQL đầu tiên,
+ * lúc đó cờ readOnly của transaction đã được đặt, nên proxy chọn được {@link ReadOnlyRoutingDataSource} cho transaction đọc
+ * và primary cho mọi trường hợp khác (ghi, ngoài transaction, LISTEN của L2 cache...).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(DataSourceRoutingProperties properties, DataSourceLimiterProperties limiter,
+                                   MeterRegistry registry) {
+        return new ReplicaPool(properties, limiter, registry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(DataSourceRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.getStickyPrimaryMs());
+    }
+
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(
+            ObjectProvider<ReplicaPool> replicaPool,
+            ObjectProvider<ReadYourWritesTracker> readYourWrites,
+            ObjectProvider<MeterRegistry> registry
+    ) {
+        return new ReplicaRoutingPostProcessor(replicaPool, readYourWrites, registry);
+    }
+
+    /**
+     * Chạy sau ConnectionLimitingPostProcessor: primary bên trong proxy đã được giới hạn connection.
+     */
+    public static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingPostProcessor.class);
+
+        private final ObjectProvider<ReplicaPool> replicaPool;
+        private final ObjectProvider<ReadYourWritesTracker> readYourWrites;
+        private final ObjectProvider<MeterRegistry> registry;
+
+        ReplicaRoutingPostProcessor(ObjectProvider<ReplicaPool> replicaPool,
+                                    ObjectProvider<ReadYourWritesTracker> readYourWrites,
+                                    ObjectProvider<MeterRegistry> registry) {
+            this.replicaPool = replicaPool;
+            this.readYourWrites = readYourWrites;
+            this.registry = registry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+            proxy.setReadOnlyDataSource(new ReadOnlyRoutingDataSource(
+                    primary, replicaPool.getObject(), readYourWrites.getObject(), registry.getObject()));
+            log.info("Routing read-only transactions of '{}' to replicas", beanName);
+            return proxy;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mecha.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource-routing")
+@Getter
+@Setter
+public class DataSourceRoutingProperties {
+    /**
+     * Bật định tuyến transaction readOnly sang replica.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Các replica (streaming replication của primary).
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Số connection tối đa của mỗi pool replica.
+     */
+    private int replicaPoolSize = 10;
+
+    /**
+     * Chờ connection từ pool replica tối đa số ms này rồi chuyển sang primary (replica chết thì không treo request 30s).
+     */
+    private long replicaConnectionTimeoutMs = 1_000;
+
+    /**
+     * Replica trễ hơn primary quá số ms này thì tạm không dùng (đọc từ primary).
+     */
+    private long maxLagMs = 5_000;
+
+    /**
+     * Chu kỳ kiểm tra sức khỏe / độ trễ replica (ms).
+     */
+    private long healthCheckIntervalMs = 2_000;
+
+    /**
+     * Sau khi 1 user commit transaction ghi, các transaction đọc của user đó đi primary trong số ms này
+     * (read-your-writes, ví dụ xem đơn ngay sau checkout).
+     */
+    private long stickyPrimaryMs = 5_000;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mecha.datasource;
+
+import com.example.mecha.metrics.MechaMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource cho transaction readOnly: replica khỏe nếu có, ngược lại primary.
+ * Đi primary khi user vừa ghi (read-your-writes), khi không còn replica khỏe, hoặc khi replica lỗi lúc lấy connection.
+ *
+ * Session Hibernate đọc từ replica chuyển sang CacheMode.GET tới hết transaction: vẫn đọc L2 nhưng không ghi vào.
+ * Replica có thể trễ tới max-lag-ms; nếu nó ghi lại L2 ngay sau khi NOTIFY vừa evict thì bản cũ nằm trong cache
+ * tới hết TTL. L2 chỉ được nạp từ primary.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaPool replicas;
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final Counter toReplica;
+    private final Counter stickyPrimary;
+    private final Counter noReplicaPrimary;
+    private final Counter replicaErrorPrimary;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, ReplicaPool replicas, ReadYourWritesTracker readYourWrites,
+                                     MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+        this.toReplica = routeCounter(registry, "replica", "ok");
+        this.stickyPrimary = routeCounter(registry, "primary", "sticky");
+        this.noReplicaPrimary = routeCounter(registry, "primary", "no_replica");
+        this.replicaErrorPrimary = routeCounter(registry, "primary", "replica_error");
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String target, String reason) {
+        return Counter.builder(MechaMetrics.DB_ROUTE)
+                .description("Số transaction readOnly theo nơi đọc")
+                .tag(MechaMetrics.TAG_TARGET, target)
+                .tag(MechaMetrics.TAG_REASON, reason)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.isSticky()) {
+            stickyPrimary.increment();
+            return primary.getConnection();
+        }
+        ReplicaPool.Replica replica = replicas.pick();
+        if (replica == null) {
+            noReplicaPrimary.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            toReplica.increment();
+            disableCachePutForTransaction();
+            return connection;
+        } catch (SQLException e) {
+            replicas.markDown(replica, e);
+            replicaErrorPrimary.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private static void disableCachePutForTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (!(resource instanceof EntityManagerHolder holder)) {
+                continue;
+            }
+            EntityManager entityManager = holder.getEntityManager();
+            Session session = entityManager.unwrap(Session.class);
+            CacheMode previous = session.getCacheMode();
+            if (!previous.isPutEnabled()) {
+                continue;
+            }
+            session.setCacheMode(CacheMode.GET);
+            // Open-in-view giữ session sau transaction; lazy load lúc đó đi primary nên được ghi L2 như cũ
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (session.isOpen()) {
+                        session.setCacheMode(previous);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Read-only routing only supports the configured credentials");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.mecha.datasource;
+
+import com.example.mecha.user.User;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ghi nhớ user vừa commit transaction ghi, để {@link ReadOnlyRoutingDataSource} cho các transaction đọc
+ * của user đó đi primary trong stickyPrimaryMs (replica có thể chưa kịp replay thay đổi của chính họ).
+ *
+ * Spring Boot tự gắn mọi TransactionExecutionListener bean vào transaction manager.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private final long windowNanos;
+
+    // userId -> System.nanoTime() hết hạn
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyPrimaryMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(stickyPrimaryMs);
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            stickyUntil.put(userId, System.nanoTime() + windowNanos);
+        }
+    }
+
+    boolean isSticky() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        stickyUntil.remove(userId, until);
+        return false;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    @Nullable
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof User user ? user.getId() : null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.mecha.datasource;
+
+import com.example.mecha.metrics.MechaMetrics;
+import com.example.mecha.threading.ConnectionLimitingDataSource;
+import com.example.mecha.threading.DataSourceLimiterProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Các pool Hikari tới replica và trạng thái sức khỏe của chúng.
+ *
+ *  - Thread riêng kiểm tra mỗi replica theo chu kỳ: kết nối được và độ trễ replay WAL <= maxLagMs mới dùng
+ *  - {@link #pick()} xoay vòng giữa các replica đang khỏe, null nếu không còn replica nào
+ *  - Lỗi lấy connection từ 1 replica thì đánh dấu hỏng ngay, lần kiểm tra sau sẽ bật lại
+ */
+public class ReplicaPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    // Độ trễ = 0 nếu replica đã replay hết WAL đã nhận (primary rảnh thì replay timestamp đứng yên)
+    private static final String LAG_SQL = """
+            SELECT pg_is_in_recovery(),
+                   CASE WHEN NOT pg_is_in_recovery()
+                             OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    static final class Replica {
+        final String name;
+        final HikariDataSource hikari;
+        final DataSource dataSource;
+        volatile boolean healthy;
+        volatile double lagMs = -1;
+        volatile boolean warnedNotStandby;
+
+        Replica(String name, HikariDataSource hikari, DataSource dataSource) {
+            this.name = name;
+            this.hikari = hikari;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck;
+
+    public ReplicaPool(DataSourceRoutingProperties properties, DataSourceLimiterProperties limiter,
+                       MeterRegistry registry) {
+        this.maxLagMs = properties.getMaxLagMs();
+
+        int i = 0;
+        for (DataSourceRoutingProperties.Replica r : properties.getReplicas()) {
+            String name = "replica-" + (++i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(name);
+            config.setJdbcUrl(r.getUrl());
+            config.setUsername(r.getUsername());
+            config.setPassword(r.getPassword());
+            config.setMaximumPoolSize(properties.getReplicaPoolSize());
+            config.setConnectionTimeout(properties.getReplicaConnectionTimeoutMs());
+            config.setReadOnly(true);
+            // Replica chưa lên thì app vẫn khởi động, đọc từ primary cho tới khi health check thấy replica
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            HikariDataSource hikari = new HikariDataSource(config);
+
+            Replica replica = new Replica(name, hikari, ConnectionLimitingDataSource.wrap(hikari, name, limiter, registry));
+            replicas.add(replica);
+            Gauge.builder(MechaMetrics.DB_REPLICA_LAG, replica, x -> x.lagMs)
+                    .description("Độ trễ replay WAL của replica (ms), -1 nếu không kiểm tra được")
+                    .baseUnit("milliseconds")
+                    .tag(MechaMetrics.TAG_POOL, name)
+                    .register(registry);
+            Gauge.builder(MechaMetrics.DB_REPLICA_HEALTHY, replica, x -> x.healthy ? 1 : 0)
+                    .description("1 nếu replica đang nhận transaction đọc")
+                    .tag(MechaMetrics.TAG_POOL, name)
+                    .register(registry);
+        }
+
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkAll();
+        healthCheck.scheduleWithFixedDelay(this::checkAll,
+                properties.getHealthCheckIntervalMs(), properties.getHealthCheckIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replica khỏe tiếp theo (xoay vòng), null nếu không còn replica nào dùng được.
+     */
+    Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} marked down: {}", replica.name, cause.getMessage());
+        }
+    }
+
+    private void checkAll() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+        boolean wasHealthy = replica.healthy;
+        try (Connection connection = replica.hikari.getConnection();
+             Statement st = connection.createStatement()) {
+            st.setQueryTimeout(HEALTH_CHECK_TIMEOUT_SECONDS);
+            try (ResultSet rs = st.executeQuery(LAG_SQL)) {
+                rs.next();
+                boolean standby = rs.getBoolean(1);
+                replica.lagMs = rs.getDouble(2);
+                if (!standby && !replica.warnedNotStandby) {
+                    replica.warnedNotStandby = true;
+                    log.warn("Replica {} is not in recovery (not a standby): reads may see different data", replica.name);
+                }
+            }
+            replica.healthy = replica.lagMs <= maxLagMs;
+        } catch (SQLException | RuntimeException e) {
+            replica.lagMs = -1;
+            replica.healthy = false;
+        }
+
+        if (wasHealthy != replica.healthy) {
+            if (replica.healthy) {
+                log.info("Replica {} is up (lag {} ms)", replica.name, Math.round(replica.lagMs));
+            } else {
+                log.warn("Replica {} is down or lagging (lag {} ms, max {} ms)",
+                        replica.name, Math.round(replica.lagMs), maxLagMs);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.hikari.close();
+        }
+    }
+}
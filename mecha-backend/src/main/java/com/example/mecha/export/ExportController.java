@@ -0,0 +1,123 @@
+package com.example.mecha.export;
+
+import com.example.mecha.booking.BookingStatus;
+import com.example.mecha.order.OrderStatus;
+import com.example.mecha.order.PaymentStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.function.ToLongFunction;
+
+/**
+ * Export ghi trực tiếp vào response (không qua ResponseEntity / async) để transaction + cursor
+ * nằm trên thread của request và không bị giới hạn bởi timeout của async request.
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@Tag(name = "Export", description = "Xuất dữ liệu CSV / XLSX cho kế toán")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportController.class);
+
+    private final ExportService exportService;
+
+    @GetMapping("/orders")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Xuất đơn hàng (cùng filter với admin search)")
+    public void exportOrders(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response
+    ) throws IOException {
+        stream(response, format, "orders",
+                writer -> exportService.exportOrders(status, paymentStatus, from, to, writer));
+    }
+
+    @GetMapping("/order-items")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Xuất chi tiết đơn hàng (filter theo đơn)")
+    public void exportOrderItems(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response
+    ) throws IOException {
+        stream(response, format, "order-items",
+                writer -> exportService.exportOrderItems(status, paymentStatus, from, to, writer));
+    }
+
+    @GetMapping("/bookings")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Xuất booking (filter theo thời điểm hẹn)")
+    public void exportBookings(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            HttpServletResponse response
+    ) throws IOException {
+        stream(response, format, "bookings",
+                writer -> exportService.exportBookings(status, from, to, writer));
+    }
+
+    @GetMapping("/sepay-transactions")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Xuất giao dịch SePay")
+    public void exportSepayTransactions(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response
+    ) throws IOException {
+        stream(response, format, "sepay-transactions",
+                writer -> exportService.exportSepayTransactions(from, to, writer));
+    }
+
+    private void stream(HttpServletResponse response, ExportFormat format, String name,
+                        ToLongFunction<TabularWriter> export) throws IOException {
+        String filename = name + "-" + LocalDate.now() + "." + format.getExtension();
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        TabularWriter writer = format.newWriter(response.getOutputStream(), name);
+        try {
+            long rows = export.applyAsLong(writer);
+            log.info("Exported {} rows to {}", rows, filename);
+        } catch (UncheckedIOException e) {
+            // Client ngắt kết nối giữa chừng: cursor đã được đóng, không còn gì để trả về
+            log.info("Export {} cancelled: {}", filename, e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.mecha.export;
+
+import java.io.OutputStream;
+
+public enum ExportFormat {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public TabularWriter newWriter(OutputStream outputStream, String sheetName) {
+        return switch (this) {
+            case CSV -> new CsvTabularWriter(outputStream);
+            case XLSX -> new XlsxTabularWriter(outputStream, sheetName);
+        };
+    }
+}
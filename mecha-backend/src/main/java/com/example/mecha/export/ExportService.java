@@ -0,0 +1,201 @@
+package com.example.mecha.export;
+
+import com.example.mecha.booking.BookingStatus;
+import com.example.mecha.order.OrderStatus;
+import com.example.mecha.order.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Xuất dữ liệu lớn (hàng triệu dòng) cho kế toán.
+ *
+ * Đọc bằng JDBC cursor forward-only với fetch size cố định: Postgres chỉ trả dữ liệu theo từng lô
+ * khi connection không ở chế độ autocommit, nên mọi hàm export đều chạy trong transaction read-only.
+ * Mỗi dòng được ghi thẳng vào {@link TabularWriter} rồi bỏ đi, bộ nhớ không phụ thuộc số dòng.
+ *
+ * Nếu client ngắt kết nối, lần ghi / flush tiếp theo sẽ ném {@link UncheckedIOException}:
+ * JdbcTemplate đóng ResultSet + Statement, transaction rollback, query dừng lại.
+ */
+@Service
+public class ExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY_ROWS = 5000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ExportService(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    // Cùng filter với OrderService.adminSearch (created_at của đơn)
+    @Transactional(readOnly = true)
+    public long exportOrders(OrderStatus status, PaymentStatus paymentStatus, Instant from, Instant to,
+                             TabularWriter writer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("""
+                SELECT o.id, o.order_code, o.created_at, o.customer_id, u.full_name, u.email,
+                       o.status, o.payment_status, o.payment_method, o.total_amount,
+                       o.shipping_address, o.contact_phone, o.note
+                FROM orders o
+                LEFT JOIN users u ON u.id = o.customer_id
+                WHERE 1 = 1
+                """);
+        appendOrderFilters(sql, params, "o", status, paymentStatus, from, to);
+        sql.append(" ORDER BY o.created_at, o.id");
+
+        return stream(sql.toString(), params, List.of(
+                "id", "order_code", "created_at", "customer_id", "customer_name", "customer_email",
+                "status", "payment_status", "payment_method", "total_amount",
+                "shipping_address", "contact_phone", "note"), writer);
+    }
+
+    // Filter theo đơn chứa item; item cùng partition tháng với đơn nên lọc created_at trên cả 2 bảng
+    @Transactional(readOnly = true)
+    public long exportOrderItems(OrderStatus status, PaymentStatus paymentStatus, Instant from, Instant to,
+                                 TabularWriter writer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("""
+                SELECT oi.id, oi.order_id, o.order_code, o.created_at, oi.item_type,
+                       oi.product_id, p.name, oi.service_id, s.name,
+                       oi.quantity, oi.unit_price, oi.line_total
+                FROM order_items oi
+                JOIN orders o ON o.id = oi.order_id
+                LEFT JOIN products p ON p.id = oi.product_id
+                LEFT JOIN services s ON s.id = oi.service_id
+                WHERE 1 = 1
+                """);
+        appendOrderFilters(sql, params, "o", status, paymentStatus, from, to);
+        if (from != null) {
+            sql.append(" AND oi.created_at >= :from");
+        }
+        if (to != null) {
+            sql.append(" AND oi.created_at <= :to");
+        }
+        sql.append(" ORDER BY o.created_at, oi.order_id, oi.id");
+
+        return stream(sql.toString(), params, List.of(
+                "id", "order_id", "order_code", "order_created_at", "item_type",
+                "product_id", "product_name", "service_id", "service_name",
+                "quantity", "unit_price", "line_total"), writer);
+    }
+
+    // Cùng filter với BookingService.searchForAdmin (scheduled_at)
+    @Transactional(readOnly = true)
+    public long exportBookings(BookingStatus status, OffsetDateTime from, OffsetDateTime to, TabularWriter writer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("""
+                SELECT b.id, b.scheduled_at, b.status, b.payment_method, b.payment_status, b.price_at_booking,
+                       b.service_id, s.name, b.customer_id, c.full_name, b.technician_id, t.full_name,
+                       b.address_line, b.contact_phone, b.note, b.created_at
+                FROM bookings b
+                LEFT JOIN services s ON s.id = b.service_id
+                LEFT JOIN users c ON c.id = b.customer_id
+                LEFT JOIN users t ON t.id = b.technician_id
+                WHERE 1 = 1
+                """);
+        if (status != null) {
+            sql.append(" AND b.status = :status");
+            params.addValue("status", status.name());
+        }
+        if (from != null) {
+            sql.append(" AND b.scheduled_at >= :from");
+            params.addValue("from", Timestamp.from(from.toInstant()));
+        }
+        if (to != null) {
+            sql.append(" AND b.scheduled_at <= :to");
+            params.addValue("to", Timestamp.from(to.toInstant()));
+        }
+        sql.append(" ORDER BY b.scheduled_at, b.id");
+
+        return stream(sql.toString(), params, List.of(
+                "id", "scheduled_at", "status", "payment_method", "payment_status", "price_at_booking",
+                "service_id", "service_name", "customer_id", "customer_name", "technician_id", "technician_name",
+                "address_line", "contact_phone", "note", "created_at"), writer);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportSepayTransactions(Instant from, Instant to, TabularWriter writer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("""
+                SELECT t.id, t.sepay_id, t.transaction_date, t.gateway, t.account_number, t.sub_account,
+                       t.code, t.transfer_type, t.transfer_amount, t.accumulated, t.reference_code,
+                       t.content, t.description, t.order_id, t.created_at
+                FROM sepay_transactions t
+                WHERE 1 = 1
+                """);
+        if (from != null) {
+            sql.append(" AND t.created_at >= :from");
+            params.addValue("from", Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(" AND t.created_at <= :to");
+            params.addValue("to", Timestamp.from(to));
+        }
+        sql.append(" ORDER BY t.created_at, t.id");
+
+        return stream(sql.toString(), params, List.of(
+                "id", "sepay_id", "transaction_date", "gateway", "account_number", "sub_account",
+                "code", "transfer_type", "transfer_amount", "accumulated", "reference_code",
+                "content", "description", "order_id", "created_at"), writer);
+    }
+
+    private void appendOrderFilters(StringBuilder sql, MapSqlParameterSource params, String alias,
+                                    OrderStatus status, PaymentStatus paymentStatus, Instant from, Instant to) {
+        if (status != null) {
+            sql.append(" AND ").append(alias).append(".status = :status");
+            params.addValue("status", status.name());
+        }
+        if (paymentStatus != null) {
+            sql.append(" AND ").append(alias).append(".payment_status = :paymentStatus");
+            params.addValue("paymentStatus", paymentStatus.name());
+        }
+        if (from != null) {
+            sql.append(" AND ").append(alias).append(".created_at >= :from");
+            params.addValue("from", Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(alias).append(".created_at <= :to");
+            params.addValue("to", Timestamp.from(to));
+        }
+    }
+
+    private long stream(String sql, MapSqlParameterSource params, List<String> columns, TabularWriter writer) {
+        long[] count = {0};
+        try {
+            writer.writeHeader(columns);
+            jdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> {
+                Object[] row = new Object[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                try {
+                    writer.writeRow(row);
+                    if (++count[0] % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.mecha.export;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+
+/**
+ * Ghi dữ liệu dạng bảng thẳng ra output stream, từng dòng một (không giữ dòng nào trong bộ nhớ).
+ */
+public interface TabularWriter {
+
+    void writeHeader(List<String> columns) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * Đẩy dữ liệu đã ghi xuống client. Gọi định kỳ để phát hiện sớm client đã ngắt kết nối.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Ghi phần kết thúc file. Không đóng output stream (container tự đóng).
+     */
+    void finish() throws IOException;
+
+    static String toText(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant().toString();
+        }
+        if (value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.mecha.metrics;
+
+/**
+ * Tên metric của các luồng nóng. Mọi timer / summary có tiền tố "mecha." đều bật percentile histogram
+ * (management.metrics.distribution.percentiles-histogram.mecha) để alert theo p99 trên Prometheus.
+ */
+public final class MechaMetrics {
+
+    public static final String CHECKOUT = "mecha.checkout";
+    public static final String CART_MUTATION = "mecha.cart.mutation";
+    public static final String PRODUCT_LIST = "mecha.product.list";
+    public static final String PRODUCT_PAGE = "mecha.product.page";
+    public static final String PRODUCT_PAGE_DEGRADED = "mecha.product.page.degraded";
+    public static final String SEPAY_WEBHOOK = "mecha.sepay.webhook";
+    public static final String PDF_RENDER = "mecha.pdf.render";
+    public static final String EMAIL_SEND = "mecha.email.send";
+    public static final String JWT_VALIDATION = "mecha.jwt.validation";
+    public static final String DASHBOARD_STATS = "mecha.dashboard.stats";
+    public static final String HIBERNATE_STATEMENTS = "mecha.hibernate.statements";
+    public static final String DB_LIMITER_ACQUIRE = "mecha.db.limiter.acquire";
+    public static final String DB_LIMITER_WAITING = "mecha.db.limiter.waiting";
+    public static final String DB_LIMITER_IN_USE = "mecha.db.limiter.in.use";
+    public static final String VIRTUAL_THREAD_PINNED = "mecha.virtual.pinned";
+    public static final String DB_ROUTE = "mecha.db.route";
+    public static final String DB_REPLICA_LAG = "mecha.db.replica.lag";
+    public static final String DB_REPLICA_HEALTHY = "mecha.db.replica.healthy";
+    public static final String STARTUP_PHASE = "mecha.startup.phase";
+
+    public static final String TAG_OP = "op";
+    public static final String TAG_TYPE = "type";
+    public static final String TAG_KIND = "kind";
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String TAG_POOL = "pool";
+    public static final String TAG_TARGET = "target";
+    public static final String TAG_REASON = "reason";
+    public static final String TAG_PHASE = "phase";
+    public static final String TAG_PART = "part";
+
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_ERROR = "ERROR";
+
+    private MechaMetrics() {
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.mecha.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * - {@link TimedAspect}: cho phép dùng @Timed trên method của bean (checkout, giỏ hàng, PDF, dashboard...)
+ * - Gắn {@link StatementCountInspector} vào Hibernate để đếm số câu SQL mỗi request (xem {@link StatementCountFilter})
+ *
+ * Hikari, executor của @Async, @Scheduled và http.server.requests do Spring Boot Actuator tự đo.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountInspector());
+    }
+}
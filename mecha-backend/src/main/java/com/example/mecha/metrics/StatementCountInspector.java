@@ -0,0 +1,40 @@
+package com.example.mecha.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Đếm số câu SQL Hibernate chuẩn bị trên thread hiện tại, chỉ khi thread đó đang được
+ * {@link StatementCountFilter} theo dõi (thread nền như CartStore flush không bị đếm).
+ * Không sửa câu SQL.
+ */
+public class StatementCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    static void begin() {
+        COUNTER.set(new int[1]);
+    }
+
+    /**
+     * Số câu SQL đã đếm từ {@link #begin()} trên thread hiện tại (không kết thúc việc đếm).
+     */
+    static int current() {
+        int[] counter = COUNTER.get();
+        return counter != null ? counter[0] : 0;
+    }
+
+    static int end() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter != null ? counter[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
@@ -24,7 +24,8 @@ public class Order {
     private Long id;
 
     // Mã đơn hàng, ví dụ: ORD-20250101-0001
-    @Column(unique = true)
+    // (bảng orders partition theo created_at nên DB chỉ có index thường trên order_code;
+    // unique được giữ qua bảng order_code_keys, xem OrderRepository.claimOrderCode)
     private String orderCode;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -66,6 +67,11 @@ public class Order {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // Optimistic locking: mọi thay đổi trạng thái đều kiểm tra version (xem OrderStateMachine)
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         Instant now = Instant.now();
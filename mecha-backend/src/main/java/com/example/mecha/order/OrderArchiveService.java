@@ -0,0 +1,129 @@
+package com.example.mecha.order;
+
+import com.example.mecha.cart.CartItemType;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.order.dto.OrderDto;
+import com.example.mecha.order.dto.OrderItemDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Đọc đơn hàng đã archive (schema archive, xem PartitionMaintenanceTasks).
+ * Các bảng archive không có entity JPA nên đọc bằng JDBC; bắt buộc có khoảng thời gian
+ * để chỉ quét các partition tháng liên quan.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    // Giới hạn khoảng thời gian mỗi lần tra cứu archive
+    private static final Duration MAX_RANGE = Duration.ofDays(366);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<OrderDto> search(Instant from, Instant to, OrderStatus status, PaymentStatus paymentStatus) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw DomainErrors.INVALID_DATE_RANGE;
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw DomainErrors.DATE_RANGE_TOO_LARGE;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.from(from))
+                .addValue("to", Timestamp.from(to));
+
+        StringBuilder sql = new StringBuilder("""
+                SELECT o.id, o.order_code, o.customer_id, u.full_name, o.total_amount,
+                       o.payment_method, o.payment_status, o.status,
+                       o.shipping_address, o.contact_phone, o.note, o.created_at
+                FROM archive.orders o
+                LEFT JOIN users u ON u.id = o.customer_id
+                WHERE o.created_at >= :from
+                  AND o.created_at < :to
+                """);
+        if (status != null) {
+            sql.append(" AND o.status = :status");
+            params.addValue("status", status.name());
+        }
+        if (paymentStatus != null) {
+            sql.append(" AND o.payment_status = :paymentStatus");
+            params.addValue("paymentStatus", paymentStatus.name());
+        }
+        sql.append(" ORDER BY o.created_at DESC");
+
+        Map<Long, OrderDto> orders = new LinkedHashMap<>();
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            OrderDto dto = mapOrder(rs);
+            orders.put(dto.getId(), dto);
+        });
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+
+        // Items cùng tháng với đơn => cùng khoảng created_at
+        params.addValue("orderIds", orders.keySet());
+        jdbcTemplate.query("""
+                SELECT oi.id, oi.order_id, oi.item_type, oi.product_id, p.name AS product_name,
+                       oi.service_id, s.name AS service_name, oi.quantity, oi.unit_price, oi.line_total
+                FROM archive.order_items oi
+                LEFT JOIN products p ON p.id = oi.product_id
+                LEFT JOIN services s ON s.id = oi.service_id
+                WHERE oi.order_id IN (:orderIds)
+                  AND oi.created_at >= :from
+                  AND oi.created_at < :to
+                ORDER BY oi.id
+                """, params, rs -> {
+            OrderDto order = orders.get(rs.getLong("order_id"));
+            if (order != null) {
+                order.getItems().add(mapItem(rs));
+            }
+        });
+
+        return new ArrayList<>(orders.values());
+    }
+
+    private OrderDto mapOrder(ResultSet rs) throws SQLException {
+        return OrderDto.builder()
+                .id(rs.getLong("id"))
+                .orderCode(rs.getString("order_code"))
+                .customerId(rs.getLong("customer_id"))
+                .customerName(rs.getString("full_name"))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .paymentMethod(PaymentMethod.valueOf(rs.getString("payment_method")))
+                .paymentStatus(PaymentStatus.valueOf(rs.getString("payment_status")))
+                .status(OrderStatus.valueOf(rs.getString("status")))
+                .shippingAddress(rs.getString("shipping_address"))
+                .contactPhone(rs.getString("contact_phone"))
+                .note(rs.getString("note"))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private OrderItemDto mapItem(ResultSet rs) throws SQLException {
+        return OrderItemDto.builder()
+                .id(rs.getLong("id"))
+                .itemType(CartItemType.valueOf(rs.getString("item_type")))
+                .productId(rs.getObject("product_id", Long.class))
+                .productName(rs.getString("product_name"))
+                .serviceId(rs.getObject("service_id", Long.class))
+                .serviceName(rs.getString("service_name"))
+                .quantity(rs.getInt("quantity"))
+                .unitPrice(rs.getBigDecimal("unit_price"))
+                .lineTotal(rs.getBigDecimal("line_total"))
+                .build();
+    }
+}
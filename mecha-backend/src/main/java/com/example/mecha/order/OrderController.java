@@ -1,6 +1,8 @@
 // order/OrderController.java
 package com.example.mecha.order;
 
+import com.example.mecha.cart.CartService;
+import com.example.mecha.common.ConditionalGet;
 import com.example.mecha.order.dto.OrderCreateRequest;
 import com.example.mecha.order.dto.OrderDto;
 import com.example.mecha.user.User;
@@ -17,6 +19,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.Instant;
 import java.util.List;
@@ -30,6 +33,9 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CartService cartService;
+    private final OrderArchiveService orderArchiveService;
+    private final ConditionalGet conditionalGet;
 
     // USER: checkout từ giỏ hàng
     @PostMapping("/orders/checkout")
@@ -39,6 +45,8 @@ public class OrderController {
             @AuthenticationPrincipal User currentUser,
             @Valid @RequestBody OrderCreateRequest request
     ) {
+        // Ghi giỏ (write-behind) trước, ngoài transaction của checkout: flush dùng connection riêng
+        cartService.flushCart(currentUser);
         return ResponseEntity.ok(orderService.checkout(currentUser, request));
     }
 
@@ -47,9 +55,12 @@ public class OrderController {
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Danh sách đơn hàng của tôi")
     public ResponseEntity<List<OrderDto>> myOrders(
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal User currentUser,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(orderService.listMyOrders(currentUser));
+        return conditionalGet.personal(request, "orders:" + currentUser.getId(),
+                () -> orderService.myOrdersVersion(currentUser),
+                () -> orderService.listMyOrders(currentUser));
     }
 
     // Xem chi tiết đơn hàng (chỉ chủ đơn hoặc admin/staff)
@@ -58,9 +69,12 @@ public class OrderController {
     @Operation(summary = "Chi tiết đơn hàng")
     public ResponseEntity<OrderDto> getOrder(
             @PathVariable @Positive Long id,
-            @AuthenticationPrincipal User currentUser
+            @AuthenticationPrincipal User currentUser,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(orderService.getByIdForUser(id, currentUser));
+        return conditionalGet.personal(request, "order:" + currentUser.getId() + ":" + id,
+                () -> orderService.orderVersionForUser(id, currentUser),
+                () -> orderService.getByIdForUser(id, currentUser));
     }
 
     // USER: hủy đơn hàng (chỉ khi còn PENDING)
@@ -90,6 +104,19 @@ public class OrderController {
         return ResponseEntity.ok(orderService.adminSearch(status, paymentStatus, from, to));
     }
 
+    // ADMIN / STAFF: tra cứu đơn hàng đã archive (partition cũ đã detach khỏi bảng orders)
+    @GetMapping("/admin/orders/archive")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Admin: tra cứu đơn hàng đã lưu trữ (bắt buộc from/to, tối đa 1 năm)")
+    public ResponseEntity<List<OrderDto>> archiveSearch(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus
+    ) {
+        return ResponseEntity.ok(orderArchiveService.search(from, to, status, paymentStatus));
+    }
+
     // ADMIN / STAFF: cập nhật trạng thái đơn hàng
     @PatchMapping("/admin/orders/{id}/status")
     @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
@@ -1,8 +1,11 @@
 package com.example.mecha.order;
 
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.order.dto.OrderDto;
 import com.example.mecha.order.dto.OrderItemDto;
 import com.example.mecha.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,7 @@ import java.util.Locale;
 public class OrderEmailService {
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username:noreply@getabec.vn}")
     private String fromEmail;
@@ -75,10 +79,21 @@ public class OrderEmailService {
         helper.setSubject(subject);
         helper.setText(htmlBody, true);
 
-        mailSender.send(message);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = MechaMetrics.OUTCOME_ERROR;
+        try {
+            mailSender.send(message);
+            outcome = MechaMetrics.OUTCOME_SUCCESS;
+        } finally {
+            sample.stop(Timer.builder(MechaMetrics.EMAIL_SEND)
+                    .tag(MechaMetrics.TAG_KIND, "order")
+                    .tag(MechaMetrics.TAG_OUTCOME, outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 
-    private String buildOrderConfirmationHtml(User customer, OrderDto order) {
+    String buildOrderConfirmationHtml(User customer, OrderDto order) {
         StringBuilder html = new StringBuilder();
         
         html.append("<!DOCTYPE html>");
@@ -159,7 +174,7 @@ public class OrderEmailService {
         return html.toString();
     }
 
-    private String buildOrderStatusUpdateHtml(User customer, OrderDto order, String oldStatus) {
+    String buildOrderStatusUpdateHtml(User customer, OrderDto order, String oldStatus) {
         StringBuilder html = new StringBuilder();
         
         html.append("<!DOCTYPE html>");
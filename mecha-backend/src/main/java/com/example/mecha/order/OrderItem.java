@@ -23,9 +23,9 @@ public class OrderItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // Đơn hàng
+    // Đơn hàng (không có FK ở DB: orders là bảng partitioned, PK = (id, created_at))
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
 
     @Enumerated(EnumType.STRING)
@@ -54,6 +54,9 @@ public class OrderItem {
 
     @PrePersist
     public void prePersist() {
-        createdAt = Instant.now();
+        // Cùng created_at với đơn để item nằm cùng partition tháng với order
+        if (createdAt == null) {
+            createdAt = order != null && order.getCreatedAt() != null ? order.getCreatedAt() : Instant.now();
+        }
     }
 }
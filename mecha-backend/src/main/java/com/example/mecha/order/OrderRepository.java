@@ -1,43 +1,146 @@
 // order/OrderRepository.java
 package com.example.mecha.order;
 
+import com.example.mecha.common.ResourceVersion;
+import com.example.mecha.dashboard.OrderRevenueRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
     List<Order> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
 
     Optional<Order> findByOrderCode(String orderCode); // NEW
+
+    /**
+     * Giữ chỗ mã đơn trong bảng order_code_keys (không partition, PK = order_code).
+     * Trả về 1 nếu mã chưa được dùng, 0 nếu đã có đơn mang mã này (kể cả đơn đã archive).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+           INSERT INTO order_code_keys (order_code, created_at)
+           VALUES (:orderCode, now())
+           ON CONFLICT (order_code) DO NOTHING
+           """, nativeQuery = true)
+    int claimOrderCode(@Param("orderCode") String orderCode);
+
+    // Version cho ETag: đơn + tên sản phẩm / dịch vụ trong OrderItemDto (greatest bỏ qua NULL)
+
+    @Query("""
+           SELECT new com.example.mecha.common.ResourceVersion(
+               count(DISTINCT o), greatest(max(o.updatedAt), max(p.updatedAt), max(s.updatedAt)))
+           FROM Order o
+           LEFT JOIN o.items it LEFT JOIN it.product p LEFT JOIN it.service s
+           WHERE o.customer.id = :customerId
+           """)
+    ResourceVersion findVersionByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("""
+           SELECT new com.example.mecha.common.ResourceVersion(
+               count(DISTINCT o), greatest(max(o.updatedAt), max(p.updatedAt), max(s.updatedAt)))
+           FROM Order o
+           LEFT JOIN o.items it LEFT JOIN it.product p LEFT JOIN it.service s
+           WHERE o.id = :id
+           """)
+    ResourceVersion findVersionById(@Param("id") Long id);
+
+    @Query("""
+           SELECT new com.example.mecha.common.ResourceVersion(
+               count(DISTINCT o), greatest(max(o.updatedAt), max(p.updatedAt), max(s.updatedAt)))
+           FROM Order o
+           LEFT JOIN o.items it LEFT JOIN it.product p LEFT JOIN it.service s
+           WHERE o.id = :id AND o.customer.id = :customerId
+           """)
+    ResourceVersion findVersionByIdAndCustomerId(@Param("id") Long id, @Param("customerId") Long customerId);
     
     // Method findAll ordered by createdAt descending (tránh null param issue)
     List<Order> findAllByOrderByCreatedAtDesc();
 
+    // Load nhiều đơn kèm items + product/service trong 1 query (render PDF hàng loạt)
     @Query("""
-           SELECT o FROM Order o
-           WHERE (:status IS NULL OR o.status = :status)
-             AND (:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus)
-             AND (:from IS NULL OR o.createdAt >= :from)
-             AND (:to IS NULL OR o.createdAt <= :to)
-           ORDER BY o.createdAt DESC
+           SELECT DISTINCT o FROM Order o
+           LEFT JOIN FETCH o.items it
+           LEFT JOIN FETCH it.product
+           LEFT JOIN FETCH it.service
+           WHERE o.id IN :ids
            """)
-    List<Order> searchForAdmin(
-            @Param("status") OrderStatus status,
-            @Param("paymentStatus") PaymentStatus paymentStatus,
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Tổng doanh thu các đơn đã thanh toán (dashboard)
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.paymentStatus = :paymentStatus")
+    BigDecimal sumTotalAmountByPaymentStatus(@Param("paymentStatus") PaymentStatus paymentStatus);
+
+    // Các dòng thống kê trong [from, to): điều kiện created_at cố định nên chỉ quét các partition tháng liên quan
+    @Query("""
+           SELECT new com.example.mecha.dashboard.OrderRevenueRow(o.createdAt, o.totalAmount, o.paymentStatus)
+           FROM Order o
+           WHERE o.createdAt >= :from
+             AND o.createdAt < :to
+           """)
+    List<OrderRevenueRow> findRevenueRowsBetween(
             @Param("from") Instant from,
             @Param("to") Instant to
     );
 
-    // Find expired unpaid BANK_TRANSFER orders for auto-cancel
-    List<Order> findByPaymentMethodAndPaymentStatusAndStatusAndCreatedAtBefore(
-            PaymentMethod paymentMethod,
-            PaymentStatus paymentStatus,
-            OrderStatus status,
-            Instant createdAtBefore
+    // Find expired unpaid BANK_TRANSFER orders for auto-cancel (chỉ lấy id, từng đơn sẽ đi qua OrderStateMachine)
+    @Query("""
+           SELECT o.id FROM Order o
+           WHERE o.paymentMethod = :paymentMethod
+             AND o.paymentStatus = :paymentStatus
+             AND o.status = :status
+             AND o.createdAt >= :createdAtAfter
+             AND o.createdAt < :createdAtBefore
+           """)
+    List<Long> findIdsByPaymentMethodAndPaymentStatusAndStatusAndCreatedAtBetween(
+            @Param("paymentMethod") PaymentMethod paymentMethod,
+            @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("status") OrderStatus status,
+            @Param("createdAtAfter") Instant createdAtAfter,
+            @Param("createdAtBefore") Instant createdAtBefore
+    );
+
+    // Đọc trạng thái hiện tại trực tiếp từ DB (không qua cache của persistence context)
+    @Query("""
+           SELECT new com.example.mecha.order.OrderState(
+                  o.id, o.orderCode, o.customer.id, o.status, o.paymentStatus,
+                  o.paymentMethod, o.totalAmount, o.note, o.version)
+           FROM Order o
+           WHERE o.id = :id
+           """)
+    Optional<OrderState> findStateById(@Param("id") Long id);
+
+    /**
+     * UPDATE có điều kiện theo version (compare-and-set). Trả về 0 nếu đơn đã bị
+     * transaction khác thay đổi kể từ lần đọc {@code version}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+           UPDATE Order o
+           SET o.status = :status,
+               o.paymentStatus = :paymentStatus,
+               o.note = :note,
+               o.updatedAt = :now,
+               o.version = COALESCE(o.version, 0) + 1
+           WHERE o.id = :id
+             AND COALESCE(o.version, 0) = :version
+           """)
+    int updateStateIfVersion(
+            @Param("id") Long id,
+            @Param("status") OrderStatus status,
+            @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("note") String note,
+            @Param("now") Instant now,
+            @Param("version") long version
     );
 }
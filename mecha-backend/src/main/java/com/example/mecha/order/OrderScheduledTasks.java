@@ -6,7 +6,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -25,39 +24,58 @@ public class OrderScheduledTasks {
     // Time limit for bank transfer payment (30 minutes)
     private static final int PAYMENT_TIMEOUT_MINUTES = 30;
 
+    // Chỉ quét đơn trong 7 ngày gần nhất: job chạy mỗi 5 phút nên đơn cũ hơn đã được xử lý,
+    // và khoảng created_at đóng 2 đầu giúp Postgres chỉ đọc 1-2 partition tháng gần nhất
+    private static final int LOOKBACK_DAYS = 7;
+
     private final OrderRepository orderRepository;
+    private final OrderStateMachine orderStateMachine;
 
     /**
-     * Run every 5 minutes to check and cancel expired unpaid orders
+     * Run every 5 minutes to check and cancel expired unpaid orders.
+     * Mỗi đơn được hủy trong transaction riêng qua OrderStateMachine, nên 1 đơn vừa được
+     * webhook SePay đánh dấu PAID sẽ không bị ghi đè.
      */
     @Scheduled(fixedRate = 5 * 60 * 1000) // every 5 minutes
-    @Transactional
     public void cancelExpiredUnpaidOrders() {
-        Instant cutoffTime = Instant.now().minus(PAYMENT_TIMEOUT_MINUTES, ChronoUnit.MINUTES);
+        Instant now = Instant.now();
+        Instant cutoffTime = now.minus(PAYMENT_TIMEOUT_MINUTES, ChronoUnit.MINUTES);
         
         // Find BANK_TRANSFER orders that are PENDING payment and older than 30 minutes
-        List<Order> expiredOrders = orderRepository.findByPaymentMethodAndPaymentStatusAndStatusAndCreatedAtBefore(
+        List<Long> expiredOrderIds = orderRepository.findIdsByPaymentMethodAndPaymentStatusAndStatusAndCreatedAtBetween(
                 PaymentMethod.BANK_TRANSFER,
                 PaymentStatus.PENDING,
                 OrderStatus.PENDING,
+                now.minus(LOOKBACK_DAYS, ChronoUnit.DAYS),
                 cutoffTime
         );
         
-        if (expiredOrders.isEmpty()) {
+        if (expiredOrderIds.isEmpty()) {
             return;
         }
         
-        log.info("Found {} unpaid BANK_TRANSFER orders to cancel", expiredOrders.size());
+        log.info("Found {} unpaid BANK_TRANSFER orders to cancel", expiredOrderIds.size());
         
-        for (Order order : expiredOrders) {
-            order.setStatus(OrderStatus.CANCELLED);
-            order.setPaymentStatus(PaymentStatus.FAILED);
-            order.setNote((order.getNote() != null ? order.getNote() + " | " : "") + 
-                    "Tự động hủy do không thanh toán trong 30 phút");
-            
-            log.info("Auto-cancelled order {} due to payment timeout", order.getOrderCode());
+        for (Long orderId : expiredOrderIds) {
+            try {
+                boolean cancelled = orderStateMachine.transition(orderId, state -> {
+                    // Đơn có thể đã được thanh toán / hủy kể từ lúc query danh sách
+                    if (state.status() != OrderStatus.PENDING || state.paymentStatus() != PaymentStatus.PENDING) {
+                        return OrderStateMachine.Transition.NONE;
+                    }
+                    return new OrderStateMachine.Transition(
+                            OrderStatus.CANCELLED,
+                            PaymentStatus.FAILED,
+                            "Tự động hủy do không thanh toán trong 30 phút"
+                    );
+                }).isPresent();
+
+                if (cancelled) {
+                    log.info("Auto-cancelled order id={} due to payment timeout", orderId);
+                }
+            } catch (Exception e) {
+                log.warn("Cannot auto-cancel order id={}: {}", orderId, e.getMessage());
+            }
         }
-        
-        orderRepository.saveAll(expiredOrders);
     }
 }
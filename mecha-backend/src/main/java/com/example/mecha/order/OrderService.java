@@ -5,20 +5,24 @@ import com.example.mecha.cart.Cart;
 import com.example.mecha.cart.CartItem;
 import com.example.mecha.cart.CartItemType;
 import com.example.mecha.cart.CartService;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.common.ResourceVersion;
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.order.dto.OrderCreateRequest;
 import com.example.mecha.order.dto.OrderDto;
 import com.example.mecha.order.dto.OrderItemDto;
 import com.example.mecha.product.Product;
 import com.example.mecha.product.ProductRepository;
+import com.example.mecha.product.ProductService;
 import com.example.mecha.shipping.ShippingAddress;
 import com.example.mecha.shipping.ShippingAddressService;
 import com.example.mecha.user.User;
 import com.example.mecha.user.UserRole;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -29,20 +33,26 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_ORDER_CODE_ATTEMPTS = 5;
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final CartService cartService;
     private final ProductRepository productRepository;
+    private final ProductService productService;
     private final ShippingAddressService shippingAddressService;
     private final OrderEmailService orderEmailService;
+    private final OrderStateMachine orderStateMachine;
 
 
     @Transactional
+    @Timed(value = MechaMetrics.CHECKOUT, histogram = true)
     public OrderDto checkout(User currentUser, OrderCreateRequest request) {
+        // Giỏ hàng ghi xuống DB theo kiểu write-behind: OrderController đã flush trước khi vào transaction này
         Cart cart = cartService.getOrCreateCart(currentUser);
 
         if (cart.getItems().isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CART_IS_EMPTY");
+            throw DomainErrors.CART_IS_EMPTY;
         }
 
         // Lấy địa chỉ giao hàng
@@ -56,25 +66,31 @@ public class OrderService {
             contactPhoneText = addr.getPhone();
         } else {
             if (request.getShippingAddress() == null || request.getShippingAddress().isBlank()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "shippingAddress_required");
+                throw DomainErrors.SHIPPING_ADDRESS_REQUIRED;
             }
             if (request.getContactPhone() == null || request.getContactPhone().isBlank()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "contactPhone_required");
+                throw DomainErrors.CONTACT_PHONE_REQUIRED;
             }
             shippingAddressText = request.getShippingAddress();
             contactPhoneText = request.getContactPhone();
         }
 
-        // Check tồn kho product
+        // Check tồn kho product + tính lại đơn giá theo bảng giá hiện tại (giá trong giỏ chụp lúc thêm, có thể đã cũ)
         for (CartItem item : cart.getItems()) {
+            BigDecimal unitPrice;
             if (item.getItemType() == CartItemType.PRODUCT) {
                 Product product = productRepository.findById(item.getProduct().getId())
-                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "PRODUCT_NOT_FOUND"));
+                        .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
 
                 if (product.getStockQuantity() < item.getQuantity()) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "INSUFFICIENT_STOCK");
+                    throw DomainErrors.INSUFFICIENT_STOCK;
                 }
+                unitPrice = productService.calculateUnitPrice(product.getId(), item.getQuantity());
+            } else {
+                unitPrice = item.getService().getBasePrice();
             }
+            item.setUnitPrice(unitPrice);
+            item.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(item.getQuantity())));
         }
 
         // Tổng tiền
@@ -84,7 +100,7 @@ public class OrderService {
 
         Order order = Order.builder()
                 .customer(currentUser)
-                .orderCode(generateOrderCode())
+                .orderCode(claimOrderCode())
                 .totalAmount(total)
                 .paymentMethod(request.getPaymentMethod())
                 .paymentStatus(PaymentStatus.PENDING)
@@ -136,15 +152,33 @@ public class OrderService {
     @Transactional(readOnly = true)
     public OrderDto getByIdForUser(Long id, User currentUser) {
         Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ORDER_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.ORDER_NOT_FOUND);
 
 
         if (!canView(order, currentUser)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "NOT_ALLOWED");
+            throw DomainErrors.NOT_ALLOWED;
         }
         return toDto(order);
     }
 
+    // Version cho ETag của 2 API trên (xem ConditionalGet)
+
+    @Transactional(readOnly = true)
+    public ResourceVersion myOrdersVersion(User currentUser) {
+        return orderRepository.findVersionByCustomerId(currentUser.getId());
+    }
+
+    /**
+     * Đơn không xem được (không tồn tại / của người khác) cho count = 0 => không có ETag, body ném lỗi như cũ.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion orderVersionForUser(Long id, User currentUser) {
+        if (currentUser.getRole() == UserRole.ADMIN || currentUser.getRole() == UserRole.STAFF) {
+            return orderRepository.findVersionById(id);
+        }
+        return orderRepository.findVersionByIdAndCustomerId(id, currentUser.getId());
+    }
+
     @Transactional(readOnly = true)
     public List<OrderDto> adminSearch(
             OrderStatus status,
@@ -152,68 +186,54 @@ public class OrderService {
             Instant from,
             Instant to
     ) {
-        List<Order> orders;
-        
-        // Nếu tất cả params là null, lấy tất cả orders
-        if (status == null && paymentStatus == null && from == null && to == null) {
-            orders = orderRepository.findAllByOrderByCreatedAtDesc();
-        } else {
-            // Filter trong Java thay vì dùng query với null params
-            orders = orderRepository.findAllByOrderByCreatedAtDesc();
-            orders = orders.stream()
-                .filter(o -> status == null || o.getStatus() == status)
-                .filter(o -> paymentStatus == null || o.getPaymentStatus() == paymentStatus)
-                .filter(o -> from == null || (o.getCreatedAt() != null && !o.getCreatedAt().isBefore(from)))
-                .filter(o -> to == null || (o.getCreatedAt() != null && !o.getCreatedAt().isAfter(to)))
-                .toList();
-        }
-        
+        // Chỉ đưa filter có giá trị vào WHERE để Postgres prune được partition theo created_at
+        List<Order> orders = orderRepository.findAll(
+                OrderSpecifications.adminFilter(status, paymentStatus, from, to),
+                Sort.by(Sort.Direction.DESC, "createdAt"));
+
         return orders.stream().map(this::toDto).toList();
     }
 
     @Transactional
     public OrderDto updateOrderStatus(Long id, OrderStatus newStatus) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ORDER_NOT_FOUND"));
-        order.setStatus(newStatus);
-        return toDto(order);
+        orderStateMachine.transition(id, state -> OrderStateMachine.Transition.status(newStatus));
+        return toDto(loadOrder(id));
     }
 
     @Transactional
     public OrderDto updatePaymentStatus(Long id, PaymentStatus newStatus) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ORDER_NOT_FOUND"));
-        order.setPaymentStatus(newStatus);
-        return toDto(order);
+        orderStateMachine.transition(id, state -> OrderStateMachine.Transition.payment(newStatus));
+        return toDto(loadOrder(id));
     }
 
     @Transactional
     public OrderDto cancelOrderByUser(Long id, User currentUser) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ORDER_NOT_FOUND"));
+        orderStateMachine.transition(id, state -> {
+            // Check ownership
+            if (!state.customerId().equals(currentUser.getId())) {
+                throw DomainErrors.NOT_ALLOWED;
+            }
 
-        // Check ownership
-        if (!order.getCustomer().getId().equals(currentUser.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "NOT_ALLOWED");
-        }
+            // Only allow cancel PENDING orders
+            if (state.status() != OrderStatus.PENDING) {
+                throw DomainErrors.CANNOT_CANCEL_ORDER;
+            }
 
-        // Only allow cancel PENDING orders
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CANNOT_CANCEL_ORDER");
-        }
+            // If payment was pending, mark as failed
+            PaymentStatus payment = state.paymentStatus() == PaymentStatus.PENDING
+                    ? PaymentStatus.FAILED
+                    : null;
 
-        order.setStatus(OrderStatus.CANCELLED);
-        
-        // If payment was pending, mark as failed
-        if (order.getPaymentStatus() == PaymentStatus.PENDING) {
-            order.setPaymentStatus(PaymentStatus.FAILED);
-        }
+            return new OrderStateMachine.Transition(OrderStatus.CANCELLED, payment, "Khách hàng hủy đơn");
+        });
 
-        order.setNote((order.getNote() != null ? order.getNote() + " | " : "") + "Khách hàng hủy đơn");
-        
-        return toDto(order);
+        return toDto(loadOrder(id));
     }
 
+    private Order loadOrder(Long id) {
+        return orderRepository.findById(id)
+                .orElseThrow(() -> DomainErrors.ORDER_NOT_FOUND);
+    }
 
     private boolean canView(Order order, User currentUser) {
         if (currentUser.getRole() == UserRole.ADMIN || currentUser.getRole() == UserRole.STAFF) {
@@ -222,6 +242,21 @@ public class OrderService {
         return order.getCustomer().getId().equals(currentUser.getId());
     }
 
+    /**
+     * Sinh mã đơn chưa dùng. orders partition theo tháng nên order_code không unique ở DB;
+     * mã được giữ chỗ qua order_code_keys, trùng thì sinh lại. Mã 8 ký tự hex (32 bit) là format
+     * SePay đang parse từ nội dung chuyển khoản nên giữ nguyên độ dài.
+     */
+    private String claimOrderCode() {
+        for (int attempt = 0; attempt < MAX_ORDER_CODE_ATTEMPTS; attempt++) {
+            String code = generateOrderCode();
+            if (orderRepository.claimOrderCode(code) == 1) {
+                return code;
+            }
+        }
+        throw new IllegalStateException("Could not allocate a unique order code");
+    }
+
     private String generateOrderCode() {
         // Đơn giản: ORD-<random> (có thể thay bằng pattern đẹp hơn)
         return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
@@ -256,7 +291,7 @@ public class OrderService {
         return sb.length() > 0 ? sb.toString() : "Không có địa chỉ";
     }
 
-    private OrderDto toDto(Order o) {
+    OrderDto toDto(Order o) {
         List<OrderItem> orderItems = o.getItems();
         if (orderItems == null) {
             orderItems = new java.util.ArrayList<>();
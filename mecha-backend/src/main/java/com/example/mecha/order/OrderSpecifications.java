@@ -0,0 +1,54 @@
+package com.example.mecha.order;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+
+/**
+ * Điều kiện lọc Order cho admin. Chỉ filter nào có giá trị mới được đưa vào WHERE,
+ * để điều kiện trên created_at là so sánh trực tiếp (không bọc trong ":from IS NULL OR ...")
+ * và Postgres loại được các partition tháng nằm ngoài khoảng.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> adminFilter(
+            OrderStatus status,
+            PaymentStatus paymentStatus,
+            Instant from,
+            Instant to
+    ) {
+        Specification<Order> spec = Specification.where(null);
+        if (status != null) {
+            spec = spec.and(hasStatus(status));
+        }
+        if (paymentStatus != null) {
+            spec = spec.and(hasPaymentStatus(paymentStatus));
+        }
+        if (from != null) {
+            spec = spec.and(createdFrom(from));
+        }
+        if (to != null) {
+            spec = spec.and(createdTo(to));
+        }
+        return spec;
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> hasPaymentStatus(PaymentStatus paymentStatus) {
+        return (root, query, cb) -> cb.equal(root.get("paymentStatus"), paymentStatus);
+    }
+
+    public static Specification<Order> createdFrom(Instant from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Order> createdTo(Instant to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), to);
+    }
+}
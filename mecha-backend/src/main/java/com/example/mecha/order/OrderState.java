@@ -0,0 +1,20 @@
+package com.example.mecha.order;
+
+import java.math.BigDecimal;
+
+/**
+ * Snapshot nhẹ các cột trạng thái của 1 đơn hàng (không đi qua persistence context),
+ * dùng để kiểm tra chuyển trạng thái + version trước khi chạy UPDATE có điều kiện.
+ */
+public record OrderState(
+        Long id,
+        String orderCode,
+        Long customerId,
+        OrderStatus status,
+        PaymentStatus paymentStatus,
+        PaymentMethod paymentMethod,
+        BigDecimal totalAmount,
+        String note,
+        Long version
+) {
+}
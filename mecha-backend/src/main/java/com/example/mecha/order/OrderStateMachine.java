@@ -0,0 +1,108 @@
+package com.example.mecha.order;
+
+import com.example.mecha.common.DomainErrors;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Điểm duy nhất được phép đổi status / paymentStatus của Order.
+ *
+ * Mỗi lần chuyển trạng thái:
+ *  1. Đọc {@link OrderState} mới nhất từ DB
+ *  2. Cho caller quyết định transition dựa trên state đó (kiểm tra quyền, điều kiện nghiệp vụ...)
+ *  3. Kiểm tra transition theo bảng trong {@link OrderStatus} / {@link PaymentStatus}
+ *  4. Chạy 1 câu UPDATE có điều kiện theo version; nếu xung đột thì đọc lại và thử lại (tối đa MAX_ATTEMPTS lần)
+ *  5. Publish {@link OrderStatusChangedEvent}
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStateMachine {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStateMachine.class);
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param planner nhận state hiện tại, trả về transition mong muốn. Có thể ném
+     *                DomainException (vd DomainErrors.NOT_ALLOWED) để từ chối (không retry), hoặc trả về
+     *                {@link Transition#NONE} nếu không cần làm gì.
+     * @return event mô tả thay đổi đã áp dụng, hoặc empty nếu không có gì thay đổi
+     */
+    @Transactional
+    public Optional<OrderStatusChangedEvent> transition(Long orderId, Function<OrderState, Transition> planner) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            OrderState current = orderRepository.findStateById(orderId)
+                    .orElseThrow(() -> DomainErrors.ORDER_NOT_FOUND);
+
+            Transition t = planner.apply(current);
+            OrderStatus targetStatus = t.status() != null ? t.status() : current.status();
+            PaymentStatus targetPayment = t.paymentStatus() != null ? t.paymentStatus() : current.paymentStatus();
+
+            if (!current.status().canTransitionTo(targetStatus)) {
+                throw DomainErrors.INVALID_ORDER_STATUS_TRANSITION;
+            }
+            if (!current.paymentStatus().canTransitionTo(targetPayment)) {
+                throw DomainErrors.INVALID_PAYMENT_STATUS_TRANSITION;
+            }
+
+            if (targetStatus == current.status() && targetPayment == current.paymentStatus()) {
+                return Optional.empty(); // không có gì thay đổi
+            }
+
+            String note = appendNote(current.note(), t.noteSuffix());
+            long version = current.version() != null ? current.version() : 0L;
+
+            int updated = orderRepository.updateStateIfVersion(
+                    orderId, targetStatus, targetPayment, note, Instant.now(), version);
+
+            if (updated == 1) {
+                OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                        orderId, current.orderCode(),
+                        current.status(), targetStatus,
+                        current.paymentStatus(), targetPayment,
+                        version + 1);
+                eventPublisher.publishEvent(event);
+                return Optional.of(event);
+            }
+
+            log.info("Order {} version conflict (attempt {}/{}), reloading state", orderId, attempt, MAX_ATTEMPTS);
+        }
+
+        throw new OptimisticLockingFailureException("ORDER_CONCURRENT_MODIFICATION");
+    }
+
+    private String appendNote(String note, String suffix) {
+        if (suffix == null || suffix.isBlank()) {
+            return note;
+        }
+        return (note != null ? note + " | " : "") + suffix;
+    }
+
+    /**
+     * Transition mong muốn. Field null = giữ nguyên giá trị hiện tại.
+     */
+    public record Transition(OrderStatus status, PaymentStatus paymentStatus, String noteSuffix) {
+
+        public static final Transition NONE = new Transition(null, null, null);
+
+        public static Transition status(OrderStatus status) {
+            return new Transition(status, null, null);
+        }
+
+        public static Transition payment(PaymentStatus paymentStatus) {
+            return new Transition(null, paymentStatus, null);
+        }
+    }
+}
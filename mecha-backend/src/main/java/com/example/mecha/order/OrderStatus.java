@@ -1,9 +1,29 @@
-// order/OrderStatus.java
 package com.example.mecha.order;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,       // Chờ xử lý (chưa giao)
     DELIVERED,     // Hoàn thành (đã giao)
-    CANCELLED      // Đã hủy
-}
+    CANCELLED;     // Đã hủy
+
+    /**
+     * Bảng chuyển trạng thái hợp lệ: PENDING -> DELIVERED | CANCELLED.
+     * DELIVERED và CANCELLED là trạng thái cuối.
+     */
+    public Set<OrderStatus> allowedTransitions() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(DELIVERED, CANCELLED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
 
+    public boolean canTransitionTo(OrderStatus next) {
+        return this == next || allowedTransitions().contains(next);
+    }
+
+    public boolean isFinal() {
+        return allowedTransitions().isEmpty();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.mecha.order;
+
+/**
+ * Event phát ra sau mỗi lần chuyển trạng thái đơn hàng thành công (status và/hoặc paymentStatus).
+ * Listener nên dùng @TransactionalEventListener để chỉ xử lý khi transaction đã commit.
+ */
+public record OrderStatusChangedEvent(
+        Long orderId,
+        String orderCode,
+        OrderStatus fromStatus,
+        OrderStatus toStatus,
+        PaymentStatus fromPaymentStatus,
+        PaymentStatus toPaymentStatus,
+        Long version
+) {
+
+    public boolean statusChanged() {
+        return fromStatus != toStatus;
+    }
+
+    public boolean paymentStatusChanged() {
+        return fromPaymentStatus != toPaymentStatus;
+    }
+}
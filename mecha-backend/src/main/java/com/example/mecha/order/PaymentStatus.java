@@ -1,9 +1,30 @@
-// order/PaymentStatus.java
 package com.example.mecha.order;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PaymentStatus {
     PENDING,
     PAID,
     FAILED,
-    REFUNDED
+    REFUNDED;
+
+    /**
+     * Bảng chuyển trạng thái thanh toán:
+     * - PENDING -> PAID | FAILED
+     * - FAILED -> PAID (tiền về muộn sau khi đơn bị hủy, admin đối soát tay)
+     * - PAID -> REFUNDED
+     */
+    public Set<PaymentStatus> allowedTransitions() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(PAID, FAILED);
+            case FAILED -> EnumSet.of(PAID);
+            case PAID -> EnumSet.of(REFUNDED);
+            case REFUNDED -> EnumSet.noneOf(PaymentStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(PaymentStatus next) {
+        return this == next || allowedTransitions().contains(next);
+    }
 }
@@ -0,0 +1,88 @@
+package com.example.mecha.partition;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Bảo trì partition tháng của orders / order_items / sepay_transactions
+ * (các hàm SQL được tạo trong migration V6__partition_orders_by_month.sql):
+ * - Tạo trước partition cho tháng hiện tại + {@code partitioning.months-ahead} tháng tới
+ * - Nếu bật archive: detach partition cũ hơn {@code partitioning.archive-after-months} tháng sang schema archive
+ */
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenanceTasks {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceTasks.class);
+
+    // orders trước để partition của order_items / sepay_transactions luôn đi cùng tháng với đơn
+    static final List<String> PARTITIONED_TABLES = List.of("orders", "order_items", "sepay_transactions");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isEnabled()) {
+            ensureFuturePartitions();
+        }
+    }
+
+    @Scheduled(cron = "${partitioning.maintenance-cron:0 15 3 * * *}")
+    public void runMaintenance() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ensureFuturePartitions();
+        if (properties.isArchiveEnabled()) {
+            archiveOldPartitions();
+        }
+    }
+
+    public void ensureFuturePartitions() {
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT mecha_ensure_monthly_partitions(?, ?)",
+                        Integer.class, table, properties.getMonthsAhead());
+                if (created != null && created > 0) {
+                    log.info("Created {} monthly partition(s) for {}", created, table);
+                }
+            } catch (DataAccessException e) {
+                // Migration V6 chưa chạy (bảng chưa partition) => bỏ qua, không chặn app
+                log.warn("Cannot ensure partitions for {}: {}", table, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    public void archiveOldPartitions() {
+        LocalDate cutoff = YearMonth.now(ZoneOffset.UTC)
+                .minusMonths(properties.getArchiveAfterMonths())
+                .atDay(1);
+
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer moved = jdbcTemplate.queryForObject(
+                        "SELECT mecha_archive_partitions_before(?, CAST(? AS date), CAST(? AS text))",
+                        Integer.class, table, cutoff, properties.getArchiveTablespace());
+                if (moved != null && moved > 0) {
+                    log.info("Archived {} partition(s) of {} older than {}", moved, table, cutoff);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Cannot archive partitions for {}: {}", table, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+}
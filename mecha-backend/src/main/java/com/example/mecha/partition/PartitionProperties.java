@@ -0,0 +1,42 @@
+package com.example.mecha.partition;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "partitioning")
+@Getter
+@Setter
+public class PartitionProperties {
+    /**
+     * Bật job bảo trì partition (tạo trước partition tháng tới).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Số tháng tới cần có sẵn partition (ngoài tháng hiện tại).
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Cron chạy job bảo trì (mặc định 03:15 mỗi ngày).
+     */
+    private String maintenanceCron = "0 15 3 * * *";
+
+    /**
+     * Bật archive: detach partition cũ sang schema archive.
+     */
+    private boolean archiveEnabled = false;
+
+    /**
+     * Partition cũ hơn số tháng này (tính từ tháng hiện tại) sẽ được archive.
+     */
+    private int archiveAfterMonths = 24;
+
+    /**
+     * (Optional) Tablespace cho partition archive, ví dụ tablespace nằm trên ổ rẻ / filesystem có nén.
+     */
+    private String archiveTablespace;
+}
@@ -0,0 +1,12 @@
+package com.example.mecha.payment.sepay;
+
+/**
+ * Kết quả đối soát 1 webhook SePay với đơn hàng (tag outcome của metric mecha.sepay.webhook).
+ */
+public enum SepayMatchOutcome {
+    DUPLICATE,      // sepay_id đã nhận trước đó, bỏ qua
+    CODE,           // khớp theo trường code
+    CONTENT,        // khớp khi parse nội dung chuyển khoản
+    DESCRIPTION,    // khớp khi parse description
+    UNMATCHED       // không tìm thấy đơn hàng
+}
@@ -3,9 +3,10 @@ package com.example.mecha.payment.sepay;
 
 import com.example.mecha.booking.Booking;
 import com.example.mecha.booking.BookingRepository;
+import com.example.mecha.common.DomainErrors;
 import com.example.mecha.order.Order;
 import com.example.mecha.order.OrderRepository;
-import com.example.mecha.order.OrderStatus;
+import com.example.mecha.order.OrderStateMachine;
 import com.example.mecha.order.PaymentMethod;
 import com.example.mecha.order.PaymentStatus;
 import com.example.mecha.payment.sepay.dto.SepayPaymentInfoDto;
@@ -15,16 +16,18 @@ import com.example.mecha.user.UserRole;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -35,10 +38,16 @@ public class SepayPaymentService {
     private static final DateTimeFormatter SEPAY_DATE_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    // Biên dịch sẵn 1 lần, webhook nào cũng dùng
+    private static final Pattern ORDER_CODE_WITH_DASH = Pattern.compile("ORD-[A-Z0-9]{8}", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_CODE_WITHOUT_DASH = Pattern.compile("ORD([A-Z0-9]{8})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BOOKING_REF = Pattern.compile("BOOKING(\\d+)", Pattern.CASE_INSENSITIVE);
+
     private final SepayProperties sepayProperties;
     private final SepayTransactionRepository transactionRepository;
     private final OrderRepository orderRepository;
     private final BookingRepository bookingRepository;
+    private final OrderStateMachine orderStateMachine;
 
 
     // ============= API cho FE: lấy thông tin chuyển khoản =============
@@ -46,17 +55,17 @@ public class SepayPaymentService {
     @Transactional(readOnly = true)
     public SepayPaymentInfoDto getPaymentInfo(Long orderId, User currentUser) {
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ORDER_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.ORDER_NOT_FOUND);
 
         // Quyền xem: chủ đơn, staff, admin
         if (!order.getCustomer().getId().equals(currentUser.getId())
                 && currentUser.getRole() != UserRole.ADMIN
                 && currentUser.getRole() != UserRole.STAFF) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "NOT_ALLOWED");
+            throw DomainErrors.NOT_ALLOWED;
         }
 
         if (order.getPaymentMethod() != PaymentMethod.BANK_TRANSFER) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ORDER_NOT_BANK_TRANSFER");
+            throw DomainErrors.ORDER_NOT_BANK_TRANSFER;
         }
 
         String acc = sepayProperties.getBankAccountNumber();
@@ -93,17 +102,17 @@ public class SepayPaymentService {
     @Transactional(readOnly = true)
     public SepayPaymentInfoDto getBookingPaymentInfo(Long bookingId, User currentUser) {
         Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "BOOKING_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.BOOKING_NOT_FOUND);
 
         // Quyền xem: chủ booking, staff, admin
         if (!booking.getCustomer().getId().equals(currentUser.getId())
                 && currentUser.getRole() != UserRole.ADMIN
                 && currentUser.getRole() != UserRole.STAFF) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "NOT_ALLOWED");
+            throw DomainErrors.NOT_ALLOWED;
         }
 
         if (booking.getPaymentMethod() != PaymentMethod.BANK_TRANSFER) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "BOOKING_NOT_BANK_TRANSFER");
+            throw DomainErrors.BOOKING_NOT_BANK_TRANSFER;
         }
 
         String acc = sepayProperties.getBankAccountNumber();
@@ -143,15 +152,16 @@ public class SepayPaymentService {
      *  - Xác thực API Key
      *  - Log & chống trùng lặp giao dịch
      *  - Nếu có code = orderCode & transferType = in & amount >= totalAmount => set PAID.
+     * Trả về cách giao dịch được đối soát với đơn hàng.
      */
     @Transactional
-    public String handleWebhook(SepayWebhookRequest request, String authorizationHeader) {
+    public SepayMatchOutcome handleWebhook(SepayWebhookRequest request, String authorizationHeader) {
 
         // 1. Xác thực API Key
         validateApiKey(authorizationHeader);
 
         if (request.getId() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "MISSING_ID");
+            throw DomainErrors.MISSING_ID;
         }
 
         log.info("Sepay webhook received: id={}, code={}, content={}, amount={}, transferType={}",
@@ -159,9 +169,9 @@ public class SepayPaymentService {
                 request.getTransferAmount(), request.getTransferType());
 
         // 2. Chống trùng lặp: nếu đã nhận sepay_id này rồi thì bỏ qua (idempotent)
-        if (transactionRepository.findBySepayId(request.getId()).isPresent()) {
+        if (transactionRepository.claimSepayId(request.getId()) == 0) {
             log.info("Sepay webhook duplicate id={}, ignore", request.getId());
-            return "DUPLICATE";
+            return SepayMatchOutcome.DUPLICATE;
         }
 
         // 3. Log transaction
@@ -169,12 +179,14 @@ public class SepayPaymentService {
 
         // 4. Cố gắng map với Order bằng code = orderCode
         Order matchedOrder = null;
+        SepayMatchOutcome outcome = SepayMatchOutcome.UNMATCHED;
         
         // 4a. Thử match bằng code trước
         if (request.getCode() != null && !request.getCode().isBlank()) {
             matchedOrder = orderRepository.findByOrderCode(request.getCode()).orElse(null);
             if (matchedOrder != null) {
                 log.info("Matched order by code: {}", request.getCode());
+                outcome = SepayMatchOutcome.CODE;
             }
         }
         
@@ -183,6 +195,7 @@ public class SepayPaymentService {
             matchedOrder = tryParseOrderFromContent(request.getContent());
             if (matchedOrder != null) {
                 log.info("Matched order by content parsing: {}", matchedOrder.getOrderCode());
+                outcome = SepayMatchOutcome.CONTENT;
             }
         }
         
@@ -191,6 +204,7 @@ public class SepayPaymentService {
             matchedOrder = tryParseOrderFromContent(request.getDescription());
             if (matchedOrder != null) {
                 log.info("Matched order by description parsing: {}", matchedOrder.getOrderCode());
+                outcome = SepayMatchOutcome.DESCRIPTION;
             }
         }
         
@@ -203,7 +217,7 @@ public class SepayPaymentService {
         }
 
         transactionRepository.save(transaction);
-        return "OK";
+        return outcome;
     }
     
     /**
@@ -213,47 +227,46 @@ public class SepayPaymentService {
      */
     private Order tryParseOrderFromContent(String content) {
         if (content == null) return null;
-        
-        // Pattern 1: ORD-[A-Z0-9]{8} (format chuẩn)
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("ORD-[A-Z0-9]{8}", java.util.regex.Pattern.CASE_INSENSITIVE);
-        java.util.regex.Matcher matcher = pattern.matcher(content);
-        
-        while (matcher.find()) {
-            String potentialCode = matcher.group().toUpperCase();
-            log.info("Found potential order code (with dash): {}", potentialCode);
-            var order = orderRepository.findByOrderCode(potentialCode);
-            if (order.isPresent()) {
-                return order.get();
-            }
-        }
-        
-        // Pattern 2: ORD[A-Z0-9]{8} (không có dấu -, do nội dung CK bị mất)
-        pattern = java.util.regex.Pattern.compile("ORD([A-Z0-9]{8})", java.util.regex.Pattern.CASE_INSENSITIVE);
-        matcher = pattern.matcher(content);
-        
-        while (matcher.find()) {
-            // Normalize: thêm dấu - vào giữa
-            String withoutDash = matcher.group().toUpperCase();
-            String potentialCode = "ORD-" + withoutDash.substring(3); // ORD + 8chars -> ORD-8chars
-            log.info("Found potential order code (without dash): {} -> normalized to {}", withoutDash, potentialCode);
+
+        for (String potentialCode : extractOrderCodes(content)) {
+            log.info("Found potential order code: {}", potentialCode);
             var order = orderRepository.findByOrderCode(potentialCode);
             if (order.isPresent()) {
                 return order.get();
             }
         }
-        
+
         // Thử match BOOKING pattern
-        pattern = java.util.regex.Pattern.compile("BOOKING(\\d+)", java.util.regex.Pattern.CASE_INSENSITIVE);
-        matcher = pattern.matcher(content);
-        
+        Matcher matcher = BOOKING_REF.matcher(content);
         if (matcher.find()) {
             // Đây là thanh toán booking, không phải order
             log.info("Found booking payment pattern in content: {}", matcher.group());
         }
-        
+
         return null;
     }
 
+    /**
+     * Các orderCode (đã chuẩn hóa ORD-XXXXXXXX) xuất hiện trong nội dung, theo thứ tự ưu tiên:
+     * dạng chuẩn có dấu - trước, rồi dạng mất dấu -.
+     */
+    static List<String> extractOrderCodes(String content) {
+        List<String> codes = new ArrayList<>(2);
+
+        // Pattern 1: ORD-[A-Z0-9]{8} (format chuẩn)
+        Matcher matcher = ORDER_CODE_WITH_DASH.matcher(content);
+        while (matcher.find()) {
+            codes.add(matcher.group().toUpperCase());
+        }
+
+        // Pattern 2: ORD[A-Z0-9]{8} (không có dấu -, do nội dung CK bị mất) -> thêm dấu - vào giữa
+        matcher = ORDER_CODE_WITHOUT_DASH.matcher(content);
+        while (matcher.find()) {
+            codes.add("ORD-" + matcher.group(1).toUpperCase());
+        }
+        return codes;
+    }
+
     // ============= Helper methods =============
 
     private void validateApiKey(String authorizationHeader) {
@@ -284,7 +297,7 @@ public class SepayPaymentService {
         String incoming = authorizationHeader.substring("Apikey ".length()).trim();
         if (!expectedApiKey.equals(incoming)) {
             log.error("Invalid API key received");
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "INVALID_API_KEY");
+            throw DomainErrors.INVALID_API_KEY;
         }
         
         log.info("API key validation successful");
@@ -328,35 +341,40 @@ public class SepayPaymentService {
             return;
         }
 
-        if (order.getPaymentMethod() != PaymentMethod.BANK_TRANSFER) {
-            log.warn("Skipped: paymentMethod is not BANK_TRANSFER, got '{}'", order.getPaymentMethod());
-            return;
-        }
-
-        // chỉ xử lý nếu còn pending
-        if (order.getPaymentStatus() != PaymentStatus.PENDING) {
-            log.warn("Skipped: paymentStatus is not PENDING, got '{}'", order.getPaymentStatus());
-            return;
-        }
-
         BigDecimal txAmount = tx.getTransferAmount();
         if (txAmount == null) {
             log.warn("Skipped: txAmount is null");
             return;
         }
 
-        // đơn giản: chỉ cần >= totalAmount
-        if (txAmount.compareTo(order.getTotalAmount()) < 0) {
-            log.warn("Payment amount less than order total. orderCode={}, total={}, txAmount={}",
-                    order.getOrderCode(), order.getTotalAmount(), txAmount);
-            return;
-        }
+        // Kiểm tra lại trên state mới nhất trong DB: user hủy đơn / scheduler hủy đơn có thể chạy song song
+        boolean paid = orderStateMachine.transition(order.getId(), state -> {
+            if (state.paymentMethod() != PaymentMethod.BANK_TRANSFER) {
+                log.warn("Skipped: paymentMethod is not BANK_TRANSFER, got '{}'", state.paymentMethod());
+                return OrderStateMachine.Transition.NONE;
+            }
 
-        order.setPaymentStatus(PaymentStatus.PAID);
-        // Chỉ cập nhật paymentStatus, không tự động đổi order status
-        // Admin sẽ chuyển sang DELIVERED khi đã giao hàng
+            // chỉ xử lý nếu còn pending
+            if (state.paymentStatus() != PaymentStatus.PENDING) {
+                log.warn("Skipped: paymentStatus is not PENDING, got '{}'", state.paymentStatus());
+                return OrderStateMachine.Transition.NONE;
+            }
+
+            // đơn giản: chỉ cần >= totalAmount
+            if (txAmount.compareTo(state.totalAmount()) < 0) {
+                log.warn("Payment amount less than order total. orderCode={}, total={}, txAmount={}",
+                        state.orderCode(), state.totalAmount(), txAmount);
+                return OrderStateMachine.Transition.NONE;
+            }
 
-        log.info("Order {} paid via SePay txId={}, amount={}", order.getOrderCode(), tx.getSepayId(), txAmount);
+            // Chỉ cập nhật paymentStatus, không tự động đổi order status
+            // Admin sẽ chuyển sang DELIVERED khi đã giao hàng
+            return OrderStateMachine.Transition.payment(PaymentStatus.PAID);
+        }).isPresent();
+
+        if (paid) {
+            log.info("Order {} paid via SePay txId={}, amount={}", order.getOrderCode(), tx.getSepayId(), txAmount);
+        }
     }
 
     private String urlEncode(String value) {
@@ -9,8 +9,8 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "sepay_transactions",
-        uniqueConstraints = @UniqueConstraint(columnNames = "sepay_id"))
+// Partition theo tháng created_at; sepay_id không unique ở DB, chống trùng qua bảng sepay_webhook_keys
+@Table(name = "sepay_transactions")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -61,7 +61,7 @@ public class SepayTransaction {
 
     // Đơn hàng match được từ code
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
 
     @Column(name = "created_at", nullable = false, updatable = false)
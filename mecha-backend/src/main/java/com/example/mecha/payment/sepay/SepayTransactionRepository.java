@@ -2,10 +2,22 @@
 package com.example.mecha.payment.sepay;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface SepayTransactionRepository extends JpaRepository<SepayTransaction, Long> {
 
-    Optional<SepayTransaction> findBySepayId(Long sepayId);
+    /**
+     * Giữ chỗ sepay_id trong bảng sepay_webhook_keys (không partition, PK = sepay_id).
+     * Trả về 1 nếu lần đầu nhận, 0 nếu đã có (webhook gửi lại). Hai request trùng chạy song song
+     * thì request sau sẽ chờ request đầu commit rồi nhận 0.
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO sepay_webhook_keys (sepay_id, received_at)
+           VALUES (:sepayId, now())
+           ON CONFLICT (sepay_id) DO NOTHING
+           """, nativeQuery = true)
+    int claimSepayId(@Param("sepayId") Long sepayId);
 }
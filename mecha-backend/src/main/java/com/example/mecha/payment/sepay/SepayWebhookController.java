@@ -1,8 +1,11 @@
 // payment/sepay/SepayWebhookController.java
 package com.example.mecha.payment.sepay;
 
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.payment.sepay.dto.SepayWebhookRequest;
 import com.example.mecha.payment.sepay.dto.SepayWebhookResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 public class SepayWebhookController {
 
     private final SepayPaymentService sepayPaymentService;
+    private final MeterRegistry meterRegistry;
 
     @PostMapping
     @Operation(
@@ -36,11 +40,24 @@ public class SepayWebhookController {
             HttpServletRequest servletRequest
     ) {
         String authHeader = servletRequest.getHeader("Authorization");
-        String result = sepayPaymentService.handleWebhook(request, authHeader);
+
+        // Đo cả thời gian commit, tag theo kết quả đối soát (ERROR nếu lỗi / sai API key)
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = MechaMetrics.OUTCOME_ERROR;
+        SepayMatchOutcome result;
+        try {
+            result = sepayPaymentService.handleWebhook(request, authHeader);
+            outcome = result.name();
+        } finally {
+            sample.stop(Timer.builder(MechaMetrics.SEPAY_WEBHOOK)
+                    .tag(MechaMetrics.TAG_OUTCOME, outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
 
         SepayWebhookResponse response = SepayWebhookResponse.builder()
                 .success(true)
-                .message(result)
+                .message(result == SepayMatchOutcome.DUPLICATE ? "DUPLICATE" : "OK")
                 .build();
 
         // theo docs: 200 hoặc 201 đều được; chọn 200
@@ -0,0 +1,27 @@
+package com.example.mecha.product;
+
+/**
+ * Materialized path của danh mục: "/" + id tổ tiên + "/" ... + id + "/", ví dụ "/1/4/9/".
+ * Mọi danh mục con cháu của X có path bắt đầu bằng path của X, nên cả cây con là 1 khoảng
+ * [path, upperBound(path)) trên index btree (cột path dùng COLLATE "C").
+ */
+final class CategoryPaths {
+
+    static final String ROOT = "/";
+
+    private CategoryPaths() {
+    }
+
+    static String childOf(String parentPath, Long id) {
+        return (parentPath != null ? parentPath : ROOT) + id + "/";
+    }
+
+    /**
+     * Chuỗi nhỏ nhất lớn hơn mọi chuỗi có tiền tố {@code prefix}: tăng ký tự cuối lên 1
+     * ('/' -> '0', theo thứ tự byte của COLLATE "C").
+     */
+    static String upperBound(String prefix) {
+        char last = prefix.charAt(prefix.length() - 1);
+        return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+    }
+}
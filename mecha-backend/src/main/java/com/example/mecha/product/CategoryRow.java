@@ -0,0 +1,9 @@
+package com.example.mecha.product;
+
+import java.time.Instant;
+
+/**
+ * 1 danh mục dạng phẳng để dựng cây (không load entity / quan hệ).
+ */
+public record CategoryRow(Long id, String name, String slug, Long parentId, Integer sortOrder, String path, Instant updatedAt) {
+}
@@ -0,0 +1,78 @@
+package com.example.mecha.product;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cây danh mục trong bộ nhớ. Request đọc {@link CategoryTreeSnapshot} hiện tại không cần lock;
+ * khi danh mục thay đổi, snapshot mới được dựng từ DB rồi thay thế nguyên khối.
+ *
+ *  - Dựng lúc khởi động và định kỳ (nhận thay đổi từ node khác)
+ *  - Dựng lại sau khi transaction tạo / sửa / xóa danh mục commit (CategoryTreeChangedEvent)
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryTreeCache.class);
+
+    private final ProductCategoryRepository categoryRepository;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile CategoryTreeSnapshot snapshot;
+
+    CategoryTreeSnapshot get() {
+        CategoryTreeSnapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${category-tree.refresh-interval-ms:60000}",
+            initialDelayString = "${category-tree.refresh-interval-ms:60000}"
+    )
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Category tree refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryTreeChanged(CategoryTreeChangedEvent event) {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            // Bỏ snapshot cũ: request đọc tiếp theo sẽ dựng lại
+            snapshot = null;
+            log.warn("Category tree refresh after change {} failed: {}", event.categoryId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Lock: 2 lần dựng chạy song song không được ghi đè snapshot mới bằng snapshot cũ hơn.
+     * ReentrantLock thay cho synchronized để truy vấn DB bên trong không ghim virtual thread.
+     */
+    CategoryTreeSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            CategoryTreeSnapshot next = CategoryTreeSnapshot.of(categoryRepository.findAllRows());
+            snapshot = next;
+            log.debug("Category tree rebuilt: {} categories", next.pathById().size());
+            return next;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+}
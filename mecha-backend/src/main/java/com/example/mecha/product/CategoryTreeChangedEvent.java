@@ -0,0 +1,7 @@
+package com.example.mecha.product;
+
+/**
+ * Event phát ra khi danh mục được tạo / sửa / xóa; cây danh mục cache được dựng lại sau khi commit.
+ */
+public record CategoryTreeChangedEvent(Long categoryId) {
+}
@@ -0,0 +1,55 @@
+package com.example.mecha.product;
+
+import com.example.mecha.common.ResourceVersion;
+import com.example.mecha.product.dto.CategoryDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ảnh chụp bất biến của cây danh mục: dựng 1 lần từ DB, được chia sẻ giữa mọi request.
+ * Các CategoryDto bên trong dùng chung, không được sửa.
+ * version tính từ chính các dòng dựng nên snapshot nên ETag luôn khớp với cây trả về.
+ */
+record CategoryTreeSnapshot(List<CategoryDto> roots, Map<Long, String> pathById, ResourceVersion version) {
+
+    static final CategoryTreeSnapshot EMPTY = new CategoryTreeSnapshot(List.of(), Map.of(), ResourceVersion.NONE);
+
+    private static final Comparator<CategoryRow> DISPLAY_ORDER = Comparator
+            .comparing((CategoryRow r) -> r.sortOrder() == null ? 0 : r.sortOrder())
+            .thenComparing(CategoryRow::id);
+
+    static CategoryTreeSnapshot of(List<CategoryRow> rows) {
+        Map<Long, List<CategoryRow>> childrenByParent = new HashMap<>();
+        Map<Long, String> pathById = new HashMap<>();
+        for (CategoryRow r : rows) {
+            Long parentKey = r.parentId() != null ? r.parentId() : 0L;
+            childrenByParent.computeIfAbsent(parentKey, k -> new ArrayList<>()).add(r);
+            pathById.put(r.id(), r.path());
+        }
+        for (List<CategoryRow> children : childrenByParent.values()) {
+            children.sort(DISPLAY_ORDER);
+        }
+        return new CategoryTreeSnapshot(build(0L, childrenByParent), Map.copyOf(pathById),
+                ResourceVersion.of(rows, CategoryRow::updatedAt));
+    }
+
+    private static List<CategoryDto> build(Long parentKey, Map<Long, List<CategoryRow>> childrenByParent) {
+        List<CategoryRow> children = childrenByParent.getOrDefault(parentKey, List.of());
+        List<CategoryDto> result = new ArrayList<>(children.size());
+        for (CategoryRow c : children) {
+            result.add(CategoryDto.builder()
+                    .id(c.id())
+                    .name(c.name())
+                    .slug(c.slug())
+                    .parentId(c.parentId())
+                    .sortOrder(c.sortOrder())
+                    .children(build(c.id(), childrenByParent))
+                    .build());
+        }
+        return List.copyOf(result);
+    }
+}
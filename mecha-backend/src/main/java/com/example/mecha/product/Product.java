@@ -1,8 +1,12 @@
 package com.example.mecha.product;
 
+import com.example.mecha.cache.CacheRegions;
+import com.example.mecha.review.RatingStats;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 
 import java.math.BigDecimal;
@@ -60,6 +64,7 @@ public class Product {
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("minQty ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_TIER_PRICE_COLLECTIONS)
     @Builder.Default
     private List<ProductTierPrice> tierPrices = new ArrayList<>();
     
@@ -79,6 +84,11 @@ public class Product {
     @Builder.Default
     private Boolean hidden = false;
 
+    // Thống kê đánh giá đã duyệt (xem RatingStats)
+    @Embedded
+    @Builder.Default
+    private RatingStats rating = new RatingStats();
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -1,7 +1,10 @@
 package com.example.mecha.product;
 
+import com.example.mecha.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -9,6 +12,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "product_categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_CATEGORIES)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +36,12 @@ public class ProductCategory {
     @JoinColumn(name = "parent_id")
     private ProductCategory parent;
 
+    // Materialized path "/1/4/9/" (xem CategoryPaths); COLLATE "C" để cây con là 1 khoảng trên index
+    @Column(length = 1000, columnDefinition = "VARCHAR(1000) COLLATE \"C\"")
+    private String path;
+
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_CATEGORY_CHILDREN)
     @OrderBy("sortOrder ASC")
     private List<ProductCategory> children = new ArrayList<>();
 
@@ -1,5 +1,6 @@
 package com.example.mecha.product;
 
+import com.example.mecha.common.ConditionalGet;
 import com.example.mecha.product.dto.CategoryCreateRequest;
 import com.example.mecha.product.dto.CategoryDto;
 import com.example.mecha.product.dto.CategoryUpdateRequest;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,11 +26,13 @@ import java.util.List;
 public class ProductCategoryController {
 
     private final ProductCategoryService categoryService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @Operation(summary = "Lấy cây danh mục", description = "Trả về cây danh mục đa cấp (root + children)")
-    public ResponseEntity<List<CategoryDto>> getTree() {
-        return ResponseEntity.ok(categoryService.getCategoryTree());
+    public ResponseEntity<List<CategoryDto>> getTree(WebRequest request) {
+        CategoryTreeSnapshot tree = categoryService.getCategoryTreeSnapshot();
+        return conditionalGet.catalog(request, "categories", tree.version(), tree::roots);
     }
 
     @PostMapping
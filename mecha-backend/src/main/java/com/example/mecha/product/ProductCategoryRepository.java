@@ -1,6 +1,9 @@
 package com.example.mecha.product;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +13,29 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
     Optional<ProductCategory> findBySlug(String slug);
 
     List<ProductCategory> findByParentIsNullOrderBySortOrderAsc();
+
+    @Query("""
+           SELECT new com.example.mecha.product.CategoryRow(c.id, c.name, c.slug, p.id, c.sortOrder, c.path, c.updatedAt)
+           FROM ProductCategory c LEFT JOIN c.parent p
+           """)
+    List<CategoryRow> findAllRows();
+
+    @Query("SELECT c.path FROM ProductCategory c WHERE c.id = :id")
+    Optional<String> findPathById(@Param("id") Long id);
+
+    /**
+     * Đổi tiền tố path của cả cây con (kể cả chính danh mục) khi danh mục được chuyển sang cha khác.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+           UPDATE ProductCategory c
+           SET c.path = CONCAT(:newPrefix, SUBSTRING(c.path, :oldLength + 1))
+           WHERE c.path >= :oldPrefix AND c.path < :oldPrefixEnd
+           """)
+    int movePathPrefix(
+            @Param("oldPrefix") String oldPrefix,
+            @Param("oldPrefixEnd") String oldPrefixEnd,
+            @Param("oldLength") int oldLength,
+            @Param("newPrefix") String newPrefix
+    );
 }
@@ -1,9 +1,11 @@
 package com.example.mecha.product;
 
+import com.example.mecha.common.DomainErrors;
 import com.example.mecha.product.dto.CategoryCreateRequest;
 import com.example.mecha.product.dto.CategoryDto;
 import com.example.mecha.product.dto.CategoryUpdateRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,13 +17,15 @@ import java.util.stream.Collectors;
 public class ProductCategoryService {
 
     private final ProductCategoryRepository categoryRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public CategoryDto createCategory(CategoryCreateRequest request) {
         ProductCategory parent = null;
         if (request.getParentId() != null) {
             parent = categoryRepository.findById(request.getParentId())
-                    .orElseThrow(() -> new RuntimeException("Parent category not found"));
+                    .orElseThrow(() -> DomainErrors.PARENT_CATEGORY_NOT_FOUND);
         }
 
         ProductCategory cat = ProductCategory.builder()
@@ -32,13 +36,15 @@ public class ProductCategoryService {
                 .build();
 
         cat = categoryRepository.save(cat);
+        cat.setPath(CategoryPaths.childOf(parent != null ? parent.getPath() : null, cat.getId()));
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(cat.getId()));
         return toDto(cat, false);
     }
 
     @Transactional
     public CategoryDto updateCategory(Long id, CategoryUpdateRequest request) {
         ProductCategory cat = categoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+                .orElseThrow(() -> DomainErrors.CATEGORY_NOT_FOUND);
 
         if (request.getName() != null) {
             cat.setName(request.getName());
@@ -47,73 +53,52 @@ public class ProductCategoryService {
             cat.setSortOrder(request.getSortOrder());
         }
 
+        ProductCategory parent = null;
         if (request.getParentId() != null) {
             if (Objects.equals(id, request.getParentId())) {
-                throw new RuntimeException("Category cannot be parent of itself");
+                throw DomainErrors.CATEGORY_CANNOT_BE_OWN_PARENT;
+            }
+            parent = categoryRepository.findById(request.getParentId())
+                    .orElseThrow(() -> DomainErrors.PARENT_CATEGORY_NOT_FOUND);
+            if (cat.getPath() != null && parent.getPath() != null && parent.getPath().startsWith(cat.getPath())) {
+                throw DomainErrors.CATEGORY_CANNOT_MOVE_UNDER_DESCENDANT;
             }
-            ProductCategory parent = categoryRepository.findById(request.getParentId())
-                    .orElseThrow(() -> new RuntimeException("Parent category not found"));
-            cat.setParent(parent);
-        } else {
-            cat.setParent(null);
         }
+        cat.setParent(parent);
 
-        return toDto(cat, false);
+        CategoryDto dto = toDto(cat, false);
+
+        // Đổi cha: cập nhật path của cả cây con bằng 1 câu UPDATE
+        String oldPath = cat.getPath();
+        String newPath = CategoryPaths.childOf(parent != null ? parent.getPath() : null, cat.getId());
+        if (oldPath == null) {
+            cat.setPath(newPath);
+        } else if (!oldPath.equals(newPath)) {
+            categoryRepository.movePathPrefix(oldPath, CategoryPaths.upperBound(oldPath), oldPath.length(), newPath);
+        }
+
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(id));
+        return dto;
     }
 
     @Transactional
     public void deleteCategory(Long id) {
         // TODO: có thể check nếu còn products thì không cho xóa
+        // cascade ALL: xóa luôn cả cây con
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryTreeChangedEvent(id));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Cây danh mục từ cache (không query DB); xem {@link CategoryTreeCache}.
+     */
     public List<CategoryDto> getCategoryTree() {
-        try {
-            // Fetch all categories - parent will be eagerly loaded in transaction
-            List<ProductCategory> all = categoryRepository.findAll();
-            
-            if (all.isEmpty()) {
-                return List.of();
-            }
-
-            // Group by parent ID
-            Map<Long, List<ProductCategory>> childrenByParent = new HashMap<>();
-            for (ProductCategory c : all) {
-                Long parentKey = c.getParent() != null ? c.getParent().getId() : 0L;
-                childrenByParent.computeIfAbsent(parentKey, k -> new ArrayList<>()).add(c);
-            }
-
-            return buildTree(null, childrenByParent);
-        } catch (Exception e) {
-            // Log the actual error
-            throw new RuntimeException("Failed to build category tree: " + e.getMessage(), e);
-        }
+        return categoryTreeCache.get().roots();
     }
 
-    private List<CategoryDto> buildTree(Long parentId, Map<Long, List<ProductCategory>> childrenByParent) {
-        Long key = parentId == null ? 0L : parentId;
-
-        // Fix: tạo list mới để tránh lỗi sort trên List.of()
-        List<ProductCategory> children = new ArrayList<>(childrenByParent.getOrDefault(key, List.of()));
-
-        children.sort(Comparator.comparing(
-                c -> c.getSortOrder() == null ? 0 : c.getSortOrder()
-        ));
-
-        List<CategoryDto> result = new ArrayList<>();
-        for (ProductCategory c : children) {
-            CategoryDto dto = CategoryDto.builder()
-                    .id(c.getId())
-                    .name(c.getName())
-                    .slug(c.getSlug())
-                    .parentId(c.getParent() != null ? c.getParent().getId() : null)
-                    .sortOrder(c.getSortOrder())
-                    .children(buildTree(c.getId(), childrenByParent))
-                    .build();
-            result.add(dto);
-        }
-        return result;
+    // Cây + version của chính snapshot đó (ETag khớp với body)
+    CategoryTreeSnapshot getCategoryTreeSnapshot() {
+        return categoryTreeCache.get();
     }
 
     private CategoryDto toDto(ProductCategory cat, boolean includeChildren) {
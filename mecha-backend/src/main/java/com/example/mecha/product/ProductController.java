@@ -1,7 +1,9 @@
 package com.example.mecha.product;
 
+import com.example.mecha.common.ConditionalGet;
 import com.example.mecha.product.dto.ProductCreateRequest;
 import com.example.mecha.product.dto.ProductDto;
+import com.example.mecha.product.dto.ProductPageDto;
 import com.example.mecha.product.dto.ProductUpdateRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -30,6 +33,8 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductImageService productImageService;
+    private final ProductPageService productPageService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
     @Operation(
@@ -40,17 +45,36 @@ public class ProductController {
             @Parameter(description = "ID danh mục cần lọc")
             @RequestParam(required = false) Long categoryId,
             @Parameter(description = "Từ khóa tìm kiếm theo tên")
-            @RequestParam(required = false) String keyword
+            @RequestParam(required = false) String keyword,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(productService.listProducts(categoryId, keyword));
+        return conditionalGet.catalog(request, "products",
+                () -> productService.listProductsVersion(categoryId, keyword),
+                () -> productService.listProducts(categoryId, keyword));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Chi tiết sản phẩm")
     public ResponseEntity<ProductDto> get(
-            @Parameter(description = "ID sản phẩm") @PathVariable @Positive Long id
+            @Parameter(description = "ID sản phẩm") @PathVariable @Positive Long id,
+            WebRequest request
+    ) {
+        return conditionalGet.catalog(request, "product:" + id,
+                () -> productService.productVersion(id),
+                () -> productService.getProduct(id));
+    }
+
+    @GetMapping("/{id}/page")
+    @Operation(
+            summary = "Dữ liệu trang chi tiết sản phẩm",
+            description = "Sản phẩm + trang đầu đánh giá + đơn giá theo quantity + sản phẩm cùng danh mục trong 1 request. "
+                    + "Phần phụ không kịp trả về sẽ null và có tên trong missingParts."
+    )
+    public ResponseEntity<ProductPageDto> page(
+            @Parameter(description = "ID sản phẩm") @PathVariable @Positive Long id,
+            @Parameter(description = "Số lượng để tính đơn giá") @RequestParam(defaultValue = "1") @Min(1) int quantity
     ) {
-        return ResponseEntity.ok(productService.getProduct(id));
+        return ResponseEntity.ok(productPageService.getPage(id, quantity));
     }
 
     @PostMapping
@@ -3,8 +3,10 @@ package com.example.mecha.product;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.example.mecha.common.DomainErrors;
 import com.example.mecha.product.dto.ProductDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +14,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
@@ -20,7 +23,8 @@ public class ProductImageService {
     private static final String PRODUCT_FOLDER = "products";
     private static final int MAX_IMAGES_PER_PRODUCT = 5;
 
-    private final Cloudinary cloudinary;
+    // Chỉ tạo client Cloudinary khi upload / xóa ảnh lần đầu (startup.lazy-beans)
+    private final ObjectProvider<Cloudinary> cloudinary;
     private final ProductRepository productRepository;
     private final ProductImageRepository productImageRepository;
     private final ProductService productService;
@@ -28,16 +32,16 @@ public class ProductImageService {
     @Transactional
     public ProductDto addImage(Long productId, MultipartFile file) {
         if (file == null || file.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "FILE_EMPTY");
+            throw DomainErrors.FILE_EMPTY;
         }
 
         String contentType = file.getContentType();
         if (contentType == null || !contentType.startsWith("image/")) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "FILE_MUST_BE_IMAGE");
+            throw DomainErrors.FILE_MUST_BE_IMAGE;
         }
 
         Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "PRODUCT_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
 
         // Kiểm tra giới hạn 5 ảnh/sản phẩm
         if (product.getImages().size() >= MAX_IMAGES_PER_PRODUCT) {
@@ -46,7 +50,7 @@ public class ProductImageService {
         }
 
         try {
-            var uploadResult = cloudinary.uploader().upload(
+            var uploadResult = cloudinary.getObject().uploader().upload(
                     file.getBytes(),
                     ObjectUtils.asMap(
                             "folder", PRODUCT_FOLDER,
@@ -90,16 +94,16 @@ public class ProductImageService {
     @Transactional
     public ProductDto deleteImage(Long productId, Long imageId) {
         Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "PRODUCT_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
 
         ProductImage image = product.getImages().stream()
                 .filter(img -> img.getId().equals(imageId))
                 .findFirst()
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "IMAGE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.IMAGE_NOT_FOUND);
 
         // Xóa trên Cloudinary
         try {
-            cloudinary.uploader().destroy(image.getImagePublicId(), ObjectUtils.emptyMap());
+            cloudinary.getObject().uploader().destroy(image.getImagePublicId(), ObjectUtils.emptyMap());
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "CLOUDINARY_DELETE_FAILED");
         }
@@ -119,6 +123,8 @@ public class ProductImageService {
                 product.setImagePublicId(null);
             }
         }
+        // Chỉ bỏ 1 ảnh phụ thì entity không dirty, @PreUpdate không chạy: tự đổi updatedAt cho ETag
+        product.setUpdatedAt(Instant.now());
 
         productRepository.save(product);
 
@@ -131,12 +137,12 @@ public class ProductImageService {
     @Transactional
     public ProductDto setPrimaryImage(Long productId, Long imageId) {
         Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "PRODUCT_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
 
         ProductImage image = product.getImages().stream()
                 .filter(img -> img.getId().equals(imageId))
                 .findFirst()
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "IMAGE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.IMAGE_NOT_FOUND);
 
         // Cập nhật ảnh chính
         product.setImageUrl(image.getImageUrl());
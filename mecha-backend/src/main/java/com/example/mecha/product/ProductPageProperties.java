@@ -0,0 +1,47 @@
+package com.example.mecha.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-page")
+@Getter
+@Setter
+public class ProductPageProperties {
+    /**
+     * Số thread của pool chạy các phần phụ (platform thread). Khi bật virtual thread thì không dùng pool này.
+     */
+    private int poolSize = 16;
+
+    /**
+     * Hàng đợi của pool; đầy thì phần phụ bị bỏ qua (missingParts) thay vì chờ.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Thời hạn (ms, tính từ lúc nhận request) cho phần đánh giá.
+     */
+    private long reviewsTimeoutMs = 300;
+
+    /**
+     * Thời hạn (ms) cho phần đơn giá theo số lượng.
+     */
+    private long unitPriceTimeoutMs = 200;
+
+    /**
+     * Thời hạn (ms) cho phần sản phẩm cùng danh mục.
+     */
+    private long relatedTimeoutMs = 300;
+
+    /**
+     * Số đánh giá trong trang đầu.
+     */
+    private int reviewLimit = 5;
+
+    /**
+     * Số sản phẩm cùng danh mục tối đa.
+     */
+    private int relatedLimit = 8;
+}
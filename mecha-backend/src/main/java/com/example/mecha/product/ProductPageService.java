@@ -0,0 +1,180 @@
+package com.example.mecha.product;
+
+import com.example.mecha.metrics.MechaMetrics;
+import com.example.mecha.product.dto.ProductDto;
+import com.example.mecha.product.dto.ProductPageDto;
+import com.example.mecha.review.ReviewService;
+import com.example.mecha.review.dto.ReviewPageDto;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Trang chi tiết sản phẩm trong 1 request thay cho 4 lần gọi tuần tự từ FE.
+ *
+ *  - Sản phẩm (bắt buộc) chạy trên chính thread của request; không có => 404 như GET /api/products/{id}
+ *  - Đánh giá, đơn giá theo số lượng, sản phẩm cùng danh mục chạy song song, mỗi phần 1 transaction readOnly riêng
+ *  - Phần phụ quá thời hạn / lỗi / pool đầy: bị hủy, trả null và ghi tên vào missingParts
+ *
+ * Thời hạn tính từ lúc nhận request nên tổng thời gian chờ không cộng dồn giữa các phần.
+ * Virtual thread khi spring.threads.virtual.enabled=true (Java 21+), ngược lại pool platform thread có giới hạn.
+ */
+@Service
+public class ProductPageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPageService.class);
+
+    static final String PART_REVIEWS = "reviews";
+    static final String PART_UNIT_PRICE = "unitPrice";
+    static final String PART_RELATED = "relatedProducts";
+
+    private final ProductService productService;
+    private final ReviewService reviewService;
+    private final ProductPageProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AsyncTaskExecutor executor;
+    // null khi chạy trên virtual thread
+    private final ThreadPoolTaskExecutor pool;
+
+    public ProductPageService(
+            ProductService productService,
+            ReviewService reviewService,
+            ProductPageProperties properties,
+            MeterRegistry meterRegistry,
+            Environment environment
+    ) {
+        this.productService = productService;
+        this.reviewService = reviewService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Số connection DB đồng thời đã do datasource-limiter giới hạn
+            this.executor = new VirtualThreadTaskExecutor("product-page-");
+            this.pool = null;
+        } else {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(properties.getPoolSize());
+            pool.setMaxPoolSize(properties.getPoolSize());
+            pool.setQueueCapacity(properties.getQueueCapacity());
+            pool.setThreadNamePrefix("product-page-");
+            pool.setDaemon(true);
+            pool.initialize();
+            // Metric executor.* (tag name=productPage) như pool render PDF
+            new ExecutorServiceMetrics(pool.getThreadPoolExecutor(), "productPage", List.of()).bindTo(meterRegistry);
+            this.executor = pool;
+            this.pool = pool;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Timed(value = MechaMetrics.PRODUCT_PAGE, histogram = true)
+    public ProductPageDto getPage(Long productId, int quantity) {
+        long startNanos = System.nanoTime();
+
+        Future<ReviewPageDto> reviews = submit(PART_REVIEWS, () ->
+                reviewService.pageApprovedReviewsForProduct(productId, null, null, properties.getReviewLimit()));
+        Future<BigDecimal> unitPrice = submit(PART_UNIT_PRICE, () ->
+                productService.calculateUnitPrice(productId, quantity));
+        Future<List<ProductDto>> related = submit(PART_RELATED, () ->
+                productService.listRelatedProducts(productId, properties.getRelatedLimit()));
+
+        ProductDto product;
+        try {
+            product = productService.getProduct(productId);
+        } catch (RuntimeException e) {
+            cancel(reviews, unitPrice, related);
+            throw e;
+        }
+
+        List<String> missingParts = new ArrayList<>();
+        return ProductPageDto.builder()
+                .product(product)
+                .reviews(await(PART_REVIEWS, reviews, startNanos, properties.getReviewsTimeoutMs(), missingParts))
+                .quantity(quantity)
+                .unitPrice(await(PART_UNIT_PRICE, unitPrice, startNanos, properties.getUnitPriceTimeoutMs(), missingParts))
+                .relatedProducts(await(PART_RELATED, related, startNanos, properties.getRelatedTimeoutMs(), missingParts))
+                .missingParts(missingParts)
+                .build();
+    }
+
+    /**
+     * Chuyển SecurityContext sang thread con: định tuyến replica (ReadYourWritesTracker) dựa vào user hiện tại.
+     */
+    private <T> Future<T> submit(String part, Callable<T> task) {
+        try {
+            return executor.submit(new DelegatingSecurityContextCallable<>(task));
+        } catch (TaskRejectedException e) {
+            degraded(part, "rejected");
+            return null;
+        }
+    }
+
+    private <T> T await(String part, Future<T> future, long startNanos, long timeoutMs, List<String> missingParts) {
+        if (future == null) {
+            missingParts.add(part);
+            return null;
+        }
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs) - (System.nanoTime() - startNanos);
+        try {
+            return future.get(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            degraded(part, "timeout");
+        } catch (ExecutionException e) {
+            log.warn("Product page part {} failed", part, e.getCause());
+            degraded(part, "error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            degraded(part, "interrupted");
+        }
+        missingParts.add(part);
+        return null;
+    }
+
+    private static void cancel(Future<?>... futures) {
+        for (Future<?> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void degraded(String part, String reason) {
+        Counter.builder(MechaMetrics.PRODUCT_PAGE_DEGRADED)
+                .description("Số phần của trang sản phẩm bị bỏ qua")
+                .tag(MechaMetrics.TAG_PART, part)
+                .tag(MechaMetrics.TAG_REASON, reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
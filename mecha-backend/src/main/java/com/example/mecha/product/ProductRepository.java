@@ -1,7 +1,14 @@
 package com.example.mecha.product;
 
+import com.example.mecha.common.ResourceVersion;
+import com.example.mecha.review.RatingRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -9,4 +16,82 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategoryId(Long categoryId);
 
     List<Product> findByNameContainingIgnoreCase(String keyword);
+
+    /**
+     * Sản phẩm thuộc danh mục có path trong [pathFrom, pathTo), tức cả cây con của 1 danh mục
+     * (xem CategoryPaths). Range scan trên index path rồi join theo products.category_id.
+     */
+    @Query("""
+           SELECT p FROM Product p JOIN FETCH p.category c
+           WHERE c.path >= :pathFrom AND c.path < :pathTo
+           ORDER BY p.id
+           """)
+    List<Product> findByCategoryPathRange(@Param("pathFrom") String pathFrom, @Param("pathTo") String pathTo);
+
+    /**
+     * Sản phẩm cùng danh mục (trực tiếp) với {@code productId}, bỏ chính nó và sản phẩm ẩn.
+     * Danh mục lấy bằng subquery nên không phải đợi load sản phẩm trước (xem ProductPageService).
+     */
+    @Query("""
+           SELECT p FROM Product p
+           WHERE p.category.id = (SELECT q.category.id FROM Product q WHERE q.id = :productId)
+             AND p.id <> :productId
+             AND p.hidden = false
+           ORDER BY p.id
+           """)
+    List<Product> findRelated(@Param("productId") Long productId, Limit limit);
+
+    // Version (count + max updated_at) của đúng tập sản phẩm các query trên trả về, dùng cho ETag
+
+    @Query("SELECT new com.example.mecha.common.ResourceVersion(count(p), max(p.updatedAt)) FROM Product p")
+    ResourceVersion findVersion();
+
+    @Query("""
+           SELECT new com.example.mecha.common.ResourceVersion(count(p), max(p.updatedAt))
+           FROM Product p WHERE p.id = :id
+           """)
+    ResourceVersion findVersionById(@Param("id") Long id);
+
+    // Không escape % / _ như findByNameContainingIgnoreCase: tập đếm có thể rộng hơn, ETag vẫn đúng
+    @Query("""
+           SELECT new com.example.mecha.common.ResourceVersion(count(p), max(p.updatedAt))
+           FROM Product p WHERE UPPER(p.name) LIKE UPPER(CONCAT('%', :keyword, '%'))
+           """)
+    ResourceVersion findVersionByNameContaining(@Param("keyword") String keyword);
+
+    @Query("""
+           SELECT new com.example.mecha.common.ResourceVersion(count(p), max(p.updatedAt))
+           FROM Product p JOIN p.category c
+           WHERE c.path >= :pathFrom AND c.path < :pathTo
+           """)
+    ResourceVersion findVersionByCategoryPathRange(@Param("pathFrom") String pathFrom, @Param("pathTo") String pathTo);
+
+    /**
+     * Cộng dồn (delta = +1) hoặc trừ (delta = -1) 1 review {@code stars} sao vào thống kê.
+     * Chạy bằng 1 câu UPDATE nên không mất cập nhật khi nhiều người duyệt cùng lúc.
+     * Đổi cả updatedAt: rating nằm trong DTO nên ETag phải đổi theo.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+           UPDATE Product p
+           SET p.updatedAt = INSTANT,
+               p.rating.count = p.rating.count + :delta,
+               p.rating.sum = p.rating.sum + :delta * :stars,
+               p.rating.star1 = p.rating.star1 + CASE WHEN :stars = 1 THEN :delta ELSE 0 END,
+               p.rating.star2 = p.rating.star2 + CASE WHEN :stars = 2 THEN :delta ELSE 0 END,
+               p.rating.star3 = p.rating.star3 + CASE WHEN :stars = 3 THEN :delta ELSE 0 END,
+               p.rating.star4 = p.rating.star4 + CASE WHEN :stars = 4 THEN :delta ELSE 0 END,
+               p.rating.star5 = p.rating.star5 + CASE WHEN :stars = 5 THEN :delta ELSE 0 END
+           WHERE p.id = :id
+           """)
+    int applyRatingDelta(@Param("id") Long id, @Param("stars") long stars, @Param("delta") long delta);
+
+    @Query("""
+           SELECT new com.example.mecha.review.RatingRow(
+               p.id, p.rating.count, p.rating.sum,
+               p.rating.star1, p.rating.star2, p.rating.star3, p.rating.star4, p.rating.star5)
+           FROM Product p
+           WHERE p.id IN :ids
+           """)
+    List<RatingRow> findRatingRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
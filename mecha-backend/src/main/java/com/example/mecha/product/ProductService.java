@@ -1,11 +1,18 @@
 package com.example.mecha.product;
 
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.common.ResourceVersion;
+import com.example.mecha.metrics.MechaMetrics;
 import com.example.mecha.product.dto.*;
+import com.example.mecha.review.dto.ReviewSummaryDto;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -16,13 +23,14 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductCategoryRepository categoryRepository;
+    private final CategoryTreeCache categoryTreeCache;
 
     @Transactional
     public ProductDto createProduct(ProductCreateRequest request) {
         ProductCategory category = null;
         if (request.getCategoryId() != null) {
             category = categoryRepository.findById(request.getCategoryId())
-                    .orElseThrow(() -> new RuntimeException("Category not found"));
+                    .orElseThrow(() -> DomainErrors.CATEGORY_NOT_FOUND);
         }
 
         Product product = Product.builder()
@@ -46,14 +54,14 @@ public class ProductService {
     @Transactional
     public ProductDto updateProduct(Long id, ProductUpdateRequest request) {
         Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+                .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
 
         if (request.getName() != null) product.setName(request.getName());
         if (request.getSku() != null) product.setSku(request.getSku());
 
         if (request.getCategoryId() != null) {
             ProductCategory category = categoryRepository.findById(request.getCategoryId())
-                    .orElseThrow(() -> new RuntimeException("Category not found"));
+                    .orElseThrow(() -> DomainErrors.CATEGORY_NOT_FOUND);
             product.setCategory(category);
         }
 
@@ -66,6 +74,8 @@ public class ProductService {
         if (request.getTierPrices() != null) {
             List<ProductTierPrice> tiers = buildTierEntities(request.getTierPrices());
             product.setTierPrices(tiers);
+            // Đổi collection không làm dirty entity nên @PreUpdate không chạy: tự đổi updatedAt cho ETag
+            product.setUpdatedAt(Instant.now());
         }
 
         // Cập nhật imageUrl trực tiếp nếu có
@@ -83,11 +93,12 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
+    @Timed(value = MechaMetrics.PRODUCT_LIST, histogram = true)
     public List<ProductDto> listProducts(Long categoryId, String keyword) {
         List<Product> products;
 
         if (categoryId != null) {
-            products = productRepository.findByCategoryId(categoryId);
+            products = listProductsInSubtree(categoryId);
         } else if (keyword != null && !keyword.isBlank()) {
             products = productRepository.findByNameContainingIgnoreCase(keyword);
         } else {
@@ -99,17 +110,73 @@ public class ProductService {
                 .toList();
     }
 
+    /**
+     * Sản phẩm của danh mục và mọi danh mục con cháu, trong 1 câu query theo path.
+     */
+    private List<Product> listProductsInSubtree(Long categoryId) {
+        String path = categoryPath(categoryId);
+        if (path == null) {
+            return List.of();
+        }
+        return productRepository.findByCategoryPathRange(path, CategoryPaths.upperBound(path));
+    }
+
+    private String categoryPath(Long categoryId) {
+        String path = categoryTreeCache.get().pathById().get(categoryId);
+        if (path == null) {
+            // Danh mục vừa tạo ở node khác, cache chưa kịp dựng lại
+            path = categoryRepository.findPathById(categoryId).orElse(null);
+        }
+        return path;
+    }
+
+    /**
+     * Version của kết quả {@link #listProducts} (ETag), không load entity.
+     * Gồm cả cây danh mục vì DTO có categoryName.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion listProductsVersion(Long categoryId, String keyword) {
+        ResourceVersion products;
+        if (categoryId != null) {
+            String path = categoryPath(categoryId);
+            products = path == null
+                    ? ResourceVersion.NONE
+                    : productRepository.findVersionByCategoryPathRange(path, CategoryPaths.upperBound(path));
+        } else if (keyword != null && !keyword.isBlank()) {
+            products = productRepository.findVersionByNameContaining(keyword);
+        } else {
+            products = productRepository.findVersion();
+        }
+        return products.and(categoryTreeCache.get().version());
+    }
+
+    /**
+     * Sản phẩm không tồn tại => NONE (không ETag), để getProduct vẫn trả 404.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion productVersion(Long id) {
+        ResourceVersion product = productRepository.findVersionById(id);
+        return product.count() == 0 ? ResourceVersion.NONE : product.and(categoryTreeCache.get().version());
+    }
+
     @Transactional(readOnly = true)
     public ProductDto getProduct(Long id) {
         Product p = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+                .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
         return toDto(p);
     }
 
+    @Transactional(readOnly = true)
+    public List<ProductDto> listRelatedProducts(Long productId, int limit) {
+        return productRepository.findRelated(productId, Limit.of(limit)).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
     @Transactional
     public ProductDto toggleVisibility(Long id) {
         Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+                .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
         product.setHidden(!Boolean.TRUE.equals(product.getHidden()));
         return toDto(productRepository.save(product));
     }
@@ -122,13 +189,18 @@ public class ProductService {
     @Transactional(readOnly = true)
     public BigDecimal calculateUnitPrice(Long productId, int quantity) {
         Product p = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+                .orElseThrow(() -> DomainErrors.PRODUCT_NOT_FOUND);
+
+        return resolveUnitPrice(p.getBasePrice(), p.getTierPrices(), quantity);
+    }
 
-        if (p.getTierPrices() == null || p.getTierPrices().isEmpty()) {
-            return p.getBasePrice();
+    // package-private: dùng trực tiếp trong mecha-benchmarks
+    static BigDecimal resolveUnitPrice(BigDecimal basePrice, List<ProductTierPrice> tierPrices, int quantity) {
+        if (tierPrices == null || tierPrices.isEmpty()) {
+            return basePrice;
         }
 
-        return p.getTierPrices().stream()
+        return tierPrices.stream()
                 .sorted(Comparator.comparing(ProductTierPrice::getMinQty))
                 .filter(tier -> {
                     boolean geMin = quantity >= tier.getMinQty();
@@ -137,7 +209,7 @@ public class ProductService {
                 })
                 .findFirst()
                 .map(ProductTierPrice::getUnitPrice)
-                .orElse(p.getBasePrice());
+                .orElse(basePrice);
     }
 
     private List<ProductTierPrice> buildTierEntities(List<TierPriceCreateRequest> reqs) {
@@ -155,7 +227,7 @@ public class ProductService {
         return tiers;
     }
 
-    private ProductDto toDto(Product p) {
+    ProductDto toDto(Product p) {
         List<TierPriceDto> tiers = new ArrayList<>();
         if (p.getTierPrices() != null) {
             for (ProductTierPrice t : p.getTierPrices()) {
@@ -193,6 +265,7 @@ public class ProductService {
                 .imageUrl(p.getImageUrl())
                 .images(imageDtos)
                 .hidden(p.getHidden())
+                .rating(ReviewSummaryDto.from(p.getRating()))
                 .build();
     }
 }
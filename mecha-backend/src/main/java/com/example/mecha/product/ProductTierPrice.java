@@ -1,12 +1,17 @@
 package com.example.mecha.product;
 
+import com.example.mecha.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "product_tier_prices")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT_TIER_PRICES)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,10 +1,24 @@
 package com.example.mecha.product;
 
+import com.example.mecha.cache.CacheRegions;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductTierPriceRepository extends JpaRepository<ProductTierPrice, Long> {
 
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     List<ProductTierPrice> findByProductIdOrderByMinQtyAsc(Long productId);
+
+    @Query("SELECT t FROM ProductTierPrice t WHERE t.product.id IN :productIds ORDER BY t.product.id, t.minQty")
+    List<ProductTierPrice> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
@@ -1,5 +1,6 @@
 package com.example.mecha.product.dto;
 
+import com.example.mecha.review.dto.ReviewSummaryDto;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Data;
@@ -53,4 +54,7 @@ public class ProductDto {
 
     @Schema(description = "Sản phẩm đã bị ẩn", example = "false")
     private Boolean hidden;
+
+    @Schema(description = "Tóm tắt đánh giá đã duyệt (điểm trung bình, số lượt, histogram)")
+    private ReviewSummaryDto rating;
 }
@@ -0,0 +1,34 @@
+package com.example.mecha.product.dto;
+
+import com.example.mecha.review.dto.ReviewPageDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Dữ liệu trang chi tiết sản phẩm trong 1 request")
+public class ProductPageDto {
+
+    @Schema(description = "Sản phẩm (đã gồm tóm tắt đánh giá ở field rating)")
+    private ProductDto product;
+
+    @Schema(description = "Trang đầu đánh giá đã duyệt; trang sau gọi /api/reviews/product/{id}/page với nextCursor")
+    private ReviewPageDto reviews;
+
+    @Schema(description = "Số lượng dùng để tính đơn giá", example = "100")
+    private Integer quantity;
+
+    @Schema(description = "Đơn giá áp dụng cho quantity (theo tier giá)", example = "4500")
+    private BigDecimal unitPrice;
+
+    @Schema(description = "Sản phẩm cùng danh mục")
+    private List<ProductDto> relatedProducts;
+
+    @Schema(description = "Các phần không lấy được kịp (reviews, unitPrice, relatedProducts): field tương ứng là null",
+            example = "[\"relatedProducts\"]")
+    private List<String> missingParts;
+}
@@ -0,0 +1,12 @@
+package com.example.mecha.review;
+
+/**
+ * 1 dòng thống kê đánh giá (id sản phẩm / dịch vụ + các cột rating_*), dùng cho truy vấn batch.
+ */
+public record RatingRow(Long id, Long count, Long sum,
+                        Long star1, Long star2, Long star3, Long star4, Long star5) {
+
+    public RatingStats toStats() {
+        return new RatingStats(count, sum, star1, star2, star3, star4, star5);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.mecha.review;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thống kê đánh giá đã duyệt, lưu thẳng trên products / services (denormalized).
+ *
+ * Chỉ được cập nhật qua câu UPDATE cộng dồn trong ProductRepository / ServiceRepository
+ * (applyRatingDelta) khi review vào hoặc rời trạng thái APPROVED, không ghi qua entity.
+ * Các cột để updatable = false: lưu Product / ServiceEntity (sửa giá, tồn kho...) sẽ không
+ * ghi đè số liệu mới hơn vừa được cộng bởi câu UPDATE khác.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingStats {
+
+    // Số review đã duyệt
+    @Column(name = "rating_count", columnDefinition = "BIGINT DEFAULT 0", updatable = false)
+    @Builder.Default
+    private Long count = 0L;
+
+    // Tổng số sao của các review đã duyệt
+    @Column(name = "rating_sum", columnDefinition = "BIGINT DEFAULT 0", updatable = false)
+    @Builder.Default
+    private Long sum = 0L;
+
+    // Histogram: số review theo từng mức sao
+    @Column(name = "rating_1", columnDefinition = "BIGINT DEFAULT 0", updatable = false)
+    @Builder.Default
+    private Long star1 = 0L;
+
+    @Column(name = "rating_2", columnDefinition = "BIGINT DEFAULT 0", updatable = false)
+    @Builder.Default
+    private Long star2 = 0L;
+
+    @Column(name = "rating_3", columnDefinition = "BIGINT DEFAULT 0", updatable = false)
+    @Builder.Default
+    private Long star3 = 0L;
+
+    @Column(name = "rating_4", columnDefinition = "BIGINT DEFAULT 0", updatable = false)
+    @Builder.Default
+    private Long star4 = 0L;
+
+    @Column(name = "rating_5", columnDefinition = "BIGINT DEFAULT 0", updatable = false)
+    @Builder.Default
+    private Long star5 = 0L;
+
+    /**
+     * Điểm trung bình, null nếu chưa có review nào được duyệt.
+     */
+    public Double average() {
+        long c = count != null ? count : 0L;
+        if (c <= 0) {
+            return null;
+        }
+        return (double) (sum != null ? sum : 0L) / c;
+    }
+
+    /**
+     * Histogram theo thứ tự 1..5 sao.
+     */
+    public Map<Integer, Long> histogram() {
+        Map<Integer, Long> map = new LinkedHashMap<>();
+        map.put(1, star1 != null ? star1 : 0L);
+        map.put(2, star2 != null ? star2 : 0L);
+        map.put(3, star3 != null ? star3 : 0L);
+        map.put(4, star4 != null ? star4 : 0L);
+        map.put(5, star5 != null ? star5 : 0L);
+        return map;
+    }
+}
@@ -41,7 +41,7 @@ public class Review {
 
     // (Optional) Đơn hàng liên quan
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
 
     // (Optional) Lịch dịch vụ liên quan
@@ -1,13 +1,18 @@
 // review/ReviewAdminController.java
 package com.example.mecha.review;
 
+import com.example.mecha.review.dto.ReviewBulkModerationRequest;
+import com.example.mecha.review.dto.ReviewBulkModerationResultDto;
 import com.example.mecha.review.dto.ReviewDto;
 import com.example.mecha.review.dto.ReviewModerationRequest;
+import com.example.mecha.review.dto.ReviewPageDto;
 import com.example.mecha.user.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -30,13 +35,31 @@ public class ReviewAdminController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
-    @Operation(summary = "Danh sách đánh giá (lọc theo trạng thái)")
+    @Operation(
+            summary = "Danh sách đánh giá (lọc theo trạng thái)",
+            description = "Deprecated: trả về toàn bộ đánh giá (mới nhất trước), không phân trang. Dùng /api/admin/reviews/page",
+            deprecated = true
+    )
     public ResponseEntity<List<ReviewDto>> list(
             @RequestParam(required = false) ReviewStatus status
     ) {
         return ResponseEntity.ok(reviewService.adminList(status));
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Danh sách đánh giá phân trang theo cursor (lọc theo trạng thái, số sao, sản phẩm, dịch vụ)")
+    public ResponseEntity<ReviewPageDto> page(
+            @RequestParam(required = false) ReviewStatus status,
+            @RequestParam(required = false) @Min(1) @Max(5) Integer rating,
+            @RequestParam(required = false) @Positive Long productId,
+            @RequestParam(required = false) @Positive Long serviceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Positive Integer limit
+    ) {
+        return ResponseEntity.ok(reviewService.adminPage(status, rating, productId, serviceId, cursor, limit));
+    }
+
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
     @Operation(summary = "Duyệt đánh giá (APPROVED / REJECTED)")
@@ -47,4 +70,17 @@ public class ReviewAdminController {
     ) {
         return ResponseEntity.ok(reviewService.adminModerate(id, request, currentUser));
     }
+
+    @PostMapping("/bulk-status")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(
+            summary = "Duyệt hàng loạt đánh giá (APPROVED / REJECTED)",
+            description = "1 câu UPDATE cho toàn bộ danh sách; thống kê sao của mỗi sản phẩm / dịch vụ bị ảnh hưởng được cập nhật 1 lần"
+    )
+    public ResponseEntity<ReviewBulkModerationResultDto> moderateBulk(
+            @AuthenticationPrincipal User currentUser,
+            @Valid @RequestBody ReviewBulkModerationRequest request
+    ) {
+        return ResponseEntity.ok(reviewService.adminModerateBulk(request, currentUser));
+    }
 }
@@ -1,12 +1,15 @@
 // review/ReviewController.java
 package com.example.mecha.review;
 
+import com.example.mecha.common.ConditionalGet;
 import com.example.mecha.review.dto.*;
 import com.example.mecha.user.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +30,7 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final ConditionalGet conditionalGet;
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
@@ -50,34 +55,99 @@ public class ReviewController {
     }
 
     @GetMapping("/product/{productId}")
-    @Operation(summary = "Danh sách đánh giá đã duyệt của 1 sản phẩm")
+    @Operation(
+            summary = "Danh sách đánh giá đã duyệt của 1 sản phẩm",
+            description = "Deprecated: trả về toàn bộ đánh giá (mới nhất trước), không phân trang. Dùng /product/{productId}/page",
+            deprecated = true
+    )
     public ResponseEntity<List<ReviewDto>> productReviews(
-            @PathVariable @Positive Long productId
+            @PathVariable @Positive Long productId,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(reviewService.listApprovedReviewsForProduct(productId));
+        return conditionalGet.catalog(request, "reviews:product:" + productId,
+                () -> reviewService.approvedReviewsForProductVersion(productId),
+                () -> reviewService.listApprovedReviewsForProduct(productId));
     }
 
     @GetMapping("/service/{serviceId}")
-    @Operation(summary = "Danh sách đánh giá đã duyệt của 1 dịch vụ")
+    @Operation(
+            summary = "Danh sách đánh giá đã duyệt của 1 dịch vụ",
+            description = "Deprecated: trả về toàn bộ đánh giá (mới nhất trước), không phân trang. Dùng /service/{serviceId}/page",
+            deprecated = true
+    )
     public ResponseEntity<List<ReviewDto>> serviceReviews(
-            @PathVariable @Positive Long serviceId
+            @PathVariable @Positive Long serviceId,
+            WebRequest request
+    ) {
+        return conditionalGet.catalog(request, "reviews:service:" + serviceId,
+                () -> reviewService.approvedReviewsForServiceVersion(serviceId),
+                () -> reviewService.listApprovedReviewsForService(serviceId));
+    }
+
+    @GetMapping("/product/{productId}/page")
+    @Operation(
+            summary = "Đánh giá đã duyệt của 1 sản phẩm (phân trang theo cursor)",
+            description = "Trang đầu bỏ trống cursor; trang sau gửi lại nextCursor của trang trước"
+    )
+    public ResponseEntity<ReviewPageDto> productReviewPage(
+            @PathVariable @Positive Long productId,
+            @RequestParam(required = false) @Min(1) @Max(5) Integer rating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Positive Integer limit,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(reviewService.listApprovedReviewsForService(serviceId));
+        return conditionalGet.catalog(request, "reviews:product:" + productId,
+                () -> reviewService.approvedReviewsForProductVersion(productId),
+                () -> reviewService.pageApprovedReviewsForProduct(productId, rating, cursor, limit));
+    }
+
+    @GetMapping("/service/{serviceId}/page")
+    @Operation(
+            summary = "Đánh giá đã duyệt của 1 dịch vụ (phân trang theo cursor)",
+            description = "Trang đầu bỏ trống cursor; trang sau gửi lại nextCursor của trang trước"
+    )
+    public ResponseEntity<ReviewPageDto> serviceReviewPage(
+            @PathVariable @Positive Long serviceId,
+            @RequestParam(required = false) @Min(1) @Max(5) Integer rating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Positive Integer limit,
+            WebRequest request
+    ) {
+        return conditionalGet.catalog(request, "reviews:service:" + serviceId,
+                () -> reviewService.approvedReviewsForServiceVersion(serviceId),
+                () -> reviewService.pageApprovedReviewsForService(serviceId, rating, cursor, limit));
     }
 
     @GetMapping("/product/{productId}/summary")
     @Operation(summary = "Tóm tắt đánh giá sản phẩm (điểm trung bình + số lượt)")
     public ResponseEntity<ReviewSummaryDto> productSummary(
-            @PathVariable @Positive Long productId
+            @PathVariable @Positive Long productId,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(reviewService.getProductSummary(productId));
+        return conditionalGet.catalog(request, "reviews:product-summary:" + productId,
+                () -> reviewService.productSummaryVersion(productId),
+                () -> reviewService.getProductSummary(productId));
     }
 
     @GetMapping("/service/{serviceId}/summary")
     @Operation(summary = "Tóm tắt đánh giá dịch vụ (điểm trung bình + số lượt)")
     public ResponseEntity<ReviewSummaryDto> serviceSummary(
-            @PathVariable @Positive Long serviceId
+            @PathVariable @Positive Long serviceId,
+            WebRequest request
+    ) {
+        return conditionalGet.catalog(request, "reviews:service-summary:" + serviceId,
+                () -> reviewService.serviceSummaryVersion(serviceId),
+                () -> reviewService.getServiceSummary(serviceId));
+    }
+
+    @PostMapping("/summary")
+    @Operation(
+            summary = "Tóm tắt đánh giá cho nhiều sản phẩm / dịch vụ",
+            description = "Dùng cho trang danh sách: 1 request thay cho 1 lần gọi /summary mỗi thẻ sản phẩm"
+    )
+    public ResponseEntity<ReviewSummaryBatchDto> summaries(
+            @Valid @RequestBody ReviewSummaryBatchRequest request
     ) {
-        return ResponseEntity.ok(reviewService.getServiceSummary(serviceId));
+        return ResponseEntity.ok(reviewService.getSummaries(request));
     }
 }
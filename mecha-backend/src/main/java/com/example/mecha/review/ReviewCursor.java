@@ -0,0 +1,33 @@
+package com.example.mecha.review;
+
+import com.example.mecha.common.DomainErrors;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Vị trí trong feed review (createdAt, id) của phần tử cuối trang trước.
+ * Client chỉ cần gửi lại chuỗi nextCursor, không cần hiểu nội dung.
+ */
+public record ReviewCursor(Instant createdAt, Long id) {
+
+    public static ReviewCursor of(Review review) {
+        return new ReviewCursor(review.getCreatedAt(), review.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReviewCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new ReviewCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw DomainErrors.INVALID_CURSOR;
+        }
+    }
+}
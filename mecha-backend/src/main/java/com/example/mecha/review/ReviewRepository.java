@@ -1,47 +1,47 @@
 // review/ReviewRepository.java
 package com.example.mecha.review;
 
+import com.example.mecha.common.ResourceVersion;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecificationExecutor<Review> {
 
     List<Review> findByUserIdOrderByCreatedAtDesc(Long userId);
 
-    List<Review> findByProductIdAndStatusOrderByCreatedAtDesc(Long productId, ReviewStatus status);
-
-    List<Review> findByServiceIdAndStatusOrderByCreatedAtDesc(Long serviceId, ReviewStatus status);
-
     boolean existsByUserIdAndProductId(Long userId, Long productId);
 
     boolean existsByUserIdAndServiceId(Long userId, Long serviceId);
 
-    List<Review> findByStatusOrderByCreatedAtDesc(ReviewStatus status);
+    /**
+     * Khóa dòng review khi duyệt để 2 người duyệt cùng lúc không cộng thống kê 2 lần.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findForUpdateById(@Param("id") Long id);
 
-    @Query("""
-           SELECT AVG(r.rating) FROM Review r
-           WHERE r.product.id = :productId AND r.status = com.example.mecha.review.ReviewStatus.APPROVED
-           """)
-    Double averageRatingForProduct(@Param("productId") Long productId);
-
-    @Query("""
-           SELECT COUNT(r) FROM Review r
-           WHERE r.product.id = :productId AND r.status = com.example.mecha.review.ReviewStatus.APPROVED
-           """)
-    Long countApprovedForProduct(@Param("productId") Long productId);
+    // Version cho ETag: review + tên người viết / tên sản phẩm, dịch vụ đều nằm trong ReviewDto
 
     @Query("""
-           SELECT AVG(r.rating) FROM Review r
-           WHERE r.service.id = :serviceId AND r.status = com.example.mecha.review.ReviewStatus.APPROVED
+           SELECT new com.example.mecha.common.ResourceVersion(
+               count(r), greatest(max(r.updatedAt), max(u.updatedAt), max(p.updatedAt)))
+           FROM Review r JOIN r.user u JOIN r.product p
+           WHERE p.id = :productId AND r.status = :status
            """)
-    Double averageRatingForService(@Param("serviceId") Long serviceId);
+    ResourceVersion findVersionByProduct(@Param("productId") Long productId, @Param("status") ReviewStatus status);
 
     @Query("""
-           SELECT COUNT(r) FROM Review r
-           WHERE r.service.id = :serviceId AND r.status = com.example.mecha.review.ReviewStatus.APPROVED
+           SELECT new com.example.mecha.common.ResourceVersion(
+               count(r), greatest(max(r.updatedAt), max(u.updatedAt), max(s.updatedAt)))
+           FROM Review r JOIN r.user u JOIN r.service s
+           WHERE s.id = :serviceId AND r.status = :status
            """)
-    Long countApprovedForService(@Param("serviceId") Long serviceId);
+    ResourceVersion findVersionByService(@Param("serviceId") Long serviceId, @Param("status") ReviewStatus status);
 }
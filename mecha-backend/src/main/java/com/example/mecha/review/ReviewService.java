@@ -2,17 +2,27 @@
 package com.example.mecha.review;
 
 import com.example.mecha.booking.BookingRepository;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.common.ResourceVersion;
 import com.example.mecha.order.OrderItemRepository;
+import com.example.mecha.product.ProductRepository;
 import com.example.mecha.review.dto.*;
+import com.example.mecha.servicecatalog.ServiceRepository;
 import com.example.mecha.user.User;
 import com.example.mecha.user.UserRole;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +31,15 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final OrderItemRepository orderItemRepository;
     private final BookingRepository bookingRepository;
+    private final ProductRepository productRepository;
+    private final ServiceRepository serviceRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort FEED_ORDER = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
 
     // ===== USER APIs =====
 
@@ -31,18 +50,18 @@ public class ReviewService {
 
         if (isProduct == isService) {
             // cả 2 null hoặc cả 2 cùng có -> không hợp lệ
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "EITHER_PRODUCT_OR_SERVICE_REQUIRED");
+            throw DomainErrors.EITHER_PRODUCT_OR_SERVICE_REQUIRED;
         }
 
         if (isProduct) {
             Long productId = request.getProductId();
 
             if (!orderItemRepository.existsCompletedOrderForProduct(currentUser.getId(), productId)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "USER_HAS_NOT_PURCHASED_PRODUCT");
+                throw DomainErrors.USER_HAS_NOT_PURCHASED_PRODUCT;
             }
 
             if (reviewRepository.existsByUserIdAndProductId(currentUser.getId(), productId)) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ALREADY_REVIEWED_PRODUCT");
+                throw DomainErrors.ALREADY_REVIEWED_PRODUCT;
             }
 
             Review review = Review.builder()
@@ -61,11 +80,11 @@ public class ReviewService {
             Long serviceId = request.getServiceId();
 
             if (!bookingRepository.existsCompletedBookingForService(currentUser.getId(), serviceId)) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "USER_HAS_NOT_COMPLETED_SERVICE");
+                throw DomainErrors.USER_HAS_NOT_COMPLETED_SERVICE;
             }
 
             if (reviewRepository.existsByUserIdAndServiceId(currentUser.getId(), serviceId)) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ALREADY_REVIEWED_SERVICE");
+                throw DomainErrors.ALREADY_REVIEWED_SERVICE;
             }
 
             Review review = Review.builder()
@@ -89,76 +108,334 @@ public class ReviewService {
                 .stream().map(this::toDto).toList();
     }
 
+    /**
+     * @deprecated dùng {@link #pageApprovedReviewsForProduct}. Vẫn trả về toàn bộ review (mới nhất trước, không cắt bớt)
+     * cho tới khi các client cũ chuyển sang API phân trang.
+     */
+    @Deprecated
     @Transactional(readOnly = true)
     public List<ReviewDto> listApprovedReviewsForProduct(Long productId) {
-        return reviewRepository
-                .findByProductIdAndStatusOrderByCreatedAtDesc(productId, ReviewStatus.APPROVED)
+        return fetchAll(ReviewSpecifications.filter(ReviewStatus.APPROVED, null, productId, null))
                 .stream().map(this::toDto).toList();
     }
 
+    /**
+     * @deprecated dùng {@link #pageApprovedReviewsForService}. Vẫn trả về toàn bộ review (mới nhất trước, không cắt bớt)
+     * cho tới khi các client cũ chuyển sang API phân trang.
+     */
+    @Deprecated
     @Transactional(readOnly = true)
     public List<ReviewDto> listApprovedReviewsForService(Long serviceId) {
-        return reviewRepository
-                .findByServiceIdAndStatusOrderByCreatedAtDesc(serviceId, ReviewStatus.APPROVED)
+        return fetchAll(ReviewSpecifications.filter(ReviewStatus.APPROVED, null, null, serviceId))
                 .stream().map(this::toDto).toList();
     }
 
+    @Transactional(readOnly = true)
+    public ReviewPageDto pageApprovedReviewsForProduct(Long productId, Integer rating, String cursor, Integer limit) {
+        return page(ReviewSpecifications.filter(ReviewStatus.APPROVED, rating, productId, null), cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewPageDto pageApprovedReviewsForService(Long serviceId, Integer rating, String cursor, Integer limit) {
+        return page(ReviewSpecifications.filter(ReviewStatus.APPROVED, rating, null, serviceId), cursor, limit);
+    }
+
+    // Version cho ETag của các API đọc ở trên (xem ConditionalGet)
+
+    @Transactional(readOnly = true)
+    public ResourceVersion approvedReviewsForProductVersion(Long productId) {
+        return reviewRepository.findVersionByProduct(productId, ReviewStatus.APPROVED);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion approvedReviewsForServiceVersion(Long serviceId) {
+        return reviewRepository.findVersionByService(serviceId, ReviewStatus.APPROVED);
+    }
+
+    /**
+     * Thống kê nằm trên dòng products (applyRatingDelta đổi cả updated_at).
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion productSummaryVersion(Long productId) {
+        return productRepository.findVersionById(productId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion serviceSummaryVersion(Long serviceId) {
+        return serviceRepository.findVersionById(serviceId);
+    }
+
+    // Tóm tắt đọc thẳng từ các cột rating_* trên products / services (RatingStats)
+
     @Transactional(readOnly = true)
     public ReviewSummaryDto getProductSummary(Long productId) {
-        Double avg = reviewRepository.averageRatingForProduct(productId);
-        Long count = reviewRepository.countApprovedForProduct(productId);
-        return ReviewSummaryDto.builder()
-                .averageRating(avg)
-                .totalReviews(count != null ? count : 0L)
-                .build();
+        return productSummaries(List.of(productId))
+                .getOrDefault(productId, ReviewSummaryDto.from(null));
     }
 
     @Transactional(readOnly = true)
     public ReviewSummaryDto getServiceSummary(Long serviceId) {
-        Double avg = reviewRepository.averageRatingForService(serviceId);
-        Long count = reviewRepository.countApprovedForService(serviceId);
-        return ReviewSummaryDto.builder()
-                .averageRating(avg)
-                .totalReviews(count != null ? count : 0L)
+        return serviceSummaries(List.of(serviceId))
+                .getOrDefault(serviceId, ReviewSummaryDto.from(null));
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewSummaryBatchDto getSummaries(ReviewSummaryBatchRequest request) {
+        return ReviewSummaryBatchDto.builder()
+                .products(productSummaries(request.getProductIds()))
+                .services(serviceSummaries(request.getServiceIds()))
                 .build();
     }
 
+    private Map<Long, ReviewSummaryDto> productSummaries(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return toSummaryMap(productRepository.findRatingRowsByIdIn(ids));
+    }
+
+    private Map<Long, ReviewSummaryDto> serviceSummaries(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return toSummaryMap(serviceRepository.findRatingRowsByIdIn(ids));
+    }
+
+    private Map<Long, ReviewSummaryDto> toSummaryMap(List<RatingRow> rows) {
+        Map<Long, ReviewSummaryDto> map = new LinkedHashMap<>();
+        for (RatingRow row : rows) {
+            map.put(row.id(), ReviewSummaryDto.from(row.toStats()));
+        }
+        return map;
+    }
+
     // ===== ADMIN / STAFF =====
 
+    /**
+     * @deprecated dùng {@link #adminPage}. Vẫn trả về toàn bộ review (mới nhất trước, không cắt bớt)
+     * cho tới khi các client cũ chuyển sang API phân trang.
+     */
+    @Deprecated
     @Transactional(readOnly = true)
     public List<ReviewDto> adminList(ReviewStatus status) {
-        List<Review> reviews;
-        if (status != null) {
-            reviews = reviewRepository.findByStatusOrderByCreatedAtDesc(status);
-        } else {
-            reviews = reviewRepository.findAll()
-                    .stream()
-                    .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                    .toList();
-        }
-        return reviews.stream().map(this::toDto).toList();
+        return fetchAll(ReviewSpecifications.filter(status, null, null, null))
+                .stream().map(this::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public ReviewPageDto adminPage(
+            ReviewStatus status,
+            Integer rating,
+            Long productId,
+            Long serviceId,
+            String cursor,
+            Integer limit
+    ) {
+        return page(ReviewSpecifications.filter(status, rating, productId, serviceId), cursor, limit);
     }
 
     @Transactional
     public ReviewDto adminModerate(Long id, ReviewModerationRequest request, User currentUser) {
         if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.STAFF) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "ONLY_ADMIN_OR_STAFF_CAN_MODERATE");
+            throw DomainErrors.ONLY_ADMIN_OR_STAFF_CAN_MODERATE;
         }
 
-        Review review = reviewRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "REVIEW_NOT_FOUND"));
-
         if (request.getStatus() == ReviewStatus.PENDING) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CANNOT_SET_PENDING");
+            throw DomainErrors.CANNOT_SET_PENDING;
         }
 
+        Review review = reviewRepository.findForUpdateById(id)
+                .orElseThrow(() -> DomainErrors.REVIEW_NOT_FOUND);
+
+        boolean wasApproved = review.getStatus() == ReviewStatus.APPROVED;
+        boolean isApproved = request.getStatus() == ReviewStatus.APPROVED;
+
         review.setStatus(request.getStatus());
+        if (wasApproved != isApproved) {
+            applyRatingDelta(review, isApproved ? 1 : -1);
+        }
         // adminNote có thể được lưu ở bảng khác / audit log; ở đây mình chỉ bỏ qua
         // (để không thêm cột ngoài scope, bạn có thể log qua Audit Log AOP sau)
 
         return toDto(review);
     }
 
+    /**
+     * Đổi trạng thái nhiều review bằng 1 câu SQL:
+     *  - khóa các review cần đổi (theo thứ tự id), bỏ qua review đã ở trạng thái đích
+     *  - UPDATE reviews, RETURNING delta (+1 vào APPROVED, -1 rời APPROVED, 0 nếu không liên quan)
+     *  - gộp delta theo product / service rồi UPDATE mỗi product / service đúng 1 lần
+     */
+    @Transactional
+    public ReviewBulkModerationResultDto adminModerateBulk(ReviewBulkModerationRequest request, User currentUser) {
+        if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.STAFF) {
+            throw DomainErrors.ONLY_ADMIN_OR_STAFF_CAN_MODERATE;
+        }
+        if (request.getStatus() == ReviewStatus.PENDING) {
+            throw DomainErrors.CANNOT_SET_PENDING;
+        }
+
+        Long[] ids = new LinkedHashSet<>(request.getIds()).stream()
+                .filter(Objects::nonNull)
+                .toArray(Long[]::new);
+        String status = request.getStatus().name();
+
+        return jdbcTemplate.query(BULK_MODERATION_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setString(2, status);
+            ps.setString(3, status);
+        }, rs -> {
+            rs.next();
+            return ReviewBulkModerationResultDto.builder()
+                    .requested(ids.length)
+                    .updated(rs.getLong("updated"))
+                    .productsRefreshed(rs.getLong("products_refreshed"))
+                    .servicesRefreshed(rs.getLong("services_refreshed"))
+                    .build();
+        });
+    }
+
+    private static final String BULK_MODERATION_SQL = """
+            WITH target AS (
+                SELECT id, status AS old_status
+                FROM reviews
+                WHERE id = ANY (?) AND status <> ?
+                ORDER BY id
+                FOR UPDATE
+            ),
+            changed AS (
+                UPDATE reviews r
+                SET status = ?, updated_at = now()
+                FROM target t
+                WHERE r.id = t.id
+                RETURNING r.product_id, r.service_id, r.rating,
+                          CASE WHEN r.status = 'APPROVED' THEN 1
+                               WHEN t.old_status = 'APPROVED' THEN -1
+                               ELSE 0 END AS delta
+            ),
+            product_delta AS (
+                SELECT product_id AS id,
+                       SUM(delta) AS cnt,
+                       SUM(delta * rating) AS total,
+                       SUM(CASE WHEN rating = 1 THEN delta ELSE 0 END) AS s1,
+                       SUM(CASE WHEN rating = 2 THEN delta ELSE 0 END) AS s2,
+                       SUM(CASE WHEN rating = 3 THEN delta ELSE 0 END) AS s3,
+                       SUM(CASE WHEN rating = 4 THEN delta ELSE 0 END) AS s4,
+                       SUM(CASE WHEN rating = 5 THEN delta ELSE 0 END) AS s5
+                FROM changed
+                WHERE product_id IS NOT NULL AND delta <> 0
+                GROUP BY product_id
+            ),
+            locked_products AS (
+                SELECT p.id FROM products p
+                WHERE p.id IN (SELECT id FROM product_delta)
+                ORDER BY p.id
+                FOR UPDATE
+            ),
+            products_updated AS (
+                UPDATE products p
+                SET updated_at   = now(),
+                    rating_count = p.rating_count + d.cnt,
+                    rating_sum   = p.rating_sum + d.total,
+                    rating_1     = p.rating_1 + d.s1,
+                    rating_2     = p.rating_2 + d.s2,
+                    rating_3     = p.rating_3 + d.s3,
+                    rating_4     = p.rating_4 + d.s4,
+                    rating_5     = p.rating_5 + d.s5
+                FROM product_delta d
+                JOIN locked_products l ON l.id = d.id
+                WHERE p.id = d.id
+                RETURNING p.id
+            ),
+            service_delta AS (
+                SELECT service_id AS id,
+                       SUM(delta) AS cnt,
+                       SUM(delta * rating) AS total,
+                       SUM(CASE WHEN rating = 1 THEN delta ELSE 0 END) AS s1,
+                       SUM(CASE WHEN rating = 2 THEN delta ELSE 0 END) AS s2,
+                       SUM(CASE WHEN rating = 3 THEN delta ELSE 0 END) AS s3,
+                       SUM(CASE WHEN rating = 4 THEN delta ELSE 0 END) AS s4,
+                       SUM(CASE WHEN rating = 5 THEN delta ELSE 0 END) AS s5
+                FROM changed
+                WHERE service_id IS NOT NULL AND delta <> 0
+                GROUP BY service_id
+            ),
+            locked_services AS (
+                SELECT s.id FROM services s
+                WHERE s.id IN (SELECT id FROM service_delta)
+                ORDER BY s.id
+                FOR UPDATE
+            ),
+            services_updated AS (
+                UPDATE services s
+                SET updated_at   = now(),
+                    rating_count = s.rating_count + d.cnt,
+                    rating_sum   = s.rating_sum + d.total,
+                    rating_1     = s.rating_1 + d.s1,
+                    rating_2     = s.rating_2 + d.s2,
+                    rating_3     = s.rating_3 + d.s3,
+                    rating_4     = s.rating_4 + d.s4,
+                    rating_5     = s.rating_5 + d.s5
+                FROM service_delta d
+                JOIN locked_services l ON l.id = d.id
+                WHERE s.id = d.id
+                RETURNING s.id
+            )
+            SELECT (SELECT COUNT(*) FROM changed)          AS updated,
+                   (SELECT COUNT(*) FROM products_updated) AS products_refreshed,
+                   (SELECT COUNT(*) FROM services_updated) AS services_refreshed
+            """;
+
+    private ReviewPageDto page(Specification<Review> filter, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Specification<Review> spec = filter;
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(ReviewSpecifications.after(ReviewCursor.decode(cursor)));
+        }
+
+        // Lấy dư 1 dòng để biết còn trang sau hay không (không cần COUNT)
+        List<Review> rows = fetch(spec, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Review> items = hasMore ? rows.subList(0, size) : rows;
+
+        return ReviewPageDto.builder()
+                .items(items.stream().map(this::toDto).toList())
+                .nextCursor(hasMore ? ReviewCursor.of(items.get(items.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Top-N theo (createdAt DESC, id DESC); user / product / service được fetch cùng câu query.
+     */
+    private List<Review> fetchAll(Specification<Review> spec) {
+        return reviewRepository.findBy(spec, q -> q
+                .sortBy(FEED_ORDER)
+                .project("user", "product", "service")
+                .all());
+    }
+
+    private List<Review> fetch(Specification<Review> spec, int limit) {
+        return reviewRepository.findBy(spec, q -> q
+                .sortBy(FEED_ORDER)
+                .project("user", "product", "service")
+                .limit(limit)
+                .all());
+    }
+
+    /**
+     * Cập nhật thống kê trên product / service khi review vào (+1) hoặc rời (-1) trạng thái APPROVED.
+     */
+    private void applyRatingDelta(Review review, int delta) {
+        if (review.getProduct() != null) {
+            productRepository.applyRatingDelta(review.getProduct().getId(), review.getRating(), delta);
+        }
+        if (review.getService() != null) {
+            serviceRepository.applyRatingDelta(review.getService().getId(), review.getRating(), delta);
+        }
+    }
+
     private ReviewDto toDto(Review r) {
         String productName = r.getProduct() != null ? r.getProduct().getName() : null;
         String serviceName = r.getService() != null ? r.getService().getName() : null;
@@ -0,0 +1,65 @@
+package com.example.mecha.review;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Điều kiện lọc Review cho các feed phân trang. Chỉ filter nào có giá trị mới được đưa vào WHERE
+ * để Postgres chọn đúng index (product_id / service_id / status / rating, created_at DESC, id DESC).
+ */
+public final class ReviewSpecifications {
+
+    private ReviewSpecifications() {
+    }
+
+    public static Specification<Review> filter(
+            ReviewStatus status,
+            Integer rating,
+            Long productId,
+            Long serviceId
+    ) {
+        Specification<Review> spec = Specification.where(null);
+        if (productId != null) {
+            spec = spec.and(forProduct(productId));
+        }
+        if (serviceId != null) {
+            spec = spec.and(forService(serviceId));
+        }
+        if (status != null) {
+            spec = spec.and(hasStatus(status));
+        }
+        if (rating != null) {
+            spec = spec.and(hasRating(rating));
+        }
+        return spec;
+    }
+
+    public static Specification<Review> forProduct(Long productId) {
+        return (root, query, cb) -> cb.equal(root.get("product").get("id"), productId);
+    }
+
+    public static Specification<Review> forService(Long serviceId) {
+        return (root, query, cb) -> cb.equal(root.get("service").get("id"), serviceId);
+    }
+
+    public static Specification<Review> hasStatus(ReviewStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Review> hasRating(Integer rating) {
+        return (root, query, cb) -> cb.equal(root.get("rating"), rating);
+    }
+
+    /**
+     * Keyset: các review đứng sau cursor theo thứ tự (createdAt DESC, id DESC).
+     * Điều kiện createdAt <= cursor được thêm riêng để Postgres dùng nó làm index condition.
+     */
+    public static Specification<Review> after(ReviewCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                cb.or(
+                        cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                        cb.lessThan(root.get("id"), cursor.id())
+                )
+        );
+    }
+}
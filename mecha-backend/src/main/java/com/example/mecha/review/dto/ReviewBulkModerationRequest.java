@@ -0,0 +1,24 @@
+package com.example.mecha.review.dto;
+
+import com.example.mecha.review.ReviewStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Duyệt hàng loạt đánh giá (admin/staff)")
+public class ReviewBulkModerationRequest {
+
+    @Schema(description = "Danh sách id đánh giá", example = "[1, 2, 3]")
+    @NotEmpty(message = "ids không được rỗng")
+    @Size(max = 10000, message = "Tối đa 10000 đánh giá mỗi lần")
+    private List<Long> ids;
+
+    @Schema(description = "Trạng thái mới: APPROVED hoặc REJECTED", example = "APPROVED")
+    @NotNull(message = "status không được null")
+    private ReviewStatus status;
+}
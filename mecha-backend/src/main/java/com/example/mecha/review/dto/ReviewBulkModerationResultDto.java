@@ -0,0 +1,23 @@
+package com.example.mecha.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Kết quả duyệt hàng loạt")
+public class ReviewBulkModerationResultDto {
+
+    @Schema(description = "Số id gửi lên (sau khi bỏ trùng)", example = "120")
+    private int requested;
+
+    @Schema(description = "Số đánh giá thực sự đổi trạng thái", example = "118")
+    private long updated;
+
+    @Schema(description = "Số sản phẩm được cập nhật thống kê đánh giá", example = "35")
+    private long productsRefreshed;
+
+    @Schema(description = "Số dịch vụ được cập nhật thống kê đánh giá", example = "4")
+    private long servicesRefreshed;
+}
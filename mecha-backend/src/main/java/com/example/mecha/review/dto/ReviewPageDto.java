@@ -0,0 +1,22 @@
+package com.example.mecha.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "1 trang đánh giá (phân trang theo cursor)")
+public class ReviewPageDto {
+
+    @Schema(description = "Các đánh giá, mới nhất trước")
+    private List<ReviewDto> items;
+
+    @Schema(description = "Cursor để lấy trang tiếp theo. null nếu đã hết.")
+    private String nextCursor;
+
+    @Schema(description = "Còn trang tiếp theo hay không", example = "true")
+    private boolean hasMore;
+}
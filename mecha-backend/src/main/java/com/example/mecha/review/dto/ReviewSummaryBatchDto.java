@@ -0,0 +1,19 @@
+package com.example.mecha.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+@Schema(description = "Tóm tắt đánh giá theo id. Id không tồn tại sẽ không có trong map.")
+public class ReviewSummaryBatchDto {
+
+    @Schema(description = "productId -> tóm tắt đánh giá")
+    private Map<Long, ReviewSummaryDto> products;
+
+    @Schema(description = "serviceId -> tóm tắt đánh giá")
+    private Map<Long, ReviewSummaryDto> services;
+}
@@ -0,0 +1,20 @@
+package com.example.mecha.review.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Lấy tóm tắt đánh giá cho nhiều sản phẩm / dịch vụ cùng lúc")
+public class ReviewSummaryBatchRequest {
+
+    @Size(max = 500)
+    @Schema(description = "Danh sách id sản phẩm", example = "[1, 2, 3]")
+    private List<Long> productIds;
+
+    @Size(max = 500)
+    @Schema(description = "Danh sách id dịch vụ", example = "[1]")
+    private List<Long> serviceIds;
+}
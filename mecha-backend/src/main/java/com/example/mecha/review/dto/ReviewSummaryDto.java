@@ -1,10 +1,12 @@
-// review/dto/ReviewSummaryDto.java
 package com.example.mecha.review.dto;
 
+import com.example.mecha.review.RatingStats;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 @Builder
 @Schema(description = "Tóm tắt đánh giá (điểm trung bình + số lượt)")
@@ -15,4 +17,18 @@ public class ReviewSummaryDto {
 
     @Schema(description = "Tổng số đánh giá đã được duyệt")
     private Long totalReviews;
+
+    @Schema(description = "Số đánh giá theo từng mức sao (1..5)", example = "{\"1\":0,\"2\":1,\"3\":2,\"4\":5,\"5\":12}")
+    private Map<Integer, Long> histogram;
+
+    public static ReviewSummaryDto from(RatingStats stats) {
+        if (stats == null) {
+            stats = new RatingStats();
+        }
+        return ReviewSummaryDto.builder()
+                .averageRating(stats.average())
+                .totalReviews(stats.getCount() != null ? stats.getCount() : 0L)
+                .histogram(stats.histogram())
+                .build();
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.booking.BookingStatus;
+import com.example.mecha.servicecatalog.ServiceType;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Booking còn hiệu lực trong cửa sổ tự động phân công (đã gán hoặc chưa gán).
+ */
+public record AssignmentCandidateRow(
+        Long bookingId,
+        Long technicianId,
+        BookingStatus status,
+        ServiceType serviceType,
+        OffsetDateTime start,
+        OffsetDateTime end,
+        String addressLine
+) {
+}
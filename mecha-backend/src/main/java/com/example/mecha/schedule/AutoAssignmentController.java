@@ -0,0 +1,50 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.schedule.dto.AutoAssignPlanDto;
+import com.example.mecha.schedule.dto.AutoAssignRequest;
+import com.example.mecha.user.User;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/bookings/auto-assign")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Auto assignment", description = "Tự động phân công kỹ thuật viên hàng loạt")
+@SecurityRequirement(name = "bearerAuth")
+public class AutoAssignmentController {
+
+    private final AutoAssignmentService autoAssignmentService;
+
+    @PostMapping("/preview")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(
+            summary = "Xem trước phương án tự động phân công",
+            description = "Không ghi gì vào DB. Xét các booking PENDING chưa gán có scheduledAt trong [from, to)"
+    )
+    public ResponseEntity<AutoAssignPlanDto> preview(
+            @AuthenticationPrincipal User currentUser,
+            @Valid @RequestBody AutoAssignRequest request
+    ) {
+        return ResponseEntity.ok(autoAssignmentService.preview(request, currentUser));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(
+            summary = "Tự động phân công kỹ thuật viên",
+            description = "Tính lại phương án và lưu toàn bộ trong 1 transaction (batch UPDATE)"
+    )
+    public ResponseEntity<AutoAssignPlanDto> apply(
+            @AuthenticationPrincipal User currentUser,
+            @Valid @RequestBody AutoAssignRequest request
+    ) {
+        return ResponseEntity.ok(autoAssignmentService.apply(request, currentUser));
+    }
+}
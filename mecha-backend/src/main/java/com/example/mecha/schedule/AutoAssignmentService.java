@@ -0,0 +1,202 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.booking.BookingRepository;
+import com.example.mecha.booking.BookingStatus;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.schedule.dto.AutoAssignPlanDto;
+import com.example.mecha.schedule.dto.AutoAssignRequest;
+import com.example.mecha.schedule.dto.AutoAssignSkippedDto;
+import com.example.mecha.schedule.dto.AutoAssignmentDto;
+import com.example.mecha.servicecatalog.ServiceType;
+import com.example.mecha.user.User;
+import com.example.mecha.user.UserRepository;
+import com.example.mecha.user.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tự động phân công kỹ thuật viên cho các booking PENDING chưa gán trong 1 khoảng thời gian.
+ *
+ *  - preview: chỉ tính phương án ({@link AutoAssignmentSolver}), không ghi gì
+ *  - apply: tính lại phương án và ghi toàn bộ bằng 1 batch UPDATE trong 1 transaction;
+ *    exclusion constraint trên bookings đảm bảo không trùng lịch nếu có người gán tay cùng lúc
+ */
+@Service
+@RequiredArgsConstructor
+public class AutoAssignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutoAssignmentService.class);
+
+    static final String ALREADY_ASSIGNED = "ALREADY_ASSIGNED";
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final TechnicianSkillService technicianSkillService;
+    private final TechnicianScheduleService technicianScheduleService;
+    private final SchedulingProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public AutoAssignPlanDto preview(AutoAssignRequest request, User currentUser) {
+        Plan plan = plan(request, currentUser);
+        return toDto(plan, plan.result().assignments(), List.of(), false);
+    }
+
+    @Transactional
+    public AutoAssignPlanDto apply(AutoAssignRequest request, User currentUser) {
+        Plan plan = plan(request, currentUser);
+        Map<Long, Long> assignments = plan.result().assignments();
+
+        List<Object[]> args = new ArrayList<>(assignments.size());
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Map.Entry<Long, Long> e : assignments.entrySet()) {
+            args.add(new Object[]{e.getValue(), now, e.getKey()});
+        }
+
+        int[] counts;
+        try {
+            // Chỉ gán nếu booking vẫn PENDING và chưa có ai gán trong lúc đang tính
+            counts = jdbcTemplate.batchUpdate("""
+                    UPDATE bookings
+                    SET technician_id = ?, updated_at = ?, version = COALESCE(version, 0) + 1
+                    WHERE id = ? AND technician_id IS NULL AND status = 'PENDING'
+                    """, args);
+        } catch (DataIntegrityViolationException e) {
+            throw DomainErrors.TECHNICIAN_SCHEDULE_CONFLICT;
+        }
+
+        Map<Long, Long> applied = new HashMap<>();
+        List<AutoAssignSkippedDto> lost = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<Long, Long> e : assignments.entrySet()) {
+            if (counts[i++] != 0) {
+                applied.put(e.getKey(), e.getValue());
+            } else {
+                lost.add(AutoAssignSkippedDto.builder().bookingId(e.getKey()).reason(ALREADY_ASSIGNED).build());
+            }
+        }
+
+        List<Long> appliedIds = List.copyOf(applied.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                technicianScheduleService.refreshBookings(appliedIds);
+            }
+        });
+
+        log.info("Auto-assigned {} bookings ({} skipped) in [{}, {})",
+                applied.size(), plan.result().unassigned().size() + lost.size(), request.getFrom(), request.getTo());
+        return toDto(plan, applied, lost, true);
+    }
+
+    private record Plan(
+            List<AssignmentCandidateRow> pending,
+            List<Long> technicianIds,
+            AutoAssignmentSolver.Result result
+    ) {
+    }
+
+    private Plan plan(AutoAssignRequest request, User currentUser) {
+        if (currentUser.getRole() != UserRole.ADMIN && currentUser.getRole() != UserRole.STAFF) {
+            throw DomainErrors.ONLY_ADMIN_OR_STAFF_CAN_ASSIGN_TECHNICIAN;
+        }
+        OffsetDateTime from = request.getFrom();
+        OffsetDateTime to = request.getTo();
+        if (!to.isAfter(from)) {
+            throw DomainErrors.INVALID_DATE_RANGE;
+        }
+        if (Duration.between(from, to).toDays() > properties.getAutoAssignMaxDays()) {
+            throw DomainErrors.DATE_RANGE_TOO_LARGE;
+        }
+
+        List<AssignmentCandidateRow> rows = bookingRepository.findAssignmentCandidates(
+                BookingStatus.SCHEDULE_BLOCKING, from, to);
+
+        ZoneId zone = properties.zoneId();
+        List<AutoAssignmentSolver.Job> jobs = new ArrayList<>();
+        List<AutoAssignmentSolver.Fixed> fixed = new ArrayList<>();
+        List<AssignmentCandidateRow> pending = new ArrayList<>();
+        for (AssignmentCandidateRow r : rows) {
+            long start = r.start().toInstant().toEpochMilli();
+            long end = r.end().toInstant().toEpochMilli();
+            long day = r.start().atZoneSameInstant(zone).toLocalDate().toEpochDay();
+            String district = DistrictParser.districtOf(r.addressLine());
+
+            if (r.technicianId() != null) {
+                fixed.add(new AutoAssignmentSolver.Fixed(r.bookingId(), r.technicianId(), start, end, day, district));
+            } else if (r.status() == BookingStatus.PENDING && !r.start().isBefore(from)) {
+                jobs.add(new AutoAssignmentSolver.Job(r.bookingId(), r.serviceType(), start, end, day, district));
+                pending.add(r);
+            }
+        }
+
+        List<Long> technicianIds = technicianScheduleService.technicianIds();
+        Map<Long, Set<ServiceType>> skills = technicianSkillService.skillsByTechnician();
+
+        AutoAssignmentSolver solver = new AutoAssignmentSolver(
+                technicianIds,
+                skills,
+                properties.getAutoAssignLoadWeight(),
+                properties.getAutoAssignTravelWeight(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getAutoAssignTimeBudgetMs()));
+        return new Plan(pending, technicianIds, solver.solve(jobs, fixed));
+    }
+
+    private AutoAssignPlanDto toDto(Plan plan, Map<Long, Long> assignments,
+                                    List<AutoAssignSkippedDto> extraSkipped, boolean applied) {
+        Map<Long, User> technicians = userRepository.findAllById(assignments.values().stream().distinct().toList())
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<AutoAssignmentDto> items = new ArrayList<>();
+        List<AutoAssignSkippedDto> skipped = new ArrayList<>();
+        for (AssignmentCandidateRow r : plan.pending()) {
+            Long technicianId = assignments.get(r.bookingId());
+            if (technicianId != null) {
+                User t = technicians.get(technicianId);
+                items.add(AutoAssignmentDto.builder()
+                        .bookingId(r.bookingId())
+                        .scheduledAt(r.start())
+                        .district(DistrictParser.districtOf(r.addressLine()))
+                        .technicianId(technicianId)
+                        .technicianName(t != null ? t.getFullName() : null)
+                        .build());
+            }
+            String reason = plan.result().unassigned().get(r.bookingId());
+            if (reason != null) {
+                skipped.add(AutoAssignSkippedDto.builder().bookingId(r.bookingId()).reason(reason).build());
+            }
+        }
+        skipped.addAll(extraSkipped);
+
+        return AutoAssignPlanDto.builder()
+                .applied(applied)
+                .bookingsConsidered(plan.pending().size())
+                .technicians(plan.technicianIds().size())
+                .assignments(items)
+                .skipped(skipped)
+                .totalCost(plan.result().totalCost())
+                .solveMillis(TimeUnit.NANOSECONDS.toMillis(plan.result().elapsedNanos()))
+                .build();
+    }
+}
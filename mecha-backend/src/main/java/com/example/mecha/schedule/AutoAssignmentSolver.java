@@ -0,0 +1,319 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.servicecatalog.ServiceType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Bài toán phân công kỹ thuật viên cho nhiều booking cùng lúc (không phụ thuộc Spring / DB).
+ *
+ * Ràng buộc cứng:
+ *  - kỹ thuật viên có kỹ năng theo ServiceType (không khai báo kỹ năng = làm được mọi loại)
+ *  - không trùng lịch với booking đã gán sẵn và booking vừa phân công
+ *
+ * Chi phí (càng nhỏ càng tốt):
+ *  - cân bằng tải: loadWeight * (số giờ làm trong cửa sổ)^2 của từng kỹ thuật viên
+ *  - di chuyển: travelWeight cho mỗi cặp lịch liền nhau trong cùng ngày khác quận
+ *    (nửa chi phí nếu 1 trong 2 địa chỉ không nhận ra quận)
+ *
+ * Heuristic: greedy (booking ít lựa chọn nhất đi trước, chọn kỹ thuật viên có chi phí tăng thêm nhỏ nhất),
+ * sau đó local search chuyển từng booking sang kỹ thuật viên khác nếu giảm được tổng chi phí,
+ * lặp đến khi không cải thiện hoặc hết timeBudgetNanos.
+ */
+public class AutoAssignmentSolver {
+
+    public record Job(long bookingId, ServiceType serviceType, long start, long end, long epochDay, String district) {
+    }
+
+    public record Fixed(long bookingId, long technicianId, long start, long end, long epochDay, String district) {
+    }
+
+    public record Result(
+            Map<Long, Long> assignments,        // bookingId -> technicianId
+            Map<Long, String> unassigned,       // bookingId -> lý do
+            double totalCost,
+            int improvingMoves,
+            long elapsedNanos
+    ) {
+    }
+
+    public static final String NO_SKILLED_TECHNICIAN = "NO_SKILLED_TECHNICIAN";
+    public static final String NO_FREE_TECHNICIAN = "NO_FREE_TECHNICIAN";
+
+    private static final double EPS = 1e-9;
+    private static final double HOUR = 3_600_000d;
+
+    private final List<Long> technicianIds;
+    private final Map<Long, Set<ServiceType>> skills;
+    private final double loadWeight;
+    private final double travelWeight;
+    private final long timeBudgetNanos;
+
+    public AutoAssignmentSolver(
+            List<Long> technicianIds,
+            Map<Long, Set<ServiceType>> skills,
+            double loadWeight,
+            double travelWeight,
+            long timeBudgetNanos
+    ) {
+        this.technicianIds = List.copyOf(technicianIds);
+        this.skills = skills;
+        this.loadWeight = loadWeight;
+        this.travelWeight = travelWeight;
+        this.timeBudgetNanos = timeBudgetNanos;
+    }
+
+    /**
+     * 1 lịch trong ngày làm việc của kỹ thuật viên. job = null nếu là booking đã gán sẵn (không được di chuyển).
+     */
+    private record Slot(long start, long end, long epochDay, String district, Job job) {
+    }
+
+    private static final class TechState {
+        final long technicianId;
+        final TreeMap<Long, Slot> byStart = new TreeMap<>();
+        double loadHours;
+
+        TechState(long technicianId) {
+            this.technicianId = technicianId;
+        }
+    }
+
+    public Result solve(List<Job> jobs, List<Fixed> fixed) {
+        long startedAt = System.nanoTime();
+
+        Map<Long, TechState> techs = new LinkedHashMap<>();
+        for (Long id : technicianIds) {
+            techs.put(id, new TechState(id));
+        }
+        for (Fixed f : fixed) {
+            TechState t = techs.get(f.technicianId());
+            if (t == null) {
+                continue; // kỹ thuật viên không còn ACTIVE: lịch cũ không ảnh hưởng người khác
+            }
+            addFixed(t, new Slot(f.start(), f.end(), f.epochDay(), f.district(), null));
+            t.loadHours += (f.end() - f.start()) / HOUR;
+        }
+
+        // Danh sách kỹ thuật viên đủ kỹ năng cho từng booking
+        Map<Long, List<TechState>> eligible = new HashMap<>();
+        for (Job job : jobs) {
+            List<TechState> list = new ArrayList<>();
+            for (TechState t : techs.values()) {
+                if (hasSkill(t.technicianId, job.serviceType())) {
+                    list.add(t);
+                }
+            }
+            eligible.put(job.bookingId(), list);
+        }
+
+        List<Job> order = new ArrayList<>(jobs);
+        order.sort(Comparator
+                .comparingInt((Job j) -> eligible.get(j.bookingId()).size())
+                .thenComparingLong(Job::start)
+                .thenComparingLong(Job::bookingId));
+
+        Map<Long, TechState> assignedTo = new LinkedHashMap<>();
+        Map<Long, String> unassigned = new LinkedHashMap<>();
+
+        // ===== greedy =====
+        for (Job job : order) {
+            List<TechState> candidates = eligible.get(job.bookingId());
+            if (candidates.isEmpty()) {
+                unassigned.put(job.bookingId(), NO_SKILLED_TECHNICIAN);
+                continue;
+            }
+            TechState best = null;
+            double bestCost = Double.MAX_VALUE;
+            for (TechState t : candidates) {
+                if (!fits(t, job)) {
+                    continue;
+                }
+                double cost = insertionCost(t, job);
+                if (cost < bestCost - EPS) {
+                    best = t;
+                    bestCost = cost;
+                }
+            }
+            if (best == null) {
+                unassigned.put(job.bookingId(), NO_FREE_TECHNICIAN);
+            } else {
+                insert(best, job);
+                assignedTo.put(job.bookingId(), best);
+            }
+        }
+
+        // ===== local search: relocate =====
+        int moves = 0;
+        boolean improved = true;
+        while (improved && System.nanoTime() - startedAt < timeBudgetNanos) {
+            improved = false;
+            for (Job job : order) {
+                TechState from = assignedTo.get(job.bookingId());
+                if (from == null) {
+                    continue;
+                }
+                remove(from, job);
+                double stayCost = insertionCost(from, job);
+
+                TechState best = from;
+                double bestCost = stayCost;
+                for (TechState t : eligible.get(job.bookingId())) {
+                    if (t == from || !fits(t, job)) {
+                        continue;
+                    }
+                    double cost = insertionCost(t, job);
+                    if (cost < bestCost - EPS) {
+                        best = t;
+                        bestCost = cost;
+                    }
+                }
+                insert(best, job);
+                if (best != from) {
+                    assignedTo.put(job.bookingId(), best);
+                    moves++;
+                    improved = true;
+                }
+                if (System.nanoTime() - startedAt >= timeBudgetNanos) {
+                    break;
+                }
+            }
+
+            // Sau khi dịch chuyển có thể đã mở ra chỗ trống cho booking chưa gán được
+            if (improved) {
+                for (Job job : order) {
+                    if (!NO_FREE_TECHNICIAN.equals(unassigned.get(job.bookingId()))) {
+                        continue;
+                    }
+                    TechState best = null;
+                    double bestCost = Double.MAX_VALUE;
+                    for (TechState t : eligible.get(job.bookingId())) {
+                        if (fits(t, job)) {
+                            double cost = insertionCost(t, job);
+                            if (cost < bestCost - EPS) {
+                                best = t;
+                                bestCost = cost;
+                            }
+                        }
+                    }
+                    if (best != null) {
+                        insert(best, job);
+                        assignedTo.put(job.bookingId(), best);
+                        unassigned.remove(job.bookingId());
+                    }
+                }
+            }
+        }
+
+        Map<Long, Long> assignments = new LinkedHashMap<>();
+        for (Job job : jobs) {
+            TechState t = assignedTo.get(job.bookingId());
+            if (t != null) {
+                assignments.put(job.bookingId(), t.technicianId);
+            }
+        }
+
+        double total = 0;
+        for (TechState t : techs.values()) {
+            total += totalCost(t);
+        }
+        return new Result(assignments, unassigned, total, moves, System.nanoTime() - startedAt);
+    }
+
+    // ===== ràng buộc & chi phí =====
+
+    private boolean hasSkill(long technicianId, ServiceType type) {
+        return TechnicianSkill.covers(skills.get(technicianId), type);
+    }
+
+    /**
+     * Lịch cố định chồng nhau (không qua constraint của DB) được gộp thành 1 slot: byStart luôn không có
+     * 2 slot giao nhau, nhờ đó {@link #fits} chỉ cần xét slot liền trước và liền sau.
+     */
+    private static void addFixed(TechState t, Slot slot) {
+        Slot merged = slot;
+        Map.Entry<Long, Slot> before = t.byStart.floorEntry(slot.start());
+        if (before != null && before.getValue().end() > slot.start()) {
+            merged = withEnd(before.getValue(), Math.max(before.getValue().end(), slot.end()));
+        }
+        Map.Entry<Long, Slot> next;
+        while ((next = t.byStart.higherEntry(merged.start())) != null && next.getKey() < merged.end()) {
+            t.byStart.remove(next.getKey());
+            merged = withEnd(merged, Math.max(merged.end(), next.getValue().end()));
+        }
+        t.byStart.put(merged.start(), merged);
+    }
+
+    private static Slot withEnd(Slot slot, long end) {
+        return new Slot(slot.start(), end, slot.epochDay(), slot.district(), slot.job());
+    }
+
+    private static boolean fits(TechState t, Job job) {
+        Map.Entry<Long, Slot> before = t.byStart.floorEntry(job.start());
+        if (before != null && before.getValue().end() > job.start()) {
+            return false;
+        }
+        Map.Entry<Long, Slot> after = t.byStart.ceilingEntry(job.start());
+        return after == null || after.getValue().start() >= job.end();
+    }
+
+    /**
+     * Chi phí tăng thêm khi thêm job vào lịch của t (giả định fits == true).
+     */
+    private double insertionCost(TechState t, Job job) {
+        double hours = (job.end() - job.start()) / HOUR;
+        double load = loadWeight * ((t.loadHours + hours) * (t.loadHours + hours) - t.loadHours * t.loadHours);
+
+        Slot prev = sameDay(t.byStart.lowerEntry(job.start()), job.epochDay());
+        Slot next = sameDay(t.byStart.higherEntry(job.start()), job.epochDay());
+        double travel = travel(prev == null ? null : prev.district(), job.district(), prev != null)
+                + travel(job.district(), next == null ? null : next.district(), next != null)
+                - (prev != null && next != null ? travel(prev.district(), next.district(), true) : 0);
+
+        return load + travelWeight * travel;
+    }
+
+    private double totalCost(TechState t) {
+        double cost = loadWeight * t.loadHours * t.loadHours;
+        Slot prev = null;
+        for (Slot s : t.byStart.values()) {
+            if (prev != null && prev.epochDay() == s.epochDay()) {
+                cost += travelWeight * travel(prev.district(), s.district(), true);
+            }
+            prev = s;
+        }
+        return cost;
+    }
+
+    private static Slot sameDay(Map.Entry<Long, Slot> e, long epochDay) {
+        return e != null && e.getValue().epochDay() == epochDay ? e.getValue() : null;
+    }
+
+    private static double travel(String a, String b, boolean adjacent) {
+        if (!adjacent) {
+            return 0;
+        }
+        if (a == null || b == null) {
+            return 0.5;
+        }
+        return Objects.equals(a, b) ? 0 : 1;
+    }
+
+    private static void insert(TechState t, Job job) {
+        t.byStart.put(job.start(), new Slot(job.start(), job.end(), job.epochDay(), job.district(), job));
+        t.loadHours += (job.end() - job.start()) / HOUR;
+    }
+
+    private static void remove(TechState t, Job job) {
+        t.byStart.remove(job.start());
+        t.loadHours -= (job.end() - job.start()) / HOUR;
+    }
+}
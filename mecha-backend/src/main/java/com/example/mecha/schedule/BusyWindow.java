@@ -0,0 +1,17 @@
+package com.example.mecha.schedule;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Khoảng thời gian [start, end) mà 1 booking chiếm lịch. technicianId = null nếu booking chưa được gán.
+ */
+public record BusyWindow(Long bookingId, Long technicianId, OffsetDateTime start, OffsetDateTime end) {
+
+    public long startMillis() {
+        return start.toInstant().toEpochMilli();
+    }
+
+    public long endMillis() {
+        return end.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.mecha.schedule;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lấy quận / huyện từ địa chỉ tự do (Booking.addressLine), ví dụ
+ * "123 Đường ABC, Quận 1, TP.HCM" -> "quan 1", "45 Lê Lợi, Q.Bình Thạnh" -> "quan binh thanh".
+ * Chỉ dùng để ước lượng khoảng cách di chuyển khi tự động phân công, trả về null nếu không nhận ra.
+ */
+public final class DistrictParser {
+
+    private static final Pattern DISTRICT = Pattern.compile(
+            "^(quan\\b|q\\.|q(?=\\s*\\d)|huyen\\b|h\\.|thi xa\\b|tx\\.|thanh pho\\b|tp\\b\\.?)\\s*(.+)$");
+
+    private DistrictParser() {
+    }
+
+    public static String districtOf(String addressLine) {
+        if (addressLine == null || addressLine.isBlank()) {
+            return null;
+        }
+        String[] parts = normalize(addressLine).split(",");
+        // Bỏ phần đầu (số nhà, tên đường); quận / huyện thường đứng sau
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i].trim();
+            Matcher m = DISTRICT.matcher(part);
+            if (!m.matches()) {
+                continue;
+            }
+            String prefix = m.group(1);
+            String name = m.group(2).trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (prefix.startsWith("h")) {
+                return "huyen " + name;
+            }
+            if (prefix.startsWith("t")) {
+                // TP.HCM / TP Hà Nội là tỉnh / thành, không phải quận; TP Thủ Đức thì tính như quận
+                if (i == parts.length - 1) {
+                    continue;
+                }
+                return "tp " + name;
+            }
+            return "quan " + name;
+        }
+        return null;
+    }
+
+    static String normalize(String s) {
+        String lower = s.toLowerCase(Locale.ROOT).replace('đ', 'd');
+        String noMarks = Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return noMarks.replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.mecha.schedule;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Interval tree (AVL, mỗi node giữ maxEnd của cây con) cho các khoảng nửa mở [start, end).
+ * Mỗi khoảng gắn với 1 id (bookingId), khóa sắp xếp là (start, id).
+ *
+ * - insert / remove: O(log n)
+ * - anyOverlap: O(log n) khi không có / có ít khoảng giao
+ * - forEachOverlap / countOverlaps: O(log n + k)
+ *
+ * Không thread-safe: TechnicianScheduleService bọc bằng ReadWriteLock.
+ */
+public class IntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long id;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long start, long end, long id) {
+        if (end <= start) {
+            throw new IllegalArgumentException("end must be after start");
+        }
+        root = insert(root, new Node(start, end, id));
+    }
+
+    /**
+     * @return true nếu tìm thấy và xóa khoảng (start, id)
+     */
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Có khoảng nào giao [start, end) không (bỏ qua khoảng có id = excludeId).
+     */
+    public boolean anyOverlap(long start, long end, long excludeId) {
+        return anyOverlap(root, start, end, excludeId);
+    }
+
+    public void forEachOverlap(long start, long end, LongConsumer idConsumer) {
+        forEachOverlap(root, start, end, idConsumer);
+    }
+
+    public int countOverlaps(long start, long end) {
+        int[] count = {0};
+        forEachOverlap(root, start, end, id -> count[0]++);
+        return count[0];
+    }
+
+    // ===== tìm kiếm =====
+
+    private static boolean anyOverlap(Node n, long start, long end, long excludeId) {
+        if (n == null || n.maxEnd <= start) {
+            return false; // mọi khoảng trong cây con kết thúc trước start
+        }
+        if (anyOverlap(n.left, start, end, excludeId)) {
+            return true;
+        }
+        if (n.start >= end) {
+            return false; // n và cả cây con phải bắt đầu sau end
+        }
+        if (n.end > start && n.id != excludeId) {
+            return true;
+        }
+        return anyOverlap(n.right, start, end, excludeId);
+    }
+
+    private static void forEachOverlap(Node n, long start, long end, LongConsumer idConsumer) {
+        if (n == null || n.maxEnd <= start) {
+            return;
+        }
+        forEachOverlap(n.left, start, end, idConsumer);
+        if (n.start >= end) {
+            return;
+        }
+        if (n.end > start) {
+            idConsumer.accept(n.id);
+        }
+        forEachOverlap(n.right, start, end, idConsumer);
+    }
+
+    // ===== AVL =====
+
+    private static int compare(long startA, long idA, long startB, long idB) {
+        int c = Long.compare(startA, startB);
+        return c != 0 ? c : Long.compare(idA, idB);
+    }
+
+    private Node insert(Node n, Node x) {
+        if (n == null) {
+            size++;
+            return x;
+        }
+        int c = compare(x.start, x.id, n.start, n.id);
+        if (c < 0) {
+            n.left = insert(n.left, x);
+        } else if (c > 0) {
+            n.right = insert(n.right, x);
+        } else {
+            return n; // đã có
+        }
+        return balance(n);
+    }
+
+    private Node remove(Node n, long start, long id) {
+        if (n == null) {
+            return null;
+        }
+        int c = compare(start, id, n.start, n.id);
+        if (c < 0) {
+            n.left = remove(n.left, start, id);
+        } else if (c > 0) {
+            n.right = remove(n.right, start, id);
+        } else {
+            size--;
+            if (n.left == null) {
+                return n.right;
+            }
+            if (n.right == null) {
+                return n.left;
+            }
+            Node min = n.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            Node replacement = new Node(min.start, min.end, min.id);
+            size++; // bù cho lần giảm khi xóa min khỏi cây con phải
+            replacement.right = remove(n.right, min.start, min.id);
+            replacement.left = n.left;
+            n = replacement;
+        }
+        return balance(n);
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static void update(Node n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        long max = n.end;
+        if (n.left != null && n.left.maxEnd > max) {
+            max = n.left.maxEnd;
+        }
+        if (n.right != null && n.right.maxEnd > max) {
+            max = n.right.maxEnd;
+        }
+        n.maxEnd = max;
+    }
+
+    private static Node balance(Node n) {
+        update(n);
+        int bf = height(n.left) - height(n.right);
+        if (bf > 1) {
+            if (height(n.left.left) < height(n.left.right)) {
+                n.left = rotateLeft(n.left);
+            }
+            return rotateRight(n);
+        }
+        if (bf < -1) {
+            if (height(n.right.right) < height(n.right.left)) {
+                n.right = rotateRight(n.right);
+            }
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mecha.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toàn bộ lịch bận trong bộ nhớ: interval tree theo kỹ thuật viên (+ 1 cây cho booking chưa gán)
+ * và bitset theo ngày ({@link SlotOccupancy}) được cập nhật cùng lúc.
+ *
+ * Không thread-safe: TechnicianScheduleService giữ lock khi đọc / ghi.
+ */
+class ScheduleState {
+
+    final Map<Long, IntervalTree> busyByTechnician = new HashMap<>();
+    final IntervalTree unassigned = new IntervalTree();
+    final Map<Long, BusyWindow> windows = new HashMap<>();
+    final SlotOccupancy occupancy;
+
+    ScheduleState(SlotOccupancy occupancy) {
+        this.occupancy = occupancy;
+    }
+
+    IntervalTree treeOf(Long technicianId) {
+        return technicianId == null ? unassigned : busyByTechnician.get(technicianId);
+    }
+
+    void add(BusyWindow w) {
+        if (w.end() == null || !w.end().isAfter(w.start())) {
+            return;
+        }
+        IntervalTree tree = w.technicianId() != null
+                ? busyByTechnician.computeIfAbsent(w.technicianId(), id -> new IntervalTree())
+                : unassigned;
+        tree.insert(w.startMillis(), w.endMillis(), w.bookingId());
+        windows.put(w.bookingId(), w);
+        occupancy.add(w);
+    }
+
+    void remove(Long bookingId) {
+        BusyWindow old = windows.remove(bookingId);
+        if (old == null) {
+            return;
+        }
+        IntervalTree tree = treeOf(old.technicianId());
+        if (tree == null) {
+            return;
+        }
+        tree.remove(old.startMillis(), bookingId);
+
+        // Tính lại bitset của những ngày booking cũ đi qua từ các booking còn lại
+        long start = old.startMillis();
+        long end = old.endMillis();
+        for (long day = occupancy.dayOf(start); day <= occupancy.dayOf(end - 1); day++) {
+            List<BusyWindow> remaining = new ArrayList<>();
+            tree.forEachOverlap(occupancy.dayStartMillis(day), occupancy.dayEndMillis(day), id -> {
+                BusyWindow w = windows.get(id);
+                if (w != null) {
+                    remaining.add(w);
+                }
+            });
+            occupancy.rebuildDay(old.technicianId(), day, remaining);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.mecha.schedule;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+@Configuration
+@ConfigurationProperties(prefix = "technician-schedule")
+@Getter
+@Setter
+public class SchedulingProperties {
+    /**
+     * Từ chối đặt lịch khi khung giờ không còn kỹ thuật viên trống.
+     */
+    private boolean enforceCapacity = true;
+
+    /**
+     * Thời lượng mặc định (phút) khi dịch vụ chưa khai báo durationMinutes.
+     */
+    private int defaultDurationMinutes = 60;
+
+    /**
+     * Chu kỳ dựng lại lịch trong bộ nhớ từ DB (ms), để nhận thay đổi từ node khác.
+     */
+    private long rebuildIntervalMs = 300_000;
+
+    /**
+     * Chỉ nạp các booking kết thúc sau (now - lookbackHours).
+     */
+    private int lookbackHours = 24;
+
+    /**
+     * Múi giờ cửa hàng: ca làm việc và ranh giới ngày tính theo múi giờ này.
+     */
+    private String zone = "Asia/Ho_Chi_Minh";
+
+    /**
+     * Độ dài 1 slot (phút). Phải chia hết 1440 và 1 ngày tối đa 64 slot (tức >= 23 phút).
+     */
+    private int slotMinutes = 30;
+
+    /**
+     * Giờ bắt đầu ca làm việc của kỹ thuật viên.
+     */
+    private LocalTime shiftStart = LocalTime.of(8, 0);
+
+    /**
+     * Giờ kết thúc ca làm việc (lịch hẹn phải xong trước giờ này).
+     */
+    private LocalTime shiftEnd = LocalTime.of(18, 0);
+
+    /**
+     * Số ngày tối đa cho 1 lần tra cứu khung giờ trống.
+     */
+    private int maxAvailabilityDays = 31;
+
+    /**
+     * Trọng số cân bằng tải khi tự động phân công (nhân với bình phương số giờ làm của mỗi kỹ thuật viên).
+     */
+    private double autoAssignLoadWeight = 1.0;
+
+    /**
+     * Trọng số di chuyển: chi phí mỗi lần 2 lịch liền nhau trong ngày khác quận.
+     */
+    private double autoAssignTravelWeight = 2.0;
+
+    /**
+     * Thời gian tối đa cho bước local search (ms).
+     */
+    private long autoAssignTimeBudgetMs = 800;
+
+    /**
+     * Cửa sổ tối đa cho 1 lần tự động phân công (ngày).
+     */
+    private int autoAssignMaxDays = 14;
+
+    public ZoneId zoneId() {
+        return ZoneId.of(zone);
+    }
+}
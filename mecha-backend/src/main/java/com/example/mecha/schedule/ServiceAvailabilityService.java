@@ -0,0 +1,93 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.schedule.dto.AvailableSlotDto;
+import com.example.mecha.schedule.dto.DayAvailabilityDto;
+import com.example.mecha.schedule.dto.ServiceAvailabilityDto;
+import com.example.mecha.servicecatalog.ServiceEntity;
+import com.example.mecha.servicecatalog.ServiceRepository;
+import com.example.mecha.servicecatalog.ServiceStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tính khung giờ còn trống cho 1 dịch vụ từ bitset slot trong bộ nhớ (TechnicianScheduleService):
+ * với mỗi ngày, mỗi kỹ thuật viên chỉ là vài phép AND / shift trên 1 long, không truy vấn DB theo slot.
+ */
+@Service
+@RequiredArgsConstructor
+public class ServiceAvailabilityService {
+
+    private final ServiceRepository serviceRepository;
+    private final TechnicianScheduleService technicianScheduleService;
+    private final SchedulingProperties properties;
+
+    public ServiceAvailabilityDto availability(Long serviceId, LocalDate from, LocalDate to) {
+        ServiceEntity service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> DomainErrors.SERVICE_NOT_FOUND);
+        if (service.getStatus() != ServiceStatus.ACTIVE) {
+            throw DomainErrors.SERVICE_NOT_ACTIVE;
+        }
+
+        ZoneId zone = properties.zoneId();
+        LocalDate today = LocalDate.now(zone);
+        LocalDate start = from != null ? from : today;
+        LocalDate end = to != null ? to : start.plusDays(6);
+        if (end.isBefore(start)) {
+            throw DomainErrors.INVALID_DATE_RANGE;
+        }
+        if (ChronoUnit.DAYS.between(start, end) + 1 > properties.getMaxAvailabilityDays()) {
+            throw DomainErrors.DATE_RANGE_TOO_LARGE;
+        }
+        if (start.isBefore(today)) {
+            start = today;
+        }
+
+        int slotMinutes = properties.getSlotMinutes();
+        int durationMinutes = technicianScheduleService.durationMinutes(service);
+        int runSlots = (durationMinutes + slotMinutes - 1) / slotMinutes;
+
+        int firstShiftSlot = properties.getShiftStart().toSecondOfDay() / 60 / slotMinutes;
+        int endShiftSlot = properties.getShiftEnd().toSecondOfDay() / 60 / slotMinutes; // exclusive
+        long shiftMask = SlotOccupancy.bitRange(firstShiftSlot, endShiftSlot - 1);
+
+        OffsetDateTime now = OffsetDateTime.now(zone);
+        List<DayAvailabilityDto> days = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            int[] counts = technicianScheduleService.availableCounts(date.toEpochDay(), runSlots, shiftMask,
+                    service.getType());
+
+            OffsetDateTime dayStart = date.atStartOfDay(zone).toOffsetDateTime();
+            List<AvailableSlotDto> slots = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] <= 0) {
+                    continue;
+                }
+                OffsetDateTime slotStart = dayStart.plusMinutes((long) i * slotMinutes);
+                if (slotStart.isBefore(now)) {
+                    continue;
+                }
+                slots.add(AvailableSlotDto.builder()
+                        .start(slotStart)
+                        .end(slotStart.plusMinutes(durationMinutes))
+                        .availableTechnicians(counts[i])
+                        .build());
+            }
+            days.add(DayAvailabilityDto.builder().date(date).slots(slots).build());
+        }
+
+        return ServiceAvailabilityDto.builder()
+                .serviceId(service.getId())
+                .durationMinutes(durationMinutes)
+                .slotMinutes(slotMinutes)
+                .days(days)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.mecha.schedule;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bitset chiếm chỗ theo ngày: mỗi ngày (theo múi giờ cửa hàng) chia thành các slot slotMinutes phút,
+ * 1 ngày của 1 kỹ thuật viên là 1 long (bit i = slot i đã có lịch). Booking chưa gán được đếm riêng
+ * theo từng slot.
+ *
+ * Thêm booking chỉ cần OR bit; xóa booking thì tính lại đúng những ngày bị ảnh hưởng từ interval tree
+ * (vì các booking cũ có thể chồng nhau nên không xóa bit trực tiếp được).
+ *
+ * Không thread-safe: được bảo vệ bởi lock của TechnicianScheduleService.
+ */
+public class SlotOccupancy {
+
+    private final ZoneId zone;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final long slotMillis;
+
+    // technicianId -> epochDay -> bitset
+    private final Map<Long, Map<Long, Long>> busy = new HashMap<>();
+    // epochDay -> số booking chưa gán trên từng slot
+    private final Map<Long, int[]> unassigned = new HashMap<>();
+
+    public SlotOccupancy(ZoneId zone, int slotMinutes) {
+        if (slotMinutes <= 0 || 1440 % slotMinutes != 0 || 1440 / slotMinutes > Long.SIZE) {
+            throw new IllegalArgumentException("slotMinutes must divide 1440 into at most 64 slots");
+        }
+        this.zone = zone;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = 1440 / slotMinutes;
+        this.slotMillis = slotMinutes * 60_000L;
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public int slotMinutes() {
+        return slotMinutes;
+    }
+
+    public int slotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public long busyBits(Long technicianId, long epochDay) {
+        Map<Long, Long> days = busy.get(technicianId);
+        if (days == null) {
+            return 0L;
+        }
+        Long bits = days.get(epochDay);
+        return bits != null ? bits : 0L;
+    }
+
+    /**
+     * @return số booking chưa gán theo slot, hoặc null nếu ngày đó không có
+     */
+    public int[] unassignedCounts(long epochDay) {
+        return unassigned.get(epochDay);
+    }
+
+    public void add(BusyWindow w) {
+        long start = w.startMillis();
+        long end = w.endMillis();
+        for (long day = dayOf(start); day <= dayOf(end - 1); day++) {
+            long mask = slotMask(day, start, end);
+            if (mask == 0) {
+                continue;
+            }
+            if (w.technicianId() != null) {
+                busy.computeIfAbsent(w.technicianId(), id -> new HashMap<>()).merge(day, mask, (a, b) -> a | b);
+            } else {
+                int[] counts = unassigned.computeIfAbsent(day, d -> new int[slotsPerDay]);
+                for (long m = mask; m != 0; m &= m - 1) {
+                    counts[Long.numberOfTrailingZeros(m)]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tính lại 1 ngày của 1 kỹ thuật viên (technicianId = null: booking chưa gán) từ danh sách
+     * các booking còn giao với ngày đó.
+     */
+    public void rebuildDay(Long technicianId, long epochDay, Collection<BusyWindow> windows) {
+        if (technicianId != null) {
+            Map<Long, Long> days = busy.computeIfAbsent(technicianId, id -> new HashMap<>());
+            days.remove(epochDay);
+        } else {
+            unassigned.remove(epochDay);
+        }
+        for (BusyWindow w : windows) {
+            long mask = slotMask(epochDay, w.startMillis(), w.endMillis());
+            if (mask == 0) {
+                continue;
+            }
+            if (technicianId != null) {
+                busy.get(technicianId).merge(epochDay, mask, (a, b) -> a | b);
+            } else {
+                int[] counts = unassigned.computeIfAbsent(epochDay, d -> new int[slotsPerDay]);
+                for (long m = mask; m != 0; m &= m - 1) {
+                    counts[Long.numberOfTrailingZeros(m)]++;
+                }
+            }
+        }
+    }
+
+    public long dayOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    public long dayStartMillis(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    public long dayEndMillis(long epochDay) {
+        return dayStartMillis(epochDay + 1);
+    }
+
+    /**
+     * Các slot của ngày epochDay giao với [start, end).
+     * Slot i = [nửa đêm + i * slotMinutes, + slotMinutes) theo thời gian trôi qua: ngày đổi giờ 25 giờ thì giờ cuối
+     * không có slot, ngày 23 giờ thì các slot cuối thuộc về ngày sau và không được đánh dấu từ đây.
+     */
+    long slotMask(long epochDay, long start, long end) {
+        long dayStart = dayStartMillis(epochDay);
+        long from = Math.max(start, dayStart) - dayStart;
+        long to = Math.min(end, dayStart + slotsPerDay * slotMillis) - dayStart;
+        if (to <= from) {
+            return 0L;
+        }
+        int first = (int) (from / slotMillis);
+        int last = (int) ((to + slotMillis - 1) / slotMillis) - 1;
+        return bitRange(first, last);
+    }
+
+    /**
+     * Bit first..last (bao gồm cả 2 đầu).
+     */
+    public static long bitRange(int first, int last) {
+        if (last < first) {
+            return 0L;
+        }
+        long upper = last >= 63 ? -1L : (1L << (last + 1)) - 1;
+        long lower = (1L << first) - 1;
+        return upper & ~lower;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.schedule.dto.FreeTechnicianDto;
+import com.example.mecha.schedule.dto.TechnicianSkillsRequest;
+import com.example.mecha.servicecatalog.ServiceEntity;
+import com.example.mecha.servicecatalog.ServiceRepository;
+import com.example.mecha.servicecatalog.ServiceType;
+import com.example.mecha.user.User;
+import com.example.mecha.user.UserRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/admin/technicians")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Admin - Technician schedule", description = "Lịch bận / trống của kỹ thuật viên")
+@SecurityRequirement(name = "bearerAuth")
+public class TechnicianScheduleController {
+
+    private final TechnicianScheduleService technicianScheduleService;
+    private final ServiceRepository serviceRepository;
+    private final UserRepository userRepository;
+    private final TechnicianSkillService technicianSkillService;
+
+    @GetMapping("/free")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(
+            summary = "Kỹ thuật viên còn trống trong khung giờ",
+            description = "Nếu không truyền `to` thì khung giờ kết thúc theo thời lượng của dịch vụ `serviceId` (hoặc thời lượng mặc định). "
+                    + "Có `serviceId` thì chỉ trả về kỹ thuật viên làm được loại dịch vụ đó"
+    )
+    public ResponseEntity<List<FreeTechnicianDto>> free(
+            @Parameter(description = "Bắt đầu (ISO 8601)", example = "2025-01-15T09:00:00+07:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "Kết thúc (ISO 8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) @Positive Long serviceId
+    ) {
+        ServiceEntity service = serviceId == null ? null : serviceRepository.findById(serviceId)
+                .orElseThrow(() -> DomainErrors.SERVICE_NOT_FOUND);
+        OffsetDateTime end = to != null ? to : technicianScheduleService.endOf(from, service);
+        if (!end.isAfter(from)) {
+            throw DomainErrors.INVALID_DATE_RANGE;
+        }
+
+        List<Long> ids = technicianScheduleService.freeTechnicianIds(from, end,
+                service != null ? service.getType() : null);
+        List<FreeTechnicianDto> result = userRepository.findAllById(ids).stream()
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .map(this::toDto)
+                .toList();
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/{id}/skills")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Kỹ năng (loại dịch vụ) của kỹ thuật viên", description = "Rỗng = làm được mọi loại dịch vụ")
+    public ResponseEntity<Set<ServiceType>> skills(@PathVariable @Positive Long id) {
+        return ResponseEntity.ok(technicianSkillService.getSkills(id));
+    }
+
+    @PutMapping("/{id}/skills")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Cập nhật kỹ năng của kỹ thuật viên", description = "Dùng khi tự động phân công")
+    public ResponseEntity<Set<ServiceType>> updateSkills(
+            @PathVariable @Positive Long id,
+            @Valid @RequestBody TechnicianSkillsRequest request
+    ) {
+        return ResponseEntity.ok(technicianSkillService.replaceSkills(id, request.getServiceTypes()));
+    }
+
+    private FreeTechnicianDto toDto(User u) {
+        return FreeTechnicianDto.builder()
+                .id(u.getId())
+                .fullName(u.getFullName())
+                .phone(u.getPhone())
+                .build();
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.booking.BookingRepository;
+import com.example.mecha.booking.BookingScheduleChangedEvent;
+import com.example.mecha.booking.BookingStatus;
+import com.example.mecha.booking.BookingStatusChangedEvent;
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.servicecatalog.ServiceEntity;
+import com.example.mecha.servicecatalog.ServiceType;
+import com.example.mecha.user.AccountStatus;
+import com.example.mecha.user.UserRepository;
+import com.example.mecha.user.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lịch bận của kỹ thuật viên trong bộ nhớ: mỗi kỹ thuật viên 1 {@link IntervalTree} các booking
+ * còn hiệu lực (PENDING / CONFIRMED / IN_PROGRESS), cộng 1 cây riêng cho booking chưa được gán,
+ * và bitset slot theo ngày ({@link SlotOccupancy}) cho truy vấn khung giờ trống.
+ * Kỹ năng của kỹ thuật viên cũng được giữ trong bộ nhớ để khung giờ trống / sức chứa chỉ đếm
+ * kỹ thuật viên làm được loại dịch vụ (cùng quy tắc {@link TechnicianSkill#covers} với tự động phân công).
+ *
+ *  - Dựng lại toàn bộ từ DB lúc khởi động và định kỳ (nhận thay đổi từ node khác)
+ *  - Cập nhật từng booking sau khi transaction commit (BookingScheduleChangedEvent / BookingStatusChangedEvent)
+ *  - Kiểm tra trùng lịch O(log n); DB vẫn là nguồn đúng cuối cùng nhờ exclusion constraint
+ *    ex_bookings_technician_overlap (xem db/migration/V10)
+ */
+@Service
+@RequiredArgsConstructor
+public class TechnicianScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(TechnicianScheduleService.class);
+
+    // id giả cho khoảng cần kiểm tra khi không loại trừ booking nào
+    private static final long NO_BOOKING = Long.MIN_VALUE;
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final SchedulingProperties properties;
+    private final TechnicianSkillService technicianSkillService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Các field dưới đây được bảo vệ bởi lock
+    private ScheduleState state;
+    private List<Long> technicianIds = List.of();
+    private Map<Long, Set<ServiceType>> skills = Map.of();
+    private boolean rebuilding;
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    private boolean skillsTouchedDuringRebuild;
+
+    // ===== dựng lại / cập nhật =====
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${technician-schedule.rebuild-interval-ms:300000}",
+            initialDelayString = "${technician-schedule.rebuild-interval-ms:300000}"
+    )
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            touchedDuringRebuild.clear();
+            skillsTouchedDuringRebuild = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Long> replay;
+        boolean reloadSkills;
+        try {
+            OffsetDateTime endsAfter = OffsetDateTime.now().minusHours(properties.getLookbackHours());
+            List<BusyWindow> rows = bookingRepository.findBusyWindows(BookingStatus.SCHEDULE_BLOCKING, endsAfter);
+            List<Long> techs = userRepository.findIdsByRoleAndStatus(UserRole.TECHNICIAN, AccountStatus.ACTIVE);
+            Map<Long, Set<ServiceType>> techSkills = technicianSkillService.skillsByTechnician();
+
+            ScheduleState newState = newState();
+            for (BusyWindow w : rows) {
+                newState.add(w);
+            }
+
+            lock.writeLock().lock();
+            try {
+                state = newState;
+                technicianIds = List.copyOf(techs);
+                skills = Map.copyOf(techSkills);
+                rebuilding = false;
+                replay = new ArrayList<>(touchedDuringRebuild);
+                touchedDuringRebuild.clear();
+                reloadSkills = skillsTouchedDuringRebuild;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Technician schedule rebuilt: {} bookings, {} technicians", rows.size(), techs.size());
+        } catch (DataAccessException e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Technician schedule rebuild failed: {}", e.getMessage());
+            return;
+        }
+
+        // Booking / kỹ năng thay đổi trong lúc đang đọc snapshot: đọc lại cho chắc
+        for (Long bookingId : replay) {
+            refreshBooking(bookingId);
+        }
+        if (reloadSkills) {
+            refreshSkills();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onScheduleChanged(BookingScheduleChangedEvent event) {
+        refreshBooking(event.bookingId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        refreshBooking(event.bookingId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onSkillsChanged(TechnicianSkillsChangedEvent event) {
+        refreshSkills();
+    }
+
+    /**
+     * Đọc lại kỹ năng của toàn bộ kỹ thuật viên (bảng technician_skills nhỏ, đọc cả bảng cho đơn giản).
+     */
+    public void refreshSkills() {
+        Map<Long, Set<ServiceType>> techSkills = technicianSkillService.skillsByTechnician();
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                skillsTouchedDuringRebuild = true;
+            }
+            skills = Map.copyOf(techSkills);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Đọc lại khoảng thời gian của 1 booking từ DB và cập nhật cây (xóa nếu booking không còn chiếm lịch).
+     */
+    public void refreshBooking(Long bookingId) {
+        Optional<BusyWindow> window = bookingRepository.findBusyWindow(bookingId, BookingStatus.SCHEDULE_BLOCKING);
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                touchedDuringRebuild.add(bookingId);
+            }
+            ScheduleState current = state();
+            current.remove(bookingId);
+            window.ifPresent(current::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Như {@link #refreshBooking} cho nhiều booking, đọc DB 1 lần (dùng sau khi phân công hàng loạt).
+     */
+    public void refreshBookings(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        List<BusyWindow> rows = bookingRepository.findBusyWindowsByIdIn(bookingIds, BookingStatus.SCHEDULE_BLOCKING);
+
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                touchedDuringRebuild.addAll(bookingIds);
+            }
+            ScheduleState current = state();
+            for (Long id : bookingIds) {
+                current.remove(id);
+            }
+            for (BusyWindow w : rows) {
+                current.add(w);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // gọi khi đang giữ lock
+    private ScheduleState state() {
+        if (state == null) {
+            state = newState();
+        }
+        return state;
+    }
+
+    private ScheduleState newState() {
+        return new ScheduleState(new SlotOccupancy(properties.zoneId(), properties.getSlotMinutes()));
+    }
+
+    // ===== truy vấn =====
+
+    /**
+     * Thời điểm kết thúc dự kiến của 1 lịch hẹn theo thời lượng dịch vụ.
+     */
+    public OffsetDateTime endOf(OffsetDateTime start, ServiceEntity service) {
+        return start.plusMinutes(durationMinutes(service));
+    }
+
+    public List<Long> technicianIds() {
+        lock.readLock().lock();
+        try {
+            return technicianIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Thời lượng dịch vụ (phút), dùng thời lượng mặc định nếu dịch vụ chưa khai báo.
+     */
+    public int durationMinutes(ServiceEntity service) {
+        Integer minutes = service != null ? service.getDurationMinutes() : null;
+        return minutes != null && minutes > 0 ? minutes : properties.getDefaultDurationMinutes();
+    }
+
+    public boolean isFree(Long technicianId, OffsetDateTime start, OffsetDateTime end, Long excludeBookingId) {
+        long s = start.toInstant().toEpochMilli();
+        long e = end.toInstant().toEpochMilli();
+        long exclude = excludeBookingId != null ? excludeBookingId : NO_BOOKING;
+
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = state != null ? state.busyByTechnician.get(technicianId) : null;
+            return tree == null || !tree.anyOverlap(s, e, exclude);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ném 409 TECHNICIAN_SCHEDULE_CONFLICT nếu kỹ thuật viên đã có lịch giao với [start, end).
+     */
+    public void requireFree(Long technicianId, OffsetDateTime start, OffsetDateTime end, Long excludeBookingId) {
+        if (!isFree(technicianId, start, end, excludeBookingId)) {
+            throw DomainErrors.TECHNICIAN_SCHEDULE_CONFLICT;
+        }
+    }
+
+    /**
+     * Các kỹ thuật viên (ACTIVE) làm được loại dịch vụ {@code type} (null = mọi loại)
+     * và không có lịch nào giao với [start, end).
+     */
+    public List<Long> freeTechnicianIds(OffsetDateTime start, OffsetDateTime end, ServiceType type) {
+        long s = start.toInstant().toEpochMilli();
+        long e = end.toInstant().toEpochMilli();
+
+        lock.readLock().lock();
+        try {
+            List<Long> free = new ArrayList<>();
+            for (Long id : technicianIds) {
+                if (!TechnicianSkill.covers(skills.get(id), type)) {
+                    continue;
+                }
+                IntervalTree tree = state != null ? state.busyByTechnician.get(id) : null;
+                if (tree == null || !tree.anyOverlap(s, e, NO_BOOKING)) {
+                    free.add(id);
+                }
+            }
+            return free;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số kỹ thuật viên làm được loại dịch vụ {@code type} còn trống cho [start, end), sau khi trừ các booking
+     * chưa gán đang giữ chỗ cùng khung giờ (booking chưa gán được trừ bất kể loại dịch vụ, tính dè dặt).
+     */
+    public int spareCapacity(OffsetDateTime start, OffsetDateTime end, ServiceType type) {
+        long s = start.toInstant().toEpochMilli();
+        long e = end.toInstant().toEpochMilli();
+        int free = freeTechnicianIds(start, end, type).size();
+
+        lock.readLock().lock();
+        try {
+            return free - (state != null ? state.unassigned.countOverlaps(s, e) : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ném 409 NO_TECHNICIAN_AVAILABLE nếu khung giờ đã kín (khi technician-schedule.enforce-capacity = true).
+     */
+    public void requireCapacity(OffsetDateTime start, OffsetDateTime end, ServiceType type) {
+        if (properties.isEnforceCapacity() && spareCapacity(start, end, type) <= 0) {
+            throw DomainErrors.NO_TECHNICIAN_AVAILABLE;
+        }
+    }
+
+    /**
+     * Số kỹ thuật viên làm được loại dịch vụ {@code type} có thể nhận 1 lịch dài {@code runSlots} slot bắt đầu
+     * tại từng slot của ngày epochDay, đã trừ số booking chưa gán đang giữ chỗ. Chỉ xét các slot nằm trong {@code allowedMask} (ca làm việc).
+     * Toàn bộ tính trên bitset trong bộ nhớ, không truy vấn DB.
+     *
+     * @return mảng slotsPerDay phần tử; phần tử i &lt;= 0 nghĩa là slot i không nhận thêm được
+     */
+    public int[] availableCounts(long epochDay, int runSlots, long allowedMask, ServiceType type) {
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return new int[1440 / properties.getSlotMinutes()];
+            }
+            SlotOccupancy occupancy = state.occupancy;
+            int[] counts = new int[occupancy.slotsPerDay()];
+
+            for (Long technicianId : technicianIds) {
+                if (!TechnicianSkill.covers(skills.get(technicianId), type)) {
+                    continue;
+                }
+                long free = ~occupancy.busyBits(technicianId, epochDay) & allowedMask;
+                // bit i của run = slot i..i+runSlots-1 đều trống
+                long run = free;
+                for (int i = 1; i < runSlots && run != 0; i++) {
+                    run &= free >>> i;
+                }
+                for (long m = run; m != 0; m &= m - 1) {
+                    counts[Long.numberOfTrailingZeros(m)]++;
+                }
+            }
+
+            int[] waiting = occupancy.unassignedCounts(epochDay);
+            if (waiting != null) {
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] <= 0) {
+                        continue;
+                    }
+                    int max = 0;
+                    for (int j = i; j < i + runSlots && j < waiting.length; j++) {
+                        max = Math.max(max, waiting[j]);
+                    }
+                    counts[i] -= max;
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
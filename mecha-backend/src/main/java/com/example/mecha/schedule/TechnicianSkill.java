@@ -0,0 +1,43 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.servicecatalog.ServiceType;
+import com.example.mecha.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Set;
+
+/**
+ * Kỹ năng của kỹ thuật viên theo loại dịch vụ. Kỹ thuật viên chưa khai báo kỹ năng nào
+ * được coi là làm được mọi loại dịch vụ.
+ */
+@Entity
+@Table(name = "technician_skills",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"technician_id", "service_type"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TechnicianSkill {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "technician_id", nullable = false)
+    private User technician;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_type", nullable = false)
+    private ServiceType serviceType;
+
+    /**
+     * Quy tắc dùng chung cho phân công, khung giờ trống và kiểm tra sức chứa:
+     * không khai báo kỹ năng nào (null / rỗng) = làm được mọi loại dịch vụ.
+     */
+    public static boolean covers(Set<ServiceType> skills, ServiceType type) {
+        return skills == null || skills.isEmpty() || type == null || skills.contains(type);
+    }
+}
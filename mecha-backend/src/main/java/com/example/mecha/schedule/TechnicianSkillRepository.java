@@ -0,0 +1,17 @@
+package com.example.mecha.schedule;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TechnicianSkillRepository extends JpaRepository<TechnicianSkill, Long> {
+
+    List<TechnicianSkill> findByTechnicianId(Long technicianId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TechnicianSkill s WHERE s.technician.id = :technicianId")
+    int deleteByTechnicianId(@Param("technicianId") Long technicianId);
+}
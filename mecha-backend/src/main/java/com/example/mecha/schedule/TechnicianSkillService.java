@@ -0,0 +1,85 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.servicecatalog.ServiceType;
+import com.example.mecha.user.User;
+import com.example.mecha.user.UserRepository;
+import com.example.mecha.user.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class TechnicianSkillService {
+
+    private final TechnicianSkillRepository technicianSkillRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public Set<ServiceType> getSkills(Long technicianId) {
+        requireTechnician(technicianId);
+        Set<ServiceType> result = EnumSet.noneOf(ServiceType.class);
+        for (TechnicianSkill s : technicianSkillRepository.findByTechnicianId(technicianId)) {
+            result.add(s.getServiceType());
+        }
+        return result;
+    }
+
+    /**
+     * Kỹ năng của mọi kỹ thuật viên đã khai báo (kỹ thuật viên không có trong map = làm được mọi loại).
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Set<ServiceType>> skillsByTechnician() {
+        Map<Long, Set<ServiceType>> skills = new HashMap<>();
+        for (TechnicianSkill s : technicianSkillRepository.findAll()) {
+            skills.computeIfAbsent(s.getTechnician().getId(), id -> EnumSet.noneOf(ServiceType.class))
+                    .add(s.getServiceType());
+        }
+        return skills;
+    }
+
+    /**
+     * Ném TECHNICIAN_LACKS_SKILL nếu kỹ thuật viên đã khai báo kỹ năng nhưng không có loại dịch vụ này.
+     */
+    @Transactional(readOnly = true)
+    public void requireSkill(Long technicianId, ServiceType type) {
+        Set<ServiceType> skills = EnumSet.noneOf(ServiceType.class);
+        for (TechnicianSkill s : technicianSkillRepository.findByTechnicianId(technicianId)) {
+            skills.add(s.getServiceType());
+        }
+        if (!TechnicianSkill.covers(skills, type)) {
+            throw DomainErrors.TECHNICIAN_LACKS_SKILL;
+        }
+    }
+
+    @Transactional
+    public Set<ServiceType> replaceSkills(Long technicianId, Set<ServiceType> serviceTypes) {
+        User technician = requireTechnician(technicianId);
+        technicianSkillRepository.deleteByTechnicianId(technicianId);
+        for (ServiceType type : serviceTypes) {
+            technicianSkillRepository.save(TechnicianSkill.builder()
+                    .technician(technician)
+                    .serviceType(type)
+                    .build());
+        }
+        eventPublisher.publishEvent(new TechnicianSkillsChangedEvent(technicianId));
+        return serviceTypes.isEmpty() ? EnumSet.noneOf(ServiceType.class) : EnumSet.copyOf(serviceTypes);
+    }
+
+    private User requireTechnician(Long technicianId) {
+        User user = userRepository.findById(technicianId)
+                .orElseThrow(() -> DomainErrors.TECHNICIAN_NOT_FOUND);
+        if (user.getRole() != UserRole.TECHNICIAN) {
+            throw DomainErrors.USER_IS_NOT_TECHNICIAN;
+        }
+        return user;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.mecha.schedule;
+
+/**
+ * Event phát ra khi danh sách kỹ năng của kỹ thuật viên thay đổi.
+ */
+public record TechnicianSkillsChangedEvent(Long technicianId) {
+}
@@ -0,0 +1,32 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Kết quả tự động phân công (xem trước hoặc đã áp dụng)")
+public class AutoAssignPlanDto {
+
+    @Schema(description = "true nếu các phân công đã được lưu")
+    private boolean applied;
+
+    @Schema(description = "Số booking chưa gán được xét", example = "120")
+    private int bookingsConsidered;
+
+    @Schema(description = "Số kỹ thuật viên được xét", example = "25")
+    private int technicians;
+
+    private List<AutoAssignmentDto> assignments;
+
+    private List<AutoAssignSkippedDto> skipped;
+
+    @Schema(description = "Tổng chi phí (tải + di chuyển) của phương án", example = "312.5")
+    private double totalCost;
+
+    @Schema(description = "Thời gian giải (ms)", example = "42")
+    private long solveMillis;
+}
@@ -0,0 +1,20 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Schema(description = "Tự động phân công kỹ thuật viên cho các booking PENDING chưa gán trong khoảng thời gian")
+public class AutoAssignRequest {
+
+    @Schema(description = "Từ (ISO 8601)", example = "2025-01-15T00:00:00+07:00")
+    @NotNull(message = "from không được null")
+    private OffsetDateTime from;
+
+    @Schema(description = "Đến (ISO 8601, không bao gồm)", example = "2025-01-16T00:00:00+07:00")
+    @NotNull(message = "to không được null")
+    private OffsetDateTime to;
+}
@@ -0,0 +1,17 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Booking không phân công được")
+public class AutoAssignSkippedDto {
+
+    @Schema(example = "16")
+    private Long bookingId;
+
+    @Schema(description = "NO_SKILLED_TECHNICIAN / NO_FREE_TECHNICIAN / ALREADY_ASSIGNED", example = "NO_FREE_TECHNICIAN")
+    private String reason;
+}
@@ -0,0 +1,27 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@Schema(description = "1 phân công đề xuất / đã áp dụng")
+public class AutoAssignmentDto {
+
+    @Schema(example = "15")
+    private Long bookingId;
+
+    private OffsetDateTime scheduledAt;
+
+    @Schema(description = "Quận / huyện nhận ra từ địa chỉ (null nếu không nhận ra)", example = "quan 1")
+    private String district;
+
+    @Schema(example = "7")
+    private Long technicianId;
+
+    @Schema(example = "Nguyễn Văn A")
+    private String technicianName;
+}
@@ -0,0 +1,22 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@Schema(description = "1 khung giờ còn trống")
+public class AvailableSlotDto {
+
+    @Schema(example = "2025-01-15T09:00:00+07:00")
+    private OffsetDateTime start;
+
+    @Schema(example = "2025-01-15T10:30:00+07:00")
+    private OffsetDateTime end;
+
+    @Schema(description = "Số kỹ thuật viên còn nhận được lịch này", example = "3")
+    private int availableTechnicians;
+}
@@ -0,0 +1,19 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Các khung giờ còn trống trong 1 ngày")
+public class DayAvailabilityDto {
+
+    @Schema(example = "2025-01-15")
+    private LocalDate date;
+
+    private List<AvailableSlotDto> slots;
+}
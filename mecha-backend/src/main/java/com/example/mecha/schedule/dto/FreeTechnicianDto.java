@@ -0,0 +1,20 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Kỹ thuật viên còn trống trong khung giờ")
+public class FreeTechnicianDto {
+
+    @Schema(example = "7")
+    private Long id;
+
+    @Schema(example = "Nguyễn Văn A")
+    private String fullName;
+
+    @Schema(example = "0909123456")
+    private String phone;
+}
@@ -0,0 +1,24 @@
+package com.example.mecha.schedule.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Lịch trống của 1 dịch vụ")
+public class ServiceAvailabilityDto {
+
+    @Schema(example = "1")
+    private Long serviceId;
+
+    @Schema(description = "Thời lượng dịch vụ (phút) dùng để tính", example = "90")
+    private int durationMinutes;
+
+    @Schema(description = "Bước giữa các khung giờ (phút)", example = "30")
+    private int slotMinutes;
+
+    private List<DayAvailabilityDto> days;
+}
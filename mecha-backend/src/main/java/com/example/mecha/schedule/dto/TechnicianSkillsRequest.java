@@ -0,0 +1,17 @@
+package com.example.mecha.schedule.dto;
+
+import com.example.mecha.servicecatalog.ServiceType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+@Schema(description = "Danh sách kỹ năng của kỹ thuật viên (rỗng = làm được mọi loại dịch vụ)")
+public class TechnicianSkillsRequest {
+
+    @Schema(example = "[\"CLEANING\", \"MAINTENANCE\"]")
+    @NotNull(message = "serviceTypes không được null")
+    private Set<ServiceType> serviceTypes;
+}
@@ -1,6 +1,9 @@
 // servicecatalog/ServiceController.java
 package com.example.mecha.servicecatalog;
 
+import com.example.mecha.common.ConditionalGet;
+import com.example.mecha.schedule.ServiceAvailabilityService;
+import com.example.mecha.schedule.dto.ServiceAvailabilityDto;
 import com.example.mecha.servicecatalog.dto.ServiceCreateRequest;
 import com.example.mecha.servicecatalog.dto.ServiceDto;
 import com.example.mecha.servicecatalog.dto.ServiceUpdateRequest;
@@ -11,11 +14,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -26,24 +32,48 @@ import java.util.List;
 public class ServiceController {
 
     private final ServiceManagementService serviceManagementService;
+    private final ServiceAvailabilityService serviceAvailabilityService;
+    private final ConditionalGet conditionalGet;
 
     // Public: xem danh sách dịch vụ (mặc định active)
     @GetMapping
     @Operation(summary = "Danh sách dịch vụ", description = "Lọc theo trạng thái, mặc định trả về dịch vụ ACTIVE")
     public ResponseEntity<List<ServiceDto>> list(
             @Parameter(description = "Trạng thái dịch vụ", example = "ACTIVE")
-            @RequestParam(required = false) ServiceStatus status
+            @RequestParam(required = false) ServiceStatus status,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(serviceManagementService.list(status));
+        return conditionalGet.catalog(request, "services",
+                () -> serviceManagementService.listVersion(status),
+                () -> serviceManagementService.list(status));
     }
 
     // Public: xem chi tiết dịch vụ
     @GetMapping("/{id}")
     @Operation(summary = "Chi tiết dịch vụ")
     public ResponseEntity<ServiceDto> getById(
-            @Parameter(description = "ID dịch vụ") @PathVariable @Positive Long id
+            @Parameter(description = "ID dịch vụ") @PathVariable @Positive Long id,
+            WebRequest request
+    ) {
+        return conditionalGet.catalog(request, "service:" + id,
+                () -> serviceManagementService.version(id),
+                () -> serviceManagementService.getById(id));
+    }
+
+    // Public: khung giờ còn trống để đặt lịch
+    @GetMapping("/{id}/availability")
+    @Operation(
+            summary = "Khung giờ còn trống của dịch vụ",
+            description = "Tính từ thời lượng dịch vụ, ca làm việc và lịch đã đặt của kỹ thuật viên. Mặc định 7 ngày từ hôm nay."
+    )
+    public ResponseEntity<ServiceAvailabilityDto> availability(
+            @Parameter(description = "ID dịch vụ") @PathVariable @Positive Long id,
+            @Parameter(description = "Từ ngày (yyyy-MM-dd)", example = "2025-01-15")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Đến ngày (yyyy-MM-dd, bao gồm)", example = "2025-01-21")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
     ) {
-        return ResponseEntity.ok(serviceManagementService.getById(id));
+        return ResponseEntity.ok(serviceAvailabilityService.availability(id, from, to));
     }
 
     // ADMIN / STAFF: tạo dịch vụ
@@ -1,14 +1,20 @@
 // servicecatalog/ServiceEntity.java
 package com.example.mecha.servicecatalog;
 
+import com.example.mecha.cache.CacheRegions;
+import com.example.mecha.review.RatingStats;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
 @Table(name = "services")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.SERVICES)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -46,6 +52,11 @@ public class ServiceEntity {
     @Column(nullable = false)
     private ServiceStatus status;
 
+    // Thống kê đánh giá đã duyệt (xem RatingStats)
+    @Embedded
+    @Builder.Default
+    private RatingStats rating = new RatingStats();
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
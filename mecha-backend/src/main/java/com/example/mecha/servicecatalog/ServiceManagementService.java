@@ -1,14 +1,15 @@
 // servicecatalog/ServiceManagementService.java
 package com.example.mecha.servicecatalog;
 
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.common.ResourceVersion;
+import com.example.mecha.review.dto.ReviewSummaryDto;
 import com.example.mecha.servicecatalog.dto.ServiceCreateRequest;
 import com.example.mecha.servicecatalog.dto.ServiceDto;
 import com.example.mecha.servicecatalog.dto.ServiceUpdateRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -21,7 +22,7 @@ public class ServiceManagementService {
     @Transactional
     public ServiceDto create(ServiceCreateRequest request) {
         if (request.getCode() != null && serviceRepository.findByCode(request.getCode()).isPresent()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "SERVICE_CODE_ALREADY_EXISTS");
+            throw DomainErrors.SERVICE_CODE_ALREADY_EXISTS;
         }
 
         ServiceEntity entity = ServiceEntity.builder()
@@ -41,14 +42,14 @@ public class ServiceManagementService {
     @Transactional
     public ServiceDto update(Long id, ServiceUpdateRequest request) {
         ServiceEntity service = serviceRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SERVICE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.SERVICE_NOT_FOUND);
 
         if (request.getName() != null) service.setName(request.getName());
         if (request.getCode() != null) {
             serviceRepository.findByCode(request.getCode())
                     .filter(other -> !other.getId().equals(id))
                     .ifPresent(other -> {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "SERVICE_CODE_ALREADY_EXISTS");
+                        throw DomainErrors.SERVICE_CODE_ALREADY_EXISTS;
                     });
             service.setCode(request.getCode());
         }
@@ -65,22 +66,39 @@ public class ServiceManagementService {
     @Transactional(readOnly = true)
     public ServiceDto getById(Long id) {
         ServiceEntity service = serviceRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SERVICE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.SERVICE_NOT_FOUND);
         return toDto(service);
     }
 
     @Transactional(readOnly = true)
     public List<ServiceDto> list(ServiceStatus status) {
-        List<ServiceEntity> services =
-                (status != null) ? serviceRepository.findByStatus(status) : serviceRepository.findAll();
+        return findServices(status).stream().map(this::toDto).toList();
+    }
+
+    /**
+     * Version (ETag) tính từ chính các entity sẽ trả về, không phải query tổng hợp:
+     * services đọc qua L2 / query cache, version lấy từ DB có thể mới hơn cache ở node này.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion listVersion(ServiceStatus status) {
+        return ResourceVersion.of(findServices(status), ServiceEntity::getUpdatedAt);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion version(Long id) {
+        return serviceRepository.findById(id)
+                .map(service -> ResourceVersion.of(List.of(service), ServiceEntity::getUpdatedAt))
+                .orElse(ResourceVersion.NONE);
+    }
 
-        return services.stream().map(this::toDto).toList();
+    private List<ServiceEntity> findServices(ServiceStatus status) {
+        return (status != null) ? serviceRepository.findByStatus(status) : serviceRepository.findAll();
     }
 
     @Transactional
     public void delete(Long id) {
         if (!serviceRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "SERVICE_NOT_FOUND");
+            throw DomainErrors.SERVICE_NOT_FOUND;
         }
         serviceRepository.deleteById(id);
     }
@@ -88,7 +106,7 @@ public class ServiceManagementService {
     @Transactional
     public ServiceDto changeStatus(Long id, ServiceStatus status) {
         ServiceEntity service = serviceRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SERVICE_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.SERVICE_NOT_FOUND);
         service.setStatus(status);
         return toDto(service);
     }
@@ -103,6 +121,7 @@ public class ServiceManagementService {
                 .basePrice(s.getBasePrice())
                 .durationMinutes(s.getDurationMinutes())
                 .status(s.getStatus())
+                .rating(ReviewSummaryDto.from(s.getRating()))
                 .build();
     }
 }
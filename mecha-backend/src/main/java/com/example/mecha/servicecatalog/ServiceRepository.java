@@ -1,14 +1,70 @@
 // servicecatalog/ServiceRepository.java
 package com.example.mecha.servicecatalog;
 
+import com.example.mecha.cache.CacheRegions;
+import com.example.mecha.common.ResourceVersion;
+import com.example.mecha.review.RatingRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ServiceRepository extends JpaRepository<ServiceEntity, Long> {
 
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     Optional<ServiceEntity> findByCode(String code);
 
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     List<ServiceEntity> findByStatus(ServiceStatus status);
+
+    /**
+     * Cộng dồn (delta = +1) hoặc trừ (delta = -1) 1 review {@code stars} sao vào thống kê.
+     * Chạy bằng 1 câu UPDATE nên không mất cập nhật khi nhiều người duyệt cùng lúc.
+     * Đổi cả updatedAt: rating nằm trong DTO nên ETag phải đổi theo.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+           UPDATE ServiceEntity s
+           SET s.updatedAt = INSTANT,
+               s.rating.count = s.rating.count + :delta,
+               s.rating.sum = s.rating.sum + :delta * :stars,
+               s.rating.star1 = s.rating.star1 + CASE WHEN :stars = 1 THEN :delta ELSE 0 END,
+               s.rating.star2 = s.rating.star2 + CASE WHEN :stars = 2 THEN :delta ELSE 0 END,
+               s.rating.star3 = s.rating.star3 + CASE WHEN :stars = 3 THEN :delta ELSE 0 END,
+               s.rating.star4 = s.rating.star4 + CASE WHEN :stars = 4 THEN :delta ELSE 0 END,
+               s.rating.star5 = s.rating.star5 + CASE WHEN :stars = 5 THEN :delta ELSE 0 END
+           WHERE s.id = :id
+           """)
+    int applyRatingDelta(@Param("id") Long id, @Param("stars") long stars, @Param("delta") long delta);
+
+    @Query("""
+           SELECT new com.example.mecha.review.RatingRow(
+               s.id, s.rating.count, s.rating.sum,
+               s.rating.star1, s.rating.star2, s.rating.star3, s.rating.star4, s.rating.star5)
+           FROM ServiceEntity s
+           WHERE s.id IN :ids
+           """)
+    List<RatingRow> findRatingRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Version đọc thẳng từ DB, đi cùng findRatingRowsByIdIn (không qua L2 cache như findById).
+     */
+    @Query("""
+           SELECT new com.example.mecha.common.ResourceVersion(count(s), max(s.updatedAt))
+           FROM ServiceEntity s WHERE s.id = :id
+           """)
+    ResourceVersion findVersionById(@Param("id") Long id);
 }
@@ -1,6 +1,7 @@
 // servicecatalog/dto/ServiceDto.java
 package com.example.mecha.servicecatalog.dto;
 
+import com.example.mecha.review.dto.ReviewSummaryDto;
 import com.example.mecha.servicecatalog.ServiceStatus;
 import com.example.mecha.servicecatalog.ServiceType;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -32,4 +33,7 @@ public class ServiceDto {
     private Integer durationMinutes;
 
     private ServiceStatus status;
+
+    @Schema(description = "Tóm tắt đánh giá đã duyệt (điểm trung bình, số lượt, histogram)")
+    private ReviewSummaryDto rating;
 }
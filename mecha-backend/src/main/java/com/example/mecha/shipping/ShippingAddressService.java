@@ -1,13 +1,12 @@
 // shipping/ShippingAddressService.java
 package com.example.mecha.shipping;
 
+import com.example.mecha.common.DomainErrors;
 import com.example.mecha.shipping.dto.*;
 import com.example.mecha.user.User;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -29,7 +28,7 @@ public class ShippingAddressService {
     public ShippingAddressDto createAddress(User currentUser, ShippingAddressCreateRequest request) {
         Long count = shippingAddressRepository.countByUserId(currentUser.getId());
         if (count >= MAX_ADDRESSES_PER_USER) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "MAX_3_SHIPPING_ADDRESSES");
+            throw DomainErrors.MAX_3_SHIPPING_ADDRESSES;
         }
 
         boolean setDefault = Boolean.TRUE.equals(request.getDefaultAddress());
@@ -61,7 +60,7 @@ public class ShippingAddressService {
     @Transactional
     public ShippingAddressDto updateAddress(User currentUser, Long id, ShippingAddressUpdateRequest request) {
         ShippingAddress address = shippingAddressRepository.findByIdAndUserId(id, currentUser.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ADDRESS_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.ADDRESS_NOT_FOUND);
 
         if (request.getLabel() != null) address.setLabel(request.getLabel());
         if (request.getRecipientName() != null) address.setRecipientName(request.getRecipientName());
@@ -87,7 +86,7 @@ public class ShippingAddressService {
     @Transactional
     public void deleteAddress(User currentUser, Long id) {
         ShippingAddress address = shippingAddressRepository.findByIdAndUserId(id, currentUser.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ADDRESS_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.ADDRESS_NOT_FOUND);
 
         boolean wasDefault = address.isDefaultAddress();
         shippingAddressRepository.delete(address);
@@ -105,7 +104,7 @@ public class ShippingAddressService {
     @Transactional
     public ShippingAddressDto setDefault(User currentUser, Long id) {
         ShippingAddress address = shippingAddressRepository.findByIdAndUserId(id, currentUser.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ADDRESS_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.ADDRESS_NOT_FOUND);
 
         unsetDefaultForUser(currentUser.getId());
         address.setDefaultAddress(true);
@@ -115,7 +114,7 @@ public class ShippingAddressService {
     @Transactional(readOnly = true)
     public ShippingAddress getAddressEntity(User currentUser, Long id) {
         return shippingAddressRepository.findByIdAndUserId(id, currentUser.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "ADDRESS_NOT_FOUND"));
+                .orElseThrow(() -> DomainErrors.ADDRESS_NOT_FOUND);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,90 @@
+package com.example.mecha.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+/**
+ * Khởi tạo lazy cho các bean ít dùng (startup.lazy-beans.enabled=true): bean có class, hoặc class khai báo
+ * factory method (@Bean), bắt đầu bằng 1 trong các tiền tố startup.lazy-beans.packages chỉ được tạo
+ * ở lần dùng đầu tiên thay vì lúc khởi động.
+ *
+ * Chỉ có tác dụng khi không có bean khởi tạo sớm nào inject trực tiếp bean đó:
+ * Cloudinary / PdfGeneratorService được inject qua ObjectProvider.
+ * Khác spring.main.lazy-initialization: các bean còn lại vẫn tạo sớm nên lỗi cấu hình vẫn lộ ra lúc khởi động.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "startup.lazy-beans", name = "enabled", havingValue = "true")
+public class LazyBeansConfig {
+
+    static final String PACKAGES_PROPERTY = "startup.lazy-beans.packages";
+
+    // Static: BeanFactoryPostProcessor phải có trước mọi bean thường
+    @Bean
+    public static LazyBeanDefinitionPostProcessor lazyBeanDefinitionPostProcessor(Environment environment) {
+        List<String> packages = Binder.get(environment)
+                .bind(PACKAGES_PROPERTY, Bindable.listOf(String.class))
+                .orElse(List.of());
+        return new LazyBeanDefinitionPostProcessor(packages);
+    }
+
+    public static class LazyBeanDefinitionPostProcessor implements BeanFactoryPostProcessor {
+
+        private static final Logger log = LoggerFactory.getLogger(LazyBeanDefinitionPostProcessor.class);
+
+        private final List<String> packages;
+
+        LazyBeanDefinitionPostProcessor(List<String> packages) {
+            this.packages = packages;
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            int count = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.isSingleton() && !definition.isLazyInit() && matches(definition)) {
+                    definition.setLazyInit(true);
+                    count++;
+                }
+            }
+            log.info("Lazy initialization for {} beans in {}", count, packages);
+        }
+
+        private boolean matches(BeanDefinition definition) {
+            if (matches(definition.getBeanClassName())) {
+                return true;
+            }
+            if (definition instanceof AnnotatedBeanDefinition annotated) {
+                MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+                return factoryMethod != null
+                        && (matches(factoryMethod.getDeclaringClassName()) || matches(factoryMethod.getReturnTypeName()));
+            }
+            return false;
+        }
+
+        private boolean matches(String className) {
+            if (className == null) {
+                return false;
+            }
+            for (String prefix : packages) {
+                if (className.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
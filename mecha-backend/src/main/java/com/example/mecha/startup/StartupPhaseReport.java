@@ -0,0 +1,142 @@
+package com.example.mecha.startup;
+
+import com.example.mecha.metrics.MechaMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Thời gian khởi động theo giai đoạn, log 1 lần khi app sẵn sàng nhận request
+ * và xuất gauge mecha.startup.phase{phase} để so sánh giữa các lần deploy:
+ *  - jvm: từ lúc JVM chạy tới khi SpringApplication bắt đầu (nạp class, agent...)
+ *  - context: chuẩn bị environment + refresh ApplicationContext, không tính 2 giai đoạn dưới
+ *  - migrations: Flyway (bean flywayInitializer)
+ *  - jpa: dựng EntityManagerFactory (metamodel Hibernate, L2 cache, validate schema)
+ *  - runners: các CommandLineRunner / ApplicationRunner
+ *
+ * migrations / jpa lấy từ {@link BufferingApplicationStartup} do {@code MechaBackendApplication} bật;
+ * chạy theo cách khác (test, load test) thì 2 giai đoạn này tính gộp vào context.
+ * Chi tiết từng bean xem /actuator/startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class StartupPhaseReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupPhaseReport.class);
+
+    public static final int TIMELINE_CAPACITY = 4096;
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+    private static final Map<String, String> PHASE_BEANS = Map.of(
+            "flywayInitializer", "migrations",
+            "entityManagerFactory", "jpa"
+    );
+
+    private final ApplicationStartup applicationStartup;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Duration startedTimeTaken;
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        startedTimeTaken = event.getTimeTaken();
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        Duration total = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        Duration ready = event.getTimeTaken();
+        Duration started = startedTimeTaken;
+        if (ready == null || started == null) {
+            return;
+        }
+
+        Map<String, Duration> beanPhases = beanPhases();
+        Duration context = started;
+        for (Duration d : beanPhases.values()) {
+            context = context.minus(d);
+        }
+
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        phases.put("jvm", total.minus(ready));
+        phases.put("context", context);
+        phases.put("migrations", beanPhases.getOrDefault("migrations", Duration.ZERO));
+        phases.put("jpa", beanPhases.getOrDefault("jpa", Duration.ZERO));
+        phases.put("runners", ready.minus(started));
+
+        phases.forEach((phase, d) -> TimeGauge.builder(MechaMetrics.STARTUP_PHASE, d, TimeUnit.MILLISECONDS, Duration::toMillis)
+                .tag(MechaMetrics.TAG_PHASE, phase)
+                .register(meterRegistry));
+
+        log.info("Startup {}: {}", format(total), phases.entrySet().stream()
+                .map(e -> e.getKey() + "=" + format(e.getValue()))
+                .collect(Collectors.joining(" ")));
+    }
+
+    /**
+     * Thời gian riêng của từng bean giai đoạn: bean này có thể được tạo lồng trong bean kia
+     * (entityManagerFactory phụ thuộc flywayInitializer) nên trừ phần lồng bên trong.
+     */
+    private Map<String, Duration> beanPhases() {
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return Map.of();
+        }
+        List<StartupTimeline.TimelineEvent> events = buffering.getBufferedTimeline().getEvents();
+
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, String> phaseSteps = new HashMap<>();
+        Map<Long, Duration> durations = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (step.getParentId() != null) {
+                parents.put(step.getId(), step.getParentId());
+            }
+            if (BEAN_INSTANTIATE_STEP.equals(step.getName())) {
+                for (StartupStep.Tag tag : step.getTags()) {
+                    String phase = "beanName".equals(tag.getKey()) ? PHASE_BEANS.get(tag.getValue()) : null;
+                    if (phase != null) {
+                        phaseSteps.put(step.getId(), phase);
+                        durations.put(step.getId(), event.getDuration());
+                    }
+                }
+            }
+        }
+
+        Map<String, Duration> phases = new HashMap<>();
+        for (Map.Entry<Long, String> entry : phaseSteps.entrySet()) {
+            phases.merge(entry.getValue(), durations.get(entry.getKey()), Duration::plus);
+            // Trừ khỏi giai đoạn bao ngoài gần nhất
+            for (Long p = parents.get(entry.getKey()); p != null; p = parents.get(p)) {
+                String outer = phaseSteps.get(p);
+                if (outer != null) {
+                    phases.merge(outer, durations.get(entry.getKey()).negated(), Duration::plus);
+                    break;
+                }
+            }
+        }
+        return phases;
+    }
+
+    private static String format(Duration d) {
+        return String.format("%.2fs", d.toMillis() / 1000.0);
+    }
+}
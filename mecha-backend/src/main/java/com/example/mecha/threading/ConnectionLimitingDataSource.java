@@ -0,0 +1,162 @@
+package com.example.mecha.threading;
+
+import com.example.mecha.metrics.MechaMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource bọc Hikari bằng 1 semaphore công bằng (FIFO): mỗi connection đang mượn giữ 1 permit,
+ * trả permit khi close().
+ *
+ * Với virtual thread, Tomcat không còn giới hạn 200 thread: hàng nghìn request có thể cùng chờ Hikari,
+ * làm pool tốn CPU cho việc tranh connection và mọi request cùng hết connectionTimeout một lúc.
+ * Semaphore xếp hàng rẻ (virtual thread chờ không ghim carrier) và báo lỗi sau acquireTimeoutMs.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionLimitingDataSource.class);
+
+    // Hikari để maximumPoolSize = -1 cho tới lúc pool khởi động rồi mới lấy mặc định 10
+    private static final int DEFAULT_HIKARI_POOL_SIZE = 10;
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Timer acquired;
+    private final Timer rejected;
+
+    /**
+     * @param pool tên pool (tag "pool" của metric), phân biệt primary và các replica
+     */
+    public ConnectionLimitingDataSource(DataSource target, String pool, int maxConcurrent, long acquireTimeoutMs,
+                                        MeterRegistry registry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        this.acquired = acquireTimer(registry, pool, MechaMetrics.OUTCOME_SUCCESS);
+        this.rejected = acquireTimer(registry, pool, MechaMetrics.OUTCOME_ERROR);
+        Gauge.builder(MechaMetrics.DB_LIMITER_WAITING, permits, Semaphore::getQueueLength)
+                .description("Số thread đang chờ permit để mượn connection")
+                .tag(MechaMetrics.TAG_POOL, pool)
+                .register(registry);
+        Gauge.builder(MechaMetrics.DB_LIMITER_IN_USE, permits, p -> maxConcurrent - p.availablePermits())
+                .description("Số connection đang được mượn qua limiter")
+                .tag(MechaMetrics.TAG_POOL, pool)
+                .register(registry);
+    }
+
+    /**
+     * Bọc 1 pool Hikari theo datasource-limiter.*; trả lại nguyên pool nếu limiter tắt.
+     *
+     * @param pool tên dùng cho metric khi pool chưa có poolName (Hikari chỉ tự đặt tên lúc pool khởi động)
+     */
+    public static DataSource wrap(HikariDataSource hikari, String pool, DataSourceLimiterProperties properties,
+                                  MeterRegistry registry) {
+        if (!properties.isEnabled()) {
+            return hikari;
+        }
+        int maxConcurrent = properties.getMaxConcurrent() > 0
+                ? properties.getMaxConcurrent()
+                : hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_HIKARI_POOL_SIZE;
+        String name = hikari.getPoolName() != null ? hikari.getPoolName() : pool;
+        log.info("Limiting concurrent connections of {} to {} (acquire timeout {} ms)",
+                name, maxConcurrent, properties.getAcquireTimeoutMs());
+        return new ConnectionLimitingDataSource(
+                hikari, name, maxConcurrent, properties.getAcquireTimeoutMs(), registry);
+    }
+
+    private static Timer acquireTimer(MeterRegistry registry, String pool, String outcome) {
+        return Timer.builder(MechaMetrics.DB_LIMITER_ACQUIRE)
+                .description("Thời gian chờ permit trước khi mượn connection từ Hikari")
+                .tag(MechaMetrics.TAG_POOL, pool)
+                .tag(MechaMetrics.TAG_OUTCOME, outcome)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit", e);
+        }
+        long waited = System.nanoTime() - start;
+        if (!ok) {
+            rejected.record(waited, TimeUnit.NANOSECONDS);
+            throw new SQLTransientConnectionException("Database connection limit reached, waited "
+                    + TimeUnit.NANOSECONDS.toMillis(waited) + " ms (" + permits.getQueueLength() + " waiting)");
+        }
+        acquired.record(waited, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Proxy chỉ chặn close() (trả permit đúng 1 lần); unwrap(PGConnection) và mọi method khác đi thẳng xuống Hikari.
+     */
+    private Connection releasingOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.mecha.threading;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Bọc DataSource (Hikari do Spring Boot tạo) bằng {@link ConnectionLimitingDataSource} khi datasource-limiter.enabled.
+ * Metric hikaricp.* vẫn hoạt động vì Spring Boot unwrap được DelegatingDataSource.
+ */
+@Configuration
+public class DataSourceLimiterConfig {
+
+    // static + ObjectProvider: BeanPostProcessor được tạo rất sớm, không kéo theo các bean khác lúc đó
+    @Bean
+    public static ConnectionLimitingPostProcessor connectionLimitingDataSourcePostProcessor(
+            ObjectProvider<DataSourceLimiterProperties> properties,
+            ObjectProvider<MeterRegistry> registry
+    ) {
+        return new ConnectionLimitingPostProcessor(properties, registry);
+    }
+
+    /**
+     * Chạy trước các post processor khác bọc DataSource (ví dụ định tuyến replica) để luôn thấy Hikari gốc.
+     */
+    public static class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<DataSourceLimiterProperties> properties;
+        private final ObjectProvider<MeterRegistry> registry;
+
+        ConnectionLimitingPostProcessor(ObjectProvider<DataSourceLimiterProperties> properties,
+                                        ObjectProvider<MeterRegistry> registry) {
+            this.properties = properties;
+            this.registry = registry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                return ConnectionLimitingDataSource.wrap(hikari, beanName, properties.getObject(), registry.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.mecha.threading;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource-limiter")
+@Getter
+@Setter
+public class DataSourceLimiterProperties {
+    /**
+     * Bật semaphore trước Hikari (mặc định bật cùng virtual thread).
+     */
+    private boolean enabled = false;
+
+    /**
+     * Số connection được mượn đồng thời; 0 = bằng maximum-pool-size của Hikari.
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * Chờ permit quá số ms này thì báo lỗi ngay thay vì xếp hàng tiếp (ms).
+     */
+    private long acquireTimeoutMs = 5_000;
+}
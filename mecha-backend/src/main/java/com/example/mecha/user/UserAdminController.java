@@ -1,6 +1,7 @@
 package com.example.mecha.user;
 
 import com.example.mecha.auth.dto.UserDto;
+import com.example.mecha.common.DomainErrors;
 import com.example.mecha.user.dto.UpdateUserStatusRequest;
 import com.example.mecha.user.dto.ResetPasswordRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,7 +55,7 @@ public class UserAdminController {
             @RequestParam UserRole role
     ) {
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> DomainErrors.USER_NOT_FOUND);
         
         user.setRole(role);
         userRepository.save(user);
@@ -70,7 +71,7 @@ public class UserAdminController {
             @RequestParam AccountStatus status
     ) {
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> DomainErrors.USER_NOT_FOUND);
         
         user.setStatus(status);
         userRepository.save(user);
@@ -86,7 +87,7 @@ public class UserAdminController {
             @Valid @RequestBody ResetPasswordRequest request
     ) {
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> DomainErrors.USER_NOT_FOUND);
         
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
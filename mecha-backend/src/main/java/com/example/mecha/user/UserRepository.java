@@ -1,6 +1,8 @@
 package com.example.mecha.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +16,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(UserRole role);
 
     long countByRole(UserRole role);
+
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.status = :status ORDER BY u.id")
+    List<Long> findIdsByRoleAndStatus(@Param("role") UserRole role, @Param("status") AccountStatus status);
 }
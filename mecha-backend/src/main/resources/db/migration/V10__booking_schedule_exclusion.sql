@@ -0,0 +1,55 @@
+-- Migration: chống trùng lịch kỹ thuật viên ở mức DB
+--  - bookings.ends_at: thời điểm dự kiến xong (scheduled_at + thời lượng dịch vụ lúc đặt)
+--  - exclusion constraint: 1 kỹ thuật viên không thể có 2 booking còn hiệu lực
+--    (PENDING / CONFIRMED / IN_PROGRESS) giao nhau về thời gian, kể cả khi nhiều node cùng gán.
+-- TechnicianScheduleService giữ bản sao trong bộ nhớ để kiểm tra nhanh; constraint này là chốt chặn cuối.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS ends_at TIMESTAMPTZ;
+
+UPDATE bookings b
+SET ends_at = b.scheduled_at + make_interval(mins => COALESCE(NULLIF(s.duration_minutes, 0), 60))
+FROM services s
+WHERE s.id = b.service_id
+  AND b.ends_at IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN ends_at SET NOT NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_bookings_ends_after_start') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ck_bookings_ends_after_start CHECK (ends_at > scheduled_at);
+    END IF;
+END $$;
+
+-- Dữ liệu cũ có thể đã bị trùng lịch: giữ booking tạo trước, bỏ gán kỹ thuật viên ở booking sau
+-- để dispatcher gán lại (có ghi chú trong note).
+WITH conflicts AS (
+    SELECT DISTINCT later.id
+    FROM bookings later
+    JOIN bookings earlier
+      ON earlier.technician_id = later.technician_id
+     AND earlier.id < later.id
+     AND tstzrange(earlier.scheduled_at, earlier.ends_at, '[)') && tstzrange(later.scheduled_at, later.ends_at, '[)')
+    WHERE later.technician_id IS NOT NULL
+      AND earlier.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
+      AND later.status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS')
+)
+UPDATE bookings b
+SET technician_id = NULL,
+    note = COALESCE(b.note || ' | ', '') || 'Bỏ gán kỹ thuật viên do trùng lịch (migration V10)'
+FROM conflicts c
+WHERE b.id = c.id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_bookings_technician_overlap') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_technician_overlap
+            EXCLUDE USING gist (
+                technician_id WITH =,
+                tstzrange(scheduled_at, ends_at, '[)') WITH &&
+            )
+            WHERE (technician_id IS NOT NULL AND status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS'));
+    END IF;
+END $$;
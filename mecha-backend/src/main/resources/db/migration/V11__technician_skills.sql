@@ -0,0 +1,14 @@
+-- Migration: kỹ năng kỹ thuật viên theo loại dịch vụ (dùng cho tự động phân công)
+-- Kỹ thuật viên không có dòng nào = làm được mọi loại dịch vụ.
+
+CREATE TABLE IF NOT EXISTS technician_skills (
+    id            BIGSERIAL PRIMARY KEY,
+    technician_id BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    service_type  VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_technician_skills UNIQUE (technician_id, service_type)
+);
+
+-- Tìm booking PENDING chưa gán theo thời gian
+CREATE INDEX IF NOT EXISTS idx_bookings_unassigned_scheduled
+    ON bookings (scheduled_at)
+    WHERE technician_id IS NULL AND status = 'PENDING';
@@ -0,0 +1,16 @@
+-- Migration: index cho tìm kiếm booking phân trang theo cursor (scheduled_at DESC, id DESC)
+-- Mỗi index khớp 1 tổ hợp filter của BookingSpecifications để Postgres đọc đúng N dòng đầu
+-- (kể cả khi có khoảng from / to), không phải seq scan + sort toàn bảng.
+
+CREATE INDEX IF NOT EXISTS idx_bookings_scheduled
+    ON bookings (scheduled_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_scheduled
+    ON bookings (status, scheduled_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_technician_scheduled
+    ON bookings (technician_id, scheduled_at DESC, id DESC)
+    WHERE technician_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_customer_scheduled
+    ON bookings (customer_id, scheduled_at DESC, id DESC);
@@ -0,0 +1,28 @@
+-- Migration: materialized path cho product_categories ("/1/4/9/", xem CategoryPaths)
+-- Cả cây con của 1 danh mục là 1 khoảng [path, path tăng ký tự cuối) trên index btree,
+-- nên liệt kê sản phẩm theo danh mục cha chỉ cần 1 range scan + join theo category_id.
+
+ALTER TABLE product_categories
+    ADD COLUMN IF NOT EXISTS path VARCHAR(1000) COLLATE "C";
+
+-- Backfill từ parent_id
+WITH RECURSIVE tree (id, path) AS (
+    SELECT c.id, '/' || c.id || '/'
+    FROM product_categories c
+    WHERE c.parent_id IS NULL
+    UNION ALL
+    SELECT c.id, t.path || c.id || '/'
+    FROM product_categories c
+    JOIN tree t ON c.parent_id = t.id
+)
+UPDATE product_categories pc
+SET path = tree.path
+FROM tree
+WHERE pc.id = tree.id
+  AND pc.path IS DISTINCT FROM tree.path;
+
+CREATE INDEX IF NOT EXISTS idx_product_categories_path
+    ON product_categories (path);
+
+CREATE INDEX IF NOT EXISTS idx_products_category
+    ON products (category_id);
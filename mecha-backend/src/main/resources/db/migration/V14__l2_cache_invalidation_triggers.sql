@@ -0,0 +1,43 @@
+-- Migration: NOTIFY khi dữ liệu tham chiếu trong L2 cache thay đổi (xem cache/L2CacheInvalidationListener)
+-- Payload: 'bảng:id' hoặc 'product_tier_prices:id:product_id'. Postgres chỉ gửi notify khi commit
+-- và gộp các payload trùng nhau trong cùng transaction.
+
+CREATE OR REPLACE FUNCTION notify_l2_cache_invalidation() RETURNS trigger AS $$
+DECLARE
+    rec RECORD;
+    payload TEXT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        rec := OLD;
+    ELSE
+        rec := NEW;
+    END IF;
+
+    payload := TG_TABLE_NAME || ':' || rec.id;
+    IF TG_TABLE_NAME = 'product_tier_prices' THEN
+        payload := payload || ':' || rec.product_id;
+        -- Chuyển tier price sang sản phẩm khác: collection của sản phẩm cũ cũng phải evict
+        IF TG_OP = 'UPDATE' AND OLD.product_id IS DISTINCT FROM NEW.product_id THEN
+            PERFORM pg_notify('l2_cache_invalidation', TG_TABLE_NAME || ':' || OLD.id || ':' || OLD.product_id);
+        END IF;
+    END IF;
+
+    PERFORM pg_notify('l2_cache_invalidation', payload);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_services_l2_cache ON services;
+CREATE TRIGGER trg_services_l2_cache
+    AFTER INSERT OR UPDATE OR DELETE ON services
+    FOR EACH ROW EXECUTE FUNCTION notify_l2_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_product_categories_l2_cache ON product_categories;
+CREATE TRIGGER trg_product_categories_l2_cache
+    AFTER INSERT OR UPDATE OR DELETE ON product_categories
+    FOR EACH ROW EXECUTE FUNCTION notify_l2_cache_invalidation();
+
+DROP TRIGGER IF EXISTS trg_product_tier_prices_l2_cache ON product_tier_prices;
+CREATE TRIGGER trg_product_tier_prices_l2_cache
+    AFTER INSERT OR UPDATE OR DELETE ON product_tier_prices
+    FOR EACH ROW EXECUTE FUNCTION notify_l2_cache_invalidation();
@@ -0,0 +1,43 @@
+-- Migration: thay cho OrderStatusMigration (CommandLineRunner chạy lại mỗi lần khởi động)
+--  - PaymentMethod cũ BANKING -> BANK_TRANSFER (orders, bookings)
+--  - orders_status_check chỉ còn PENDING / DELIVERED / CANCELLED. V6 tạo lại orders dạng partitioned
+--    bằng LIKE nên check constraint do Hibernate sinh ra không còn, thêm lại ở đây.
+--  - Partition tháng mới phải mang theo check constraint của bảng cha, nếu không ATTACH PARTITION lỗi
+--    "child table is missing constraint": tạo partition bằng LIKE ... INCLUDING CONSTRAINTS.
+-- Dữ liệu trạng thái cũ (COMPLETED / CONFIRMED / PROCESSING / SHIPPED) đã được V4 chuyển đổi.
+
+UPDATE orders SET payment_method = 'BANK_TRANSFER' WHERE payment_method = 'BANKING';
+UPDATE bookings SET payment_method = 'BANK_TRANSFER' WHERE payment_method = 'BANKING';
+
+ALTER TABLE orders DROP CONSTRAINT IF EXISTS orders_status_check;
+ALTER TABLE orders ADD CONSTRAINT orders_status_check
+    CHECK (status IN ('PENDING', 'DELIVERED', 'CANCELLED'));
+
+-- Giống V6, chỉ thêm INCLUDING CONSTRAINTS
+CREATE OR REPLACE FUNCTION mecha_create_month_partition(tbl text, month_start date)
+RETURNS boolean
+LANGUAGE plpgsql AS $$
+DECLARE
+    part_name    text := format('%s_p%s', tbl, to_char(month_start, 'YYYYMM'));
+    default_name text := tbl || '_default';
+    lower_bound  timestamptz := date_trunc('month', month_start)::timestamp AT TIME ZONE 'UTC';
+    upper_bound  timestamptz := (date_trunc('month', month_start) + interval '1 month')::timestamp AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(format('public.%I', part_name)) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('CREATE TABLE public.%I (LIKE public.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part_name, tbl);
+
+    IF to_regclass(format('public.%I', default_name)) IS NOT NULL THEN
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM public.%I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+            || 'INSERT INTO public.%I SELECT * FROM moved',
+            default_name, lower_bound, upper_bound, part_name);
+    END IF;
+
+    EXECUTE format('ALTER TABLE public.%I ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   tbl, part_name, lower_bound, upper_bound);
+    RETURN true;
+END;
+$$;
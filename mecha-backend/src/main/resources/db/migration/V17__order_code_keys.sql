@@ -0,0 +1,19 @@
+-- Migration: giữ unique cho orders.order_code
+-- V6 chuyển orders sang partitioned nên order_code chỉ còn index thường. Giống sepay_webhook_keys,
+-- mã đơn được giữ chỗ trong bảng không partition order_code_keys (PK = order_code) lúc checkout;
+-- trùng thì OrderService sinh mã khác.
+
+CREATE TABLE IF NOT EXISTS order_code_keys (
+    order_code VARCHAR(255) PRIMARY KEY,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Mã của đơn hiện có, kể cả các partition đã archive (mã đã cấp thì không cấp lại)
+INSERT INTO order_code_keys (order_code, created_at)
+SELECT order_code, MIN(created_at)
+FROM (SELECT order_code, created_at FROM orders
+      UNION ALL
+      SELECT order_code, created_at FROM archive.orders) o
+WHERE order_code IS NOT NULL
+GROUP BY order_code
+ON CONFLICT DO NOTHING;
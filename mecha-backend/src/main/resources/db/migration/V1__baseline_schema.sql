@@ -0,0 +1,274 @@
+-- Migration: schema gốc (trước V2), sinh từ entity JPA bằng Hibernate schema export
+-- Chỉ chạy trên database trống. Database đã có bảng (trước đây do ddl-auto=update tạo và vá tay
+-- bằng các script V2..V14) được baseline ở spring.flyway.baseline-version, không chạy lại file này.
+-- Các cột thêm ở migration sau (hidden, version, rating_*, ends_at, path...) đã có sẵn ở đây;
+-- các migration đó dùng IF NOT EXISTS nên chạy tiếp vẫn đúng.
+
+create table bookings (
+    price_at_booking numeric(18,2) not null,
+    created_at timestamp(6) with time zone not null,
+    customer_id bigint not null,
+    ends_at timestamp(6) with time zone,
+    id bigint generated by default as identity,
+    scheduled_at timestamp(6) with time zone not null,
+    service_id bigint not null,
+    technician_id bigint,
+    updated_at timestamp(6) with time zone not null,
+    version BIGINT DEFAULT 0,
+    contact_phone varchar(50) not null,
+    address_line varchar(500) not null,
+    note TEXT,
+    payment_method varchar(255) not null check (payment_method in ('COD','BANK_TRANSFER','VNPAY','MOMO')),
+    payment_status varchar(255) not null check (payment_status in ('PENDING','PAID','FAILED','REFUNDED')),
+    status varchar(255) not null check (status in ('PENDING','CONFIRMED','IN_PROGRESS','COMPLETED','CANCELLED')),
+    primary key (id)
+);
+
+create table cart_items (
+    line_total numeric(18,2) not null,
+    quantity integer not null,
+    unit_price numeric(18,2) not null,
+    cart_id bigint not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    product_id bigint,
+    service_id bigint,
+    updated_at timestamp(6) with time zone not null,
+    item_type varchar(255) not null check (item_type in ('PRODUCT','SERVICE')),
+    primary key (id)
+);
+
+create table carts (
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) with time zone not null,
+    user_id bigint not null,
+    primary key (id),
+    unique (user_id)
+);
+
+create table invoices (
+    revision INTEGER DEFAULT 0 not null,
+    total_amount numeric(18,2) not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    issue_date timestamp(6) with time zone not null,
+    order_id bigint not null,
+    pdf_sha256 varchar(64),
+    invoice_number varchar(255) unique,
+    primary key (id)
+);
+
+create table order_items (
+    line_total numeric(18,2) not null,
+    quantity integer not null,
+    unit_price numeric(18,2) not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    product_id bigint,
+    service_id bigint,
+    item_type varchar(255) not null check (item_type in ('PRODUCT','SERVICE')),
+    primary key (id)
+);
+
+create table orders (
+    total_amount numeric(18,2) not null,
+    created_at timestamp(6) with time zone not null,
+    customer_id bigint not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) with time zone not null,
+    version BIGINT DEFAULT 0,
+    contact_phone varchar(50) not null,
+    shipping_address varchar(500) not null,
+    note TEXT,
+    order_code varchar(255),
+    payment_method varchar(255) not null check (payment_method in ('COD','BANK_TRANSFER','VNPAY','MOMO')),
+    payment_status varchar(255) not null check (payment_status in ('PENDING','PAID','FAILED','REFUNDED')),
+    status varchar(255) not null check (status in ('PENDING','DELIVERED','CANCELLED')),
+    primary key (id)
+);
+
+create table product_categories (
+    sort_order integer not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    parent_id bigint,
+    updated_at timestamp(6) with time zone not null,
+    path VARCHAR(1000) COLLATE "C",
+    name varchar(255) not null,
+    slug varchar(255) not null unique,
+    primary key (id)
+);
+
+create table product_images (
+    sort_order integer not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    image_url varchar(500) not null,
+    image_public_id varchar(255) not null,
+    primary key (id)
+);
+
+create table product_tier_prices (
+    max_qty integer,
+    min_qty integer not null,
+    unit_price numeric(18,2) not null,
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    primary key (id)
+);
+
+create table products (
+    base_price numeric(18,2) not null,
+    hidden BOOLEAN DEFAULT FALSE,
+    stock_quantity integer not null,
+    category_id bigint,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    rating_1 BIGINT DEFAULT 0,
+    rating_2 BIGINT DEFAULT 0,
+    rating_3 BIGINT DEFAULT 0,
+    rating_4 BIGINT DEFAULT 0,
+    rating_5 BIGINT DEFAULT 0,
+    rating_count BIGINT DEFAULT 0,
+    rating_sum BIGINT DEFAULT 0,
+    updated_at timestamp(6) with time zone not null,
+    image_url varchar(500),
+    description TEXT,
+    image_public_id varchar(255),
+    name varchar(255) not null,
+    sku varchar(255) unique,
+    unit_of_measure varchar(255),
+    attributes jsonb,
+    primary key (id)
+);
+
+create table quotations (
+    total_amount numeric(18,2) not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    issue_date timestamp(6) with time zone not null,
+    order_id bigint not null,
+    valid_until timestamp(6) with time zone,
+    pdf_sha256 varchar(64),
+    quote_number varchar(255) unique,
+    primary key (id)
+);
+
+create table reviews (
+    rating integer not null,
+    booking_id bigint,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    order_id bigint,
+    product_id bigint,
+    service_id bigint,
+    updated_at timestamp(6) with time zone not null,
+    user_id bigint not null,
+    comment TEXT,
+    status varchar(255) not null check (status in ('PENDING','APPROVED','REJECTED')),
+    primary key (id)
+);
+
+create table sepay_transactions (
+    accumulated numeric(18,2),
+    transfer_amount numeric(18,2),
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    order_id bigint,
+    sepay_id bigint not null,
+    transaction_date timestamp(6) with time zone,
+    transfer_type varchar(10),
+    account_number varchar(50),
+    code varchar(100),
+    gateway varchar(100),
+    reference_code varchar(100),
+    sub_account varchar(100),
+    content TEXT,
+    description TEXT,
+    primary key (id)
+);
+
+create table services (
+    base_price numeric(18,2) not null,
+    duration_minutes integer,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    rating_1 BIGINT DEFAULT 0,
+    rating_2 BIGINT DEFAULT 0,
+    rating_3 BIGINT DEFAULT 0,
+    rating_4 BIGINT DEFAULT 0,
+    rating_5 BIGINT DEFAULT 0,
+    rating_count BIGINT DEFAULT 0,
+    rating_sum BIGINT DEFAULT 0,
+    updated_at timestamp(6) with time zone not null,
+    code varchar(255) unique,
+    description TEXT,
+    name varchar(255) not null,
+    status varchar(255) not null check (status in ('ACTIVE','INACTIVE')),
+    type varchar(255) not null check (type in ('CLEANING','MAINTENANCE','REPAIR','OTHER')),
+    primary key (id)
+);
+
+create table shipping_addresses (
+    is_default boolean not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) with time zone not null,
+    user_id bigint not null,
+    phone varchar(50) not null,
+    city varchar(100),
+    district varchar(100),
+    label varchar(100),
+    ward varchar(100),
+    address_line varchar(500) not null,
+    recipient_name varchar(255) not null,
+    primary key (id)
+);
+
+create table technician_skills (
+    id bigint generated by default as identity,
+    technician_id bigint not null,
+    service_type varchar(255) not null check (service_type in ('CLEANING','MAINTENANCE','REPAIR','OTHER')),
+    primary key (id),
+    unique (technician_id, service_type)
+);
+
+create table users (
+    email_verified boolean not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) with time zone not null,
+    email varchar(255) not null unique,
+    full_name varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    provider varchar(255) not null check (provider in ('LOCAL','GOOGLE')),
+    role varchar(255) not null check (role in ('USER','STAFF','TECHNICIAN','ADMIN')),
+    status varchar(255) not null check (status in ('ACTIVE','SUSPENDED')),
+    primary key (id)
+);
+
+-- Khóa ngoại
+alter table bookings add constraint FKib6gjgj2e9binkktxmm175bmm foreign key (customer_id) references users;
+alter table bookings add constraint FKjcwbou2jlblfwu14uoxs65b25 foreign key (service_id) references services;
+alter table bookings add constraint FK95i9un7u6d8ngueem3x4qs1qu foreign key (technician_id) references users;
+alter table cart_items add constraint FKpcttvuq4mxppo8sxggjtn5i2c foreign key (cart_id) references carts;
+alter table cart_items add constraint FK1re40cjegsfvw58xrkdp6bac6 foreign key (product_id) references products;
+alter table cart_items add constraint FKhhdqvapm8r3jbst2q63ppnmf2 foreign key (service_id) references services;
+alter table carts add constraint FKb5o626f86h46m4s7ms6ginnop foreign key (user_id) references users;
+alter table order_items add constraint FKocimc7dtr037rh4ls4l95nlfi foreign key (product_id) references products;
+alter table order_items add constraint FKmm8mpcqgnkrs1ytqbv66bdxso foreign key (service_id) references services;
+alter table orders add constraint FKsjfs85qf6vmcurlx43cnc16gy foreign key (customer_id) references users;
+alter table product_categories add constraint FKnhstaep8s818kydkq4teq8v4e foreign key (parent_id) references product_categories;
+alter table product_images add constraint FKqnq71xsohugpqwf3c9gxmsuy foreign key (product_id) references products;
+alter table product_tier_prices add constraint FKcluj9pdgeecks3xbaqxuudsqh foreign key (product_id) references products;
+alter table products add constraint FK6t5dtw6tyo83ywljwohuc6g7k foreign key (category_id) references product_categories;
+alter table reviews add constraint FK28an517hrxtt2bsg93uefugrm foreign key (booking_id) references bookings;
+alter table reviews add constraint FKpl51cejpw4gy5swfar8br9ngi foreign key (product_id) references products;
+alter table reviews add constraint FKmobnphh6ln84v2omwl8n1fj9f foreign key (service_id) references services;
+alter table reviews add constraint FKcgy7qjc1r99dp117y9en6lxye foreign key (user_id) references users;
+alter table shipping_addresses add constraint FK6bp1apvusb3gj4170h4pesd3h foreign key (user_id) references users;
+alter table technician_skills add constraint FK6t5vjmkmu9y47uibuxxql3br3 foreign key (technician_id) references users;
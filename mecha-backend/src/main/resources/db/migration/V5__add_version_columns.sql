@@ -0,0 +1,10 @@
+-- Migration: thêm cột version cho optimistic locking (orders, bookings)
+-- Các câu UPDATE đổi trạng thái sẽ kiểm tra "WHERE id = ? AND version = ?"
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0;
+UPDATE orders SET version = 0 WHERE version IS NULL;
+ALTER TABLE orders ALTER COLUMN version SET NOT NULL;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0;
+UPDATE bookings SET version = 0 WHERE version IS NULL;
+ALTER TABLE bookings ALTER COLUMN version SET NOT NULL;
@@ -0,0 +1,213 @@
+-- Migration: chia partition theo tháng (RANGE created_at) cho orders, order_items, sepay_transactions
+--
+-- Sau migration:
+--  - public.<bảng> là bảng partitioned, mỗi tháng 1 partition <bảng>_pYYYYMM (biên theo UTC)
+--    + 1 partition <bảng>_default để hứng dữ liệu rơi ngoài các tháng đã tạo
+--  - Primary key đổi thành (id, created_at) vì Postgres bắt buộc PK chứa partition key.
+--    id vẫn lấy từ sequence nên vẫn unique, JPA vẫn dùng id làm @Id.
+--  - Không còn FK trỏ vào orders(id) (invoices, quotations, reviews, order_items, sepay_transactions)
+--    vì không có unique constraint chỉ trên id.
+--  - orders.order_code, sepay_transactions.sepay_id không còn unique ở mức DB;
+--    chống trùng webhook chuyển sang bảng sepay_webhook_keys (không partition).
+--  - Schema archive chứa các partition cũ đã detach (xem mecha_archive_partitions_before),
+--    chỉ đọc qua OrderArchiveService.
+--
+-- Các partition tháng tương lai do PartitionMaintenanceTasks tạo định kỳ
+-- (gọi mecha_ensure_monthly_partitions).
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- Tạo partition cho tháng chứa month_start. Nếu partition default đang giữ dòng của tháng đó
+-- thì chuyển các dòng sang partition mới trước khi ATTACH. Trả về false nếu partition đã tồn tại.
+CREATE OR REPLACE FUNCTION mecha_create_month_partition(tbl text, month_start date)
+RETURNS boolean
+LANGUAGE plpgsql AS $$
+DECLARE
+    part_name    text := format('%s_p%s', tbl, to_char(month_start, 'YYYYMM'));
+    default_name text := tbl || '_default';
+    lower_bound  timestamptz := date_trunc('month', month_start)::timestamp AT TIME ZONE 'UTC';
+    upper_bound  timestamptz := (date_trunc('month', month_start) + interval '1 month')::timestamp AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(format('public.%I', part_name)) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('CREATE TABLE public.%I (LIKE public.%I INCLUDING DEFAULTS)', part_name, tbl);
+
+    IF to_regclass(format('public.%I', default_name)) IS NOT NULL THEN
+        EXECUTE format(
+            'WITH moved AS (DELETE FROM public.%I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+            || 'INSERT INTO public.%I SELECT * FROM moved',
+            default_name, lower_bound, upper_bound, part_name);
+    END IF;
+
+    EXECUTE format('ALTER TABLE public.%I ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   tbl, part_name, lower_bound, upper_bound);
+    RETURN true;
+END;
+$$;
+
+-- Đảm bảo có partition cho tháng hiện tại + months_ahead tháng tới, và cho mọi tháng
+-- đang có dòng nằm trong partition default. Trả về số partition mới tạo.
+CREATE OR REPLACE FUNCTION mecha_ensure_monthly_partitions(tbl text, months_ahead integer)
+RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    current_month date := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+    m             date;
+    created       integer := 0;
+BEGIN
+    IF to_regclass(format('public.%I', tbl || '_default')) IS NOT NULL THEN
+        FOR m IN EXECUTE format(
+                'SELECT DISTINCT date_trunc(''month'', created_at AT TIME ZONE ''UTC'')::date FROM public.%I',
+                tbl || '_default')
+        LOOP
+            IF mecha_create_month_partition(tbl, m) THEN
+                created := created + 1;
+            END IF;
+        END LOOP;
+    END IF;
+
+    FOR i IN 0..months_ahead LOOP
+        IF mecha_create_month_partition(tbl, (current_month + make_interval(months => i))::date) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+
+    RETURN created;
+END;
+$$;
+
+-- Detach các partition tháng < cutoff khỏi public.<tbl> và attach vào archive.<tbl>.
+-- Partition archive được đặt fillfactor 100 (chỉ đọc) và có thể chuyển sang tablespace riêng
+-- (ví dụ tablespace nằm trên filesystem có nén). Trả về số partition đã chuyển.
+CREATE OR REPLACE FUNCTION mecha_archive_partitions_before(tbl text, cutoff date, target_tablespace text DEFAULT NULL)
+RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    part        record;
+    month_start date;
+    moved       integer := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass(format('public.%I', tbl))
+          AND c.relname ~ ('^' || tbl || '_p[0-9]{6}$')
+        ORDER BY c.relname
+    LOOP
+        month_start := to_date(right(part.relname, 6), 'YYYYMM');
+        CONTINUE WHEN month_start >= date_trunc('month', cutoff)::date;
+
+        EXECUTE format('ALTER TABLE public.%I DETACH PARTITION public.%I', tbl, part.relname);
+
+        IF to_regclass(format('archive.%I', part.relname)) IS NULL THEN
+            EXECUTE format('ALTER TABLE public.%I SET SCHEMA archive', part.relname);
+            EXECUTE format('ALTER TABLE archive.%I ATTACH PARTITION archive.%I FOR VALUES FROM (%L) TO (%L)',
+                           tbl, part.relname,
+                           month_start::timestamp AT TIME ZONE 'UTC',
+                           (month_start + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+        ELSE
+            -- Tháng này đã từng được archive (dữ liệu mới rơi vào tháng cũ): gộp vào partition archive
+            EXECUTE format('INSERT INTO archive.%I SELECT * FROM public.%I', part.relname, part.relname);
+            EXECUTE format('DROP TABLE public.%I', part.relname);
+        END IF;
+
+        EXECUTE format('ALTER TABLE archive.%I SET (fillfactor = 100)', part.relname);
+        IF target_tablespace IS NOT NULL AND target_tablespace <> '' THEN
+            EXECUTE format('ALTER TABLE archive.%I SET TABLESPACE %I', part.relname, target_tablespace);
+        END IF;
+
+        moved := moved + 1;
+    END LOOP;
+
+    RETURN moved;
+END;
+$$;
+
+-- Chuyển 1 bảng thường thành bảng partitioned theo tháng (idempotent)
+CREATE OR REPLACE FUNCTION mecha_convert_to_monthly_partitions(tbl text)
+RETURNS void
+LANGUAGE plpgsql AS $$
+DECLARE
+    legacy   text := tbl || '_legacy';
+    seq_name text := tbl || '_pid_seq';
+    m        date;
+    max_id   bigint;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(format('public.%I', tbl))) THEN
+        RETURN;
+    END IF;
+
+    EXECUTE format('ALTER TABLE public.%I RENAME TO %I', tbl, legacy);
+
+    -- LIKE chỉ lấy cột + NOT NULL + default; PK/unique/FK/identity của bảng cũ bỏ lại
+    EXECUTE format('CREATE TABLE public.%I (LIKE public.%I INCLUDING DEFAULTS INCLUDING STORAGE INCLUDING COMMENTS) '
+                   || 'PARTITION BY RANGE (created_at)', tbl, legacy);
+
+    -- id lấy từ sequence riêng (không dùng identity để chạy được trên mọi bản Postgres có partitioning)
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS public.%I', seq_name);
+    EXECUTE format('ALTER TABLE public.%I ALTER COLUMN id SET DEFAULT nextval(%L)', tbl, 'public.' || seq_name);
+    EXECUTE format('ALTER SEQUENCE public.%I OWNED BY public.%I.id', seq_name, tbl);
+
+    EXECUTE format('ALTER TABLE public.%I ADD PRIMARY KEY (id, created_at)', tbl);
+
+    FOR m IN EXECUTE format(
+            'SELECT DISTINCT date_trunc(''month'', created_at AT TIME ZONE ''UTC'')::date FROM public.%I', legacy)
+    LOOP
+        PERFORM mecha_create_month_partition(tbl, m);
+    END LOOP;
+    PERFORM mecha_ensure_monthly_partitions(tbl, 3);
+    EXECUTE format('CREATE TABLE public.%I PARTITION OF public.%I DEFAULT', tbl || '_default', tbl);
+
+    EXECUTE format('INSERT INTO public.%I SELECT * FROM public.%I', tbl, legacy);
+
+    EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM public.%I', tbl) INTO max_id;
+    PERFORM setval(format('public.%I', seq_name), max_id + 1, false);
+
+    -- CASCADE: xóa luôn các FK từ bảng khác trỏ vào bảng cũ
+    EXECUTE format('DROP TABLE public.%I CASCADE', legacy);
+
+    -- Bảng archive cùng cấu trúc, chỉ nhận partition đã detach
+    EXECUTE format('CREATE TABLE IF NOT EXISTS archive.%I (LIKE public.%I) PARTITION BY RANGE (created_at)', tbl, tbl);
+    EXECUTE format('ALTER TABLE archive.%I ADD PRIMARY KEY (id, created_at)', tbl);
+END;
+$$;
+
+-- Chống trùng webhook SePay: sepay_id không thể unique trên bảng partitioned
+CREATE TABLE IF NOT EXISTS sepay_webhook_keys (
+    sepay_id    BIGINT PRIMARY KEY,
+    received_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+INSERT INTO sepay_webhook_keys (sepay_id, received_at)
+SELECT sepay_id, MIN(created_at) FROM sepay_transactions GROUP BY sepay_id
+ON CONFLICT DO NOTHING;
+
+-- order_items đi cùng partition tháng với đơn (dữ liệu mẫu cũ có item.created_at = lúc insert)
+UPDATE order_items oi
+SET created_at = o.created_at
+FROM orders o
+WHERE o.id = oi.order_id
+  AND oi.created_at <> o.created_at;
+
+-- orders phải chuyển trước (DROP ... CASCADE gỡ FK từ order_items / sepay_transactions / invoices...)
+SELECT mecha_convert_to_monthly_partitions('orders');
+SELECT mecha_convert_to_monthly_partitions('order_items');
+SELECT mecha_convert_to_monthly_partitions('sepay_transactions');
+
+-- FK từ bảng partitioned sang bảng thường vẫn được phép
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES users (id);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_service FOREIGN KEY (service_id) REFERENCES services (id);
+
+-- Index partitioned (tự tạo trên từng partition, kể cả partition tạo sau này)
+CREATE INDEX IF NOT EXISTS idx_orders_order_code ON orders (order_code);
+CREATE INDEX IF NOT EXISTS idx_orders_customer_created ON orders (customer_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders (status, payment_status, created_at);
+CREATE INDEX IF NOT EXISTS idx_order_items_order ON order_items (order_id);
+CREATE INDEX IF NOT EXISTS idx_sepay_transactions_sepay_id ON sepay_transactions (sepay_id);
+CREATE INDEX IF NOT EXISTS idx_sepay_transactions_order ON sepay_transactions (order_id);
+
+CREATE INDEX IF NOT EXISTS idx_archive_orders_created ON archive.orders (created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_archive_order_items_order ON archive.order_items (order_id);
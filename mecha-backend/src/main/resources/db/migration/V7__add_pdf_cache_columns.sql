@@ -0,0 +1,10 @@
+-- Migration: cache PDF hóa đơn / báo giá (content-addressed, xem PdfDocumentStore)
+-- pdf_sha256: hash của file PDF đã render, cũng là ETag khi tải
+-- invoices.revision: tăng mỗi lần phát hành lại hóa đơn (reissue), PDF cũ bị bỏ
+
+ALTER TABLE invoices ADD COLUMN IF NOT EXISTS revision INTEGER DEFAULT 0;
+UPDATE invoices SET revision = 0 WHERE revision IS NULL;
+ALTER TABLE invoices ALTER COLUMN revision SET NOT NULL;
+ALTER TABLE invoices ADD COLUMN IF NOT EXISTS pdf_sha256 VARCHAR(64);
+
+ALTER TABLE quotations ADD COLUMN IF NOT EXISTS pdf_sha256 VARCHAR(64);
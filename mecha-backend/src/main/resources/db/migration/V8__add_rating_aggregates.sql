@@ -0,0 +1,80 @@
+-- Migration: thống kê đánh giá denormalized trên products / services (xem RatingStats)
+-- rating_count / rating_sum / rating_1..rating_5 chỉ tính review APPROVED,
+-- sau đó được ReviewService cập nhật cộng dồn khi duyệt / bỏ duyệt.
+
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS rating_count BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_sum   BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_1     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_2     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_3     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_4     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_5     BIGINT DEFAULT 0;
+
+ALTER TABLE services
+    ADD COLUMN IF NOT EXISTS rating_count BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_sum   BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_1     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_2     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_3     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_4     BIGINT DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_5     BIGINT DEFAULT 0;
+
+-- Tính lại toàn bộ từ bảng reviews (chạy lại được nhiều lần)
+UPDATE products p
+SET rating_count = COALESCE(a.cnt, 0),
+    rating_sum   = COALESCE(a.total, 0),
+    rating_1     = COALESCE(a.s1, 0),
+    rating_2     = COALESCE(a.s2, 0),
+    rating_3     = COALESCE(a.s3, 0),
+    rating_4     = COALESCE(a.s4, 0),
+    rating_5     = COALESCE(a.s5, 0)
+FROM products p2
+LEFT JOIN (
+    SELECT product_id,
+           COUNT(*)                              AS cnt,
+           SUM(rating)                           AS total,
+           COUNT(*) FILTER (WHERE rating = 1)    AS s1,
+           COUNT(*) FILTER (WHERE rating = 2)    AS s2,
+           COUNT(*) FILTER (WHERE rating = 3)    AS s3,
+           COUNT(*) FILTER (WHERE rating = 4)    AS s4,
+           COUNT(*) FILTER (WHERE rating = 5)    AS s5
+    FROM reviews
+    WHERE status = 'APPROVED' AND product_id IS NOT NULL
+    GROUP BY product_id
+) a ON a.product_id = p2.id
+WHERE p.id = p2.id;
+
+UPDATE services s
+SET rating_count = COALESCE(a.cnt, 0),
+    rating_sum   = COALESCE(a.total, 0),
+    rating_1     = COALESCE(a.s1, 0),
+    rating_2     = COALESCE(a.s2, 0),
+    rating_3     = COALESCE(a.s3, 0),
+    rating_4     = COALESCE(a.s4, 0),
+    rating_5     = COALESCE(a.s5, 0)
+FROM services s2
+LEFT JOIN (
+    SELECT service_id,
+           COUNT(*)                              AS cnt,
+           SUM(rating)                           AS total,
+           COUNT(*) FILTER (WHERE rating = 1)    AS s1,
+           COUNT(*) FILTER (WHERE rating = 2)    AS s2,
+           COUNT(*) FILTER (WHERE rating = 3)    AS s3,
+           COUNT(*) FILTER (WHERE rating = 4)    AS s4,
+           COUNT(*) FILTER (WHERE rating = 5)    AS s5
+    FROM reviews
+    WHERE status = 'APPROVED' AND service_id IS NOT NULL
+    GROUP BY service_id
+) a ON a.service_id = s2.id
+WHERE s.id = s2.id;
+
+ALTER TABLE products
+    ALTER COLUMN rating_count SET NOT NULL, ALTER COLUMN rating_sum SET NOT NULL,
+    ALTER COLUMN rating_1 SET NOT NULL, ALTER COLUMN rating_2 SET NOT NULL, ALTER COLUMN rating_3 SET NOT NULL,
+    ALTER COLUMN rating_4 SET NOT NULL, ALTER COLUMN rating_5 SET NOT NULL;
+
+ALTER TABLE services
+    ALTER COLUMN rating_count SET NOT NULL, ALTER COLUMN rating_sum SET NOT NULL,
+    ALTER COLUMN rating_1 SET NOT NULL, ALTER COLUMN rating_2 SET NOT NULL, ALTER COLUMN rating_3 SET NOT NULL,
+    ALTER COLUMN rating_4 SET NOT NULL, ALTER COLUMN rating_5 SET NOT NULL;
@@ -0,0 +1,27 @@
+-- Migration: index cho feed review phân trang theo cursor (created_at DESC, id DESC)
+-- Mỗi index khớp 1 tổ hợp filter của ReviewSpecifications để Postgres đọc đúng N dòng đầu,
+-- không phải sort toàn bộ review của sản phẩm.
+
+CREATE INDEX IF NOT EXISTS idx_reviews_created
+    ON reviews (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_reviews_status_created
+    ON reviews (status, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_reviews_status_rating_created
+    ON reviews (status, rating, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_reviews_product_status_created
+    ON reviews (product_id, status, created_at DESC, id DESC)
+    WHERE product_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_reviews_product_status_rating_created
+    ON reviews (product_id, status, rating, created_at DESC, id DESC)
+    WHERE product_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_reviews_service_status_created
+    ON reviews (service_id, status, created_at DESC, id DESC)
+    WHERE service_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_reviews_user_created
+    ON reviews (user_id, created_at DESC);
@@ -0,0 +1,58 @@
+package com.example.mecha.billing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfDocumentStoreTest {
+
+    private PdfDocumentStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new PdfDocumentStore(Files.createTempDirectory("pdf-store-test").toString());
+    }
+
+    @Test
+    void storeNamesFileByContentHash() throws Exception {
+        StoredPdf pdf = store.store(out -> out.write(bytes("a")));
+
+        assertThat(pdf.sha256()).isEqualTo("ca978112ca1bbdcafac231b39a23dc4da786eff8147c4e72b9807785afee48bb");
+        assertThat(Files.readAllBytes(pdf.path())).isEqualTo(bytes("a"));
+        assertThat(store.find(pdf.sha256())).contains(pdf);
+    }
+
+    @Test
+    void restoreKeepsKnownHashWhenContentDiffers() throws Exception {
+        StoredPdf original = store.store(out -> out.write(bytes("v1")));
+        store.delete(original.sha256());
+        assertThat(store.find(original.sha256())).isEmpty();
+
+        // Node khác / sau restart: render lại ra byte khác nhưng vẫn phải giữ hash (ETag) đã gắn
+        StoredPdf restored = store.restore(original.sha256(), out -> out.write(bytes("v2")));
+
+        assertThat(restored.sha256()).isEqualTo(original.sha256());
+        assertThat(Files.readAllBytes(restored.path())).isEqualTo(bytes("v2"));
+        assertThat(store.find(original.sha256())).contains(restored);
+        try (var files = Files.walk(restored.path().getParent().getParent())) {
+            assertThat(files.filter(Files::isRegularFile).map(Path::getFileName).map(Path::toString))
+                    .containsExactly(original.sha256() + ".pdf");
+        }
+    }
+
+    @Test
+    void restoreRejectsInvalidHash() {
+        assertThatThrownBy(() -> store.restore("../x", out -> out.write(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
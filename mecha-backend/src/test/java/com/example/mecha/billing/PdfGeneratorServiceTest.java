@@ -0,0 +1,82 @@
+package com.example.mecha.billing;
+
+import com.example.mecha.cart.CartItemType;
+import com.example.mecha.order.Order;
+import com.example.mecha.order.OrderItem;
+import com.example.mecha.product.Product;
+import com.example.mecha.user.User;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfGeneratorServiceTest {
+
+    private final PdfGeneratorService generator = new PdfGeneratorService();
+
+    @Test
+    void sameInvoiceRendersToSameBytes() throws Exception {
+        Invoice invoice = invoice(0);
+
+        byte[] first = render(invoice);
+        Thread.sleep(1_100); // PdfDate có độ phân giải giây
+        byte[] second = render(invoice);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(new String(first, StandardCharsets.ISO_8859_1)).contains("/CreationDate(D:20250301030000Z)");
+    }
+
+    @Test
+    void reissueChangesFileId() throws Exception {
+        String first = new String(render(invoice(0)), StandardCharsets.ISO_8859_1);
+        String second = new String(render(invoice(1)), StandardCharsets.ISO_8859_1);
+
+        assertThat(trailerId(second)).isNotEqualTo(trailerId(first));
+    }
+
+    private byte[] render(Invoice invoice) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generator.writeInvoicePdf(invoice, out);
+        return out.toByteArray();
+    }
+
+    private static String trailerId(String pdf) {
+        int at = pdf.lastIndexOf("/ID");
+        return pdf.substring(at, pdf.indexOf(']', at));
+    }
+
+    private static Invoice invoice(int revision) {
+        User customer = User.builder().id(9L).fullName("Nguyễn Văn A").email("a@example.com").build();
+        Order order = Order.builder()
+                .id(3L)
+                .orderCode("ORD-1A2B3C4D")
+                .customer(customer)
+                .contactPhone("0901234567")
+                .shippingAddress("1 Nguyễn Huệ, Quận 1")
+                .totalAmount(BigDecimal.valueOf(2_000))
+                .build();
+        Product product = Product.builder().id(7L).name("Ốc vít").build();
+        order.setItems(List.of(OrderItem.builder()
+                .order(order)
+                .itemType(CartItemType.PRODUCT)
+                .product(product)
+                .quantity(2)
+                .unitPrice(BigDecimal.valueOf(1_000))
+                .lineTotal(BigDecimal.valueOf(2_000))
+                .build()));
+        return Invoice.builder()
+                .id(5L)
+                .invoiceNumber("INV-00000005")
+                .order(order)
+                .issueDate(Instant.parse("2025-03-01T03:00:00Z"))
+                .totalAmount(BigDecimal.valueOf(2_000))
+                .revision(revision)
+                .build();
+    }
+}
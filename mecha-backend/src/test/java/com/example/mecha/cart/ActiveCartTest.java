@@ -0,0 +1,98 @@
+package com.example.mecha.cart;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveCartTest {
+
+    @Test
+    void drainGroupsChangesPerLine() {
+        ActiveCart cart = new ActiveCart(1L, 10L, List.of());
+        cart.put(line(100L, 1));
+        cart.put(line(100L, 2));
+        cart.put(line(101L, 1));
+        cart.remove(101L);
+
+        ActiveCart.Pending pending = cart.drain();
+
+        assertThat(pending.cartId()).isEqualTo(10L);
+        assertThat(pending.upserts()).extracting(CartLine::quantity).containsExactly(2);
+        assertThat(pending.deletes()).containsExactly(101L);
+        assertThat(cart.hasPending()).isFalse();
+    }
+
+    @Test
+    void restoreRequeuesFailedChanges() {
+        ActiveCart cart = new ActiveCart(1L, 10L, List.of(line(200L, 1)));
+        cart.put(line(100L, 3));
+        cart.remove(200L);
+
+        ActiveCart.Pending failed = cart.drain();
+        cart.restore(failed);
+
+        ActiveCart.Pending retry = cart.drain();
+        assertThat(retry.upserts()).containsExactlyElementsOf(failed.upserts());
+        assertThat(retry.deletes()).containsExactlyElementsOf(failed.deletes());
+    }
+
+    @Test
+    void restoreKeepsNewerQuantity() {
+        ActiveCart cart = new ActiveCart(1L, 10L, List.of());
+        cart.put(line(100L, 1));
+        ActiveCart.Pending failed = cart.drain();
+
+        // Trong lúc flush lỗi, user đổi số lượng: bản mới phải thắng
+        cart.put(line(100L, 5));
+        cart.restore(failed);
+
+        assertThat(cart.drain().upserts()).extracting(CartLine::quantity).containsExactly(5);
+    }
+
+    @Test
+    void restoreWritesCurrentLineNotTheFailedSnapshot() {
+        ActiveCart cart = new ActiveCart(1L, 10L, List.of());
+        cart.put(line(100L, 1));
+        ActiveCart.Pending failed = cart.drain();
+        cart.put(line(100L, 4));
+        cart.drain(); // lần ghi bản 4 cũng lỗi nhưng chưa restore
+
+        cart.restore(failed);
+
+        assertThat(cart.drain().upserts()).extracting(CartLine::quantity).containsExactly(4);
+    }
+
+    @Test
+    void restoreDoesNotResurrectRemovedLine() {
+        ActiveCart cart = new ActiveCart(1L, 10L, List.of());
+        cart.put(line(100L, 1));
+        ActiveCart.Pending failed = cart.drain();
+
+        cart.remove(100L);
+        cart.restore(failed);
+
+        ActiveCart.Pending retry = cart.drain();
+        assertThat(retry.upserts()).isEmpty();
+        assertThat(retry.deletes()).containsExactly(100L);
+        assertThat(cart.line(100L)).isNull();
+    }
+
+    @Test
+    void restoreOfEmptyPendingChangesNothing() {
+        ActiveCart cart = new ActiveCart(1L, 10L, List.of(line(100L, 1)));
+        cart.restore(cart.drain());
+
+        assertThat(cart.hasPending()).isFalse();
+        assertThat(cart.lines()).hasSize(1);
+    }
+
+    private static CartLine line(long id, int quantity) {
+        BigDecimal price = BigDecimal.valueOf(1_000);
+        return new CartLine(id, CartItemType.PRODUCT, 7L, "Ốc vít", null, null,
+                quantity, price, price.multiply(BigDecimal.valueOf(quantity)), Instant.EPOCH, null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.mecha.cart;
+
+import com.example.mecha.product.Product;
+import com.example.mecha.product.ProductTierPrice;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductPriceTableTest {
+
+    private static final BigDecimal BASE = BigDecimal.valueOf(1_000);
+
+    @Test
+    void usesTierContainingQuantityElseBasePrice() {
+        ProductPriceTable table = table(
+                tier(10, 49, 900),
+                tier(100, null, 700),
+                tier(50, 99, 800)); // chưa sắp xếp: of() sắp theo minQty
+
+        assertThat(table.unitPriceFor(1)).isEqualByComparingTo(BASE);
+        assertThat(table.unitPriceFor(9)).isEqualByComparingTo(BASE);
+        assertThat(table.unitPriceFor(10)).isEqualByComparingTo("900");
+        assertThat(table.unitPriceFor(49)).isEqualByComparingTo("900");
+        assertThat(table.unitPriceFor(50)).isEqualByComparingTo("800");
+        assertThat(table.unitPriceFor(99)).isEqualByComparingTo("800");
+        assertThat(table.unitPriceFor(100)).isEqualByComparingTo("700");
+        assertThat(table.unitPriceFor(1_000_000)).isEqualByComparingTo("700");
+    }
+
+    @Test
+    void gapBetweenTiersFallsBackToBasePrice() {
+        ProductPriceTable table = table(tier(10, 19, 900), tier(50, null, 700));
+
+        assertThat(table.unitPriceFor(20)).isEqualByComparingTo(BASE);
+        assertThat(table.unitPriceFor(49)).isEqualByComparingTo(BASE);
+    }
+
+    @Test
+    void overlappingTiersPickLowestMinQty() {
+        // Cùng quy tắc với ProductService.calculateUnitPrice: tier đầu tiên theo minQty
+        ProductPriceTable table = table(tier(20, null, 600), tier(10, 30, 900));
+
+        assertThat(table.unitPriceFor(25)).isEqualByComparingTo("900");
+        assertThat(table.unitPriceFor(31)).isEqualByComparingTo("600");
+    }
+
+    @Test
+    void noTiersMeansBasePrice() {
+        ProductPriceTable table = table();
+
+        assertThat(table.tiers()).isEmpty();
+        assertThat(table.unitPriceFor(500)).isEqualByComparingTo(BASE);
+        assertThat(table.stockQuantity()).isEqualTo(42);
+    }
+
+    @Test
+    void ageIsMeasuredFromCapture() {
+        ProductPriceTable table = new ProductPriceTable(BASE, List.of(), 0, 0L);
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+
+        assertThat(table.isOlderThan(30_000, 30_000 * ms)).isFalse();
+        assertThat(table.isOlderThan(30_000, 30_000 * ms + 1)).isTrue();
+        assertThat(table.isOlderThan(0, 1)).isTrue();
+    }
+
+    private static ProductPriceTable table(ProductTierPrice... tiers) {
+        Product product = Product.builder().id(7L).basePrice(BASE).stockQuantity(42).build();
+        return ProductPriceTable.of(product, List.of(tiers));
+    }
+
+    private static ProductTierPrice tier(int minQty, Integer maxQty, int unitPrice) {
+        return ProductTierPrice.builder().minQty(minQty).maxQty(maxQty).unitPrice(BigDecimal.valueOf(unitPrice)).build();
+    }
+}
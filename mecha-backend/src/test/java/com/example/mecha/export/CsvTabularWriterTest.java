@@ -0,0 +1,63 @@
+package com.example.mecha.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTabularWriterTest {
+
+    @Test
+    void startsWithBomAndUsesCrlf() throws Exception {
+        byte[] csv = write(List.of("mã", "tên"), new Object[]{1L, "Nguyễn Văn A"});
+
+        assertThat(csv).startsWith(0xEF, 0xBB, 0xBF);
+        assertThat(text(csv)).isEqualTo("\uFEFFmã,tên\r\n1,Nguyễn Văn A\r\n");
+    }
+
+    @Test
+    void quotesSeparatorsQuotesAndLineBreaks() throws Exception {
+        byte[] csv = write(List.of("a", "b", "c", "d", "e"),
+                new Object[]{"x,y", "say \"hi\"", "line1\nline2", "cr\r", null});
+
+        assertThat(text(csv)).endsWith("\"x,y\",\"say \"\"hi\"\"\",\"line1\nline2\",\"cr\r\",\r\n");
+    }
+
+    @Test
+    void prefixesFormulaLikeText() throws Exception {
+        byte[] csv = write(List.of("v"),
+                new Object[]{"=SUM(A1:A2)"}, new Object[]{"+1"}, new Object[]{"-1"}, new Object[]{"@cmd"},
+                new Object[]{"=HYPERLINK(\"x\",\"y\")"}, new Object[]{"a=b"});
+
+        assertThat(text(csv)).isEqualTo("\uFEFFv\r\n'=SUM(A1:A2)\r\n'+1\r\n'-1\r\n'@cmd\r\n"
+                + "\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\"\r\na=b\r\n");
+    }
+
+    @Test
+    void numbersAreNotPrefixed() throws Exception {
+        byte[] csv = write(List.of("a", "b", "c"),
+                new Object[]{-5L, new BigDecimal("-1.5E+2"), Instant.parse("2025-03-01T03:00:00Z")});
+
+        assertThat(text(csv)).endsWith("-5,-150,2025-03-01T03:00:00Z\r\n");
+    }
+
+    private static byte[] write(List<String> header, Object[]... rows) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CsvTabularWriter writer = new CsvTabularWriter(buffer);
+        writer.writeHeader(header);
+        for (Object[] row : rows) {
+            writer.writeRow(row);
+        }
+        writer.finish();
+        return buffer.toByteArray();
+    }
+
+    private static String text(byte[] csv) {
+        return new String(csv, StandardCharsets.UTF_8);
+    }
+}
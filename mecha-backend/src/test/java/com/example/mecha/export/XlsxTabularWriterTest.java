@@ -0,0 +1,159 @@
+package com.example.mecha.export;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxTabularWriterTest {
+
+    private static final String SHEET_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml";
+
+    @Test
+    void packageReadsBackAsWorkbook() throws Exception {
+        Map<String, byte[]> parts = unzip(write(1));
+
+        assertThat(parts).containsOnlyKeys("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/worksheets/sheet1.xml");
+        for (byte[] part : parts.values()) {
+            parse(part); // mọi part phải là XML hợp lệ
+        }
+
+        // Mọi part được khai báo / tham chiếu đều tồn tại
+        Document types = parse(parts.get("[Content_Types].xml"));
+        for (Element override : elements(types, "Override")) {
+            assertThat(parts).containsKey(override.getAttribute("PartName").substring(1));
+        }
+        assertThat(attributes(elements(types, "Override"), "ContentType")).containsOnlyOnce(SHEET_TYPE);
+
+        Element root = elements(parse(parts.get("_rels/.rels")), "Relationship").get(0);
+        assertThat(root.getAttribute("Target")).isEqualTo("xl/workbook.xml");
+
+        List<Element> sheets = elements(parse(parts.get("xl/workbook.xml")), "sheet");
+        List<Element> rels = elements(parse(parts.get("xl/_rels/workbook.xml.rels")), "Relationship");
+        assertThat(attributes(sheets, "name")).containsExactly("orders");
+        assertThat(attributes(sheets, "r:id")).containsExactly("rId1");
+        assertThat(attributes(rels, "Id")).containsExactly("rId1");
+        assertThat(parts).containsKey("xl/" + rels.get(0).getAttribute("Target"));
+    }
+
+    @Test
+    void cellsKeepTypesAndEscapeText() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        XlsxTabularWriter writer = new XlsxTabularWriter(buffer, "orders");
+        writer.writeHeader(List.of("id", "amount", "note", "empty"));
+        writer.writeRow(new Object[]{7L, new BigDecimal("1E+3"), "a<b> & \"c\"\u0001\u0008\u000B\uFFFF\tđ😀\uD800x", null});
+        writer.finish();
+
+        Document sheet = parse(unzip(buffer.toByteArray()).get("xl/worksheets/sheet1.xml"));
+        List<Element> cells = elements(sheet, "c");
+
+        assertThat(cells).hasSize(8);
+        assertThat(cells.get(4).getTextContent()).isEqualTo("7");
+        assertThat(cells.get(5).getTextContent()).isEqualTo("1000");
+        assertThat(cells.get(6).getAttribute("t")).isEqualTo("inlineStr");
+        // Ký tự điều khiển và surrogate lẻ bị bỏ, tab và emoji (cặp surrogate) được giữ
+        assertThat(cells.get(6).getTextContent()).isEqualTo("a<b> & \"c\"\tđ😀x");
+        assertThat(cells.get(7).hasChildNodes()).isFalse();
+    }
+
+    @Test
+    void longTextIsCutWithoutSplittingSurrogatePair() throws Exception {
+        String text = "a".repeat(32_766) + "😀";
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        XlsxTabularWriter writer = new XlsxTabularWriter(buffer, "orders");
+        writer.writeHeader(List.of("note"));
+        writer.writeRow(new Object[]{text});
+        writer.finish();
+
+        Document sheet = parse(unzip(buffer.toByteArray()).get("xl/worksheets/sheet1.xml"));
+
+        assertThat(elements(sheet, "t").get(1).getTextContent()).isEqualTo("a".repeat(32_766));
+    }
+
+    @Test
+    void rollsOverToNewSheetAtExcelRowLimit() throws Exception {
+        // Sheet 1: header + (MAX - 1) dòng dữ liệu; dòng dữ liệu kế tiếp sang sheet 2 kèm header
+        int dataRows = XlsxTabularWriter.MAX_ROWS_PER_SHEET - 1 + 2;
+        Map<String, byte[]> parts = unzip(write(dataRows));
+
+        assertThat(countRows(parts.get("xl/worksheets/sheet1.xml"))).isEqualTo(XlsxTabularWriter.MAX_ROWS_PER_SHEET);
+        assertThat(countRows(parts.get("xl/worksheets/sheet2.xml"))).isEqualTo(3);
+        assertThat(parts).doesNotContainKey("xl/worksheets/sheet3.xml");
+
+        assertThat(attributes(elements(parse(parts.get("xl/workbook.xml")), "sheet"), "name"))
+                .containsExactly("orders", "orders (2)");
+        assertThat(elements(parse(parts.get("xl/_rels/workbook.xml.rels")), "Relationship")).hasSize(2);
+        assertThat(attributes(elements(parse(parts.get("[Content_Types].xml")), "Override"), "ContentType"))
+                .filteredOn(SHEET_TYPE::equals).hasSize(2);
+    }
+
+    private static byte[] write(int rows) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        XlsxTabularWriter writer = new XlsxTabularWriter(buffer, "orders");
+        writer.writeHeader(List.of("id"));
+        for (int i = 0; i < rows; i++) {
+            writer.writeRow(new Object[]{i});
+        }
+        writer.finish();
+        return buffer.toByteArray();
+    }
+
+    private static Map<String, byte[]> unzip(byte[] xlsx) throws Exception {
+        Map<String, byte[]> parts = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(xlsx))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                assertThat(parts.put(entry.getName(), zip.readAllBytes())).as(entry.getName()).isNull();
+            }
+        }
+        return parts;
+    }
+
+    private static Document parse(byte[] xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    private static int countRows(byte[] sheet) throws Exception {
+        int rows = 0;
+        try (InputStream in = new ByteArrayInputStream(sheet)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static List<Element> elements(Document document, String tag) {
+        NodeList nodes = document.getElementsByTagName(tag);
+        List<Element> result = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            result.add((Element) nodes.item(i));
+        }
+        return result;
+    }
+
+    private static List<String> attributes(List<Element> elements, String name) {
+        return elements.stream().map(e -> e.getAttribute(name)).toList();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.mecha.order;
+
+import com.example.mecha.common.DomainErrors;
+import com.example.mecha.order.OrderStateMachine.Transition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderStateMachineTest {
+
+    private static final long ORDER_ID = 1L;
+
+    private OrderRepository orderRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private OrderStateMachine stateMachine;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        stateMachine = new OrderStateMachine(orderRepository, eventPublisher);
+    }
+
+    @Test
+    void orderStatusTable() {
+        assertThat(OrderStatus.PENDING.allowedTransitions())
+                .containsExactlyInAnyOrder(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+        for (OrderStatus s : EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED)) {
+            assertThat(s.isFinal()).isTrue();
+            assertThat(s.canTransitionTo(s)).isTrue();
+            assertThat(s.canTransitionTo(OrderStatus.PENDING)).isFalse();
+        }
+        assertThat(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED)).isFalse();
+    }
+
+    @Test
+    void paymentStatusTable() {
+        assertThat(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.PAID)).isTrue();
+        assertThat(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.FAILED)).isTrue();
+        assertThat(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.REFUNDED)).isFalse();
+        assertThat(PaymentStatus.FAILED.canTransitionTo(PaymentStatus.PAID)).isTrue();
+        assertThat(PaymentStatus.FAILED.canTransitionTo(PaymentStatus.PENDING)).isFalse();
+        assertThat(PaymentStatus.PAID.canTransitionTo(PaymentStatus.REFUNDED)).isTrue();
+        assertThat(PaymentStatus.PAID.canTransitionTo(PaymentStatus.FAILED)).isFalse();
+        assertThat(PaymentStatus.REFUNDED.allowedTransitions()).isEmpty();
+    }
+
+    @Test
+    void appliesTransitionAndPublishesEvent() {
+        givenState(state(OrderStatus.PENDING, PaymentStatus.PENDING, "ghi chú", 4L));
+        when(orderRepository.updateStateIfVersion(eq(ORDER_ID), any(), any(), any(), any(), eq(4L))).thenReturn(1);
+
+        Optional<OrderStatusChangedEvent> event = stateMachine.transition(ORDER_ID,
+                s -> new Transition(OrderStatus.CANCELLED, PaymentStatus.FAILED, "khách hủy"));
+
+        assertThat(event).isPresent();
+        assertThat(event.get().fromStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(event.get().toStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(event.get().toPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(event.get().version()).isEqualTo(5L);
+        verify(orderRepository).updateStateIfVersion(eq(ORDER_ID), eq(OrderStatus.CANCELLED), eq(PaymentStatus.FAILED),
+                eq("ghi chú | khách hủy"), any(), eq(4L));
+        verify(eventPublisher).publishEvent(event.get());
+    }
+
+    @Test
+    void nullFieldsKeepCurrentValues() {
+        givenState(state(OrderStatus.PENDING, PaymentStatus.PENDING, null, null));
+        when(orderRepository.updateStateIfVersion(eq(ORDER_ID), any(), any(), any(), any(), eq(0L))).thenReturn(1);
+
+        stateMachine.transition(ORDER_ID, s -> Transition.payment(PaymentStatus.PAID));
+
+        verify(orderRepository).updateStateIfVersion(eq(ORDER_ID), eq(OrderStatus.PENDING), eq(PaymentStatus.PAID),
+                eq(null), any(), eq(0L));
+    }
+
+    @Test
+    void noChangeSkipsUpdate() {
+        givenState(state(OrderStatus.DELIVERED, PaymentStatus.PAID, null, 2L));
+
+        assertThat(stateMachine.transition(ORDER_ID, s -> Transition.NONE)).isEmpty();
+        assertThat(stateMachine.transition(ORDER_ID, s -> Transition.status(OrderStatus.DELIVERED))).isEmpty();
+
+        verify(orderRepository, never()).updateStateIfVersion(anyLong(), any(), any(), any(), any(), anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void rejectsInvalidTransitions() {
+        givenState(state(OrderStatus.DELIVERED, PaymentStatus.PAID, null, 2L));
+
+        assertThatThrownBy(() -> stateMachine.transition(ORDER_ID, s -> Transition.status(OrderStatus.CANCELLED)))
+                .isSameAs(DomainErrors.INVALID_ORDER_STATUS_TRANSITION);
+        assertThatThrownBy(() -> stateMachine.transition(ORDER_ID, s -> Transition.payment(PaymentStatus.PENDING)))
+                .isSameAs(DomainErrors.INVALID_PAYMENT_STATUS_TRANSITION);
+        verify(orderRepository, never()).updateStateIfVersion(anyLong(), any(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void retriesOnVersionConflictWithFreshState() {
+        when(orderRepository.findStateById(ORDER_ID)).thenReturn(
+                Optional.of(state(OrderStatus.PENDING, PaymentStatus.PENDING, null, 1L)),
+                Optional.of(state(OrderStatus.PENDING, PaymentStatus.PAID, null, 2L)));
+        when(orderRepository.updateStateIfVersion(eq(ORDER_ID), any(), any(), any(), any(), eq(1L))).thenReturn(0);
+        when(orderRepository.updateStateIfVersion(eq(ORDER_ID), any(), any(), any(), any(), eq(2L))).thenReturn(1);
+
+        // Planner được gọi lại với state mới: lần 2 thấy đã PAID
+        Optional<OrderStatusChangedEvent> event = stateMachine.transition(ORDER_ID, s -> Transition.status(OrderStatus.DELIVERED));
+
+        assertThat(event).isPresent();
+        assertThat(event.get().fromPaymentStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(event.get().version()).isEqualTo(3L);
+        verify(orderRepository, times(2)).findStateById(ORDER_ID);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        givenState(state(OrderStatus.PENDING, PaymentStatus.PENDING, null, 1L));
+        when(orderRepository.updateStateIfVersion(anyLong(), any(), any(), any(), any(), anyLong())).thenReturn(0);
+
+        assertThatThrownBy(() -> stateMachine.transition(ORDER_ID, s -> Transition.status(OrderStatus.CANCELLED)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(orderRepository, times(OrderStateMachine.MAX_ATTEMPTS)).findStateById(ORDER_ID);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void missingOrderIsNotFound() {
+        when(orderRepository.findStateById(ORDER_ID)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> stateMachine.transition(ORDER_ID, s -> Transition.NONE))
+                .isSameAs(DomainErrors.ORDER_NOT_FOUND);
+    }
+
+    private void givenState(OrderState state) {
+        when(orderRepository.findStateById(ORDER_ID)).thenReturn(Optional.of(state));
+    }
+
+    private static OrderState state(OrderStatus status, PaymentStatus paymentStatus, String note, Long version) {
+        return new OrderState(ORDER_ID, "ORD-1", 9L, status, paymentStatus, PaymentMethod.COD,
+                BigDecimal.TEN, note, version);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.schedule.AutoAssignmentSolver.Fixed;
+import com.example.mecha.schedule.AutoAssignmentSolver.Job;
+import com.example.mecha.schedule.AutoAssignmentSolver.Result;
+import com.example.mecha.servicecatalog.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutoAssignmentSolverTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+    private static final long BUDGET = TimeUnit.SECONDS.toNanos(5);
+    private static final String[] DISTRICTS = {"Quận 1", "Quận 3", "Bình Thạnh", "Thủ Đức", null};
+
+    @Test
+    void respectsSkills() {
+        AutoAssignmentSolver solver = new AutoAssignmentSolver(List.of(1L, 2L),
+                Map.of(1L, Set.of(ServiceType.REPAIR), 2L, Set.of(ServiceType.CLEANING)), 1, 0, BUDGET);
+
+        Result result = solver.solve(List.of(
+                job(10, ServiceType.REPAIR, 8, 9),
+                job(11, ServiceType.CLEANING, 8, 9),
+                job(12, ServiceType.MAINTENANCE, 8, 9)
+        ), List.of());
+
+        assertThat(result.assignments()).containsEntry(10L, 1L).containsEntry(11L, 2L).doesNotContainKey(12L);
+        assertThat(result.unassigned()).containsEntry(12L, AutoAssignmentSolver.NO_SKILLED_TECHNICIAN);
+    }
+
+    @Test
+    void technicianWithoutDeclaredSkillsTakesAnyType() {
+        AutoAssignmentSolver solver = new AutoAssignmentSolver(List.of(1L), Map.of(), 1, 0, BUDGET);
+
+        Result result = solver.solve(List.of(job(10, ServiceType.MAINTENANCE, 8, 9)), List.of());
+
+        assertThat(result.assignments()).containsEntry(10L, 1L);
+    }
+
+    @Test
+    void doesNotDoubleBookAgainstFixedOrNewJobs() {
+        AutoAssignmentSolver solver = new AutoAssignmentSolver(List.of(1L), Map.of(), 1, 0, BUDGET);
+
+        Result result = solver.solve(List.of(
+                job(10, ServiceType.REPAIR, 9, 11),   // giao lịch cố định 8 - 10
+                job(11, ServiceType.REPAIR, 10, 12),  // vừa sau lịch cố định
+                job(12, ServiceType.REPAIR, 11, 13)   // giao job 11
+        ), List.of(fixed(1, 1L, 8, 10, null)));
+
+        assertThat(result.assignments()).containsOnlyKeys(11L);
+        assertThat(result.unassigned())
+                .containsEntry(10L, AutoAssignmentSolver.NO_FREE_TECHNICIAN)
+                .containsEntry(12L, AutoAssignmentSolver.NO_FREE_TECHNICIAN);
+    }
+
+    @Test
+    void overlappingFixedBookingsBlockTheWholeSpan() {
+        AutoAssignmentSolver solver = new AutoAssignmentSolver(List.of(1L), Map.of(), 1, 0, BUDGET);
+
+        // 2 lịch cũ chồng nhau: 8 - 18 và 10 - 12. Slot bắt đầu trước gần nhất của 13 - 14 là 10 - 12,
+        // nhưng 8 - 18 vẫn đang chiếm
+        Result result = solver.solve(List.of(job(10, ServiceType.REPAIR, 13, 14)),
+                List.of(fixed(1, 1L, 8, 18, null), fixed(2, 1L, 10, 12, null)));
+
+        assertThat(result.assignments()).isEmpty();
+        assertThat(result.unassigned()).containsEntry(10L, AutoAssignmentSolver.NO_FREE_TECHNICIAN);
+    }
+
+    @Test
+    void balancesLoad() {
+        AutoAssignmentSolver solver = new AutoAssignmentSolver(List.of(1L, 2L), Map.of(), 1, 0, BUDGET);
+
+        Result result = solver.solve(List.of(
+                job(10, ServiceType.REPAIR, 8, 10),
+                job(11, ServiceType.REPAIR, 13, 15)
+        ), List.of());
+
+        assertThat(result.assignments().values()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.totalCost()).isEqualTo(8.0); // 2^2 + 2^2
+    }
+
+    @Test
+    void prefersTechnicianAlreadyInTheSameDistrict() {
+        AutoAssignmentSolver solver = new AutoAssignmentSolver(List.of(1L, 2L), Map.of(), 0, 1, BUDGET);
+
+        Result result = solver.solve(List.of(
+                job(10, ServiceType.REPAIR, 10, 11, "Quận 3"),
+                job(11, ServiceType.REPAIR, 10, 11, "Quận 1")
+        ), List.of(fixed(1, 1L, 8, 9, "Quận 1"), fixed(2, 2L, 8, 9, "Quận 3")));
+
+        assertThat(result.assignments()).containsEntry(10L, 2L).containsEntry(11L, 1L);
+        assertThat(result.totalCost()).isZero();
+    }
+
+    @Test
+    void randomFixtureHonoursConstraintsAndIsDeterministic() {
+        Random random = new Random(7);
+        List<Long> technicianIds = List.of(1L, 2L, 3L, 4L, 5L, 6L);
+        Map<Long, Set<ServiceType>> skills = new HashMap<>();
+        for (Long id : technicianIds) {
+            Set<ServiceType> s = EnumSet.noneOf(ServiceType.class);
+            for (ServiceType type : ServiceType.values()) {
+                if (random.nextInt(3) == 0) {
+                    s.add(type);
+                }
+            }
+            skills.put(id, s);
+        }
+
+        List<Fixed> fixed = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            long start = randomStart(random);
+            fixed.add(new Fixed(1_000 + i, technicianIds.get(random.nextInt(technicianIds.size())),
+                    start, start + (1 + random.nextInt(4)) * HOUR, start / DAY, district(random)));
+        }
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            long start = randomStart(random);
+            ServiceType type = ServiceType.values()[random.nextInt(ServiceType.values().length)];
+            jobs.add(new Job(i, type, start, start + (1 + random.nextInt(3)) * HOUR, start / DAY, district(random)));
+        }
+
+        Result first = new AutoAssignmentSolver(technicianIds, skills, 1, 2, BUDGET).solve(jobs, fixed);
+        Result second = new AutoAssignmentSolver(technicianIds, skills, 1, 2, BUDGET).solve(jobs, fixed);
+
+        assertThat(first.assignments()).isNotEmpty();
+        assertThat(first.assignments().size() + first.unassigned().size()).isEqualTo(jobs.size());
+        assertThat(second.assignments()).isEqualTo(first.assignments());
+        assertThat(second.unassigned()).isEqualTo(first.unassigned());
+        assertThat(second.totalCost()).isEqualTo(first.totalCost());
+
+        Map<Long, List<long[]>> busy = new HashMap<>();
+        for (Fixed f : fixed) {
+            busy.computeIfAbsent(f.technicianId(), id -> new ArrayList<>()).add(new long[]{f.start(), f.end()});
+        }
+        for (Job job : jobs) {
+            Long technicianId = first.assignments().get(job.bookingId());
+            if (technicianId == null) {
+                continue;
+            }
+            assertThat(canDo(skills, technicianId, job.serviceType())).as("skill of job %d", job.bookingId()).isTrue();
+            for (long[] b : busy.getOrDefault(technicianId, List.of())) {
+                assertThat(overlaps(b, job)).as("job %d overlaps on technician %d", job.bookingId(), technicianId).isFalse();
+            }
+            busy.computeIfAbsent(technicianId, id -> new ArrayList<>()).add(new long[]{job.start(), job.end()});
+        }
+
+        // Job không gán được vì hết chỗ: không kỹ thuật viên đủ kỹ năng nào còn trống khung giờ đó
+        for (Job job : jobs) {
+            String reason = first.unassigned().get(job.bookingId());
+            if (reason == null) {
+                continue;
+            }
+            for (Long technicianId : technicianIds) {
+                if (!canDo(skills, technicianId, job.serviceType())) {
+                    continue;
+                }
+                assertThat(reason).isEqualTo(AutoAssignmentSolver.NO_FREE_TECHNICIAN);
+                assertThat(busy.getOrDefault(technicianId, List.of()).stream().anyMatch(b -> overlaps(b, job)))
+                        .as("job %d left unassigned but technician %d is free", job.bookingId(), technicianId)
+                        .isTrue();
+            }
+        }
+    }
+
+    private static boolean canDo(Map<Long, Set<ServiceType>> skills, Long technicianId, ServiceType type) {
+        Set<ServiceType> s = skills.get(technicianId);
+        return s == null || s.isEmpty() || s.contains(type);
+    }
+
+    private static boolean overlaps(long[] busy, Job job) {
+        return busy[0] < job.end() && busy[1] > job.start();
+    }
+
+    private static long randomStart(Random random) {
+        return random.nextInt(3) * DAY + (7 + random.nextInt(11)) * HOUR + random.nextInt(2) * HOUR / 2;
+    }
+
+    private static String district(Random random) {
+        return DISTRICTS[random.nextInt(DISTRICTS.length)];
+    }
+
+    private static Job job(long bookingId, ServiceType type, int fromHour, int toHour) {
+        return job(bookingId, type, fromHour, toHour, null);
+    }
+
+    private static Job job(long bookingId, ServiceType type, int fromHour, int toHour, String district) {
+        return new Job(bookingId, type, fromHour * HOUR, toHour * HOUR, 0, district);
+    }
+
+    private static Fixed fixed(long bookingId, Long technicianId, int fromHour, int toHour, String district) {
+        return new Fixed(bookingId, technicianId, fromHour * HOUR, toHour * HOUR, 0, district);
+    }
+}
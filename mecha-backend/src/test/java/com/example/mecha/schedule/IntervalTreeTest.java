@@ -0,0 +1,154 @@
+package com.example.mecha.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * So kết quả của IntervalTree với danh sách duyệt tuần tự (brute force) sau mỗi thao tác.
+ */
+class IntervalTreeTest {
+
+    private record Interval(long start, long end, long id) {
+        boolean overlaps(long s, long e) {
+            return start < e && end > s;
+        }
+    }
+
+    @Test
+    void randomOperationsMatchBruteForce() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<Interval> expected = new ArrayList<>();
+        long nextId = 1;
+
+        for (int op = 0; op < 5_000; op++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                long start = random.nextInt(1_000);
+                Interval interval = new Interval(start, start + 1 + random.nextInt(random.nextBoolean() ? 10 : 300), nextId++);
+                tree.insert(interval.start(), interval.end(), interval.id());
+                expected.add(interval);
+            } else {
+                Interval victim = expected.remove(random.nextInt(expected.size()));
+                assertThat(tree.remove(victim.start(), victim.id())).isTrue();
+            }
+            assertThat(tree.size()).isEqualTo(expected.size());
+
+            for (int q = 0; q < 3; q++) {
+                long s = random.nextInt(1_400) - 100;
+                long e = s + 1 + random.nextInt(50);
+                assertMatches(tree, expected, s, e);
+            }
+        }
+    }
+
+    @Test
+    void excludeIdIgnoresOnlyThatInterval() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+        tree.insert(15, 25, 2);
+
+        assertThat(tree.anyOverlap(12, 14, 1)).isFalse();
+        assertThat(tree.anyOverlap(16, 18, 1)).isTrue();
+        assertThat(tree.anyOverlap(16, 18, 2)).isTrue();
+        assertThat(tree.anyOverlap(20, 25, 2)).isFalse();
+    }
+
+    @Test
+    void halfOpenBoundsDoNotOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+
+        assertThat(tree.anyOverlap(20, 30, -1)).isFalse();
+        assertThat(tree.anyOverlap(0, 10, -1)).isFalse();
+        assertThat(tree.anyOverlap(19, 20, -1)).isTrue();
+        assertThat(tree.countOverlaps(0, 11)).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateInsertAndMissingRemoveKeepSize() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(10, 20, 1);
+        tree.insert(10, 20, 1);
+        assertThat(tree.size()).isEqualTo(1);
+
+        assertThat(tree.remove(10, 2)).isFalse();
+        assertThat(tree.remove(11, 1)).isFalse();
+        assertThat(tree.size()).isEqualTo(1);
+
+        assertThat(tree.remove(10, 1)).isTrue();
+        assertThat(tree.size()).isZero();
+        assertThat(tree.remove(10, 1)).isFalse();
+    }
+
+    @Test
+    void removingNodeWithTwoChildrenKeepsSizeAndOverlaps() {
+        IntervalTree tree = new IntervalTree();
+        List<Interval> expected = new ArrayList<>();
+        // Khoảng dài nằm ở gốc sau các lần xoay, các khoảng ngắn hai bên
+        long[][] intervals = {{50, 500, 1}, {20, 30, 2}, {80, 90, 3}, {10, 15, 4}, {60, 65, 5}, {95, 99, 6}, {70, 75, 7}};
+        for (long[] i : intervals) {
+            tree.insert(i[0], i[1], i[2]);
+            expected.add(new Interval(i[0], i[1], i[2]));
+        }
+
+        assertThat(tree.remove(50, 1)).isTrue();
+        expected.removeIf(i -> i.id() == 1);
+        assertThat(tree.size()).isEqualTo(expected.size());
+        // maxEnd của các node phía trên phải giảm theo, nếu không vẫn báo giao với [200, 300)
+        assertMatches(tree, expected, 200, 300);
+        assertMatches(tree, expected, 62, 72);
+
+        assertThat(tree.remove(80, 3)).isTrue();
+        expected.removeIf(i -> i.id() == 3);
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertMatches(tree, expected, 85, 96);
+    }
+
+    @Test
+    void maxEndFollowsLongIntervalThroughRotations() {
+        IntervalTree tree = new IntervalTree();
+        List<Interval> expected = new ArrayList<>();
+        // Chèn tăng dần: mỗi lần chèn làm cây xoay trái, khoảng dài đầu tiên bị đẩy xuống cây con trái
+        tree.insert(0, 10_000, 0);
+        expected.add(new Interval(0, 10_000, 0));
+        for (long id = 1; id <= 64; id++) {
+            tree.insert(id * 10, id * 10 + 5, id);
+            expected.add(new Interval(id * 10, id * 10 + 5, id));
+            assertMatches(tree, expected, 9_000, 9_001);
+        }
+        assertThat(tree.countOverlaps(9_000, 9_001)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsEmptyInterval() {
+        IntervalTree tree = new IntervalTree();
+        assertThatThrownBy(() -> tree.insert(10, 10, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(tree.size()).isZero();
+    }
+
+    private static void assertMatches(IntervalTree tree, List<Interval> expected, long s, long e) {
+        Set<Long> ids = new HashSet<>();
+        for (Interval i : expected) {
+            if (i.overlaps(s, e)) {
+                ids.add(i.id());
+            }
+        }
+        Set<Long> actual = new HashSet<>();
+        tree.forEachOverlap(s, e, actual::add);
+
+        assertThat(actual).as("overlaps of [%d, %d)", s, e).isEqualTo(ids);
+        assertThat(tree.countOverlaps(s, e)).isEqualTo(ids.size());
+        assertThat(tree.anyOverlap(s, e, -1)).isEqualTo(!ids.isEmpty());
+        if (ids.size() == 1) {
+            assertThat(tree.anyOverlap(s, e, ids.iterator().next())).isFalse();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.mecha.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlotOccupancyTest {
+
+    private static final ZoneId HCM = ZoneId.of("Asia/Ho_Chi_Minh");
+    // Có giờ mùa hè: 2026-03-29 dài 23 giờ, 2026-10-25 dài 25 giờ
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 4);
+
+    @Test
+    void bitRangeCoversBothEnds() {
+        assertThat(SlotOccupancy.bitRange(0, 0)).isEqualTo(1L);
+        assertThat(SlotOccupancy.bitRange(2, 4)).isEqualTo(0b11100L);
+        assertThat(SlotOccupancy.bitRange(5, 4)).isZero();
+    }
+
+    @Test
+    void bitRangeUpToBit63() {
+        assertThat(SlotOccupancy.bitRange(0, 63)).isEqualTo(-1L);
+        assertThat(SlotOccupancy.bitRange(63, 63)).isEqualTo(Long.MIN_VALUE);
+        assertThat(SlotOccupancy.bitRange(62, 63)).isEqualTo(Long.MIN_VALUE | (1L << 62));
+        assertThat(Long.bitCount(SlotOccupancy.bitRange(1, 63))).isEqualTo(63);
+    }
+
+    @Test
+    void rejectsSlotSizesThatDoNotFitInOneLong() {
+        assertThatThrownBy(() -> new SlotOccupancy(HCM, 15)).isInstanceOf(IllegalArgumentException.class); // 96 slot
+        assertThatThrownBy(() -> new SlotOccupancy(HCM, 7)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SlotOccupancy(HCM, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new SlotOccupancy(HCM, 24).slotsPerDay()).isEqualTo(60);
+    }
+
+    @Test
+    void slotMaskRoundsPartialSlotsOutward() {
+        SlotOccupancy occupancy = new SlotOccupancy(HCM, 30);
+        long day = DAY.toEpochDay();
+
+        // 08:10 - 09:05 chạm các slot 08:00, 08:30, 09:00
+        assertThat(occupancy.slotMask(day, millis(HCM, DAY, 8, 10), millis(HCM, DAY, 9, 5)))
+                .isEqualTo(SlotOccupancy.bitRange(16, 18));
+        // Kết thúc đúng mép slot thì không chiếm slot sau (nửa mở)
+        assertThat(occupancy.slotMask(day, millis(HCM, DAY, 8, 0), millis(HCM, DAY, 9, 0)))
+                .isEqualTo(SlotOccupancy.bitRange(16, 17));
+        // Khoảng nằm ngoài ngày
+        assertThat(occupancy.slotMask(day, millis(HCM, DAY.plusDays(1), 1, 0), millis(HCM, DAY.plusDays(1), 2, 0)))
+                .isZero();
+    }
+
+    @Test
+    void windowAcrossMidnightMarksBothDays() {
+        SlotOccupancy occupancy = new SlotOccupancy(HCM, 60);
+        occupancy.add(window(1L, 7L, HCM, DAY, 22, 30, DAY.plusDays(1), 1, 30));
+
+        assertThat(occupancy.busyBits(7L, DAY.toEpochDay())).isEqualTo(SlotOccupancy.bitRange(22, 23));
+        assertThat(occupancy.busyBits(7L, DAY.plusDays(1).toEpochDay())).isEqualTo(SlotOccupancy.bitRange(0, 1));
+        assertThat(occupancy.busyBits(8L, DAY.toEpochDay())).isZero();
+    }
+
+    @Test
+    void multiDayWindowFillsWholeMiddleDay() {
+        SlotOccupancy occupancy = new SlotOccupancy(HCM, 30);
+        occupancy.add(window(1L, 7L, HCM, DAY, 20, 0, DAY.plusDays(2), 6, 0));
+
+        assertThat(occupancy.busyBits(7L, DAY.toEpochDay())).isEqualTo(SlotOccupancy.bitRange(40, 47));
+        assertThat(occupancy.busyBits(7L, DAY.plusDays(1).toEpochDay())).isEqualTo(SlotOccupancy.bitRange(0, 47));
+        assertThat(occupancy.busyBits(7L, DAY.plusDays(2).toEpochDay())).isEqualTo(SlotOccupancy.bitRange(0, 11));
+    }
+
+    @Test
+    void shiftEdgesAreHalfOpen() {
+        SlotOccupancy occupancy = new SlotOccupancy(HCM, 30);
+        long shiftMask = SlotOccupancy.bitRange(16, 33); // ca 08:00 - 17:00
+        // Lịch kết thúc đúng lúc bắt đầu ca và lịch bắt đầu đúng lúc hết ca: không chạm ca
+        occupancy.add(window(1L, 7L, HCM, DAY, 7, 0, DAY, 8, 0));
+        occupancy.add(window(2L, 7L, HCM, DAY, 17, 0, DAY, 18, 0));
+        assertThat(occupancy.busyBits(7L, DAY.toEpochDay()) & shiftMask).isZero();
+
+        occupancy.add(window(3L, 7L, HCM, DAY, 16, 45, DAY, 17, 0));
+        assertThat(occupancy.busyBits(7L, DAY.toEpochDay()) & shiftMask).isEqualTo(1L << 33);
+    }
+
+    @Test
+    void unassignedWindowsAreCountedPerSlot() {
+        SlotOccupancy occupancy = new SlotOccupancy(HCM, 60);
+        occupancy.add(window(1L, null, HCM, DAY, 9, 0, DAY, 11, 0));
+        occupancy.add(window(2L, null, HCM, DAY, 10, 30, DAY, 12, 0));
+
+        int[] counts = occupancy.unassignedCounts(DAY.toEpochDay());
+        assertThat(counts).hasSize(24);
+        assertThat(counts[8]).isZero();
+        assertThat(counts[9]).isEqualTo(1);
+        assertThat(counts[10]).isEqualTo(2);
+        assertThat(counts[11]).isEqualTo(1);
+        assertThat(occupancy.unassignedCounts(DAY.plusDays(1).toEpochDay())).isNull();
+    }
+
+    @Test
+    void rebuildDayDropsRemovedWindowButKeepsOverlappingOne() {
+        SlotOccupancy occupancy = new SlotOccupancy(HCM, 60);
+        BusyWindow kept = window(1L, 7L, HCM, DAY, 9, 0, DAY, 11, 0);
+        BusyWindow removed = window(2L, 7L, HCM, DAY, 10, 0, DAY, 13, 0);
+        occupancy.add(kept);
+        occupancy.add(removed);
+        assertThat(occupancy.busyBits(7L, DAY.toEpochDay())).isEqualTo(SlotOccupancy.bitRange(9, 12));
+
+        occupancy.rebuildDay(7L, DAY.toEpochDay(), List.of(kept));
+        assertThat(occupancy.busyBits(7L, DAY.toEpochDay())).isEqualTo(SlotOccupancy.bitRange(9, 10));
+
+        occupancy.rebuildDay(null, DAY.toEpochDay(), List.of());
+        assertThat(occupancy.unassignedCounts(DAY.toEpochDay())).isNull();
+    }
+
+    @Test
+    void slotsCountElapsedTimeFromMidnightOnShortDstDay() {
+        SlotOccupancy occupancy = new SlotOccupancy(BERLIN, 60);
+        LocalDate springForward = LocalDate.of(2026, 3, 29);
+        long day = springForward.toEpochDay();
+
+        assertThat(occupancy.dayEndMillis(day) - occupancy.dayStartMillis(day)).isEqualTo(23 * 3_600_000L);
+        // Slot i = nửa đêm + i giờ (như ServiceAvailabilityService dựng slotStart): 22:00 giờ tường là slot 21
+        occupancy.add(window(1L, 7L, BERLIN, springForward, 22, 0, springForward, 23, 0));
+        assertThat(occupancy.busyBits(7L, day)).isEqualTo(1L << 21);
+
+        // Lịch của ngày sau chỉ nằm ở ngày sau, slot 22 của ngày 23 giờ không bị đánh dấu
+        occupancy.add(window(2L, 7L, BERLIN, springForward.plusDays(1), 0, 0, springForward.plusDays(1), 1, 0));
+        assertThat(occupancy.busyBits(7L, day)).isEqualTo(1L << 21);
+        assertThat(occupancy.busyBits(7L, day + 1)).isEqualTo(1L);
+    }
+
+    @Test
+    void lastHourOfLongDstDayHasNoSlot() {
+        SlotOccupancy occupancy = new SlotOccupancy(BERLIN, 60);
+        LocalDate fallBack = LocalDate.of(2026, 10, 25);
+        long day = fallBack.toEpochDay();
+
+        assertThat(occupancy.dayEndMillis(day) - occupancy.dayStartMillis(day)).isEqualTo(25 * 3_600_000L);
+        // 22:00 - 24:00 giờ tường = giờ thứ 23 - 25 tính từ nửa đêm; chỉ 24 slot nên giờ cuối không được ghi
+        occupancy.add(window(1L, 7L, BERLIN, fallBack, 22, 0, fallBack.plusDays(1), 0, 0));
+        assertThat(occupancy.busyBits(7L, day)).isEqualTo(1L << 23);
+        assertThat(occupancy.busyBits(7L, day + 1)).isZero();
+    }
+
+    private static long millis(ZoneId zone, LocalDate date, int hour, int minute) {
+        return LocalDateTime.of(date, LocalTime.of(hour, minute)).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private static BusyWindow window(Long bookingId, Long technicianId, ZoneId zone,
+                                     LocalDate startDate, int startHour, int startMinute,
+                                     LocalDate endDate, int endHour, int endMinute) {
+        return new BusyWindow(bookingId, technicianId,
+                LocalDateTime.of(startDate, LocalTime.of(startHour, startMinute)).atZone(zone).toOffsetDateTime(),
+                LocalDateTime.of(endDate, LocalTime.of(endHour, endMinute)).atZone(zone).toOffsetDateTime());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.mecha.schedule;
+
+import com.example.mecha.booking.BookingRepository;
+import com.example.mecha.servicecatalog.ServiceType;
+import com.example.mecha.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TechnicianScheduleServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final LocalDate DAY = LocalDate.now(ZONE).plusDays(3);
+
+    private BookingRepository bookingRepository;
+    private UserRepository userRepository;
+    private TechnicianSkillService technicianSkillService;
+    private TechnicianScheduleService service;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        userRepository = mock(UserRepository.class);
+        technicianSkillService = mock(TechnicianSkillService.class);
+        service = new TechnicianScheduleService(bookingRepository, userRepository, new SchedulingProperties(),
+                technicianSkillService);
+
+        // 1: mọi loại dịch vụ, 2: chỉ CLEANING, 3: REPAIR nhưng đang bận 9h - 10h
+        when(userRepository.findIdsByRoleAndStatus(any(), any())).thenReturn(List.of(1L, 2L, 3L));
+        when(technicianSkillService.skillsByTechnician()).thenReturn(Map.of(
+                2L, EnumSet.of(ServiceType.CLEANING),
+                3L, EnumSet.of(ServiceType.REPAIR)));
+        when(bookingRepository.findBusyWindows(any(), any())).thenReturn(List.of(
+                new BusyWindow(100L, 3L, at(9), at(10))));
+        service.rebuild();
+    }
+
+    @Test
+    void freeTechniciansAreFilteredBySkill() {
+        assertThat(service.freeTechnicianIds(at(9), at(10), ServiceType.REPAIR)).containsExactly(1L);
+        assertThat(service.freeTechnicianIds(at(11), at(12), ServiceType.REPAIR)).containsExactly(1L, 3L);
+        assertThat(service.freeTechnicianIds(at(11), at(12), ServiceType.CLEANING)).containsExactly(1L, 2L);
+        assertThat(service.freeTechnicianIds(at(11), at(12), null)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void spareCapacityCountsOnlySkilledTechnicians() {
+        assertThat(service.spareCapacity(at(9), at(10), ServiceType.MAINTENANCE)).isEqualTo(1);
+        assertThat(service.spareCapacity(at(9), at(10), ServiceType.CLEANING)).isEqualTo(2);
+
+        // Booking chưa gán cùng khung giờ giữ 1 chỗ
+        when(bookingRepository.findBusyWindow(any(), any()))
+                .thenReturn(Optional.of(new BusyWindow(101L, null, at(9), at(10))));
+        service.refreshBooking(101L);
+        assertThat(service.spareCapacity(at(9), at(10), ServiceType.MAINTENANCE)).isZero();
+    }
+
+    @Test
+    void availableCountsFollowSkills() {
+        long allDay = SlotOccupancy.bitRange(0, 47);
+        int nine = 18; // slot 30 phút
+
+        int[] repair = service.availableCounts(DAY.toEpochDay(), 2, allDay, ServiceType.REPAIR);
+        int[] cleaning = service.availableCounts(DAY.toEpochDay(), 2, allDay, ServiceType.CLEANING);
+
+        assertThat(repair[nine]).isEqualTo(1);
+        assertThat(repair[nine + 2]).isEqualTo(2);
+        assertThat(cleaning[nine]).isEqualTo(2);
+        assertThat(cleaning[nine + 2]).isEqualTo(2);
+    }
+
+    @Test
+    void skillChangeIsPickedUp() {
+        when(technicianSkillService.skillsByTechnician()).thenReturn(Map.<Long, Set<ServiceType>>of(
+                2L, EnumSet.of(ServiceType.CLEANING, ServiceType.REPAIR)));
+
+        service.onSkillsChanged(new TechnicianSkillsChangedEvent(2L));
+
+        assertThat(service.freeTechnicianIds(at(9), at(10), ServiceType.REPAIR)).containsExactly(1L, 2L);
+    }
+
+    private static OffsetDateTime at(int hour) {
+        return DAY.atTime(hour, 0).atZone(ZONE).toOffsetDateTime();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.mecha.bench;
+
+import com.example.mecha.cart.CartItemType;
+import com.example.mecha.dashboard.OrderRevenueRow;
+import com.example.mecha.order.Order;
+import com.example.mecha.order.OrderItem;
+import com.example.mecha.order.OrderStatus;
+import com.example.mecha.order.PaymentMethod;
+import com.example.mecha.order.PaymentStatus;
+import com.example.mecha.product.Product;
+import com.example.mecha.product.ProductCategory;
+import com.example.mecha.product.ProductImage;
+import com.example.mecha.product.ProductTierPrice;
+import com.example.mecha.servicecatalog.ServiceEntity;
+import com.example.mecha.user.User;
+import com.example.mecha.user.UserRole;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Dữ liệu giả lập cho benchmark, sinh từ seed cố định để mọi lần chạy (mọi commit) đo trên cùng dữ liệu.
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 42L;
+
+    public static User customer() {
+        return User.builder()
+                .id(1L)
+                .email("khachhang@example.com")
+                .fullName("Nguyễn Văn An")
+                .phone("0901234567")
+                .role(UserRole.USER)
+                .build();
+    }
+
+    public static ProductCategory category() {
+        return ProductCategory.builder()
+                .id(10L)
+                .name("Vòng bi")
+                .build();
+    }
+
+    /**
+     * Sản phẩm có {@code tiers} bậc giá (tier i áp dụng từ 10*i sản phẩm) và 3 ảnh.
+     */
+    public static Product product(long id, int tiers) {
+        Product product = Product.builder()
+                .id(id)
+                .name("Vòng bi SKF 62" + id)
+                .sku("SKF-62" + id)
+                .category(category())
+                .description("Vòng bi cầu rãnh sâu, phớt cao su 2 phía")
+                .basePrice(BigDecimal.valueOf(120_000 + id * 1_000))
+                .stockQuantity(500)
+                .unitOfMeasure("cái")
+                .attributes(Map.of("duongKinhTrong", "25mm", "duongKinhNgoai", "52mm"))
+                .imageUrl("https://cdn.example.com/p/" + id + ".jpg")
+                .build();
+
+        List<ProductTierPrice> tierPrices = new ArrayList<>(tiers);
+        // Thêm theo thứ tự ngược để phép sắp xếp theo minQty có việc để làm như dữ liệu thật
+        for (int i = tiers; i >= 1; i--) {
+            tierPrices.add(ProductTierPrice.builder()
+                    .id(id * 100 + i)
+                    .product(product)
+                    .minQty(10 * i)
+                    .maxQty(i == tiers ? null : 10 * (i + 1) - 1)
+                    .unitPrice(product.getBasePrice().subtract(BigDecimal.valueOf(2_000L * i)))
+                    .build());
+        }
+        product.setTierPrices(tierPrices);
+
+        for (int i = 0; i < 3; i++) {
+            product.getImages().add(ProductImage.builder()
+                    .id(id * 10 + i)
+                    .product(product)
+                    .imageUrl("https://cdn.example.com/p/" + id + "-" + i + ".jpg")
+                    .sortOrder(i)
+                    .build());
+        }
+        return product;
+    }
+
+    public static ServiceEntity service(long id) {
+        return ServiceEntity.builder()
+                .id(id)
+                .name("Bảo dưỡng máy nén khí")
+                .code("SVC-" + id)
+                .basePrice(BigDecimal.valueOf(450_000))
+                .durationMinutes(90)
+                .build();
+    }
+
+    /**
+     * Đơn hàng {@code items} dòng, xen kẽ sản phẩm và dịch vụ (1 dịch vụ mỗi 5 dòng).
+     */
+    public static Order order(int items) {
+        Order order = Order.builder()
+                .id(1000L)
+                .orderCode("ORD-1A2B3C4D")
+                .customer(customer())
+                .paymentMethod(PaymentMethod.BANK_TRANSFER)
+                .paymentStatus(PaymentStatus.PENDING)
+                .status(OrderStatus.PENDING)
+                .shippingAddress("12 Nguyễn Huệ, Phường Bến Nghé, Quận 1, TP. Hồ Chí Minh")
+                .contactPhone("0901234567")
+                .note("Giao giờ hành chính")
+                .createdAt(Instant.parse("2025-06-15T03:00:00Z"))
+                .build();
+
+        List<OrderItem> orderItems = new ArrayList<>(items);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= items; i++) {
+            boolean isService = i % 5 == 0;
+            BigDecimal unitPrice = isService ? BigDecimal.valueOf(450_000) : BigDecimal.valueOf(120_000 + i * 1_000);
+            int quantity = isService ? 1 : 1 + i % 7;
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            orderItems.add(OrderItem.builder()
+                    .id((long) i)
+                    .order(order)
+                    .itemType(isService ? CartItemType.SERVICE : CartItemType.PRODUCT)
+                    .product(isService ? null : product(i, 0))
+                    .service(isService ? service(i) : null)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .lineTotal(lineTotal)
+                    .build());
+            total = total.add(lineTotal);
+        }
+        order.setItems(orderItems);
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    /**
+     * {@code count} đơn rải đều trong năm hiện tại, ~70% đã thanh toán.
+     */
+    public static List<OrderRevenueRow> revenueRows(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ZoneId zone = ZoneId.systemDefault();
+        int year = LocalDate.now(zone).getYear();
+        long start = LocalDate.of(year, 1, 1).atStartOfDay(zone).toEpochSecond();
+        long end = LocalDate.of(year + 1, 1, 1).atStartOfDay(zone).toEpochSecond();
+
+        List<OrderRevenueRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new OrderRevenueRow(
+                    Instant.ofEpochSecond(random.nextLong(start, end)),
+                    BigDecimal.valueOf(random.nextLong(50_000, 20_000_000)),
+                    random.nextInt(10) < 7 ? PaymentStatus.PAID : PaymentStatus.PENDING));
+        }
+        return rows;
+    }
+
+    private SyntheticData() {
+    }
+}
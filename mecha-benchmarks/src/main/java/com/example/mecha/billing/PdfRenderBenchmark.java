@@ -0,0 +1,69 @@
+package com.example.mecha.billing;
+
+import com.example.mecha.bench.SyntheticData;
+import com.example.mecha.order.Order;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render PDF hóa đơn / báo giá bằng PdfGeneratorService vào bộ nhớ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfRenderBenchmark {
+
+    @Param({"5", "50"})
+    int items;
+
+    private PdfGeneratorService pdfGeneratorService;
+    private Invoice invoice;
+    private Quotation quotation;
+
+    @Setup
+    public void setup() {
+        pdfGeneratorService = new PdfGeneratorService();
+        Order order = SyntheticData.order(items);
+        Instant issued = Instant.parse("2025-06-15T03:00:00Z");
+        BigDecimal total = order.getTotalAmount();
+        invoice = Invoice.builder()
+                .id(1L)
+                .invoiceNumber("INV-1A2B3C4D")
+                .order(order)
+                .issueDate(issued)
+                .totalAmount(total)
+                .build();
+        quotation = Quotation.builder()
+                .id(1L)
+                .quoteNumber("QUO-1A2B3C4D")
+                .order(order)
+                .issueDate(issued)
+                .validUntil(issued.plus(7, ChronoUnit.DAYS))
+                .totalAmount(total)
+                .build();
+    }
+
+    @Benchmark
+    public void invoice(Blackhole bh) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        pdfGeneratorService.writeInvoicePdf(invoice, out);
+        bh.consume(out.size());
+    }
+
+    @Benchmark
+    public void quotation(Blackhole bh) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        pdfGeneratorService.writeQuotationPdf(quotation, out);
+        bh.consume(out.size());
+    }
+}
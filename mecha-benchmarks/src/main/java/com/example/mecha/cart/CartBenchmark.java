@@ -0,0 +1,69 @@
+package com.example.mecha.cart;
+
+import com.example.mecha.bench.SyntheticData;
+import com.example.mecha.cart.dto.CartDto;
+import com.example.mecha.product.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đơn giá theo bậc từ bảng giá đã chụp trong giỏ ({@link ProductPriceTable}, so với ProductBenchmark.resolveUnitPrice)
+ * và map giỏ trong bộ nhớ -> CartDto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"1", "10", "50"})
+    int lines;
+
+    private ProductPriceTable priceTable;
+    private ActiveCart cart;
+    private CartService cartService;
+    private int[] quantities;
+
+    @Setup
+    public void setup() {
+        Product product = SyntheticData.product(1L, 10);
+        priceTable = ProductPriceTable.of(product, product.getTierPrices());
+        quantities = new int[]{1, 9, 10, 25, 55, 99, 150};
+
+        List<CartLine> persisted = new ArrayList<>(lines);
+        Instant now = Instant.parse("2025-06-15T03:00:00Z");
+        for (int i = 1; i <= lines; i++) {
+            Product p = SyntheticData.product(i, 3);
+            ProductPriceTable table = ProductPriceTable.of(p, p.getTierPrices());
+            int quantity = 1 + i % 12;
+            BigDecimal unitPrice = table.unitPriceFor(quantity);
+            persisted.add(new CartLine((long) i, CartItemType.PRODUCT, p.getId(), p.getName(), null, null,
+                    quantity, unitPrice, unitPrice.multiply(BigDecimal.valueOf(quantity)), now, table));
+        }
+        cart = new ActiveCart(1L, 1L, persisted);
+        // toDto chỉ đọc ActiveCart
+        cartService = new CartService(null, null, null, null, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public BigDecimal priceTableUnitPrice() {
+        BigDecimal last = null;
+        for (int quantity : quantities) {
+            last = priceTable.unitPriceFor(quantity);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public CartDto toDto() {
+        return cartService.toDto(cart);
+    }
+}
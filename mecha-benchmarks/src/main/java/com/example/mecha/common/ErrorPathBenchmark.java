@@ -0,0 +1,74 @@
+package com.example.mecha.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đường lỗi "không tìm thấy" như khi bot quét id không tồn tại: ném từ sâu trong call stack
+ * (giả lập filter chain + controller + service), bắt ở trên cùng và dựng body qua GlobalExceptionHandler.
+ * So sánh ResponseStatusException / RuntimeException tạo mới (chụp stack trace) với instance DomainErrors dựng sẵn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    // Stack của 1 request Spring MVC qua security filter chain thường sâu 100+ frame
+    @Param({"20", "150"})
+    int depth;
+
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void setup() {
+        handler = new GlobalExceptionHandler();
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> responseStatusException() {
+        try {
+            return ResponseEntity.ok(descend(depth, Kind.RESPONSE_STATUS));
+        } catch (ResponseStatusException e) {
+            return handler.handleResponseStatus(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> runtimeException() {
+        try {
+            return ResponseEntity.ok(descend(depth, Kind.RUNTIME));
+        } catch (RuntimeException e) {
+            return handler.handleRuntime(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> domainError() {
+        try {
+            return ResponseEntity.ok(descend(depth, Kind.DOMAIN));
+        } catch (DomainException e) {
+            return handler.handleDomain(e);
+        }
+    }
+
+    private enum Kind { RESPONSE_STATUS, RUNTIME, DOMAIN }
+
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static ApiError descend(int remaining, Kind kind) {
+        if (remaining > 0) {
+            return descend(remaining - 1, kind);
+        }
+        switch (kind) {
+            case RESPONSE_STATUS -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "PRODUCT_NOT_FOUND");
+            case RUNTIME -> throw new RuntimeException("Product not found");
+            default -> throw DomainErrors.PRODUCT_NOT_FOUND;
+        }
+    }
+}
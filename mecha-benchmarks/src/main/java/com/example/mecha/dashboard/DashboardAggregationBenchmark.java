@@ -0,0 +1,42 @@
+package com.example.mecha.dashboard;
+
+import com.example.mecha.bench.SyntheticData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gom doanh thu / số đơn theo tháng của DashboardService trên tập đơn giả lập của năm hiện tại.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardAggregationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int orders;
+
+    private DashboardService dashboardService;
+    private List<OrderRevenueRow> rows;
+
+    @Setup
+    public void setup() {
+        // Chỉ dùng phần tính toán trong bộ nhớ, không đọc DB
+        dashboardService = new DashboardService(null, null, null);
+        rows = SyntheticData.revenueRows(orders);
+    }
+
+    @Benchmark
+    public List<DashboardStatsDto.MonthlySalesData> monthlySales() {
+        return dashboardService.calculateMonthlySales(rows);
+    }
+
+    @Benchmark
+    public List<DashboardStatsDto.MonthlyStatsData> monthlyStats() {
+        return dashboardService.calculateMonthlyStats(rows);
+    }
+}
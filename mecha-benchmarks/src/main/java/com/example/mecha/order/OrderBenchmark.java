@@ -0,0 +1,54 @@
+package com.example.mecha.order;
+
+import com.example.mecha.bench.SyntheticData;
+import com.example.mecha.order.dto.OrderDto;
+import com.example.mecha.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Map Order -> OrderDto và dựng HTML email (xác nhận đơn, cập nhật trạng thái) của OrderEmailService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    @Param({"1", "10", "50"})
+    int items;
+
+    private Order order;
+    private OrderDto orderDto;
+    private User customer;
+    private OrderService orderService;
+    private OrderEmailService orderEmailService;
+
+    @Setup
+    public void setup() {
+        order = SyntheticData.order(items);
+        customer = order.getCustomer();
+        // toDto / build*Html không dùng repository, mail sender
+        orderService = new OrderService(null, null, null, null, null, null, null);
+        orderEmailService = new OrderEmailService(null, null);
+        orderDto = orderService.toDto(order);
+    }
+
+    @Benchmark
+    public OrderDto toDto() {
+        return orderService.toDto(order);
+    }
+
+    @Benchmark
+    public String confirmationEmailHtml() {
+        return orderEmailService.buildOrderConfirmationHtml(customer, orderDto);
+    }
+
+    @Benchmark
+    public String statusUpdateEmailHtml() {
+        return orderEmailService.buildOrderStatusUpdateHtml(customer, orderDto, OrderStatus.PENDING.name());
+    }
+}
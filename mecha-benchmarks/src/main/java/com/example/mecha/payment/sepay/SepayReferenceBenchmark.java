@@ -0,0 +1,38 @@
+package com.example.mecha.payment.sepay;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tách orderCode từ nội dung chuyển khoản của webhook SePay (không tra DB).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SepayReferenceBenchmark {
+
+    @Param({"WITH_DASH", "WITHOUT_DASH", "BOOKING", "NONE"})
+    String shape;
+
+    private String content;
+
+    @Setup
+    public void setup() {
+        content = switch (shape) {
+            case "WITH_DASH" -> "MBVCB.8123456789.NGUYEN VAN AN chuyen tien ORD-1A2B3C4D.CT tu 0123456789";
+            case "WITHOUT_DASH" -> "MBVCB.8123456789.NGUYEN VAN AN chuyen tien ORD1A2B3C4D.CT tu 0123456789";
+            case "BOOKING" -> "MBVCB.8123456789.NGUYEN VAN AN thanh toan BOOKING1234.CT tu 0123456789";
+            default -> "MBVCB.8123456789.NGUYEN VAN AN chuyen tien an trua.CT tu 0123456789";
+        };
+    }
+
+    @Benchmark
+    public List<String> extractOrderCodes() {
+        return SepayPaymentService.extractOrderCodes(content);
+    }
+}
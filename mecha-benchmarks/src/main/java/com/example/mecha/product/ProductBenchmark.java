@@ -0,0 +1,51 @@
+package com.example.mecha.product;
+
+import com.example.mecha.bench.SyntheticData;
+import com.example.mecha.product.dto.ProductDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tính đơn giá theo bậc số lượng (logic của ProductService.calculateUnitPrice, không đọc DB)
+ * và map Product -> ProductDto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductBenchmark {
+
+    @Param({"0", "3", "10"})
+    int tiers;
+
+    private Product product;
+    private ProductService productService;
+    private int[] quantities;
+
+    @Setup
+    public void setup() {
+        product = SyntheticData.product(1L, tiers);
+        // toDto không dùng repository / cache
+        productService = new ProductService(null, null, null);
+        quantities = new int[]{1, 9, 10, 25, 55, 99, 150};
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public BigDecimal resolveUnitPrice() {
+        BigDecimal last = null;
+        for (int quantity : quantities) {
+            last = ProductService.resolveUnitPrice(product.getBasePrice(), product.getTierPrices(), quantity);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public ProductDto toDto() {
+        return productService.toDto(product);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.mecha.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tham số dòng lệnh dạng --key=value:
+ *
+ *  --rate=50           số kịch bản bắt đầu mỗi giây (open model); 0 = mỗi worker chạy liên tục (closed model)
+ *  --concurrency=32    số kịch bản chạy đồng thời tối đa; lượt đến khi đã đủ thì bị bỏ (dropped)
+ *  --duration=120      số giây đo
+ *  --warmup=20         số giây chạy trước khi đo (JIT, cache, pool)
+ *  --mix=browse:40,search:20,cart:15,checkout:10,payment_webhook:10,admin_dashboard:5
+ *  --sessions=200      số khách hàng đăng nhập sẵn để phân lượt
+ *  --threads=platform  platform | virtual: Tomcat, @Async, @Scheduled trên virtual thread (Java 21+, build -Pjava21, bật kèm datasource-limiter)
+ *  --products=2000 --customers=1000 --orders=20000 --bookings=3000   kích thước dữ liệu seed
+ *  --jdbc-url=...      dùng Postgres có sẵn (database rỗng) thay cho Postgres nhúng
+ *  --report=target/loadtest-report.json
+ */
+public record LoadTestConfig(
+        double rate,
+        int concurrency,
+        Duration duration,
+        Duration warmup,
+        Map<Scenario, Integer> mix,
+        int sessions,
+        boolean virtualThreads,
+        int products,
+        int customers,
+        int orders,
+        int bookings,
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        Path report
+) {
+
+    private static final String DEFAULT_MIX =
+            "browse:40,search:20,cart:15,checkout:10,payment_webhook:10,admin_dashboard:5";
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Tham số không hợp lệ: " + arg + " (dạng --key=value)");
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                Double.parseDouble(values.getOrDefault("rate", "50")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "120"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "20"))),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("sessions", "200")),
+                parseThreads(values.getOrDefault("threads", "platform")),
+                Integer.parseInt(values.getOrDefault("products", "2000")),
+                Integer.parseInt(values.getOrDefault("customers", "1000")),
+                Integer.parseInt(values.getOrDefault("orders", "20000")),
+                Integer.parseInt(values.getOrDefault("bookings", "3000")),
+                values.get("jdbc-url"),
+                values.getOrDefault("jdbc-username", "postgres"),
+                values.getOrDefault("jdbc-password", ""),
+                Path.of(values.getOrDefault("report", "target/loadtest-report.json"))
+        );
+        config.validate();
+        return config;
+    }
+
+    private static boolean parseThreads(String threads) {
+        return switch (threads) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("threads phải là platform hoặc virtual: " + threads);
+        };
+    }
+
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("mix không hợp lệ: " + part);
+            }
+            int weight = Integer.parseInt(kv[1]);
+            if (weight > 0) {
+                weights.put(Scenario.valueOf(kv[0].toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        return weights;
+    }
+
+    private void validate() {
+        if (rate < 0 || concurrency < 1 || duration.isNegative() || duration.isZero() || warmup.isNegative()) {
+            throw new IllegalArgumentException("rate >= 0, concurrency >= 1, duration > 0, warmup >= 0");
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix phải có ít nhất 1 kịch bản với trọng số > 0");
+        }
+        if (sessions < 1 || sessions > customers) {
+            throw new IllegalArgumentException("1 <= sessions <= customers");
+        }
+        if (products < 1 || orders < 0 || bookings < 0) {
+            throw new IllegalArgumentException("products >= 1, orders >= 0, bookings >= 0");
+        }
+    }
+}
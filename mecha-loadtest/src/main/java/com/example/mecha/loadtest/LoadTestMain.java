@@ -0,0 +1,156 @@
+package com.example.mecha.loadtest;
+
+import com.example.mecha.MechaBackendApplication;
+import com.example.mecha.metrics.ScenarioStatementFilter;
+import com.example.mecha.product.CategoryTreeChangedEvent;
+import com.example.mecha.schedule.TechnicianScheduleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test end-to-end cho mecha-backend, chạy offline trong 1 process:
+ *
+ *  1. Postgres 16 nhúng (zonky, binary nằm trong jar) hoặc database rỗng chỉ định bằng --jdbc-url
+ *  2. mecha-backend với profile loadtest (port ngẫu nhiên, mail không gửi thật) + dev (tài khoản admin),
+ *     Flyway tạo schema từ db/migration lúc khởi động
+ *  3. seed dữ liệu giả lập ({@link Seeder}), làm nóng cache
+ *  4. warmup rồi đo theo {@link LoadTestConfig}, in bảng và ghi JSON ({@link Report})
+ *
+ * Postgres nhúng chạy initdb nên không chạy được bằng root (dùng user thường hoặc --jdbc-url).
+ */
+public final class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+
+    private static final String ADMIN_EMAIL = "admin@mecha.com";
+    private static final String ADMIN_PASSWORD = "Admin123";
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        EmbeddedPostgres embedded = null;
+        String jdbcUrl = config.jdbcUrl();
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+            log.info("Embedded Postgres started at {}", jdbcUrl);
+        }
+
+        if (config.virtualThreads() && Runtime.version().feature() < 21) {
+            log.warn("Virtual threads need Java 21+, running on {}: only datasource-limiter is enabled", Runtime.version());
+        }
+
+        NoopMailSender mailSender = new NoopMailSender();
+        ScenarioStatementFilter statementFilter = new ScenarioStatementFilter();
+        // Truyền dạng tham số dòng lệnh: properties() chỉ là giá trị mặc định, thua application.properties
+        // (spring.threads.virtual.enabled=false ở đó sẽ làm --threads=virtual không có tác dụng)
+        String[] appArgs = Map.of(
+                        "spring.datasource.url", jdbcUrl,
+                        "spring.datasource.username", config.jdbcUsername(),
+                        "spring.datasource.password", config.jdbcPassword(),
+                        "spring.threads.virtual.enabled", String.valueOf(config.virtualThreads()),
+                        // Pool đủ cho số kịch bản đồng thời + các job nền
+                        "spring.datasource.hikari.maximum-pool-size", String.valueOf(Math.max(10, config.concurrency() + 4))
+                ).entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MechaBackendApplication.class)
+                .profiles("loadtest", "dev")
+                .initializers(ctx -> {
+                    GenericApplicationContext generic = (GenericApplicationContext) ctx;
+                    generic.registerBean("mailSender", NoopMailSender.class, () -> mailSender);
+                    generic.registerBean(ScenarioStatementFilter.class, () -> statementFilter);
+                })
+                .run(appArgs);
+        try {
+            prepare(context, config);
+            run(context, config, statementFilter);
+            log.info("Emails rendered (not sent): {}", mailSender.sent());
+        } finally {
+            context.close();
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static void prepare(ConfigurableApplicationContext context, LoadTestConfig config) throws Exception {
+        new Seeder(context.getBean(JdbcTemplate.class), config).seed();
+
+        // Dữ liệu vừa được ghi thẳng bằng SQL: nạp lại các cache trong bộ nhớ
+        context.publishEvent(new CategoryTreeChangedEvent(null));
+        context.getBean(TechnicianScheduleService.class).rebuild();
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+    }
+
+    private static void run(ConfigurableApplicationContext context, LoadTestConfig config,
+                            ScenarioStatementFilter statementFilter) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        StorefrontClient client = new StorefrontClient("http://localhost:" + port, objectMapper);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        Workload.Catalog catalog = new Workload.Catalog(
+                jdbc.queryForList("SELECT id FROM product_categories WHERE parent_id IS NOT NULL ORDER BY id", Long.class),
+                jdbc.queryForList("SELECT id FROM products WHERE hidden = false ORDER BY id", Long.class));
+
+        String adminToken = client.login(ADMIN_EMAIL, ADMIN_PASSWORD);
+        List<String> customerTokens = login(client, config);
+        log.info("Logged in admin and {} customers", customerTokens.size());
+
+        Workload workload = new Workload(config, client, catalog, adminToken, customerTokens,
+                context.getEnvironment().getRequiredProperty("sepay.api-key"));
+
+        if (!config.warmup().isZero()) {
+            log.info("Warming up for {}s", config.warmup().toSeconds());
+            workload.run(config.warmup());
+        }
+        statementFilter.reset();
+        ServerStats serverStart = ServerStats.capture(context);
+
+        log.info("Measuring for {}s (rate={}/s, concurrency={})", config.duration().toSeconds(), config.rate(), config.concurrency());
+        Workload.Result result = workload.run(config.duration());
+
+        Report report = new Report(config, result, statementFilter, ServerStats.capture(context).since(serverStart));
+        report.print(System.out);
+        report.write(objectMapper);
+        log.info("Report written to {}", config.report().toAbsolutePath());
+    }
+
+    private static List<String> login(StorefrontClient client, LoadTestConfig config) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.min(config.concurrency(), Runtime.getRuntime().availableProcessors()), Workload.daemonThreads("login"));
+        try {
+            List<Future<String>> tokens = new ArrayList<>(config.sessions());
+            for (int i = 1; i <= config.sessions(); i++) {
+                String email = String.format(Seeder.CUSTOMER_EMAIL_FORMAT, i);
+                tokens.add(pool.submit(() -> client.login(email, Seeder.PASSWORD)));
+            }
+            List<String> result = new ArrayList<>(tokens.size());
+            for (Future<String> token : tokens) {
+                result.add(token.get());
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
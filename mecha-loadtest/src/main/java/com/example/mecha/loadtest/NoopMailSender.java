@@ -0,0 +1,25 @@
+package com.example.mecha.loadtest;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.internet.MimeMessage;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JavaMailSender không gửi gì: load test chạy offline, chỉ đếm số email lẽ ra đã gửi.
+ * Vẫn dựng MimeMessage thật nên phần render HTML / đính kèm PDF vẫn được đo.
+ */
+final class NoopMailSender extends JavaMailSenderImpl {
+
+    private final LongAdder sent = new LongAdder();
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        sent.add(mimeMessages.length);
+    }
+
+    long sent() {
+        return sent.sum();
+    }
+}
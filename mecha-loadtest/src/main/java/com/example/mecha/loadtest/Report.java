@@ -0,0 +1,112 @@
+package com.example.mecha.loadtest;
+
+import com.example.mecha.metrics.ScenarioStatementFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tổng hợp kết quả 1 lần đo: bảng trên console và file JSON (để so sánh giữa các lần chạy / đưa vào CI).
+ */
+final class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    private final LoadTestConfig config;
+    private final Workload.Result result;
+    private final ScenarioStatementFilter statements;
+    private final ServerStats server;
+
+    Report(LoadTestConfig config, Workload.Result result, ScenarioStatementFilter statements, ServerStats server) {
+        this.config = config;
+        this.result = result;
+        this.statements = statements;
+        this.server = server;
+    }
+
+    void print(PrintStream out) {
+        double seconds = seconds();
+        out.printf(Locale.ROOT, "%n%-16s %8s %7s %8s %8s %9s %9s %9s %9s %9s %11s%n",
+                "scenario", "count", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms", "SQL/run");
+        for (Map.Entry<Scenario, ScenarioStats> e : result.stats().entrySet()) {
+            ScenarioStats s = e.getValue();
+            out.printf(Locale.ROOT, "%-16s %8d %7d %8d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %11.1f%n",
+                    e.getKey(), s.count(), s.errors(), s.dropped(), s.count() / seconds,
+                    s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(95), s.percentileMillis(99),
+                    s.maxMillis(), statementsPerRun(e.getKey(), s));
+        }
+        out.printf(Locale.ROOT, "%nrate=%.1f/s concurrency=%d duration=%.0fs threads=%s java=%s%n",
+                config.rate(), config.concurrency(), seconds, server.virtualThreads() ? "virtual" : "platform", Runtime.version());
+        out.printf(Locale.ROOT, "pinned=%.0f limiter: acquired=%d rejected=%d wait mean=%.1f ms max=%.1f ms%n",
+                server.pinnedEvents(), server.limiterAcquired(), server.limiterRejected(),
+                server.limiterWaitMeanMillis(), server.limiterWaitMaxMillis());
+    }
+
+    void write(ObjectMapper objectMapper) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode cfg = root.putObject("config");
+        cfg.put("rate", config.rate());
+        cfg.put("concurrency", config.concurrency());
+        cfg.put("durationSeconds", config.duration().toSeconds());
+        cfg.put("warmupSeconds", config.warmup().toSeconds());
+        cfg.put("sessions", config.sessions());
+        cfg.put("threads", config.virtualThreads() ? "virtual" : "platform");
+        cfg.put("javaVersion", Runtime.version().toString());
+        cfg.put("products", config.products());
+        cfg.put("customers", config.customers());
+        cfg.put("orders", config.orders());
+        cfg.put("bookings", config.bookings());
+        ObjectNode mix = cfg.putObject("mix");
+        config.mix().forEach((scenario, weight) -> mix.put(scenario.name(), weight));
+        root.put("elapsedSeconds", seconds());
+
+        ObjectNode srv = root.putObject("server");
+        srv.put("virtualThreads", server.virtualThreads());
+        srv.put("pinnedEvents", server.pinnedEvents());
+        srv.put("limiterAcquired", server.limiterAcquired());
+        srv.put("limiterRejected", server.limiterRejected());
+        srv.put("limiterWaitMeanMillis", server.limiterWaitMeanMillis());
+        srv.put("limiterWaitMaxMillis", server.limiterWaitMaxMillis());
+
+        ObjectNode scenarios = root.putObject("scenarios");
+        for (Map.Entry<Scenario, ScenarioStats> e : result.stats().entrySet()) {
+            ScenarioStats s = e.getValue();
+            ScenarioStatementFilter.Counts counts = statements.counts(e.getKey().name());
+            ObjectNode node = scenarios.putObject(e.getKey().name());
+            node.put("count", s.count());
+            node.put("errors", s.errors());
+            node.put("errorRate", s.count() == 0 ? 0 : (double) s.errors() / s.count());
+            node.put("dropped", s.dropped());
+            node.put("throughputPerSecond", s.count() / seconds());
+            ObjectNode latency = node.putObject("latencyMillis");
+            for (double p : PERCENTILES) {
+                latency.put("p" + (int) p, s.percentileMillis(p));
+            }
+            latency.put("max", s.maxMillis());
+            node.put("httpRequests", counts.requests());
+            node.put("dbStatements", counts.statements());
+            node.put("dbStatementsPerRun", statementsPerRun(e.getKey(), s));
+            node.put("dbStatementsPerRequest", counts.requests() == 0 ? 0 : (double) counts.statements() / counts.requests());
+        }
+
+        Path report = config.report();
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), root);
+    }
+
+    private double statementsPerRun(Scenario scenario, ScenarioStats s) {
+        return s.count() == 0 ? 0 : (double) statements.counts(scenario.name()).statements() / s.count();
+    }
+
+    private double seconds() {
+        return result.elapsed().toNanos() / 1e9;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.mecha.loadtest;
+
+/**
+ * Các kịch bản của workload storefront. Mỗi lần chạy 1 kịch bản có thể gồm nhiều request,
+ * độ trễ được tính cho cả kịch bản.
+ */
+public enum Scenario {
+    BROWSE,           // cây danh mục -> sản phẩm theo danh mục -> chi tiết sản phẩm
+    SEARCH,           // tìm sản phẩm theo từ khóa
+    CART,             // thêm sản phẩm vào giỏ -> xem giỏ
+    CHECKOUT,         // thêm sản phẩm vào giỏ -> đặt hàng (COD / chuyển khoản)
+    PAYMENT_WEBHOOK,  // SePay báo có tiền cho đơn chuyển khoản đã đặt
+    ADMIN_DASHBOARD   // thống kê dashboard của admin
+}
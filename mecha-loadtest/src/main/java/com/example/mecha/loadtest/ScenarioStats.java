@@ -0,0 +1,63 @@
+package com.example.mecha.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kết quả đo của 1 kịch bản: histogram độ trễ (micro giây, tính từ thời điểm lượt đến theo lịch
+ * nên đã gồm thời gian xếp hàng), số lần thành công / lỗi và số lượt bị bỏ vì hết concurrency.
+ */
+final class ScenarioStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Histogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void success(long elapsedNanos) {
+        ok.increment();
+        record(elapsedNanos);
+    }
+
+    void failure(long elapsedNanos) {
+        errors.increment();
+        record(elapsedNanos);
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    private void record(long elapsedNanos) {
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_TRACKABLE_MICROS));
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long count() {
+        return ok() + errors();
+    }
+
+    double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return latency.getMaxValue() / 1000.0;
+    }
+}
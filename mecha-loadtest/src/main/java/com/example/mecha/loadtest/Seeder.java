@@ -0,0 +1,241 @@
+package com.example.mecha.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+/**
+ * Sinh dữ liệu giả lập trực tiếp bằng SQL (INSERT ... SELECT generate_series), cố định seed nên
+ * mọi lần chạy có cùng dữ liệu:
+ *  - 8 danh mục gốc x 4 danh mục con, sản phẩm rải đều vào danh mục con, 0-3 bậc giá mỗi sản phẩm
+ *  - dịch vụ, khách hàng (cùng mật khẩu {@link #PASSWORD}), kỹ thuật viên
+ *  - đơn hàng 1-4 dòng trải đều 12 tháng gần nhất, booking đã xong (có kỹ thuật viên) và sắp tới (chưa gán)
+ */
+final class Seeder {
+
+    private static final Logger log = LoggerFactory.getLogger(Seeder.class);
+
+    static final String PASSWORD = "LoadTest123";
+    static final String CUSTOMER_EMAIL_FORMAT = "customer%d@loadtest.local";
+
+    // Từ khóa xuất hiện trong tên sản phẩm, dùng cho kịch bản SEARCH
+    static final List<String> PRODUCT_KINDS = List.of(
+            "Vòng bi", "Bánh răng", "Động cơ", "Bơm", "Van", "Xi lanh", "Khớp nối", "Dây curoa");
+    static final List<String> BRANDS = List.of("SKF", "NSK", "Bosch", "Makita", "Hitachi", "Mitsubishi");
+
+    private static final int ROOT_CATEGORIES = 8;
+    private static final int CHILD_CATEGORIES = 4;
+    private static final int SERVICES = 20;
+    private static final int TECHNICIANS = 20;
+
+    private final JdbcTemplate jdbc;
+    private final LoadTestConfig config;
+
+    Seeder(JdbcTemplate jdbc, LoadTestConfig config) {
+        this.jdbc = jdbc;
+        this.config = config;
+    }
+
+    void seed() {
+        long started = System.nanoTime();
+        jdbc.queryForObject("SELECT setseed(0.42)", Object.class);
+
+        seedCategories();
+        seedProducts();
+        seedServices();
+        seedUsers();
+        seedOrders();
+        seedBookings();
+        jdbc.execute("ANALYZE");
+
+        log.info("Seeded {} products, {} customers, {} orders, {} bookings in {} ms",
+                config.products(), config.customers(), config.orders(), config.bookings(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void seedCategories() {
+        jdbc.update("""
+                INSERT INTO product_categories (name, slug, sort_order, created_at, updated_at)
+                SELECT 'Nhóm ' || (ARRAY[?, ?, ?, ?, ?, ?, ?, ?])[g], 'lt-root-' || g, g, now(), now()
+                FROM generate_series(1, ?) g
+                """, PRODUCT_KINDS.get(0), PRODUCT_KINDS.get(1), PRODUCT_KINDS.get(2), PRODUCT_KINDS.get(3),
+                PRODUCT_KINDS.get(4), PRODUCT_KINDS.get(5), PRODUCT_KINDS.get(6), PRODUCT_KINDS.get(7),
+                ROOT_CATEGORIES);
+        jdbc.update("""
+                INSERT INTO product_categories (name, slug, parent_id, sort_order, created_at, updated_at)
+                SELECT r.name || ' loại ' || c, r.slug || '-' || c, r.id, c, now(), now()
+                FROM product_categories r CROSS JOIN generate_series(1, ?) c
+                WHERE r.slug LIKE 'lt-root-%'
+                """, CHILD_CATEGORIES);
+        // Materialized path (xem CategoryPaths): gốc "/id/", con "/gốc/id/"
+        jdbc.update("UPDATE product_categories SET path = '/' || id || '/' WHERE parent_id IS NULL");
+        jdbc.update("""
+                UPDATE product_categories c SET path = p.path || c.id || '/'
+                FROM product_categories p
+                WHERE c.parent_id = p.id
+                """);
+    }
+
+    private void seedProducts() {
+        jdbc.update("""
+                WITH leaves AS (
+                    SELECT id, row_number() OVER (ORDER BY id) - 1 AS n, count(*) OVER () AS total
+                    FROM product_categories
+                    WHERE parent_id IS NOT NULL
+                )
+                INSERT INTO products (name, sku, category_id, description, base_price, stock_quantity,
+                                      unit_of_measure, attributes, hidden, created_at, updated_at)
+                SELECT (ARRAY[?, ?, ?, ?, ?, ?, ?, ?])[1 + g % 8] || ' ' || (ARRAY[?, ?, ?, ?, ?, ?])[1 + g % 6] || ' ' || g,
+                       'LT-' || g,
+                       l.id,
+                       'Sản phẩm giả lập cho load test',
+                       (50000 + floor(random() * 5000) * 1000)::numeric(19, 2),
+                       1000000,
+                       'cái',
+                       jsonb_build_object('model', 'M' || g, 'xuatXu', 'Nhật Bản'),
+                       false,
+                       now() - (random() * interval '365 days'),
+                       now()
+                FROM generate_series(1, ?) g
+                JOIN leaves l ON l.n = g % (SELECT max(total) FROM leaves)
+                """, PRODUCT_KINDS.get(0), PRODUCT_KINDS.get(1), PRODUCT_KINDS.get(2), PRODUCT_KINDS.get(3),
+                PRODUCT_KINDS.get(4), PRODUCT_KINDS.get(5), PRODUCT_KINDS.get(6), PRODUCT_KINDS.get(7),
+                BRANDS.get(0), BRANDS.get(1), BRANDS.get(2), BRANDS.get(3), BRANDS.get(4), BRANDS.get(5),
+                config.products());
+        // Bậc i (1..3) từ 10*i sản phẩm, giảm 3% mỗi bậc; bậc cuối không giới hạn trên
+        jdbc.update("""
+                INSERT INTO product_tier_prices (product_id, min_qty, max_qty, unit_price)
+                SELECT p.id, 10 * t, CASE WHEN t = p.id % 4 THEN NULL ELSE 10 * (t + 1) - 1 END,
+                       round(p.base_price * (1 - 0.03 * t))
+                FROM products p CROSS JOIN generate_series(1, 3) t
+                WHERE t <= p.id % 4
+                """);
+    }
+
+    private void seedServices() {
+        jdbc.update("""
+                INSERT INTO services (name, code, description, type, base_price, duration_minutes, status,
+                                      created_at, updated_at)
+                SELECT (ARRAY['Vệ sinh', 'Bảo dưỡng', 'Sửa chữa', 'Kiểm tra'])[1 + g % 4] || ' máy ' || g,
+                       'LT-SVC-' || g,
+                       'Dịch vụ giả lập cho load test',
+                       (ARRAY['CLEANING', 'MAINTENANCE', 'REPAIR', 'OTHER'])[1 + g % 4],
+                       (200000 + g * 50000)::numeric(19, 2),
+                       60 + 30 * (g % 3),
+                       'ACTIVE',
+                       now(), now()
+                FROM generate_series(1, ?) g
+                """, SERVICES);
+    }
+
+    private void seedUsers() {
+        // BCrypt chậm có chủ đích: băm 1 lần, mọi tài khoản giả lập dùng chung
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        jdbc.update("""
+                INSERT INTO users (email, password, full_name, phone, role, provider, status, email_verified,
+                                   created_at, updated_at)
+                SELECT format(?, g), ?, 'Khách hàng ' || g, '09' || lpad(g::text, 8, '0'),
+                       'USER', 'LOCAL', 'ACTIVE', true, now(), now()
+                FROM generate_series(1, ?) g
+                """, CUSTOMER_EMAIL_FORMAT.replace("%d", "%s"), hash, config.customers());
+        jdbc.update("""
+                INSERT INTO users (email, password, full_name, phone, role, provider, status, email_verified,
+                                   created_at, updated_at)
+                SELECT 'technician' || g || '@loadtest.local', ?, 'Kỹ thuật viên ' || g, '08' || lpad(g::text, 8, '0'),
+                       'TECHNICIAN', 'LOCAL', 'ACTIVE', true, now(), now()
+                FROM generate_series(1, ?) g
+                """, hash, TECHNICIANS);
+    }
+
+    private void seedOrders() {
+        if (config.orders() == 0) {
+            return;
+        }
+        jdbc.update("""
+                WITH customers AS (
+                    SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users WHERE email LIKE 'customer%@loadtest.local'
+                )
+                INSERT INTO orders (order_code, customer_id, total_amount, payment_method, payment_status, status,
+                                    shipping_address, contact_phone, note, created_at, updated_at, version)
+                SELECT 'ORD-' || upper(substr(md5('lt-order-' || g), 1, 8)),
+                       c.id,
+                       0,
+                       (ARRAY['COD', 'BANK_TRANSFER'])[1 + g % 2],
+                       CASE WHEN g % 10 < 8 THEN 'PAID' ELSE 'PENDING' END,
+                       CASE WHEN g % 10 < 7 THEN 'DELIVERED' WHEN g % 10 < 8 THEN 'CANCELLED' ELSE 'PENDING' END,
+                       g || ' Nguyễn Huệ, Quận 1, TP. Hồ Chí Minh',
+                       '0901234567',
+                       NULL,
+                       ts, ts, 0
+                FROM generate_series(1, ?) g
+                JOIN customers c ON c.n = g % ?
+                CROSS JOIN LATERAL (SELECT now() - random() * interval '365 days' AS ts) t
+                """, config.orders(), config.customers());
+        // Mã đơn đã cấp (checkout giữ chỗ mã mới qua order_code_keys)
+        jdbc.update("""
+                INSERT INTO order_code_keys (order_code, created_at)
+                SELECT order_code, min(created_at) FROM orders GROUP BY order_code
+                ON CONFLICT DO NOTHING
+                """);
+        jdbc.update("""
+                WITH product_count AS (SELECT min(id) AS first, count(*) AS total FROM products)
+                INSERT INTO order_items (order_id, item_type, product_id, quantity, unit_price, line_total, created_at)
+                SELECT o.id, 'PRODUCT', p.id, q, p.base_price, p.base_price * q, o.created_at
+                FROM orders o
+                CROSS JOIN product_count pc
+                CROSS JOIN LATERAL generate_series(1, 1 + (o.id % 4)::int) i
+                CROSS JOIN LATERAL (SELECT 1 + floor(random() * 5)::int AS q) qty
+                JOIN products p ON p.id = pc.first + (o.id * 7 + i * 13) % pc.total
+                """);
+        jdbc.update("""
+                UPDATE orders o SET total_amount = s.total
+                FROM (SELECT order_id, sum(line_total) AS total FROM order_items GROUP BY order_id) s
+                WHERE o.id = s.order_id
+                """);
+    }
+
+    private void seedBookings() {
+        if (config.bookings() == 0) {
+            return;
+        }
+        // Booking đã hoàn thành / đã hủy (có kỹ thuật viên, không vướng exclusion constraint)
+        // và booking PENDING chưa gán trong 14 ngày tới
+        jdbc.update("""
+                WITH customers AS (
+                    SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users WHERE role = 'USER'
+                ),
+                technicians AS (
+                    SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users WHERE role = 'TECHNICIAN'
+                ),
+                svc AS (
+                    SELECT id, base_price, duration_minutes, row_number() OVER (ORDER BY id) - 1 AS n FROM services
+                )
+                INSERT INTO bookings (customer_id, service_id, technician_id, scheduled_at, ends_at, status,
+                                      address_line, contact_phone, price_at_booking, payment_method, payment_status,
+                                      created_at, updated_at, version)
+                SELECT c.id, s.id,
+                       CASE WHEN future THEN NULL ELSE t.id END,
+                       start, start + make_interval(mins => s.duration_minutes),
+                       CASE WHEN future THEN 'PENDING' WHEN g % 10 = 0 THEN 'CANCELLED' ELSE 'COMPLETED' END,
+                       g || ' Lê Lợi, Quận ' || (1 + g % 12) || ', TP. Hồ Chí Minh',
+                       '0912345678',
+                       s.base_price,
+                       'COD',
+                       CASE WHEN future THEN 'PENDING' ELSE 'PAID' END,
+                       start - interval '2 days', start - interval '2 days', 0
+                FROM generate_series(1, ?) g
+                JOIN customers c ON c.n = g % (SELECT count(*) FROM customers)
+                JOIN technicians t ON t.n = g % (SELECT count(*) FROM technicians)
+                JOIN svc s ON s.n = g % (SELECT count(*) FROM svc)
+                CROSS JOIN LATERAL (SELECT g % 5 = 0 AS future) f
+                CROSS JOIN LATERAL (
+                    SELECT date_trunc('hour', CASE WHEN future
+                                                   THEN now() + random() * interval '14 days'
+                                                   ELSE now() - random() * interval '365 days' END) AS start
+                ) st
+                """, config.bookings());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mecha.loadtest;
+
+import com.example.mecha.metrics.MechaMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Số liệu phía server trong lúc đo: chế độ thread thực sự được bật (--threads=virtual trên Java 17 vẫn chạy platform),
+ * số lần virtual thread bị ghim, và thời gian chờ permit của datasource-limiter (0 nếu limiter tắt).
+ * Counter / timer là lũy kế: lấy hiệu 2 lần chụp để bỏ phần warmup; max là cửa sổ gần nhất của Micrometer.
+ */
+record ServerStats(
+        boolean virtualThreads,
+        double pinnedEvents,
+        long limiterAcquired,
+        long limiterRejected,
+        double limiterWaitTotalMillis,
+        double limiterWaitMaxMillis
+) {
+
+    static ServerStats capture(ConfigurableApplicationContext context) {
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        Counter pinned = registry.find(MechaMetrics.VIRTUAL_THREAD_PINNED).counter();
+        Timer acquired = limiterTimer(registry, MechaMetrics.OUTCOME_SUCCESS);
+        Timer rejected = limiterTimer(registry, MechaMetrics.OUTCOME_ERROR);
+        return new ServerStats(
+                Threading.VIRTUAL.isActive(context.getEnvironment()),
+                pinned == null ? 0 : pinned.count(),
+                acquired == null ? 0 : acquired.count(),
+                rejected == null ? 0 : rejected.count(),
+                acquired == null ? 0 : acquired.totalTime(TimeUnit.MILLISECONDS),
+                acquired == null ? 0 : acquired.max(TimeUnit.MILLISECONDS)
+        );
+    }
+
+    private static Timer limiterTimer(MeterRegistry registry, String outcome) {
+        return registry.find(MechaMetrics.DB_LIMITER_ACQUIRE).tag(MechaMetrics.TAG_OUTCOME, outcome).timer();
+    }
+
+    ServerStats since(ServerStats start) {
+        return new ServerStats(
+                virtualThreads,
+                pinnedEvents - start.pinnedEvents,
+                limiterAcquired - start.limiterAcquired,
+                limiterRejected - start.limiterRejected,
+                limiterWaitTotalMillis - start.limiterWaitTotalMillis,
+                limiterWaitMaxMillis
+        );
+    }
+
+    double limiterWaitMeanMillis() {
+        return limiterAcquired == 0 ? 0 : limiterWaitTotalMillis / limiterAcquired;
+    }
+}
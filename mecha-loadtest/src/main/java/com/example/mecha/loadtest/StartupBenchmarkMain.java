@@ -0,0 +1,376 @@
+package com.example.mecha.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipFile;
+
+/**
+ * Đo thời gian khởi động của mecha-backend theo từng chế độ đóng gói. Mỗi lần đo là 1 process mới,
+ * time-to-first-request = từ lúc chạy lệnh java tới khi GET /api/products trả 200.
+ *
+ *  --jar=../mecha-backend/target/mecha-backend-0.0.1-SNAPSHOT-exec.jar
+ *                       jar chạy được; build bằng mvn -Pfast-start package thì có thêm mode aot / aot-cds
+ *  --modes=default,lazy,cds,aot,aot-cds
+ *  --runs=5             số lần đo mỗi mode
+ *  --timeout=180        số giây chờ tối đa mỗi lần khởi động
+ *  --work-dir=target/startup-benchmark   jar giải nén, archive CDS, log từng lần chạy
+ *  --jdbc-url=...       dùng Postgres có sẵn thay cho Postgres nhúng (--jdbc-username, --jdbc-password)
+ *  --report=target/startup-report.json
+ *
+ * Các bước:
+ *  1. giải nén jar bằng -Djarmode=tools extract: AppCDS chỉ nạp class từ file jar thường, không từ nested jar
+ *  2. 1 lần chạy không tính để Flyway migrate database rỗng
+ *  3. mode cds / aot-cds: training run với -XX:ArchiveClassesAtExit và -Dspring.context.exit=onRefresh
+ *     (dừng ngay sau khi refresh context) tạo archive .jsa; AOT nạp class khác nên mỗi mode 1 archive
+ *  4. đo từng mode, in min / median / max kèm thời gian các giai đoạn do app tự báo (StartupPhaseReport)
+ *
+ * Chạy production theo mode aot-cds (archive tạo bằng training run trong bước build image):
+ *   java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app/mecha-backend-...-exec.jar
+ */
+public final class StartupBenchmarkMain {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmarkMain.class);
+
+    private static final String AOT_INITIALIZER = "com/example/mecha/MechaBackendApplication__ApplicationContextInitializer.class";
+    private static final Pattern PHASE_REPORT = Pattern.compile("StartupPhaseReport\\s+: Startup ([0-9.]+)s: (.*)$");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+    private static final Duration REPORT_WAIT = Duration.ofSeconds(10);
+
+    enum Mode {
+        DEFAULT(false, false, false),
+        LAZY(true, false, false),
+        CDS(true, false, true),
+        AOT(true, true, false),
+        AOT_CDS(true, true, true);
+
+        final boolean lazy;
+        final boolean aot;
+        final boolean cds;
+
+        Mode(boolean lazy, boolean aot, boolean cds) {
+            this.lazy = lazy;
+            this.aot = aot;
+            this.cds = cds;
+        }
+
+        String id() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        static Mode of(String id) {
+            return valueOf(id.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    record Run(long firstRequestMillis, double reportedSeconds, String phases) {
+    }
+
+    private final Path workDir;
+    private final Path appJar;
+    private final Path config;
+    private final List<String> datasourceArgs;
+    private final Duration timeout;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmarkMain(Path workDir, Path appJar, Path config, List<String> datasourceArgs, Duration timeout) {
+        this.workDir = workDir;
+        this.appJar = appJar;
+        this.config = config;
+        this.datasourceArgs = datasourceArgs;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = parse(args);
+        Path jar = Path.of(required(values, "jar")).toAbsolutePath();
+        Path workDir = Path.of(values.getOrDefault("work-dir", "target/startup-benchmark")).toAbsolutePath();
+        int runs = Integer.parseInt(values.getOrDefault("runs", "5"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(values.getOrDefault("timeout", "180")));
+        List<Mode> modes = new ArrayList<>();
+        for (String id : values.getOrDefault("modes", "default,lazy,cds,aot,aot-cds").split(",")) {
+            modes.add(Mode.of(id));
+        }
+        if (runs < 1 || modes.isEmpty()) {
+            throw new IllegalArgumentException("runs >= 1 và ít nhất 1 mode");
+        }
+
+        EmbeddedPostgres embedded = null;
+        String jdbcUrl = values.get("jdbc-url");
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+            log.info("Embedded Postgres started at {}", jdbcUrl);
+        }
+        List<String> datasourceArgs = List.of(
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + values.getOrDefault("jdbc-username", "postgres"),
+                "--spring.datasource.password=" + values.getOrDefault("jdbc-password", ""));
+
+        try {
+            Files.createDirectories(workDir.resolve("logs"));
+            Path appJar = extract(jar, workDir.resolve("app"));
+            if (!hasAotInitializer(appJar) && modes.removeIf(m -> m.aot)) {
+                log.warn("{} was not built with -Pfast-start (no AOT classes): skipping aot modes", jar.getFileName());
+            }
+
+            StartupBenchmarkMain benchmark = new StartupBenchmarkMain(
+                    workDir, appJar, writeConfig(workDir), datasourceArgs, timeout);
+            benchmark.start(Mode.DEFAULT, "migrate");
+
+            Map<Mode, List<Run>> results = new LinkedHashMap<>();
+            for (Mode mode : modes) {
+                if (mode.cds) {
+                    benchmark.train(mode);
+                }
+                List<Run> modeRuns = new ArrayList<>();
+                for (int i = 1; i <= runs; i++) {
+                    Run run = benchmark.start(mode, String.valueOf(i));
+                    log.info("{} #{}: first request after {} ms", mode.id(), i, run.firstRequestMillis());
+                    modeRuns.add(run);
+                }
+                results.put(mode, modeRuns);
+            }
+
+            print(results, System.out);
+            write(results, Path.of(values.getOrDefault("report", "target/startup-report.json")));
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    /**
+     * Khởi động 1 process, chờ request đầu tiên thành công rồi tắt.
+     */
+    private Run start(Mode mode, String label) throws Exception {
+        int port = freePort();
+        Path logFile = workDir.resolve("logs").resolve(mode.id() + "-" + label + ".log");
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command(mode, false, port))
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        try {
+            long firstRequest = awaitFirstRequest(process, port, started, logFile);
+            Matcher report = awaitPhaseReport(process, logFile);
+            return new Run(firstRequest,
+                    report != null ? Double.parseDouble(report.group(1)) : Double.NaN,
+                    report != null ? report.group(2) : "");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Training run cho AppCDS: app dừng ngay sau refresh, JVM ghi các class đã nạp vào archive khi thoát.
+     */
+    private void train(Mode mode) throws Exception {
+        Path archive = archive(mode);
+        Files.deleteIfExists(archive);
+        Path logFile = workDir.resolve("logs").resolve(mode.id() + "-training.log");
+        Process process = new ProcessBuilder(command(mode, true, freePort()))
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        if (!process.waitFor(timeout.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+            throw new IllegalStateException("Training run " + mode.id() + " quá " + timeout.toSeconds() + "s, xem " + logFile);
+        }
+        if (!Files.isRegularFile(archive)) {
+            throw new IllegalStateException("Training run " + mode.id() + " không tạo được " + archive + ", xem " + logFile);
+        }
+        log.info("CDS archive for {}: {} ({} MB)", mode.id(), archive, Files.size(archive) / (1024 * 1024));
+    }
+
+    private List<String> command(Mode mode, boolean training, int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (training) {
+            command.add("-XX:ArchiveClassesAtExit=" + archive(mode));
+            command.add("-Dspring.context.exit=onRefresh");
+        } else if (mode.cds) {
+            command.add("-XX:SharedArchiveFile=" + archive(mode));
+        }
+        if (mode.aot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(appJar.toString());
+        command.add("--spring.config.additional-location=file:" + config);
+        command.add("--server.port=" + port);
+        command.add("--startup.lazy-beans.enabled=" + mode.lazy);
+        command.addAll(datasourceArgs);
+        return command;
+    }
+
+    private long awaitFirstRequest(Process process, int port, long started, Path logFile) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products?size=1"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = started + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("mecha-backend thoát với mã " + process.exitValue() + ", xem " + logFile);
+            }
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+            } catch (IOException e) {
+                // Tomcat chưa mở port
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        throw new IllegalStateException("Không có request nào thành công sau " + timeout.toSeconds() + "s, xem " + logFile);
+    }
+
+    /**
+     * Tomcat nhận request trước khi chạy xong runners, nên dòng log của StartupPhaseReport có thể đến sau.
+     */
+    private static Matcher awaitPhaseReport(Process process, Path logFile) throws Exception {
+        long deadline = System.nanoTime() + REPORT_WAIT.toNanos();
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            for (String line : Files.readAllLines(logFile, StandardCharsets.UTF_8)) {
+                Matcher m = PHASE_REPORT.matcher(line);
+                if (m.find()) {
+                    return m;
+                }
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        return null;
+    }
+
+    private Path archive(Mode mode) {
+        return workDir.resolve("mecha-backend-" + mode.id() + ".jsa");
+    }
+
+    private static Path extract(Path jar, Path destination) throws Exception {
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force", "--destination", destination.toString())
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Không giải nén được " + jar + " (cần jar build bởi spring-boot-maven-plugin)");
+        }
+        return destination.resolve(jar.getFileName());
+    }
+
+    private static boolean hasAotInitializer(Path appJar) throws IOException {
+        try (ZipFile zip = new ZipFile(appJar.toFile())) {
+            return zip.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    /**
+     * Cấu hình của profile loadtest (không cần mạng) + mail host giả: process con không có NoopMailSender.
+     */
+    private static Path writeConfig(Path workDir) throws IOException {
+        String loadtest = new ClassPathResource("application-loadtest.properties")
+                .getContentAsString(StandardCharsets.UTF_8);
+        Path config = workDir.resolve("startup-benchmark.properties");
+        Files.writeString(config, loadtest + """
+
+                spring.mail.host=localhost
+                logging.level.com.example.mecha.startup=INFO
+                """);
+        return config;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void print(Map<Mode, List<Run>> results, PrintStream out) {
+        out.printf(Locale.ROOT, "%n%-8s %5s %12s %12s %12s %12s  %s%n",
+                "mode", "runs", "ttfr min ms", "median ms", "max ms", "app ready s", "phases (median run)");
+        results.forEach((mode, runs) -> {
+            List<Run> sorted = runs.stream()
+                    .sorted((a, b) -> Long.compare(a.firstRequestMillis(), b.firstRequestMillis()))
+                    .toList();
+            Run median = sorted.get(sorted.size() / 2);
+            out.printf(Locale.ROOT, "%-8s %5d %12d %12d %12d %12.2f  %s%n",
+                    mode.id(), runs.size(), sorted.get(0).firstRequestMillis(), median.firstRequestMillis(),
+                    sorted.get(sorted.size() - 1).firstRequestMillis(), median.reportedSeconds(), median.phases());
+        });
+        out.printf(Locale.ROOT, "%njava=%s cpus=%d%n", Runtime.version(), Runtime.getRuntime().availableProcessors());
+    }
+
+    private static void write(Map<Mode, List<Run>> results, Path report) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("javaVersion", Runtime.version().toString());
+        root.put("cpus", Runtime.getRuntime().availableProcessors());
+        ObjectNode modes = root.putObject("modes");
+        results.forEach((mode, runs) -> {
+            ArrayNode node = modes.putArray(mode.id());
+            for (Run run : runs) {
+                node.addObject()
+                        .put("firstRequestMillis", run.firstRequestMillis())
+                        .put("reportedSeconds", run.reportedSeconds())
+                        .put("phases", run.phases());
+            }
+        });
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        objectMapper.writeValue(report.toFile(), root);
+        log.info("Report written to {}", report.toAbsolutePath());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Tham số không hợp lệ: " + arg + " (dạng --key=value)");
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return values;
+    }
+
+    private static String required(Map<String, String> values, String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Thiếu --" + key);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.mecha.loadtest;
+
+import com.example.mecha.metrics.ScenarioStatementFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * HTTP client gọi API thật của mecha-backend (qua Tomcat, filter, Spring Security) như frontend.
+ * Mỗi request mang header {@link ScenarioStatementFilter#SCENARIO_HEADER} để server đếm câu SQL theo kịch bản.
+ */
+final class StorefrontClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    StorefrontClient(String baseUrl, ObjectMapper objectMapper) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    String login(String email, String password) throws IOException, InterruptedException {
+        JsonNode body = send(null, "POST", "/api/auth/login", null,
+                Map.of("email", email, "password", password), Map.of());
+        return body.path("accessToken").asText();
+    }
+
+    JsonNode get(Scenario scenario, String path, String token) throws IOException, InterruptedException {
+        return send(scenario, "GET", path, token, null, Map.of());
+    }
+
+    JsonNode post(Scenario scenario, String path, String token, Object body) throws IOException, InterruptedException {
+        return send(scenario, "POST", path, token, body, Map.of());
+    }
+
+    JsonNode delete(Scenario scenario, String path, String token) throws IOException, InterruptedException {
+        return send(scenario, "DELETE", path, token, null, Map.of());
+    }
+
+    JsonNode send(Scenario scenario, String method, String path, String token, Object body,
+                  Map<String, String> headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (scenario != null) {
+            request.header(ScenarioStatementFilter.SCENARIO_HEADER, scenario.name());
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        headers.forEach(request::header);
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IOException(method + " " + path + " -> HTTP " + response.statusCode());
+        }
+        byte[] bytes = response.body();
+        return bytes.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(bytes);
+    }
+}
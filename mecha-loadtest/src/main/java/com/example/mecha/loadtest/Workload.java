@@ -0,0 +1,281 @@
+package com.example.mecha.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Phát lưu lượng storefront theo trộn kịch bản ({@link LoadTestConfig#mix()}).
+ *
+ *  - rate > 0 (open model): lượt đến đều đặn theo lịch, độ trễ tính từ thời điểm lượt đến theo lịch
+ *    (không bị coordinated omission); đã đủ {@code concurrency} lượt đang chạy thì lượt mới bị bỏ
+ *  - rate = 0 (closed model): {@code concurrency} worker, mỗi worker chạy liên tục hết kịch bản này đến kịch bản khác
+ *
+ * Mỗi lượt giữ riêng 1 phiên khách hàng nên giỏ hàng của 1 khách không bị 2 lượt sửa cùng lúc.
+ */
+final class Workload {
+
+    private static final Logger log = LoggerFactory.getLogger(Workload.class);
+
+    private static final DateTimeFormatter SEPAY_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_CART_ITEMS = 10;
+
+    record Catalog(List<Long> categoryIds, List<Long> productIds) {
+    }
+
+    record Result(Map<Scenario, ScenarioStats> stats, Duration elapsed) {
+    }
+
+    private record PendingTransfer(String orderCode, BigDecimal amount) {
+    }
+
+    private final LoadTestConfig config;
+    private final StorefrontClient client;
+    private final Catalog catalog;
+    private final String adminToken;
+    private final BlockingQueue<String> sessions;
+    private final String sepayApiKey;
+
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    // Đơn chuyển khoản đã đặt, chờ kịch bản PAYMENT_WEBHOOK báo có tiền
+    private final Queue<PendingTransfer> pendingTransfers = new ConcurrentLinkedQueue<>();
+    private final AtomicLong webhookIds = new AtomicLong(System.currentTimeMillis());
+
+    Workload(LoadTestConfig config, StorefrontClient client, Catalog catalog, String adminToken,
+             List<String> customerTokens, String sepayApiKey) {
+        this.config = config;
+        this.client = client;
+        this.catalog = catalog;
+        this.adminToken = adminToken;
+        this.sessions = new LinkedBlockingQueue<>(customerTokens);
+        this.sepayApiKey = sepayApiKey;
+
+        this.scenarios = config.mix().keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[scenarios.length];
+        int sum = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            sum += config.mix().get(scenarios[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : scenarios) {
+            stats.put(scenario, new ScenarioStats());
+        }
+
+        long started = System.nanoTime();
+        if (config.rate() > 0) {
+            runOpen(duration, stats);
+        } else {
+            runClosed(duration, stats);
+        }
+        return new Result(stats, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void runOpen(Duration duration, Map<Scenario, ScenarioStats> stats) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        Semaphore inFlight = new Semaphore(config.concurrency());
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency(), daemonThreads("load-worker"));
+        try {
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled >= deadline) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario scenario = pickScenario();
+                if (!inFlight.tryAcquire()) {
+                    stats.get(scenario).drop();
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        execute(scenario, scheduled, stats.get(scenario));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Workers still running after 1 minute, abandoning");
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void runClosed(Duration duration, Map<Scenario, ScenarioStats> stats) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency(), daemonThreads("load-worker"));
+        for (int i = 0; i < config.concurrency(); i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    Scenario scenario = pickScenario();
+                    execute(scenario, System.nanoTime(), stats.get(scenario));
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void execute(Scenario scenario, long scheduledNanos, ScenarioStats stats) {
+        try {
+            switch (scenario) {
+                case BROWSE -> browse();
+                case SEARCH -> search();
+                case CART -> withSession(this::cart);
+                case CHECKOUT -> withSession(this::checkout);
+                case PAYMENT_WEBHOOK -> paymentWebhook();
+                case ADMIN_DASHBOARD -> client.get(scenario, "/api/dashboard/stats", adminToken);
+            }
+            stats.success(System.nanoTime() - scheduledNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            stats.failure(System.nanoTime() - scheduledNanos);
+            log.debug("{} failed: {}", scenario, e.getMessage());
+        }
+    }
+
+    // ===== Kịch bản =====
+
+    private void browse() throws Exception {
+        client.get(Scenario.BROWSE, "/api/categories", null);
+        JsonNode products = client.get(Scenario.BROWSE, "/api/products?categoryId=" + random(catalog.categoryIds()), null);
+        long productId = products.size() > 0
+                ? products.get(ThreadLocalRandom.current().nextInt(products.size())).path("id").asLong()
+                : random(catalog.productIds());
+        client.get(Scenario.BROWSE, "/api/products/" + productId, null);
+    }
+
+    private void search() throws Exception {
+        List<String> keywords = ThreadLocalRandom.current().nextBoolean() ? Seeder.PRODUCT_KINDS : Seeder.BRANDS;
+        String keyword = URLEncoder.encode(random(keywords), StandardCharsets.UTF_8);
+        client.get(Scenario.SEARCH, "/api/products?keyword=" + keyword, null);
+    }
+
+    private void cart(String token) throws Exception {
+        addRandomProduct(Scenario.CART, token);
+        JsonNode cart = client.get(Scenario.CART, "/api/cart", token);
+        // Giữ giỏ ở kích thước thực tế, tránh giỏ phình mãi làm checkout chậm dần
+        if (cart.path("items").size() > MAX_CART_ITEMS) {
+            client.delete(Scenario.CART, "/api/cart/items", token);
+        }
+    }
+
+    private void checkout(String token) throws Exception {
+        int lines = 1 + ThreadLocalRandom.current().nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            addRandomProduct(Scenario.CHECKOUT, token);
+        }
+        boolean transfer = ThreadLocalRandom.current().nextBoolean();
+        JsonNode order = client.post(Scenario.CHECKOUT, "/api/orders/checkout", token, Map.of(
+                "paymentMethod", transfer ? "BANK_TRANSFER" : "COD",
+                "shippingAddress", "12 Nguyễn Huệ, Quận 1, TP. Hồ Chí Minh",
+                "contactPhone", "0901234567"
+        ));
+        if (transfer) {
+            pendingTransfers.add(new PendingTransfer(order.path("orderCode").asText(), order.path("totalAmount").decimalValue()));
+        }
+    }
+
+    private void paymentWebhook() throws Exception {
+        PendingTransfer transfer = pendingTransfers.poll();
+        long id = webhookIds.incrementAndGet();
+        // Không có đơn chờ: gửi 1 giao dịch không khớp đơn nào (vẫn đi hết luồng đối soát)
+        String content = transfer != null ? transfer.orderCode() + " thanh toan don hang" : "CK " + id + " chuyen tien";
+        BigDecimal amount = transfer != null ? transfer.amount() : BigDecimal.valueOf(100000);
+
+        client.send(Scenario.PAYMENT_WEBHOOK, "POST", "/api/payment/sepay/webhook", null, Map.of(
+                "id", id,
+                "gateway", "Vietcombank",
+                "transactionDate", LocalDateTime.now().format(SEPAY_DATE_FORMAT),
+                "accountNumber", "0123456789",
+                "content", content,
+                "transferType", "in",
+                "transferAmount", amount,
+                "referenceCode", "FT" + id
+        ), Map.of("Authorization", "Apikey " + sepayApiKey));
+    }
+
+    private void addRandomProduct(Scenario scenario, String token) throws Exception {
+        client.post(scenario, "/api/cart/items", token, Map.of(
+                "itemType", "PRODUCT",
+                "productId", random(catalog.productIds()),
+                "quantity", 1 + ThreadLocalRandom.current().nextInt(3)
+        ));
+    }
+
+    // ===== Tiện ích =====
+
+    private interface SessionTask {
+        void run(String token) throws Exception;
+    }
+
+    private void withSession(SessionTask task) throws Exception {
+        String token = sessions.take();
+        try {
+            task.run(token);
+        } finally {
+            sessions.add(token);
+        }
+    }
+
+    private Scenario pickScenario() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private static <T> T random(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
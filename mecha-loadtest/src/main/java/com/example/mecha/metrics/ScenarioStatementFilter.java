@@ -0,0 +1,59 @@
+package com.example.mecha.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chỉ dùng cho load test: cộng số câu SQL Hibernate ({@link StatementCountInspector}) và số request
+ * theo kịch bản trong header X-Load-Scenario. Chạy ngay bên trong {@link StatementCountFilter}
+ * (bộ đếm đã được mở) nên thấy đủ câu SQL của cả request.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ScenarioStatementFilter extends OncePerRequestFilter {
+
+    public static final String SCENARIO_HEADER = "X-Load-Scenario";
+
+    public record Counts(long requests, long statements) {
+    }
+
+    private final Map<String, LongAdder[]> counters = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        String scenario = request.getHeader(SCENARIO_HEADER);
+        if (scenario == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LongAdder[] c = counters.computeIfAbsent(scenario, k -> new LongAdder[]{new LongAdder(), new LongAdder()});
+            c[0].increment();
+            c[1].add(StatementCountInspector.current());
+        }
+    }
+
+    public Counts counts(String scenario) {
+        LongAdder[] c = counters.get(scenario);
+        return c == null ? new Counts(0, 0) : new Counts(c[0].sum(), c[1].sum());
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+}